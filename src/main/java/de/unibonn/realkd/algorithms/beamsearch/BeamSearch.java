@@ -79,6 +79,11 @@ import de.unibonn.realkd.util.Predicates;
  * <li>a rule of how to retrieve the logical descriptor from the pattern (also
  * passed through the constructor by a function).</li>
  * 
+ * <li>an optional fingerprint of descriptors such that of all descriptors of a
+ * level with equal fingerprints (e.g., equal support sets) only the first one
+ * is converted into a pattern (also passed through the constructor by a
+ * function).</li>
+ * 
  * <li>a filter that is applied to the available proposition set prior to the
  * actual beam-search as a pre-processing step (by
  * {@link #setPropositionFilter(PropositionFilter)}</li>
@@ -110,7 +115,7 @@ import de.unibonn.realkd.util.Predicates;
  * 
  * @since 0.1.0
  * 
- * @version 0.3.0
+ * @version 0.7.2
  * 
  */
 public final class BeamSearch extends AbstractMiningAlgorithm<Pattern<?>> {
@@ -133,6 +138,8 @@ public final class BeamSearch extends AbstractMiningAlgorithm<Pattern<?>> {
 
 	private final Function<Pattern<?>, LogicalDescriptor> toDescriptor;
 
+	private final Function<? super LogicalDescriptor, ?> fingerprint;
+
 	private PatternCollectionProcessor postProcessor;
 
 	private PatternCollectionProcessor nodesForNextLevelSelector;
@@ -151,8 +158,15 @@ public final class BeamSearch extends AbstractMiningAlgorithm<Pattern<?>> {
 
 	public BeamSearch(Workspace workspace, Function<LogicalDescriptor, ? extends Pattern<?>> descriptorToPattern,
 			Function<Pattern<?>, LogicalDescriptor> patternToDescriptor) {
+		this(workspace, descriptorToPattern, patternToDescriptor, d -> d);
+	}
+
+	public BeamSearch(Workspace workspace, Function<LogicalDescriptor, ? extends Pattern<?>> descriptorToPattern,
+			Function<Pattern<?>, LogicalDescriptor> patternToDescriptor,
+			Function<? super LogicalDescriptor, ?> fingerprint) {
 		this.toPattern = descriptorToPattern;
 		this.toDescriptor = patternToDescriptor;
+		this.fingerprint = fingerprint;
 		this.postProcessor = PatternCollectionProcessor.NO_PROCESSOR;
 		this.nodesForNextLevelSelector = new DefaultBeamSearchNodesForExpansionSelector();
 		this.propositionalLogicParameter = new FreePropositionalLogicParameter(workspace);
@@ -317,6 +331,8 @@ public final class BeamSearch extends AbstractMiningAlgorithm<Pattern<?>> {
 
 		Set<LogicalDescriptor> nextLevelLogicalDescriptors = new HashSet<>();
 
+		Set<Object> nextLevelFingerprints = new HashSet<>();
+
 		for (Pattern<?> uncastPreviousPattern : previousLevel) {
 			Pattern<?> previousPattern = uncastPreviousPattern;
 			for (Proposition augmentation : this.propositions) {
@@ -346,6 +362,10 @@ public final class BeamSearch extends AbstractMiningAlgorithm<Pattern<?>> {
 					continue;
 				}
 
+				if (!nextLevelFingerprints.add(fingerprint.apply(specialization))) {
+					continue;
+				}
+
 				nextLevelLogicalDescriptors.add(specialization);
 
 			}
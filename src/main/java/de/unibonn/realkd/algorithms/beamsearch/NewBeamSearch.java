@@ -30,16 +30,24 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import com.google.common.collect.ImmutableList;
 
@@ -55,6 +63,18 @@ import de.unibonn.realkd.patterns.Pattern;
  * nodes in the beam with a redundant refinement operator. An optimistic
  * estimator can prune elements of the beam.
  * </p>
+ * <p>
+ * Each level is processed in stages: all beam elements are refined, the
+ * refinements are deduplicated by a fingerprint of their content (keeping
+ * the first occurrence in beam order), the remaining candidates are evaluated,
+ * and finally the beam width best
+ * candidates with potential above the current k-th best value form the next
+ * beam. With more than one thread, refinement, evaluation, and potential
+ * computation are distributed over a fork-join pool, and the next beam is
+ * selected by merging bounded per-worker queues. Ties are broken in favour of
+ * candidates that occur first, hence the result does not depend on the number
+ * of threads.
+ * </p>
  * 
  * @param R the result type
  * 
@@ -62,6 +82,8 @@ import de.unibonn.realkd.patterns.Pattern;
  *
  *
  * @author Panagiotis Mandros
+ * 
+ * @version 0.7.2
  *
  */
 public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
@@ -164,6 +186,14 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 
 	private final RefinementPropagation refProp;
 
+	private final int numberOfThreads;
+
+	/*
+	 * refinements with equal fingerprints are considered redundant; only the
+	 * first one of a level is evaluated
+	 */
+	private final Function<? super N, ?> fingerprint;
+
 	private PriorityQueue<BeamNode<N>> best;
 
 	private int nodesCreated = 1;
@@ -185,6 +215,30 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 	public NewBeamSearch(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
 			N root, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
 			int beamWidth, Optional<Integer> depthLimit, RefinementPropagation refProp) {
+		this(toPattern, active, root, f, oests, numberOfResults, beamWidth, depthLimit, refProp, 1);
+	}
+
+	public NewBeamSearch(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
+			N root, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
+			int beamWidth, Optional<Integer> depthLimit, RefinementPropagation refProp, int numberOfThreads) {
+		this(toPattern, active, root, f, oests, numberOfResults, beamWidth, depthLimit, refProp, numberOfThreads,
+				n -> n);
+	}
+
+	/**
+	 * @param fingerprint
+	 *            key of search nodes such that nodes with equal keys are
+	 *            redundant (e.g., the support set of a descriptor); of each
+	 *            group of refinements with equal keys on a level only the
+	 *            first one is evaluated
+	 */
+	public NewBeamSearch(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
+			N root, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
+			int beamWidth, Optional<Integer> depthLimit, RefinementPropagation refProp, int numberOfThreads,
+			Function<? super N, ?> fingerprint) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be positive");
+		}
 		this.f = f;
 		this.oests = oests;
 		this.boundary = new LinkedHashSet<>();
@@ -194,6 +248,8 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 		this.beamWidth = beamWidth;
 		this.refProp = refProp;
 		this.depthLimit = depthLimit;
+		this.numberOfThreads = numberOfThreads;
+		this.fingerprint = fingerprint;
 		this.nodesDiscardedPotentials = new int[oests.size()];
 
 		// initialize search
@@ -211,6 +267,23 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 	public NewBeamSearch(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
 			List<N> roots, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
 			int beamWidth, Optional<Integer> depthLimit, RefinementPropagation refProp) {
+		this(toPattern, active, roots, f, oests, numberOfResults, beamWidth, depthLimit, refProp, 1);
+	}
+
+	public NewBeamSearch(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
+			List<N> roots, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
+			int beamWidth, Optional<Integer> depthLimit, RefinementPropagation refProp, int numberOfThreads) {
+		this(toPattern, active, roots, f, oests, numberOfResults, beamWidth, depthLimit, refProp, numberOfThreads,
+				n -> n);
+	}
+
+	public NewBeamSearch(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
+			List<N> roots, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
+			int beamWidth, Optional<Integer> depthLimit, RefinementPropagation refProp, int numberOfThreads,
+			Function<? super N, ?> fingerprint) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be positive");
+		}
 		this.f = f;
 		this.oests = oests;
 		this.boundary = new LinkedHashSet<>();
@@ -220,6 +293,8 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 		this.beamWidth = beamWidth;
 		this.refProp = refProp;
 		this.depthLimit = depthLimit;
+		this.numberOfThreads = numberOfThreads;
+		this.fingerprint = fingerprint;
 		this.nodesDiscardedPotentials = new int[oests.size()];
 
 		// for every root node
@@ -294,71 +369,146 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 
 	@Override
 	protected Collection<R> concreteCall() {
-		while (!stopRequested() && !boundary.isEmpty()) {
-			Set<BeamNode<N>> refinements = new LinkedHashSet<>();
-			for (BeamNode<N> nodeToExpand : boundary) {
-				// active operators
-				Set<Function<? super N, ? extends N>> active = nodeToExpand.active;
-
-				// iterator of active
-				Iterator<Function<? super N, ? extends N>> iter = active.iterator();
-
-				Set<BeamNode<N>> newRefinements = new LinkedHashSet<>();
-				while (iter.hasNext()) {
-					Function<? super N, ? extends N> ref = iter.next();
-					newRefinements.add(beamNode(ref.apply(nodeToExpand.content), ref, active, nodeToExpand.depth + 1));
-
-					if (refProp.remove()) {
-						iter.remove();
-					}
-				}
-
-				nodesCreated += newRefinements.size();
-
-				// updateResults
-				newRefinements.forEach(n -> n.value = f.applyAsDouble(n.content));
-				newRefinements.forEach(this::updateResults);
-				refinements.addAll(newRefinements);
-				filterBasedOnPotential(refinements);
+		ForkJoinPool pool = numberOfThreads > 1 ? new ForkJoinPool(numberOfThreads) : null;
+		try {
+			while (!stopRequested() && !boundary.isEmpty()) {
+				expandLevel(pool);
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
 			}
+		}
 
-			// log
-			if ((nodesCreated - refinements.size()) / 10000 < nodesCreated / 10000) {
-				logStats();
+		// logStats();
+		List<BeamNode<N>> resultNodes = new ArrayList<>(best);
+		sort(resultNodes, (n, m) -> Double.compare(m.value, n.value));
+		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
+		return result;
+	}
+
+	private void expandLevel(ForkJoinPool pool) {
+		List<BeamNode<N>> nodesToExpand = new ArrayList<>(boundary);
+		List<List<BeamNode<N>>> refinementsPerNode = inPool(pool,
+				() -> stream(nodesToExpand, pool).map(this::refinements).collect(toList()));
+
+		// deduplicate by fingerprint before evaluation; first occurrence in beam
+		// order wins
+		List<BeamNode<N>> allRefinements = new ArrayList<>();
+		refinementsPerNode.forEach(allRefinements::addAll);
+		int numberOfRefinements = allRefinements.size();
+		nodesCreated += numberOfRefinements;
+		List<Object> keys = inPool(pool,
+				() -> stream(allRefinements, pool).map(n -> fingerprint.apply(n.content)).collect(toList()));
+		Map<Object, BeamNode<N>> refinements = new LinkedHashMap<>();
+		for (int i = 0; i < numberOfRefinements; i++) {
+			refinements.putIfAbsent(keys.get(i), allRefinements.get(i));
+		}
+		List<BeamNode<N>> candidates = new ArrayList<>(refinements.values());
+
+		// evaluate
+		inPool(pool, () -> {
+			stream(candidates, pool).forEach(n -> n.value = f.applyAsDouble(n.content));
+			return null;
+		});
+		candidates.forEach(this::updateResults);
+
+		// compute potentials against k-th best value after evaluation of level
+		double threshold = best.peek().value;
+		int[] discardedBy = inPool(pool, () -> indices(candidates.size(), pool)
+				.map(i -> discardingEstimator(candidates.get(i), threshold)).toArray());
+		List<Integer> withPotential = new ArrayList<>(candidates.size());
+		for (int i = 0; i < candidates.size(); i++) {
+			if (discardedBy[i] < 0) {
+				withPotential.add(i);
+			} else {
+				nodesDiscardedPotentials[discardedBy[i]]++;
+				nodesDiscardedPotential++;
 			}
+		}
+
+		// log
+		if ((nodesCreated - numberOfRefinements) / 10000 < nodesCreated / 10000) {
+			logStats();
+		}
+
+		boundary.clear();
+		if (!withPotential.isEmpty()) {
+			maxDepth++;
+		}
 
-			boundary.clear();
-			if (!refinements.isEmpty()) {
-				maxDepth++;
+		// prune based on rules
+		// filterBasedOnAdditionalPruningRules(refinements);
+
+		// prune and update boundary
+		if (!depthLimit.isPresent() || depthLimit.get() > maxDepth) {
+			// candidate indices in increasing order of preference
+			Comparator<Integer> order = (i, j) -> {
+				int byValue = Double.compare(candidates.get(i).value, candidates.get(j).value);
+				return byValue != 0 ? byValue : Integer.compare(j, i);
+			};
+			// get only the BEAMWIDTH best elements from per-worker queues
+			List<Integer> selected = new ArrayList<>(inPool(pool,
+					() -> stream(withPotential, pool).collect(
+							() -> new LimitedPriorityQueue<Integer>(beamWidth + 1, order, beamWidth),
+							LimitedPriorityQueue::add, LimitedPriorityQueue::addAll)));
+			selected.sort(order.reversed());
+
+			// update boundary
+			for (int i : selected) {
+				boundary.add(candidates.get(i));
 			}
 
-			// prune based on rules
-			// filterBasedOnAdditionalPruningRules(refinements);
+			trackBoundarySize();
+		}
+	}
 
-			// prune and update boundary
-			if (!depthLimit.isPresent() || depthLimit.get() > maxDepth) {
-				// prune
+	private List<BeamNode<N>> refinements(BeamNode<N> nodeToExpand) {
+		// active operators
+		Set<Function<? super N, ? extends N>> active = nodeToExpand.active;
 
-				List<BeamNode<N>> refinementsToList = new ArrayList<>(refinements);
-				// sort and get only the BEAMWIDTH best elements
-				refinementsToList.sort((n, m) -> Double.compare(m.value, n.value));
-				int sublistBoundary = (beamWidth > refinementsToList.size() ? refinementsToList.size() : beamWidth);
-				refinementsToList = refinementsToList.subList(0, sublistBoundary);
+		// iterator of active
+		Iterator<Function<? super N, ? extends N>> iter = active.iterator();
 
-				// update boundary
-				for (BeamNode<N> node : refinementsToList) {
-					boundary.add(node);
-				}
+		Set<BeamNode<N>> newRefinements = new LinkedHashSet<>();
+		while (iter.hasNext()) {
+			Function<? super N, ? extends N> ref = iter.next();
+			newRefinements.add(beamNode(ref.apply(nodeToExpand.content), ref, active, nodeToExpand.depth + 1));
 
-				trackBoundarySize();
+			if (refProp.remove()) {
+				iter.remove();
 			}
 		}
+		return new ArrayList<>(newRefinements);
+	}
 
-		// logStats();
-		List<BeamNode<N>> resultNodes = new ArrayList<>(best);
-		sort(resultNodes, (n, m) -> Double.compare(m.value, n.value));
-		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
-		return result;
+	private static <T> Stream<T> stream(List<T> list, ForkJoinPool pool) {
+		return pool != null ? list.parallelStream() : list.stream();
+	}
+
+	private static IntStream indices(int size, ForkJoinPool pool) {
+		return pool != null ? IntStream.range(0, size).parallel() : IntStream.range(0, size);
+	}
+
+	/**
+	 * Runs a task such that parallel streams created by it are executed in the
+	 * given pool (or directly in the calling thread if no pool is given).
+	 */
+	private static <T> T inPool(ForkJoinPool pool, Supplier<T> task) {
+		if (pool == null) {
+			return task.get();
+		}
+		try {
+			return pool.submit(task::get).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
 	}
 
 	// private void filterBasedOnAdditionalPruningRules(List<BeamNode<N>>
@@ -382,33 +532,21 @@ public class NewBeamSearch<R extends Pattern<?>, N> extends AbstractMiningAlgori
 		}
 	}
 
-	private void filterBasedOnPotential(Set<BeamNode<N>> newNodes) {
-
-		Iterator<BeamNode<N>> iter = newNodes.iterator();
-
-		while (iter.hasNext()) {
-			BeamNode<N> node = iter.next();
-			boolean hasPotential = hasPotential(node);
-			if (!hasPotential) {
-				iter.remove();
-			}
-		}
-
-	}
-
-	private boolean hasPotential(BeamNode<N> candidate) {
+	/**
+	 * @return index of the first optimistic estimator that bounds the value of
+	 *         candidate by the threshold or -1 if there is none
+	 */
+	private int discardingEstimator(BeamNode<N> candidate, double threshold) {
 		candidate.potential = Double.MAX_VALUE;
 		int index = 0;
 		for (ToDoubleFunction<? super N> oest : oests) {
 			candidate.potential = min(candidate.potential, oest.applyAsDouble(candidate.content));
-			if (candidate.potential <= best.peek().value) {
-				nodesDiscardedPotentials[index]++;
-				nodesDiscardedPotential++;
-				return false;
+			if (candidate.potential <= threshold) {
+				return index;
 			}
 			index++;
 		}
-		return true;
+		return -1;
 	}
 
 	@Override
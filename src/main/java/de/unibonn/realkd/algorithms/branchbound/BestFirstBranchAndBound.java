@@ -24,16 +24,22 @@
  */
 package de.unibonn.realkd.algorithms.branchbound;
 
-import static de.unibonn.realkd.util.Comparison.flippedCompareNanLast;
-import static de.unibonn.realkd.util.Comparison.greaterThanOrSecondNaN;
 import static java.util.Collections.sort;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.ToDoubleFunction;
 import java.util.logging.Logger;
@@ -51,6 +57,25 @@ import de.unibonn.realkd.util.Comparison;
  * search node and then successively refines nodes by a provided refinement
  * operator.
  * </p>
+ * <p>
+ * Patterns of equal value are ordered in the result queue by the position of
+ * their node in the search tree (the sequence of indices of refinements from
+ * the root). Sequential search prunes all nodes with a potential not greater
+ * than the (approximation-adjusted) value of the worst result in the queue.
+ * </p>
+ * <p>
+ * With more than one thread, each worker expands nodes from its own boundary
+ * queue and steals the node of highest potential from other workers when its
+ * own queue runs empty. The current k-th best value is shared between workers
+ * and used for pruning as soon as it is updated. Since the order of expansion
+ * depends on scheduling, parallel search only prunes nodes with a potential
+ * strictly less than the k-th best value (and nothing before k results have
+ * been found). Hence, for an exact search (approximation factor 1), parallel
+ * search returns the top k of all nodes w.r.t. value and tree position,
+ * independent of the number of threads and of scheduling. Its result values
+ * are the same as the ones of sequential search, but among results of equal
+ * value it can select different patterns, and it can create more nodes.
+ * </p>
  * 
  * @param R
  *            the result type
@@ -64,7 +89,7 @@ import de.unibonn.realkd.util.Comparison;
  * 
  * @since 0.4.0
  * 
- * @version 0.4.1
+ * @version 0.7.2
  *
  */
 public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
@@ -80,13 +105,19 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 
 		public final double value;
 
+		/*
+		 * indices of refinements on the path from the root; depth is path length
+		 */
+		public final int[] path;
+
 		public final int depth;
 
-		public EvaluatedNode(N content, double potential, double value, int depth) {
+		public EvaluatedNode(N content, double potential, double value, int[] path) {
 			this.content = content;
 			this.potential = potential;
 			this.value = value;
-			this.depth = depth;
+			this.path = path;
+			this.depth = path.length;
 		}
 
 		@Override
@@ -96,13 +127,36 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 			 * a.k.a priority element in the queue will be the one with the best potential.
 			 * This is used for the boundary queue. For the best result queue its different
 			 */
-			return Double.compare(o.potential, this.potential);
+			int result = Double.compare(o.potential, this.potential);
+			return result != 0 ? result : comparePaths(this.path, o.path);
 		}
 
 	}
 
-	private static <N> EvaluatedNode<N> evaluatedNode(N content, double potential, double value, int depth) {
-		return new EvaluatedNode<N>(content, potential, value, depth);
+	/**
+	 * Lexicographic order of paths from the root (a prefix is smaller).
+	 */
+	private static int comparePaths(int[] path1, int[] path2) {
+		int length = Math.min(path1.length, path2.length);
+		for (int i = 0; i < length; i++) {
+			if (path1[i] != path2[i]) {
+				return Integer.compare(path1[i], path2[i]);
+			}
+		}
+		return Integer.compare(path1.length, path2.length);
+	}
+
+	/*
+	 * order of result quality: by value (NaN smallest), then earlier position in
+	 * search tree is better; the result queue is a min-queue w.r.t. this order
+	 */
+	private static final Comparator<EvaluatedNode<?>> RESULT_ORDER = (n, m) -> {
+		int result = Comparison.compareNanSmallest(n.value, m.value);
+		return result != 0 ? result : comparePaths(m.path, n.path);
+	};
+
+	private static <N> EvaluatedNode<N> evaluatedNode(N content, double potential, double value, int[] path) {
+		return new EvaluatedNode<N>(content, potential, value, path);
 	}
 
 	private final Function<? super N, ? extends Collection<? extends N>> succ;
@@ -123,15 +177,35 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 
 	private final Optional<Integer> depthLimit;
 
+	private final int numberOfThreads;
+
 	private PriorityQueue<EvaluatedNode<N>> best;
 
-	private int nodesCreated = 1;
+	/*
+	 * value of the k-th best result; published separately from the result queue
+	 * so that workers can prune without acquiring the result lock
+	 */
+	private volatile double threshold;
 
-	private int nodesDiscarded = 0;
+	private final AtomicInteger nodesCreated = new AtomicInteger(1);
 
-	private int maxDepth = 0;
+	private final AtomicInteger nodesDiscarded = new AtomicInteger(0);
 
-	private int maxBoundarySize = 1;
+	private final AtomicInteger maxDepth = new AtomicInteger(0);
+
+	private final AtomicInteger maxBoundarySize = new AtomicInteger(1);
+
+	// number of nodes in worker queues during parallel search
+	private final AtomicInteger workerBoundarySize = new AtomicInteger(0);
+
+	// set when a worker terminated exceptionally to stop the remaining workers
+	private volatile boolean workerFailed = false;
+
+	/*
+	 * incremented (while holding the monitor of the pending counter) whenever
+	 * nodes are queued or the search is finished; idle workers wait for a change
+	 */
+	private long workVersion = 0;
 
 	// depth of the first encounter of the best solution
 	private int solutionDepth = 0;
@@ -142,6 +216,16 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 	public BestFirstBranchAndBound(Function<? super N, ? extends R> toPattern,
 			Function<? super N, ? extends Collection<? extends N>> succ, N root, ToDoubleFunction<? super N> f,
 			ToDoubleFunction<? super N> oest, int numberOfResults, double alpha, Optional<Integer> depthLimit) {
+		this(toPattern, succ, root, f, oest, numberOfResults, alpha, depthLimit, 1);
+	}
+
+	public BestFirstBranchAndBound(Function<? super N, ? extends R> toPattern,
+			Function<? super N, ? extends Collection<? extends N>> succ, N root, ToDoubleFunction<? super N> f,
+			ToDoubleFunction<? super N> oest, int numberOfResults, double alpha, Optional<Integer> depthLimit,
+			int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be positive");
+		}
 		this.succ = succ;
 		this.f = f;
 		this.oest = oest;
@@ -150,15 +234,18 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 		this.numberOfResults = numberOfResults;
 		this.alpha = alpha;
 		this.depthLimit = depthLimit;
+		this.numberOfThreads = numberOfThreads;
 
 		// initialize search
-		EvaluatedNode<N> evaluatedRoot = evaluatedNode(root, oest.applyAsDouble(root), f.applyAsDouble(root), 0);
+		EvaluatedNode<N> evaluatedRoot = evaluatedNode(root, oest.applyAsDouble(root), f.applyAsDouble(root),
+				new int[0]);
 		/*
 		 * priority element in the queue will be the one with the smallest value
 		 */
 		// best = new PriorityQueue<>((n, m) -> Double.compare(n.value, m.value));
-		best = new PriorityQueue<>((n, m) -> Comparison.compareNanSmallest(n.value, m.value));
+		best = new PriorityQueue<>(RESULT_ORDER);
 		best.add(evaluatedRoot);
+		threshold = currentThreshold();
 		bestSolution = evaluatedRoot;
 		boundary.add(evaluatedRoot);
 
@@ -172,7 +259,8 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 
 	private void updateResults(EvaluatedNode<N> candidate) {
 		// update tracked metrics; no effect on result
-		if (greaterThanOrSecondNaN(candidate.value, bestSolution.value)) {
+		maxDepth.accumulateAndGet(candidate.depth, Math::max);
+		if (RESULT_ORDER.compare(candidate, bestSolution) > 0) {
 			bestSolution = candidate;
 			solutionDepth = candidate.depth;
 			LOGGER.info("Best solution updated: " + bestSolution.content + "; value " + candidate.value);
@@ -180,27 +268,60 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 
 		if (best.size() < numberOfResults) {
 			best.add(candidate);
-		} else if (greaterThanOrSecondNaN(candidate.value, best.peek().value) && (best.size() == numberOfResults)) {
+		} else if (RESULT_ORDER.compare(candidate, best.peek()) > 0 && (best.size() == numberOfResults)) {
 			best.poll();
 			best.add(candidate);
 		}
+		threshold = currentThreshold();
+	}
+
+	/**
+	 * @return value of the worst result in the queue; for parallel search
+	 *         negative infinity while fewer than k results have been found
+	 */
+	private double currentThreshold() {
+		if (numberOfThreads > 1 && best.size() < numberOfResults) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return best.peek().value;
 	}
 
 	private void updateBoundary(EvaluatedNode<N> candidate) {
 		if (hasPotential(candidate)) {
 			boundary.add(candidate);
 		} else {
-			nodesDiscarded++;
+			nodesDiscarded.incrementAndGet();
 		}
 	}
 
-	private EvaluatedNode<N> evaluate(N n, int depth) {
-		maxDepth = Math.max(maxDepth, depth);
-		return evaluatedNode(n, oest.applyAsDouble(n), f.applyAsDouble(n), depth);
+	private EvaluatedNode<N> evaluate(N n, int[] path) {
+		return evaluatedNode(n, oest.applyAsDouble(n), f.applyAsDouble(n), path);
 	}
 
+	/**
+	 * Evaluates refinements of a node in order, assigning them their position
+	 * in the search tree.
+	 */
+	private List<EvaluatedNode<N>> evaluateRefinements(EvaluatedNode<N> node, Collection<? extends N> refinements) {
+		List<EvaluatedNode<N>> result = new ArrayList<>(refinements.size());
+		int index = 0;
+		for (N refinement : refinements) {
+			int[] path = Arrays.copyOf(node.path, node.depth + 1);
+			path[node.depth] = index++;
+			result.add(evaluate(refinement, path));
+		}
+		return result;
+	}
+
+	/**
+	 * Parallel search also keeps nodes of potential equal to the
+	 * (approximation-adjusted) k-th best value, because they can still contain
+	 * results that win the tie-break.
+	 */
 	private boolean hasPotential(EvaluatedNode<N> candidate) {
-		if (Comparison.greaterThanOrSecondNaN(candidate.potential, best.peek().value / alpha)) {
+		double bound = threshold / alpha;
+		if (Comparison.greaterThanOrSecondNaN(candidate.potential, bound)
+				|| (numberOfThreads > 1 && candidate.potential == bound)) {
 			// if (candidate.potential > best.peek().value / alpha) {
 			return true;
 		} else {
@@ -208,43 +329,251 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 		}
 	}
 
+	private boolean expandable(EvaluatedNode<N> node) {
+		return !depthLimit.isPresent() || depthLimit.get() - 1 > node.depth;
+	}
+
+	/**
+	 * Increments the number of created nodes and logs stats whenever a multiple
+	 * of 10000 is crossed.
+	 */
+	private void countCreated(int numberOfNodes) {
+		int created = nodesCreated.addAndGet(numberOfNodes);
+		if ((created - numberOfNodes) / 10000 < created / 10000) {
+			logStats();
+		}
+	}
+
 	@Override
 	protected Collection<R> concreteCall() {
+		if (numberOfThreads > 1) {
+			return parallelCall();
+		}
 		while (!stopRequested() && !boundary.isEmpty() && hasPotential(boundary.peek())) {
 			EvaluatedNode<N> topPotentialNode = boundary.poll();
 			Collection<? extends N> specializations = succ.apply(topPotentialNode.content);
-			nodesCreated += specializations.size();
-			if ((nodesCreated - specializations.size()) / 10000 < nodesCreated / 10000) {
-				logStats();
-			}
+			countCreated(specializations.size());
 
-			List<EvaluatedNode<N>> evaluatedNodes = specializations.stream()
-					.map(n -> evaluate(n, topPotentialNode.depth + 1)).collect(toList());
+			List<EvaluatedNode<N>> evaluatedNodes = evaluateRefinements(topPotentialNode, specializations);
 			evaluatedNodes.forEach(this::updateResults);
 
-			if (!depthLimit.isPresent() || depthLimit.get() - 1 > topPotentialNode.depth) {
+			if (expandable(topPotentialNode)) {
 				evaluatedNodes.forEach(this::updateBoundary);
-				if (boundary.size() > maxBoundarySize) {
-					maxBoundarySize = boundary.size();
-				}
+				maxBoundarySize.accumulateAndGet(boundary.size(), Math::max);
 			}
 		}
 
 		logStats();
 
+		return results();
+	}
+
+	private List<R> results() {
 		List<EvaluatedNode<N>> resultNodes = new ArrayList<>(best);
-		sort(resultNodes, (n, m) -> flippedCompareNanLast(n.value, m.value));
+		sort(resultNodes, RESULT_ORDER.reversed());
 		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
 		return result;
 	}
 
+	private Collection<R> parallelCall() {
+		List<PriorityQueue<EvaluatedNode<N>>> queues = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			queues.add(new PriorityQueue<>());
+		}
+		/*
+		 * nodes that are queued or currently expanded; search is finished when no
+		 * such node is left
+		 */
+		AtomicInteger pending = new AtomicInteger(boundary.size());
+		queues.get(0).addAll(boundary);
+		workerBoundarySize.set(boundary.size());
+		workerFailed = false;
+		workVersion = 0;
+		boundary.clear();
+
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<Void>> futures = new ArrayList<>(numberOfThreads);
+			for (int i = 0; i < numberOfThreads; i++) {
+				futures.add(executor.submit(new Worker(i, queues, pending)));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			requestStop();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+			// keep boundary of interrupted search available for inspection
+			queues.forEach(boundary::addAll);
+			workerBoundarySize.set(0);
+		}
+
+		logStats();
+
+		return results();
+	}
+
+	private class Worker implements Callable<Void> {
+
+		private final int index;
+
+		private final List<PriorityQueue<EvaluatedNode<N>>> queues;
+
+		private final AtomicInteger pending;
+
+		private Worker(int index, List<PriorityQueue<EvaluatedNode<N>>> queues, AtomicInteger pending) {
+			this.index = index;
+			this.queues = queues;
+			this.pending = pending;
+		}
+
+		/**
+		 * @return node of highest potential from own queue or, if empty, stolen
+		 *         from another worker; null if all queues are empty
+		 */
+		private EvaluatedNode<N> next() {
+			for (int i = 0; i < queues.size(); i++) {
+				PriorityQueue<EvaluatedNode<N>> queue = queues.get((index + i) % queues.size());
+				synchronized (queue) {
+					EvaluatedNode<N> node = queue.poll();
+					if (node != null) {
+						workerBoundarySize.decrementAndGet();
+						return node;
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Removes all nodes from own queue if its top node has no potential
+		 * (implying that no other node in the queue has potential).
+		 */
+		private void pruneOwnQueue() {
+			PriorityQueue<EvaluatedNode<N>> queue = queues.get(index);
+			synchronized (queue) {
+				if (!queue.isEmpty() && !hasPotential(queue.peek())) {
+					int size = queue.size();
+					queue.clear();
+					workerBoundarySize.addAndGet(-size);
+					if (pending.addAndGet(-size) == 0) {
+						signal();
+					}
+				}
+			}
+		}
+
+		/**
+		 * Wakes up idle workers after nodes have been queued or the search is
+		 * finished.
+		 */
+		private void signal() {
+			synchronized (pending) {
+				workVersion++;
+				pending.notifyAll();
+			}
+		}
+
+		/**
+		 * Waits until the work version differs from the given one or the search
+		 * is finished. Waiting is timed only to notice stop requests.
+		 * 
+		 * @return false if the thread was interrupted
+		 */
+		private boolean awaitWork(long version) {
+			synchronized (pending) {
+				while (workVersion == version && pending.get() > 0 && !stopRequested() && !workerFailed) {
+					try {
+						pending.wait(100);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Void call() {
+			while (!stopRequested() && !workerFailed && pending.get() > 0) {
+				long version;
+				synchronized (pending) {
+					version = workVersion;
+				}
+				EvaluatedNode<N> node = next();
+				if (node == null) {
+					if (!awaitWork(version)) {
+						return null;
+					}
+					continue;
+				}
+				try {
+					if (hasPotential(node)) {
+						expand(node);
+					} else {
+						pruneOwnQueue();
+					}
+				} catch (RuntimeException | Error e) {
+					workerFailed = true;
+					signal();
+					throw e;
+				} finally {
+					if (pending.decrementAndGet() == 0) {
+						signal();
+					}
+				}
+			}
+			return null;
+		}
+
+		private void expand(EvaluatedNode<N> node) {
+			Collection<? extends N> specializations = succ.apply(node.content);
+			countCreated(specializations.size());
+
+			List<EvaluatedNode<N>> evaluatedNodes = evaluateRefinements(node, specializations);
+			synchronized (best) {
+				evaluatedNodes.forEach(BestFirstBranchAndBound.this::updateResults);
+			}
+
+			if (expandable(node)) {
+				List<EvaluatedNode<N>> promising = new ArrayList<>(evaluatedNodes.size());
+				for (EvaluatedNode<N> candidate : evaluatedNodes) {
+					if (hasPotential(candidate)) {
+						promising.add(candidate);
+					} else {
+						nodesDiscarded.incrementAndGet();
+					}
+				}
+				pending.addAndGet(promising.size());
+				PriorityQueue<EvaluatedNode<N>> queue = queues.get(index);
+				synchronized (queue) {
+					queue.addAll(promising);
+				}
+				int size = workerBoundarySize.addAndGet(promising.size());
+				maxBoundarySize.accumulateAndGet(size, Math::max);
+				if (!promising.isEmpty()) {
+					signal();
+				}
+			}
+		}
+
+	}
+
 	private void logStats() {
 		// LOGGER.info(nodesDiscarded + "/" + nodesCreated + "(" + (1.0 *
 		// nodesDiscarded / nodesCreated) + ")"
 		// + " nodes discarded/created (" + solutionDepth + "/" + maxDepth + "
 		// best solution depth/max depth)");
 
-		double kBest = best.peek().value;
+		double kBest = threshold;
 
 		double howCloseToBestPossibleSolution;
 		if (!boundary.isEmpty()) {
@@ -252,13 +581,13 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 		} else {
 			howCloseToBestPossibleSolution = 1;
 		}
-		LOGGER.info(nodesDiscarded + "/" + nodesCreated + "(" + (1.0 * nodesDiscarded / nodesCreated) + ")"
-				+ " nodes discarded/created (" + solutionDepth + "/" + maxDepth + " best solution depth/max depth)"
-				+ "\n" + "kth-best found - potential left: " + best.peek().value + " - "
+		LOGGER.info(nodesDiscarded() + "/" + nodesCreated() + "(" + (1.0 * nodesDiscarded() / nodesCreated()) + ")"
+				+ " nodes discarded/created (" + solutionDepth + "/" + maxAttainedDepth() + " best solution depth/max depth)"
+				+ "\n" + "kth-best found - potential left: " + kBest + " - "
 				+ (boundary.isEmpty() ? "Nil"
 						: String.valueOf(boundary.peek().potential) + " (" + howCloseToBestPossibleSolution + ") " + " "
 								+ "\n" + boundary.peek().content)
-				+ "\n" + "Size of boundary queue: " + boundary.size());
+				+ "\n" + "Size of boundary queue: " + boundarySize());
 
 		// LOGGER.info("kth-best found - potential left: " + best.peek().value +
 		// " - "
@@ -286,27 +615,27 @@ public class BestFirstBranchAndBound<R extends Pattern<?>, N> extends AbstractMi
 
 	@Override
 	public int nodesCreated() {
-		return nodesCreated;
+		return nodesCreated.get();
 	}
 
 	@Override
 	public int nodesDiscarded() {
-		return nodesDiscarded;
+		return nodesDiscarded.get();
 	}
 
 	@Override
 	public int boundarySize() {
-		return boundary.size();
+		return boundary.size() + workerBoundarySize.get();
 	}
 
 	@Override
 	public int maxAttainedBoundarySize() {
-		return maxBoundarySize;
+		return maxBoundarySize.get();
 	}
 
 	@Override
 	public int maxAttainedDepth() {
-		return maxDepth;
+		return maxDepth.get();
 	}
 
 	@Override
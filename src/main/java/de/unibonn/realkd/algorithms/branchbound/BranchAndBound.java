@@ -49,6 +49,7 @@ import com.google.common.collect.ImmutableList;
 
 import de.unibonn.realkd.algorithms.AbstractMiningAlgorithm;
 import de.unibonn.realkd.algorithms.AlgorithmCategory;
+import de.unibonn.realkd.algorithms.branchbound.RefinementEvaluation.Refinement;
 import de.unibonn.realkd.common.StackBackedQueue;
 import de.unibonn.realkd.computations.dag.DagSearch;
 import de.unibonn.realkd.patterns.Pattern;
@@ -59,6 +60,13 @@ import de.unibonn.realkd.patterns.Pattern;
  * given optimistic estimator. Search starts in a provided root search node and
  * then successively refines nodes by a provided refinement operator.
  * </p>
+ * <p>
+ * With more than one thread, refinements of several boundary nodes are
+ * evaluated concurrently ahead of their expansion (see
+ * {@link RefinementEvaluation}). The traversal itself, including all pruning
+ * decisions, stays sequential; hence, the result is the same as for a single
+ * thread.
+ * </p>
  * 
  * @param R the result type
  * 
@@ -67,7 +75,7 @@ import de.unibonn.realkd.patterns.Pattern;
  * 
  * @since 0.7.1
  * 
- * @version 0.7.1
+ * @version 0.7.2
  *
  */
 public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
@@ -84,6 +92,9 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 		public double value;
 		public Set<Function<? super N, ? extends N>> active;
 
+		// evaluation of node as refinement of its parent (null for root nodes)
+		public Refinement<N> refinement;
+
 		public BNBNode(N content, Function<? super N, ? extends N> opOperatorUsed, int depth) {
 			this.opOperatorUsed = opOperatorUsed;
 			this.content = content;
@@ -107,8 +118,10 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 		return evalNode;
 	}
 
-	private static <N> BNBNode<N> bnbNode(N content, Function<? super N, ? extends N> opOperatorUsed, int depth) {
-		return new BNBNode<N>(content, opOperatorUsed, depth);
+	private static <N> BNBNode<N> bnbNode(Refinement<N> refinement, int depth) {
+		BNBNode<N> result = new BNBNode<N>(refinement.content, refinement.operator, depth);
+		result.refinement = refinement;
+		return result;
 	}
 
 	private static <N> BNBNode<N> bnbNode(N content, Optional<Function<? super N, ? extends N>> opOperatorUsed,
@@ -122,8 +135,6 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 
 	private final List<ToDoubleFunction<? super N>> oests;
 
-	private final Predicate<N>[] additionalPruningRules;
-
 	private final Function<? super N, ? extends R> toPattern;
 
 	// the structure that contains the candidates
@@ -136,6 +147,8 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 
 	private final Optional<Integer> depthLimit;
 
+	private final RefinementEvaluation<BNBNode<N>, N> evaluation;
+
 	private PriorityQueue<BNBNode<N>> best;
 
 	private int nodesCreated = 1;
@@ -156,12 +169,21 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 	// stores the best solution so far, to keep track of depth
 	private BNBNode<N> bestSolution;
 
-	@SuppressWarnings("unchecked")
 	@SafeVarargs
 	public BranchAndBound(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
 			N root, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
 			double alpha, Optional<Integer> depthLimit, TraverseOrder traverseOrder,
 			Predicate<N>... additionalPruningRules) {
+		this(toPattern, active, root, f, oests, numberOfResults, alpha, depthLimit, traverseOrder, 1,
+				additionalPruningRules);
+	}
+
+	@SuppressWarnings("unchecked")
+	@SafeVarargs
+	public BranchAndBound(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
+			N root, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
+			double alpha, Optional<Integer> depthLimit, TraverseOrder traverseOrder, int numberOfThreads,
+			Predicate<N>... additionalPruningRules) {
 		this.f = f;
 		this.oests = oests;
 		this.traverseOrder = traverseOrder;
@@ -171,7 +193,8 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 		this.numberOfResults = numberOfResults;
 		this.alpha = alpha;
 		this.depthLimit = depthLimit;
-		this.additionalPruningRules = additionalPruningRules;
+		this.evaluation = new RefinementEvaluation<>(n -> n.content, n -> n.active, f, oests,
+				additionalPruningRules, numberOfThreads);
 		this.nodesDiscardedPotentials = new int[oests.size()];
 
 		// initialize search
@@ -190,12 +213,21 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 	// constructor for all singletons as root nodes, i.e.,
 	// if operator order is important, then active should be passed as a
 	// linkedhashset
-	@SuppressWarnings("unchecked")
 	@SafeVarargs
 	public BranchAndBound(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
 			List<N> roots, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
 			double alpha, Optional<Integer> depthLimit, TraverseOrder traverseOrder,
 			Predicate<N>... additionalPruningRules) {
+		this(toPattern, active, roots, f, oests, numberOfResults, alpha, depthLimit, traverseOrder, 1,
+				additionalPruningRules);
+	}
+
+	@SuppressWarnings("unchecked")
+	@SafeVarargs
+	public BranchAndBound(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active,
+			List<N> roots, ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults,
+			double alpha, Optional<Integer> depthLimit, TraverseOrder traverseOrder, int numberOfThreads,
+			Predicate<N>... additionalPruningRules) {
 		this.f = f;
 		this.oests = oests;
 		this.traverseOrder = traverseOrder;
@@ -205,7 +237,8 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 		this.numberOfResults = numberOfResults;
 		this.alpha = alpha;
 		this.depthLimit = depthLimit;
-		this.additionalPruningRules = additionalPruningRules;
+		this.evaluation = new RefinementEvaluation<>(n -> n.content, n -> n.active, f, oests,
+				additionalPruningRules, numberOfThreads);
 		this.nodesDiscardedPotentials = new int[oests.size()];
 		int i = 0;
 
@@ -275,11 +308,28 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 
 	@Override
 	protected Collection<R> concreteCall() {
+		evaluation.start();
+		try {
+			search();
+		} finally {
+			evaluation.stop();
+		}
+
+		logStats();
+		LOGGER.info("Nodes discarded on potentials: " + Arrays.toString(nodesDiscardedPotentials));
+		List<BNBNode<N>> resultNodes = new ArrayList<>(best);
+		sort(resultNodes, (n, m) -> Double.compare(m.value, n.value));
+		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
+		return result;
+	}
+
+	private void search() {
 		while (!stopRequested() && !traverseStructure.isEmpty()) {
 
 			BNBNode<N> nextNode = traverseStructure.poll();
 
 			if (!hasTopPotential(nextNode)) {
+				evaluation.discard(nextNode);
 				if (traverseOrder.earlyAbortBasedOnPotentialPossible()) {
 					break;
 				}
@@ -289,9 +339,10 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 			// list here and never change once it is passed to node
 			Set<Function<? super N, ? extends N>> remainingOperators = new LinkedHashSet<>(nextNode.active);
 
-			// create the unevaluated nodes
-			List<BNBNode<N>> refinements = remainingOperators.stream()
-					.map(n -> bnbNode(n.apply(nextNode.content), n, nextNode.depth + 1)).collect(toList());
+			// create the nodes (possibly evaluated in advance together with other nodes)
+			List<BNBNode<N>> refinements = evaluation
+					.refinements(nextNode, traverseStructure, n -> n.potential > best.peek().value / alpha).stream()
+					.map(r -> bnbNode(r, nextNode.depth + 1)).collect(toList());
 			nodesCreated += refinements.size();
 
 			// log
@@ -306,7 +357,7 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 			// prune based on rules
 			filterBasedOnAdditionalPruningRules(remainingOperators, refinements);
 
-			refinements.forEach(n -> n.value = f.applyAsDouble(n.content));
+			refinements.forEach(n -> n.value = n.refinement.value());
 
 			// updateResults
 			refinements.forEach(this::updateResults);
@@ -321,27 +372,17 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 				trackBoundarySize();
 			}
 		}
-
-		logStats();
-		LOGGER.info("Nodes discarded on potentials: " + Arrays.toString(nodesDiscardedPotentials));
-		List<BNBNode<N>> resultNodes = new ArrayList<>(best);
-		sort(resultNodes, (n, m) -> Double.compare(m.value, n.value));
-		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
-		return result;
 	}
 
 	private void filterBasedOnAdditionalPruningRules(Set<Function<? super N, ? extends N>> remainingOperators,
 			List<BNBNode<N>> unevaluatedNodes) {
 		for (int i = unevaluatedNodes.size() - 1; i >= 0; i--) {
 			BNBNode<N> node = unevaluatedNodes.get(i);
-			for (Predicate<N> rule : additionalPruningRules) {
-				if (rule.test(node.content)) {
-					remainingOperators.remove(node.opOperatorUsed);
-					unevaluatedNodes.remove(i);
-					nodesDiscardedPruning++;
-					// only one rule has to apply
-					break;
-				}
+			// only one rule has to apply
+			if (node.refinement.pruned) {
+				remainingOperators.remove(node.opOperatorUsed);
+				unevaluatedNodes.remove(i);
+				nodesDiscardedPruning++;
 			}
 		}
 	}
@@ -359,15 +400,13 @@ public class BranchAndBound<R extends Pattern<?>, N> extends AbstractMiningAlgor
 
 	private boolean hasRefinementPotential(BNBNode<N> candidate) {
 		candidate.potential = Double.MAX_VALUE;
-		int index = 0;
-		for (ToDoubleFunction<? super N> oest : oests) {
-			candidate.potential = min(candidate.potential, oest.applyAsDouble(candidate.content));
+		for (int index = 0; index < oests.size(); index++) {
+			candidate.potential = min(candidate.potential, evaluation.estimate(candidate.refinement, index));
 			if (candidate.potential <= best.peek().value / alpha) {
 				nodesDiscardedPotentials[index]++;
 				nodesDiscardedPotential++;
 				return false;
 			}
-			index++;
 		}
 		return true;
 	}
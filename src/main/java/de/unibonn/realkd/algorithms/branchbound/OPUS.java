@@ -49,6 +49,7 @@ import com.google.common.collect.ImmutableList;
 
 import de.unibonn.realkd.algorithms.AbstractMiningAlgorithm;
 import de.unibonn.realkd.algorithms.AlgorithmCategory;
+import de.unibonn.realkd.algorithms.branchbound.RefinementEvaluation.Refinement;
 import de.unibonn.realkd.common.StackBackedQueue;
 import de.unibonn.realkd.computations.dag.DagSearch;
 import de.unibonn.realkd.patterns.Pattern;
@@ -59,6 +60,13 @@ import de.unibonn.realkd.patterns.Pattern;
  * with a given optimistic estimator. Search starts in a provided root search
  * node and then successively refines nodes by a provided refinement operator.
  * </p>
+ * <p>
+ * With more than one thread, refinements of several boundary nodes are
+ * evaluated concurrently ahead of their expansion (see
+ * {@link RefinementEvaluation}). The traversal itself, including all pruning
+ * decisions, stays sequential; hence, the result is the same as for a single
+ * thread.
+ * </p>
  * 
  * @param R the result type
  * 
@@ -70,7 +78,7 @@ import de.unibonn.realkd.patterns.Pattern;
  * 
  * @since 0.4.0
  * 
- * @version 0.4.1
+ * @version 0.7.2
  *
  */
 public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
@@ -87,6 +95,9 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 		public double value;
 		public Set<Function<? super N, ? extends N>> active;
 
+		// evaluation of node as refinement of its parent (null for root nodes)
+		public Refinement<N> refinement;
+
 		public OpusNode(N content, Function<? super N, ? extends N> opOperatorUsed, int depth) {
 			this.opOperatorUsed = opOperatorUsed;
 			this.content = content;
@@ -110,8 +121,10 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 		return evalNode;
 	}
 
-	private static <N> OpusNode<N> opusNode(N content, Function<? super N, ? extends N> opOperatorUsed, int depth) {
-		return new OpusNode<N>(content, opOperatorUsed, depth);
+	private static <N> OpusNode<N> opusNode(Refinement<N> refinement, int depth) {
+		OpusNode<N> result = new OpusNode<N>(refinement.content, refinement.operator, depth);
+		result.refinement = refinement;
+		return result;
 	}
 
 	private static <N> OpusNode<N> opusNode(N content, Optional<Function<? super N, ? extends N>> opOperatorUsed,
@@ -127,8 +140,6 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 
 	private final List<ToDoubleFunction<? super N>> oests;
 
-	private final Predicate<N>[] additionalPruningRules;
-
 	private final Function<? super N, ? extends R> toPattern;
 
 	// the structure that contains the candidates
@@ -141,6 +152,8 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 
 	private final Optional<Integer> depthLimit;
 
+	private final RefinementEvaluation<OpusNode<N>, N> evaluation;
+
 	private PriorityQueue<OpusNode<N>> best;
 
 	private int nodesCreated = 1;
@@ -161,12 +174,21 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 	// stores the best solution so far, to keep track of depth
 	private OpusNode<N> bestSolution;
 
-	@SuppressWarnings("unchecked")
 	@SafeVarargs
 	public OPUS(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active, N root,
 			ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults, double alpha,
 			Optional<Integer> depthLimit, OperatorOrder distributionOrder, TraverseOrder traverseOrder,
 			Predicate<N>... additionalPruningRules) {
+		this(toPattern, active, root, f, oests, numberOfResults, alpha, depthLimit, distributionOrder, traverseOrder,
+				1, additionalPruningRules);
+	}
+
+	@SuppressWarnings("unchecked")
+	@SafeVarargs
+	public OPUS(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active, N root,
+			ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults, double alpha,
+			Optional<Integer> depthLimit, OperatorOrder distributionOrder, TraverseOrder traverseOrder,
+			int numberOfThreads, Predicate<N>... additionalPruningRules) {
 		this.f = f;
 		this.oests = oests;
 		this.distributionOrder = distributionOrder;
@@ -177,7 +199,8 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 		this.numberOfResults = numberOfResults;
 		this.alpha = alpha;
 		this.depthLimit = depthLimit;
-		this.additionalPruningRules = additionalPruningRules;
+		this.evaluation = new RefinementEvaluation<>(n -> n.content, n -> n.active, f, oests,
+				additionalPruningRules, numberOfThreads);
 		this.nodesDiscardedPotentials = new int[oests.size()];
 
 		// initialize search
@@ -195,12 +218,21 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 	// constructor for all singletons as root nodes
 	// if operator order is important, then active should be passed as a
 	// linkedhashset
-	@SuppressWarnings("unchecked")
 	@SafeVarargs
 	public OPUS(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active, List<N> roots,
 			ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults, double alpha,
 			Optional<Integer> depthLimit, OperatorOrder distributionOrder, TraverseOrder traverseOrder,
 			Predicate<N>... additionalPruningRules) {
+		this(toPattern, active, roots, f, oests, numberOfResults, alpha, depthLimit, distributionOrder, traverseOrder,
+				1, additionalPruningRules);
+	}
+
+	@SuppressWarnings("unchecked")
+	@SafeVarargs
+	public OPUS(Function<? super N, ? extends R> toPattern, Set<Function<? super N, ? extends N>> active, List<N> roots,
+			ToDoubleFunction<? super N> f, List<ToDoubleFunction<? super N>> oests, int numberOfResults, double alpha,
+			Optional<Integer> depthLimit, OperatorOrder distributionOrder, TraverseOrder traverseOrder,
+			int numberOfThreads, Predicate<N>... additionalPruningRules) {
 		this.f = f;
 		this.oests = oests;
 		this.distributionOrder = distributionOrder;
@@ -211,7 +243,8 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 		this.numberOfResults = numberOfResults;
 		this.alpha = alpha;
 		this.depthLimit = depthLimit;
-		this.additionalPruningRules = additionalPruningRules;
+		this.evaluation = new RefinementEvaluation<>(n -> n.content, n -> n.active, f, oests,
+				additionalPruningRules, numberOfThreads);
 		this.nodesDiscardedPotentials = new int[oests.size()];
 		int i = 0;
 
@@ -283,11 +316,28 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 
 	@Override
 	protected Collection<R> concreteCall() {
+		evaluation.start();
+		try {
+			search();
+		} finally {
+			evaluation.stop();
+		}
+
+		logStats();
+		LOGGER.info("Nodes discarded on potentials: " + Arrays.toString(nodesDiscardedPotentials));
+		List<OpusNode<N>> resultNodes = new ArrayList<>(best);
+		sort(resultNodes, (n, m) -> Double.compare(m.value, n.value));
+		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
+		return result;
+	}
+
+	private void search() {
 		while (!stopRequested() && !traverseStructure.isEmpty()) {
 
 			OpusNode<N> nextNode = traverseStructure.poll();
 
 			if (!hasTopPotential(nextNode)) {
+				evaluation.discard(nextNode);
 				if (traverseOrder.earlyAbortBasedOnPotentialPossible()) {
 					break;
 				}
@@ -297,9 +347,10 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 			// list here and never change once it is passed to node
 			Set<Function<? super N, ? extends N>> remainingOperators = new LinkedHashSet<>(nextNode.active);
 
-			// create the unevaluated nodes
-			List<OpusNode<N>> refinements = remainingOperators.stream()
-					.map(n -> opusNode(n.apply(nextNode.content), n, nextNode.depth + 1)).collect(toList());
+			// create the nodes (possibly evaluated in advance together with other nodes)
+			List<OpusNode<N>> refinements = evaluation
+					.refinements(nextNode, traverseStructure, n -> n.potential > best.peek().value / alpha).stream()
+					.map(r -> opusNode(r, nextNode.depth + 1)).collect(toList());
 			nodesCreated += refinements.size();
 
 			// log
@@ -314,7 +365,7 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 			// prune based on rules
 			filterBasedOnAdditionalPruningRules(remainingOperators, refinements);
 
-			refinements.forEach(n -> n.value = f.applyAsDouble(n.content));
+			refinements.forEach(n -> n.value = n.refinement.value());
 
 			// updateResults
 			refinements.forEach(this::updateResults);
@@ -331,27 +382,17 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 				trackBoundarySize();
 			}
 		}
-
-		logStats();
-		LOGGER.info("Nodes discarded on potentials: " + Arrays.toString(nodesDiscardedPotentials));
-		List<OpusNode<N>> resultNodes = new ArrayList<>(best);
-		sort(resultNodes, (n, m) -> Double.compare(m.value, n.value));
-		List<R> result = resultNodes.stream().map(n -> toPattern.apply(n.content)).collect(toList());
-		return result;
 	}
 
 	private void filterBasedOnAdditionalPruningRules(Set<Function<? super N, ? extends N>> remainingOperators,
 			List<OpusNode<N>> unevaluatedNodes) {
 		for (int i = unevaluatedNodes.size() - 1; i >= 0; i--) {
 			OpusNode<N> node = unevaluatedNodes.get(i);
-			for (Predicate<N> rule : additionalPruningRules) {
-				if (rule.test(node.content)) {
-					remainingOperators.remove(node.opOperatorUsed);
-					unevaluatedNodes.remove(i);
-					nodesDiscardedPruning++;
-					// only one rule has to apply
-					break;
-				}
+			// only one rule has to apply
+			if (node.refinement.pruned) {
+				remainingOperators.remove(node.opOperatorUsed);
+				unevaluatedNodes.remove(i);
+				nodesDiscardedPruning++;
 			}
 		}
 	}
@@ -370,15 +411,13 @@ public class OPUS<R extends Pattern<?>, N> extends AbstractMiningAlgorithm<R>
 
 	private boolean hasRefinementPotential(OpusNode<N> candidate) {
 		candidate.potential = Double.MAX_VALUE;
-		int index = 0;
-		for (ToDoubleFunction<? super N> oest : oests) {
-			candidate.potential = min(candidate.potential, oest.applyAsDouble(candidate.content));
+		for (int index = 0; index < oests.size(); index++) {
+			candidate.potential = min(candidate.potential, evaluation.estimate(candidate.refinement, index));
 			if (candidate.potential <= best.peek().value / alpha) {
 				nodesDiscardedPotentials[index]++;
 				nodesDiscardedPotential++;
 				return false;
 			}
-			index++;
 		}
 		return true;
 	}
@@ -0,0 +1,287 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.branchbound;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Computes the refinements of search nodes together with their values and
+ * optimistic estimates for the sequential traversals of {@link OPUS} and
+ * {@link BranchAndBound}.
+ * </p>
+ * <p>
+ * With more than one thread, the refinements of a node are computed in one
+ * batch with those of further boundary nodes that are likely to be expanded
+ * next (the first nodes in iteration order of the boundary that still have
+ * potential w.r.t. the current k-th best value). All refinements of a batch
+ * are evaluated concurrently, and the results of the additional nodes are kept
+ * until they are expanded by the traversal. Since all pruning decisions remain
+ * with the sequential traversal, the search result does not depend on the
+ * number of threads.
+ * </p>
+ * 
+ * @param T
+ *            the type of nodes of the traversal
+ * 
+ * @param N
+ *            the search node type
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+final class RefinementEvaluation<T, N> {
+
+	/**
+	 * Refinement of a node by one operator. Value and optimistic estimates are
+	 * not computed if the refinement is pruned by some additional pruning rule.
+	 */
+	static final class Refinement<N> {
+
+		public final Function<? super N, ? extends N> operator;
+
+		public final N content;
+
+		public final boolean pruned;
+
+		private double value;
+
+		private final double[] estimates;
+
+		private Refinement(Function<? super N, ? extends N> operator, N content, boolean pruned,
+				int numberOfEstimators) {
+			this.operator = operator;
+			this.content = content;
+			this.pruned = pruned;
+			this.estimates = new double[numberOfEstimators];
+			Arrays.fill(estimates, Double.NaN);
+		}
+
+		public double value() {
+			return value;
+		}
+
+	}
+
+	private final Function<? super T, ? extends N> content;
+
+	private final Function<? super T, ? extends Set<Function<? super N, ? extends N>>> active;
+
+	private final ToDoubleFunction<? super N> f;
+
+	private final List<ToDoubleFunction<? super N>> oests;
+
+	private final Predicate<N>[] additionalPruningRules;
+
+	private final int numberOfThreads;
+
+	private final Map<T, List<Refinement<N>>> computed = new IdentityHashMap<>();
+
+	private ForkJoinPool pool;
+
+	RefinementEvaluation(Function<? super T, ? extends N> content,
+			Function<? super T, ? extends Set<Function<? super N, ? extends N>>> active, ToDoubleFunction<? super N> f,
+			List<ToDoubleFunction<? super N>> oests, Predicate<N>[] additionalPruningRules, int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be positive");
+		}
+		this.content = content;
+		this.active = active;
+		this.f = f;
+		this.oests = oests;
+		this.additionalPruningRules = additionalPruningRules;
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	/**
+	 * Starts the thread pool (if more than one thread is used).
+	 */
+	void start() {
+		if (numberOfThreads > 1 && pool == null) {
+			pool = new ForkJoinPool(numberOfThreads);
+		}
+	}
+
+	/**
+	 * Stops the thread pool and discards all refinements computed in advance.
+	 */
+	void stop() {
+		if (pool != null) {
+			pool.shutdownNow();
+			pool = null;
+		}
+		computed.clear();
+	}
+
+	/**
+	 * Discards refinements computed in advance for a node that is not going to
+	 * be expanded.
+	 */
+	void discard(T node) {
+		computed.remove(node);
+	}
+
+	/**
+	 * @param node
+	 *            the node to be expanded
+	 * @param boundary
+	 *            the remaining nodes of the traversal
+	 * @param hasPotential
+	 *            tests whether a boundary node is worth to be expanded in
+	 *            advance
+	 * @return refinements of node by all its active operators in operator order
+	 */
+	List<Refinement<N>> refinements(T node, Collection<? extends T> boundary, Predicate<? super T> hasPotential) {
+		List<Refinement<N>> result = computed.remove(node);
+		if (result != null) {
+			return result;
+		}
+		if (pool == null) {
+			return refinements(node);
+		}
+
+		List<T> batch = new ArrayList<>(numberOfThreads);
+		batch.add(node);
+		int refinementsInBatch = active.apply(node).size();
+		Iterator<? extends T> candidates = boundary.iterator();
+		/*
+		 * inspect boundary only up to a constant multiple of the number of threads
+		 * in order to keep selection cheap for large boundaries
+		 */
+		for (int i = 0; i < 4 * numberOfThreads && refinementsInBatch < 4 * numberOfThreads
+				&& candidates.hasNext(); i++) {
+			T candidate = candidates.next();
+			if (!computed.containsKey(candidate) && !active.apply(candidate).isEmpty()
+					&& hasPotential.test(candidate)) {
+				batch.add(candidate);
+				refinementsInBatch += active.apply(candidate).size();
+			}
+		}
+
+		/*
+		 * one flat parallel stream over all (node, operator) pairs; nesting
+		 * parallel streams here can starve the pool when the objective function
+		 * itself uses parallel streams
+		 */
+		List<T> nodeOfTask = new ArrayList<>(refinementsInBatch);
+		List<Function<? super N, ? extends N>> operatorOfTask = new ArrayList<>(refinementsInBatch);
+		for (T n : batch) {
+			for (Function<? super N, ? extends N> op : active.apply(n)) {
+				nodeOfTask.add(n);
+				operatorOfTask.add(op);
+			}
+		}
+		List<Refinement<N>> results = inPool(() -> IntStream.range(0, nodeOfTask.size()).parallel()
+				.mapToObj(i -> refinement(content.apply(nodeOfTask.get(i)), operatorOfTask.get(i), true))
+				.collect(toList()));
+		int offset = 0;
+		List<Refinement<N>> first = null;
+		for (T n : batch) {
+			int size = active.apply(n).size();
+			List<Refinement<N>> refinements = new ArrayList<>(results.subList(offset, offset + size));
+			offset += size;
+			if (first == null) {
+				first = refinements;
+			} else {
+				computed.put(n, refinements);
+			}
+		}
+		return first;
+	}
+
+	private List<Refinement<N>> refinements(T node) {
+		N parent = content.apply(node);
+		List<Refinement<N>> result = new ArrayList<>(active.apply(node).size());
+		for (Function<? super N, ? extends N> op : active.apply(node)) {
+			result.add(refinement(parent, op, false));
+		}
+		return result;
+	}
+
+	private Refinement<N> refinement(N parent, Function<? super N, ? extends N> op, boolean computeEstimates) {
+		N child = op.apply(parent);
+		boolean pruned = false;
+		for (Predicate<N> rule : additionalPruningRules) {
+			if (rule.test(child)) {
+				pruned = true;
+				break;
+			}
+		}
+		Refinement<N> refinement = new Refinement<>(op, child, pruned, oests.size());
+		if (!pruned) {
+			refinement.value = f.applyAsDouble(child);
+			if (computeEstimates) {
+				for (int i = 0; i < oests.size(); i++) {
+					estimate(refinement, i);
+				}
+			}
+		}
+		return refinement;
+	}
+
+	/**
+	 * @return value of the i-th optimistic estimator for the refinement (which
+	 *         is computed only once)
+	 */
+	double estimate(Refinement<N> refinement, int i) {
+		if (Double.isNaN(refinement.estimates[i])) {
+			refinement.estimates[i] = oests.get(i).applyAsDouble(refinement.content);
+		}
+		return refinement.estimates[i];
+	}
+
+	private <S> S inPool(Callable<S> task) {
+		try {
+			return pool.submit(task).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+}
@@ -88,6 +88,10 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 
 	private List<Double> entropies;
 
+	private List<Integer> domainSizes;
+
+	private double[] remainingEntropiesSums;
+
 	private final Parameter<DataTable> datatableParameter;
 
 	private final Parameter<Integer> numberOfResults;
@@ -98,6 +102,8 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 
 	private final Parameter<OptimisticEstimatorOption> optimisticOption;
 
+	private final Parameter<Integer> numberOfThreads;
+
 	public BNBCorrelatedPatternSearch(Workspace workspace) {
 		datatableParameter = MiningParameters.dataTableParameter(workspace);
 
@@ -114,11 +120,16 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 				"Which optimistic estimator to use", OptimisticEstimatorOption.class,
 				() -> asList(OptimisticEstimatorOption.values()));
 
+		numberOfThreads = Parameters.integerParameter(id("num_threads"), "Number of threads",
+				"The number of threads used for evaluating refinements. Results do not depend on the number of threads.",
+				1, n -> n > 0, "Specify positive integer.");
+
 		registerParameter(datatableParameter);
 		registerParameter(numberOfResults);
 		registerParameter(alpha);
 		registerParameter(traverseOrderOption);
 		registerParameter(optimisticOption);
+		registerParameter(numberOfThreads);
 	}
 
 	@Override
@@ -163,6 +174,14 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 		return alpha.current();
 	}
 
+	public void numberOfThreads(int numberOfThreads) {
+		this.numberOfThreads.set(numberOfThreads);
+	}
+
+	public int numberOfThreads() {
+		return numberOfThreads.current();
+	}
+
 	public void traverseOrderOption(TraverseOrder order) {
 		this.traverseOrderOption.set(order);
 	}
@@ -191,19 +210,26 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 
 		// get contingency table (to sort according to entropy)
 		ContingencyTable nWayContingencyTable = ContingencyTables.contingencyTable(dataTable, listOfAttributes);
-		entropies = IntStream.range(0, numAttributes).mapToObj(i -> nWayContingencyTable.marginal(i).entropy())
-				.collect(Collectors.toList());
+		List<ContingencyTable> marginals = IntStream.range(0, numAttributes)
+				.mapToObj(i -> nWayContingencyTable.marginal(i)).collect(Collectors.toList());
+		entropies = marginals.stream().map(m -> m.entropy()).collect(Collectors.toList());
 		int[] sortedIndices = IntStream.range(0, numAttributes).boxed()
 				.sorted((i, j) -> entropies.get(j).compareTo(entropies.get(i))).mapToInt(ele -> ele).toArray();
 
 		// get domain sizes (for the correction term)
-		ArrayList<Integer> domainSizes = IntStream.range(0, numAttributes)
-				.mapToObj(i -> nWayContingencyTable.marginal(i).nonZeroCells().size())
-				.collect(Collectors.toCollection(ArrayList::new));
+		domainSizes = marginals.stream().map(m -> m.domainSize()).collect(Collectors.toList());
 
-		// sort attributes and entropies in decreasing order of entropy
+		// sort attributes, entropies, and domain sizes in decreasing order of
+		// entropy
 		listOfAttributes = returnSorted(listOfAttributes, sortedIndices);
 		entropies = returnSorted(entropies, sortedIndices);
+		domainSizes = returnSorted(domainSizes, sortedIndices);
+
+		// sums of entropies after each position (for the refined bound)
+		remainingEntropiesSums = new double[numAttributes];
+		for (int j = numAttributes - 2; j >= 0; j--) {
+			remainingEntropiesSums[j] = remainingEntropiesSums[j + 1] + entropies.get(j + 1);
+		}
 
 		// create operators with decreasing entropy order (that is why linkedhashset)
 		LinkedHashSet<Function<? super SearchNode, ? extends SearchNode>> ops = IntStream.range(0, numAttributes)
@@ -218,27 +244,22 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 						RELIABLE_NORMALIZED_TOTAL_CORRELATION))
 				.collect(Collectors.toList());
 
-		// in order to get info for the refined bound
-		double sum = entropies.stream().mapToDouble(Double::doubleValue).sum();
-		double runningSum = 0;
-
 		// cast them into search nodes
 		int i = 0;
 		List<SearchNode> searchNodes = new ArrayList<>();
 		for (CorrelationPattern pattern : rootPatterns) {
-			int attrIndex = sortedIndices[i];
 			ArrayList<Integer> domSizes = new ArrayList<>();
-			domSizes.add(domainSizes.get(attrIndex));
-			runningSum += entropies.get(i);
+			domSizes.add(domainSizes.get(i));
 
 			searchNodes.add(
 					new SearchNode(pattern, pattern.value(SUM_OF_ENTROPIES), pattern.value(SUM_OF_MUTUAL_INFORMATIONS),
-							domSizes, entropies.get(i), pattern.value(JOINT_ENTROPY), sum - runningSum));
+							domSizes, entropies.get(i), pattern.value(JOINT_ENTROPY), remainingEntropiesSums[i]));
 			i++;
 		}
 
 		bnb = new BranchAndBound<CorrelationPattern, SearchNode>(n -> n.pattern, ops, searchNodes, f,
-				optimisticOption().fOEst(), topK(), alpha(), Optional.empty(), traverseOrderOption.current());
+				optimisticOption().fOEst(), topK(), alpha(), Optional.empty(), traverseOrderOption.current(),
+				numberOfThreads.current());
 
 		Collection<CorrelationPattern> result = bnb.call();
 		return result;
@@ -278,7 +299,9 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 			ImmutableSet<Attribute<?>> newAttributeSet = toBuild.build();
 			newRelation = CorrelationPatterns.attributeSetRelation(dataTable(), newAttributeSet);
 
-			// get table of last added variable
+			// get table of last added variable; taken from the table of the new
+			// relation (not from the table of all attributes), because rows with
+			// missing values are dropped per relation
 			ContingencyTable marginalTable = newRelation.nWayContingencyTable().marginal(domainAttributes.size());
 			// get dom size of last added variable
 			int newDomSize = marginalTable.domainSize();
@@ -290,19 +313,13 @@ public class BNBCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correlat
 			newDomSizes.add(newDomSize);
 			Collections.sort(newDomSizes, Collections.reverseOrder());
 
-			// get the sum of remaining entropies in branch (for the refined bound)
-			double entropySumInBetween = 0;
-			for (int j = i + 1; j < listOfAttributes.size(); j++) {
-				entropySumInBetween += entropies.get(j);
-			}
-
 			newPattern = CorrelationPatterns.correlationPattern(newRelation,
 					RELIABLE_NORMALIZED_TOTAL_CORRELATION.perform(newRelation, sumMutualInfos, sumOfEntropies,
 							newDomSizes, newEntropy, maxEntropy, jointEntropy));
 
 			SearchNode newSearchNode = new SearchNode(newPattern, newPattern.value(SUM_OF_ENTROPIES),
 					newPattern.value(SUM_OF_MUTUAL_INFORMATIONS), newDomSizes, maxEntropy,
-					newPattern.value(JOINT_ENTROPY), entropySumInBetween);
+					newPattern.value(JOINT_ENTROPY), remainingEntropiesSums[i]);
 
 			return newSearchNode;
 		}
@@ -97,6 +97,8 @@ public class BeamCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correla
 
 	private final Parameter<RefinementPropagation> refPropOption;
 
+	private final Parameter<Integer> numberOfThreads;
+
 	public BeamCorrelatedPatternSearch(Workspace workspace) {
 		datatableParameter = MiningParameters.dataTableParameter(workspace);
 
@@ -114,11 +116,16 @@ public class BeamCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correla
 				"Which refinement propagation strategy to use", RefinementPropagation.class,
 				() -> asList(RefinementPropagation.values()));
 
+		numberOfThreads = Parameters.integerParameter(id("num_threads"), "Number of threads",
+				"The number of threads used for refining and evaluating the beam. Results do not depend on the number of threads.",
+				1, n -> n > 0, "Specify positive integer.");
+
 		registerParameter(datatableParameter);
 		registerParameter(numberOfResults);
 		registerParameter(beamWidth);
 		registerParameter(optimisticOption);
 		registerParameter(refPropOption);
+		registerParameter(numberOfThreads);
 	}
 
 	public DataTable dataTable() {
@@ -253,7 +260,8 @@ public class BeamCorrelatedPatternSearch extends AbstractMiningAlgorithm<Correla
 		}
 
 		beamSearch = new NewBeamSearch<CorrelationPattern, SearchNode>(n -> n.pattern, ops, searchNodes, f,
-				optimisticOption().fOEst(), topK(), beamWidth(), Optional.empty(), RefinementPropagation.NON_REDUNDANT);
+				optimisticOption().fOEst(), topK(), beamWidth(), Optional.empty(), RefinementPropagation.NON_REDUNDANT,
+				numberOfThreads.current());
 
 		Collection<CorrelationPattern> result = beamSearch.call();
 		return result;
@@ -124,6 +124,33 @@ class SelectionData {
 	public SelectionData(PopulationData dataPop, IntPredicate containsIndex) {
 		this(dataPop, containsIndex, (int) IntStream.of(dataPop.mapIdxP2F).filter(containsIndex).count());
 	}
+
+	/**
+	 * Selects a sorted subset of the population data based on a set of original
+	 * indices. The population indices of the selected elements are looked up via
+	 * {@link PopulationData#mapIdxF2P}, such that small selections are extracted
+	 * without scanning the whole population.
+	 * 
+	 * @see {@link SelectionData#SelectionData(PopulationData, IntPredicate, int)}.
+	 * @param dataPop
+	 *            The population data.
+	 * @param selection
+	 *            The original indices of the selection.
+	 */
+	public SelectionData(PopulationData dataPop, IndexSet selection) {
+		numSel = selection.size();
+		numCat = dataPop.numCat;
+		control = new int[numSel];
+		target = new double[numSel];
+		cntCat = new int[numCat];
+		int[] idxPops = RankedValues.increasingRanks(selection, dataPop.mapIdxP2F, dataPop.mapIdxF2P);
+		for (int idxSel = 0; idxSel < idxPops.length; ++idxSel) {
+			int c = dataPop.control[idxPops[idxSel]];
+			target[idxSel] = dataPop.target[idxPops[idxSel]];
+			control[idxSel] = c;
+			++cntCat[c];
+		}
+	}
 }
 
 /**
@@ -1296,6 +1323,12 @@ class PopulationData {
 	 */
 	public final int[] mapIdxP2F;
 
+	/**
+	 * Map indices from the original index vectors to the kept, ordered
+	 * population (-1 for elements not in the population).
+	 */
+	public final int[] mapIdxF2P;
+
 	/**
 	 * Number of categories in the control. The categories are 0-based indices.
 	 */
@@ -1329,6 +1362,16 @@ class PopulationData {
 			control[idxPop] = c;
 			++cntCat[c];
 		}
+		mapIdxF2P = inverse(mapIdxP2F, numFull);
+	}
+
+	private static int[] inverse(int[] mapIdxP2F, int numFull) {
+		int[] result = new int[numFull];
+		Arrays.fill(result, -1);
+		for (int idxPop = 0; idxPop < mapIdxP2F.length; ++idxPop) {
+			result[mapIdxP2F[idxPop]] = idxPop;
+		}
+		return result;
 	}
 
 	public PopulationData(DoubleStream sTarget, IntStream sControl, IntStream sValid) {
@@ -1405,6 +1448,7 @@ class PopulationData {
 			this.control[idxPop] = c;
 			this.mapIdxP2F[idxPop] = mapIdxP2F[idx];
 		}
+		this.mapIdxF2P = inverse(this.mapIdxP2F, numFull);
 	}
 }
 
@@ -1434,8 +1478,7 @@ class OptimisticEstimatorAdaptor
 	@Override
 	public double applyAsDouble(BranchAndBoundSearchNode<ExceptionalModelPattern> node) {
 		final IndexSet setQ = node.content.descriptor().supportSet();
-		final int numSub = setQ.size();
-		final SelectionData dataSel = new SelectionData(dataPop, setQ::contains, numSub);
+		final SelectionData dataSel = new SelectionData(dataPop, setQ);
 		final double fVal = fnOE.applyAsDouble(dataSel);
 		return fVal;
 	}
@@ -89,6 +89,7 @@ import de.unibonn.realkd.patterns.models.regression.LeastSquareRegressionModelFa
 import de.unibonn.realkd.patterns.models.regression.TheilSenLinearRegressionModelFactory;
 import de.unibonn.realkd.patterns.models.table.ContingencyTableModelFactory;
 import de.unibonn.realkd.patterns.models.weibull.FixedShapeWeibullModelFactory;
+import de.unibonn.realkd.patterns.models.weibull.WeibullModelFactory;
 import de.unibonn.realkd.patterns.subgroups.RepresentativenessMeasure;
 import de.unibonn.realkd.common.workspace.Workspaces;
 import de.unibonn.realkd.data.table.attribute.DefaultMetricAttribute;
@@ -280,7 +281,8 @@ public class EMMParameters {
 						factory -> listOrEmpty(factory.current().get() instanceof GaussianModelFactory,
 								TotalVariationDistance.TOTAL_VARIATION_DISTANCE, HellingerDistance.HELLINGER_DISTANCE,
 								KullbackLeiblerDivergence.KL_DIVERGENCE),
-						factory -> listOrEmpty(factory.current().get() instanceof FixedShapeWeibullModelFactory,
+						factory -> listOrEmpty(factory.current().get() instanceof FixedShapeWeibullModelFactory
+										|| factory.current().get() instanceof WeibullModelFactory,
 								HellingerDistance.HELLINGER_DISTANCE),
 						factory -> listOrEmpty(
 								factory.current().get() instanceof TheilSenLinearRegressionModelFactory
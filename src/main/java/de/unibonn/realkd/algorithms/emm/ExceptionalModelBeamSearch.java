@@ -49,6 +49,7 @@ import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.patterns.Pattern;
 import de.unibonn.realkd.patterns.emm.ExceptionalModelMining;
 import de.unibonn.realkd.patterns.emm.ModelDeviationMeasure;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptor;
 
 public class ExceptionalModelBeamSearch extends AbstractMiningAlgorithm<Pattern<?>> {
 
@@ -84,7 +85,7 @@ public class ExceptionalModelBeamSearch extends AbstractMiningAlgorithm<Pattern<
 		beamSearch = new BeamSearch(workspace,
 				new ParameterBoundLogicalDescriptorToEmmPatternMap(datatableParameter, targets, emmModelClassParameter,
 						modelDistanceFunctionParameter),
-				ExceptionalModelMining.exceptionalSubgroupToExtensionDescriptor());
+				ExceptionalModelMining.exceptionalSubgroupToExtensionDescriptor(), LogicalDescriptor::supportSet);
 		Predicate<Proposition> targetFilter = new TargetAttributePropositionFilter(datatableParameter, targets);
 
 		Predicate<Proposition> additionalAttributeFilter = prop -> !((prop instanceof AttributeBasedProposition)
@@ -26,6 +26,7 @@ package de.unibonn.realkd.algorithms.emm;
 
 import static de.unibonn.realkd.algorithms.branchbound.BranchAndBoundSearch.closedDescriptorsExpander;
 import static de.unibonn.realkd.algorithms.branchbound.BranchAndBoundSearch.minimalGeneratorsExpander;
+import static de.unibonn.realkd.algorithms.emm.RankedValues.rankedValues;
 import static de.unibonn.realkd.common.base.Identifier.id;
 import static de.unibonn.realkd.common.parameter.Parameters.doubleParameter;
 import static de.unibonn.realkd.patterns.emm.ExceptionalModelMining.extensionDescriptorToEmmPatternMap;
@@ -143,6 +144,7 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 	private final RangeEnumerableParameter<OptimisticEstimators.OptimisticEstimatorOption> optimisticEstimator;
 	private final RangeEnumerableParameter<Optional<Integer>> depthLimit;
 	private final Parameter<Double> approximationFactor;
+	private final Parameter<Integer> numberOfThreads;
 
 	private BestFirstBranchAndBound<ExceptionalModelPattern, ? extends BranchAndBoundSearchNode<ExceptionalModelPattern>> bestFirstBranchAndBound;
 
@@ -187,6 +189,9 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 		this.depthLimit = Parameters.rangeEnumerableParameter(id("max_depth"), "Depth limit",
 				"The maximum depth in the refinement tree to be expanded by the algorithm.", Optional.class,
 				() -> DEPTH_LIMIT_OPTIONS);
+		this.numberOfThreads = Parameters.integerParameter(id("num_threads"), "Number of threads",
+				"The number of threads used for expanding search nodes. Results are optimal (subject to approximation factor) for any number of threads.",
+				1, n -> n > 0, "Choose positive integer.");
 		registerParameter(dataTable);
 		registerParameter(targets);
 		registerParameter(modelClass);
@@ -202,6 +207,7 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 		registerParameter(optimisticEstimator);
 		registerParameter(approximationFactor);
 		registerParameter(depthLimit);
+		registerParameter(numberOfThreads);
 	}
 
 	@Override
@@ -536,7 +542,8 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 			LcmSearchNode<ExceptionalModelPattern> rootNode = BranchAndBoundSearch.lcmRootNode(propLogic.current(),
 					filter, toEmmPattern);
 			return new BestFirstBranchAndBound<>(n -> n.content, refinementOperator, rootNode, f, oest,
-					numberOfResults.current(), approximationFactor.current(), depthLimit.current());
+					numberOfResults.current(), approximationFactor.current(), depthLimit.current(),
+					numberOfThreads.current());
 		}
 
 		public String toString() {
@@ -557,7 +564,7 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 			LogicalDescriptorWithValidAugmentationsNode<ExceptionalModelPattern> rootNode = BranchAndBoundSearch
 					.minimalGeneratorRootNode(propLogic.current(), filter, toEmmPattern);
 			return new BestFirstBranchAndBound<>(n -> n.content, expander, rootNode, f, oest, numberOfResults.current(),
-					approximationFactor.current(), depthLimit.current());
+					approximationFactor.current(), depthLimit.current(), numberOfThreads.current());
 		}
 
 		public String toString() {
@@ -578,7 +585,7 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 			LcmSearchNode<ExceptionalModelPattern> rootNode = BranchAndBoundSearch
 					.allDescriptorRootNode(propLogic.current(), toEmmPattern);
 			return new BestFirstBranchAndBound<>(n -> n.content, succ, rootNode, f, oest, numberOfResults.current(),
-					approximationFactor.current(), depthLimit.current());
+					approximationFactor.current(), depthLimit.current(), numberOfThreads.current());
 		}
 
 		public String toString() {
@@ -681,14 +688,14 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 			Population globalPopulation, MetricAttribute target, double alpha) {
 		IntToDoubleFunction h = powerScaledCoverageFunction(globalPopulation, alpha);
 		DoubleUnaryOperator u = normalizedPositiveMeanShift(target);
-		return new TopKMeanOptimisticEstimator(h, u);
+		return new TopKMeanOptimisticEstimator(h, u, rankedValues(target));
 	}
 
 	private static ToDoubleFunction<BranchAndBoundSearchNode<ExceptionalModelPattern>> weightedPositiveMedianShiftOptimisticEstimator(
 			Population globalPopulation, MetricAttribute target, double alpha) {
 		IntToDoubleFunction h = powerScaledCoverageFunction(globalPopulation, alpha);
 		DoubleUnaryOperator u = normalizedPositiveMedianShift(target);
-		return new TopKMedianOptimisticEstimator(h, u);
+		return new TopKMedianOptimisticEstimator(h, u, rankedValues(target));
 	}
 
 	private static ToDoubleFunction<BranchAndBoundSearchNode<ExceptionalModelPattern>> weightedAmdCorrectedPositiveMedianShiftOptimisticEstimator(
@@ -697,7 +704,7 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 		DoubleUnaryOperator h = powerScaledNormalizedAverageAbsoluteMedianDeviationReduction(target, alpha);
 		DoubleUnaryOperator u = normalizedPositiveMedianShift(target);
 		MedianSequenceOptimisticEstimator.ScanOrder order = MedianSequenceOptimisticEstimator.ScanOrder.DECREASING;
-		return new MedianSequenceOptimisticEstimator(g, u, h, order);
+		return new MedianSequenceOptimisticEstimator(g, u, h, order, rankedValues(target));
 	}
 
 	private static ToDoubleFunction<BranchAndBoundSearchNode<ExceptionalModelPattern>> weightedAmdCorrectedNegativeMedianShiftOptimisticEstimator(
@@ -706,21 +713,21 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 		DoubleUnaryOperator h = powerScaledNormalizedAverageAbsoluteMedianDeviationReduction(target, alpha);
 		DoubleUnaryOperator u = normalizedNegativeMedianShift(target);
 		MedianSequenceOptimisticEstimator.ScanOrder order = MedianSequenceOptimisticEstimator.ScanOrder.INCREASING;
-		return new MedianSequenceOptimisticEstimator(g, u, h, order);
+		return new MedianSequenceOptimisticEstimator(g, u, h, order, rankedValues(target));
 	}
 
 	private static ToDoubleFunction<BranchAndBoundSearchNode<ExceptionalModelPattern>> weightedNegativeMedianShiftOptimisticEstimator(
 			Population globalPopulation, MetricAttribute target, double alpha) {
 		IntToDoubleFunction h = powerScaledCoverageFunction(globalPopulation, alpha);
 		DoubleUnaryOperator u = normalizedNegativeMedianShift(target);
-		return new BottomKMedianOptimisticEstimator(h, u);
+		return new BottomKMedianOptimisticEstimator(h, u, rankedValues(target));
 	}
 
 	private static ToDoubleFunction<BranchAndBoundSearchNode<ExceptionalModelPattern>> weightedNegativeMeanShiftOptimisticEstimator(
 			Population globalPopulation, MetricAttribute target, double alpha) {
 		IntToDoubleFunction h = powerScaledCoverageFunction(globalPopulation, alpha);
 		DoubleUnaryOperator u = normalizedNegativeMeanShift(target);
-		return new BottomKMeanOptimisticEstimator(h, u);
+		return new BottomKMeanOptimisticEstimator(h, u, rankedValues(target));
 	}
 
 	private static final class TopKMeanOptimisticEstimator
@@ -730,17 +737,17 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 
 		private final DoubleUnaryOperator u;
 
-		public TopKMeanOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u) {
+		private final RankedValues targetValues;
+
+		public TopKMeanOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u, RankedValues targetValues) {
 			this.h = h;
 			this.u = u;
+			this.targetValues = targetValues;
 		}
 
 		@Override
 		public double applyAsDouble(BranchAndBoundSearchNode<ExceptionalModelPattern> node) {
-			MetricAttribute target = (MetricAttribute) node.content.descriptor().targetAttributes().get(0);
-			double[] valuesIncreasing = target.sortedNonMissingRowIndices().stream()
-					.filter(i -> node.content.descriptor().supportSet().contains(i)).mapToDouble(i -> target.value(i))
-					.toArray();
+			double[] valuesIncreasing = targetValues.valuesIncreasing(node.content.descriptor().supportSet());
 			double incrementalAverage = 0;
 			double best = Double.NEGATIVE_INFINITY;
 			for (int i = 1; i <= valuesIncreasing.length; i++) {
@@ -759,17 +766,17 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 
 		private final DoubleUnaryOperator u;
 
-		public BottomKMeanOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u) {
+		private final RankedValues targetValues;
+
+		public BottomKMeanOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u, RankedValues targetValues) {
 			this.h = h;
 			this.u = u;
+			this.targetValues = targetValues;
 		}
 
 		@Override
 		public double applyAsDouble(BranchAndBoundSearchNode<ExceptionalModelPattern> node) {
-			MetricAttribute target = (MetricAttribute) node.content.descriptor().targetAttributes().get(0);
-			double[] valuesIncreasing = target.sortedNonMissingRowIndices().stream()
-					.filter(i -> node.content.descriptor().supportSet().contains(i)).mapToDouble(i -> target.value(i))
-					.toArray();
+			double[] valuesIncreasing = targetValues.valuesIncreasing(node.content.descriptor().supportSet());
 			double incrementalAverage = 0;
 			double best = Double.NEGATIVE_INFINITY;
 			for (int i = 1; i <= valuesIncreasing.length; i++) {
@@ -788,18 +795,18 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 
 		private final DoubleUnaryOperator u;
 
-		public BottomKMedianOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u) {
+		private final RankedValues targetValues;
+
+		public BottomKMedianOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u, RankedValues targetValues) {
 			this.h = h;
 			this.u = u;
+			this.targetValues = targetValues;
 		}
 
 		@Override
 		public double applyAsDouble(BranchAndBoundSearchNode<ExceptionalModelPattern> node) {
-			MetricAttribute target = (MetricAttribute) node.content.descriptor().targetAttributes().get(0);
 			double best = Double.NEGATIVE_INFINITY;
-			double[] orderedValues = target.sortedNonMissingRowIndices().stream()
-					.filter(i -> node.content.descriptor().supportSet().contains(i)).mapToDouble(i -> target.value(i))
-					.toArray();
+			double[] orderedValues = targetValues.valuesIncreasing(node.content.descriptor().supportSet());
 			for (int i = 1; i <= orderedValues.length / 2; i++) {
 				double median = orderedValues[i - 1];
 				int size = 2 * i - 1;
@@ -818,18 +825,18 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 
 		private final DoubleUnaryOperator u;
 
-		public TopKMedianOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u) {
+		private final RankedValues targetValues;
+
+		public TopKMedianOptimisticEstimator(IntToDoubleFunction h, DoubleUnaryOperator u, RankedValues targetValues) {
 			this.h = h;
 			this.u = u;
+			this.targetValues = targetValues;
 		}
 
 		@Override
 		public double applyAsDouble(BranchAndBoundSearchNode<ExceptionalModelPattern> node) {
-			MetricAttribute target = (MetricAttribute) node.content.descriptor().targetAttributes().get(0);
 			double best = Double.NEGATIVE_INFINITY;
-			double[] orderedValues = target.sortedNonMissingRowIndices().stream()
-					.filter(i -> node.content.descriptor().supportSet().contains(i)).mapToDouble(i -> target.value(i))
-					.toArray();
+			double[] orderedValues = targetValues.valuesIncreasing(node.content.descriptor().supportSet());
 			for (int i = 1; i <= orderedValues.length / 2; i++) {
 				double ithMedianFromTop = orderedValues[orderedValues.length - i];
 				int maxSizeOfSetWithMedianI = 2 * i - 1;
@@ -872,21 +879,21 @@ public class ExceptionalSubgroupBestFirstBranchAndBound extends AbstractMiningAl
 
 		private final ScanOrder order;
 
+		private final RankedValues targetValues;
+
 		public MedianSequenceOptimisticEstimator(IntToDoubleFunction g, DoubleUnaryOperator u, DoubleUnaryOperator h,
-				ScanOrder order) {
+				ScanOrder order, RankedValues targetValues) {
 			this.g = g;
 			this.u = u;
 			this.h = h;
 			this.order = order;
+			this.targetValues = targetValues;
 		}
 
 		@Override
 		public double applyAsDouble(BranchAndBoundSearchNode<ExceptionalModelPattern> node) {
-			MetricAttribute target = (MetricAttribute) node.content.descriptor().targetAttributes().get(0);
 			double best = NEGATIVE_INFINITY;
-			double[] orderedValues = target.sortedNonMissingRowIndices().stream()
-					.filter(i -> node.content.descriptor().supportSet().contains(i)).mapToDouble(i -> target.value(i))
-					.toArray();
+			double[] orderedValues = targetValues.valuesIncreasing(node.content.descriptor().supportSet());
 
 			if (orderedValues.length == 0) {
 				return NEGATIVE_INFINITY;
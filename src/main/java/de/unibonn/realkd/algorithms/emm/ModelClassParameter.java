@@ -53,6 +53,7 @@ import de.unibonn.realkd.patterns.models.regression.LeastSquareRegressionModelFa
 import de.unibonn.realkd.patterns.models.regression.TheilSenLinearRegressionModelFactory;
 import de.unibonn.realkd.patterns.models.table.ContingencyTableModelFactory;
 import de.unibonn.realkd.patterns.models.weibull.FixedShapeWeibullModelFactory;
+import de.unibonn.realkd.patterns.models.weibull.WeibullModelFactory;
 import de.unibonn.realkd.util.Predicates;
 
 /**
@@ -63,7 +64,7 @@ import de.unibonn.realkd.util.Predicates;
  * 
  * @since 0.1.0
  * 
- * @version 0.5.0
+ * @version 0.7.2
  * 
  */
 public final class ModelClassParameter implements RangeEnumerableParameter<Supplier<ModelFactory<?>>> {
@@ -81,6 +82,11 @@ public final class ModelClassParameter implements RangeEnumerableParameter<Suppl
 	 */
 	public final ModelClassOption WEIBULL_OPTION = new FixedShapeWeibullWrapper();
 
+	/**
+	 * Weibull distribution with shape and scale fitted by maximum likelihood.
+	 */
+	public final ModelClassOption FITTED_SHAPE_WEIBULL_OPTION = singleton(WeibullModelFactory.INSTANCE);
+
 	private final BernoulliOption bernoulliOption;
 
 	private final DiscretelyConditionedBernoulliOption discretelyConditionedBernoulliOption;
@@ -294,7 +300,8 @@ public final class ModelClassParameter implements RangeEnumerableParameter<Suppl
 		this.bernoulliOption = new BernoulliOption(targetAttributesParameter);
 		this.discretelyConditionedBernoulliOption = new DiscretelyConditionedBernoulliOption(targetAttributesParameter);
 		this.allOptions = ImmutableList.of(empirical_distribution_option, contingency_table_option, bernoulliOption(),
-				discretelyConditionedBernoulliOption, GAUSSIAN_OPTION, WEIBULL_OPTION, LASSO_MODEL_OPTION,
+				discretelyConditionedBernoulliOption, GAUSSIAN_OPTION, WEIBULL_OPTION, FITTED_SHAPE_WEIBULL_OPTION,
+				LASSO_MODEL_OPTION,
 				THEIL_SEN_REGRESSION_MODEL_OPTION);
 		wrapped = Parameters.rangeEnumerableParameter(
 				ID, NAME, DESCRIPTION, ModelFactory.class, () -> allOptions.stream()
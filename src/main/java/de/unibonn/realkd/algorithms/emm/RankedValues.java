@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.unibonn.realkd.algorithms.emm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator.OfInt;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.data.table.attribute.MetricAttribute;
+
+/**
+ * Non-missing values of a metric attribute in increasing order together with
+ * the rank of every row. This allows to extract the ordered values of a row
+ * subset in time proportional to its size (plus sorting) instead of scanning
+ * all rows in value order.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+final class RankedValues {
+
+	static RankedValues rankedValues(MetricAttribute attribute) {
+		List<Integer> sortedRows = attribute.sortedNonMissingRowIndices();
+		int[] rowOfRank = new int[sortedRows.size()];
+		double[] values = new double[sortedRows.size()];
+		int[] rankOfRow = new int[attribute.maxIndex() + 1];
+		Arrays.fill(rankOfRow, -1);
+		for (int r = 0; r < rowOfRank.length; r++) {
+			rowOfRank[r] = sortedRows.get(r);
+			values[r] = attribute.value(rowOfRank[r]);
+			rankOfRow[rowOfRank[r]] = r;
+		}
+		return new RankedValues(values, rowOfRank, rankOfRow);
+	}
+
+	/**
+	 * Determines the ranks of a set of rows in increasing order. Depending on the
+	 * size of the set, this is done either by sorting the ranks of the rows or by
+	 * scanning all ranks.
+	 * 
+	 * @param rows
+	 *            the rows to look up
+	 * @param rowOfRank
+	 *            the row for each rank
+	 * @param rankOfRow
+	 *            the rank for each row or -1 if row has no rank
+	 * @return increasing array of ranks of rows that have a rank
+	 */
+	static int[] increasingRanks(IndexSet rows, int[] rowOfRank, int[] rankOfRow) {
+		int k = rows.size();
+		int[] result = new int[Math.min(k, rowOfRank.length)];
+		int j = 0;
+		if ((long) k * (32 - Integer.numberOfLeadingZeros(k)) < rowOfRank.length) {
+			for (OfInt it = rows.iterator(); it.hasNext() && j < result.length;) {
+				int row = it.nextInt();
+				if (row < rankOfRow.length && rankOfRow[row] >= 0) {
+					result[j++] = rankOfRow[row];
+				}
+			}
+			Arrays.sort(result, 0, j);
+		} else {
+			for (int r = 0; r < rowOfRank.length && j < result.length; r++) {
+				if (rows.contains(rowOfRank[r])) {
+					result[j++] = r;
+				}
+			}
+		}
+		return j == result.length ? result : Arrays.copyOf(result, j);
+	}
+
+	private final double[] values;
+
+	private final int[] rowOfRank;
+
+	private final int[] rankOfRow;
+
+	private RankedValues(double[] values, int[] rowOfRank, int[] rankOfRow) {
+		this.values = values;
+		this.rowOfRank = rowOfRank;
+		this.rankOfRow = rankOfRow;
+	}
+
+	/**
+	 * @return the non-missing values of the given rows in increasing order
+	 */
+	double[] valuesIncreasing(IndexSet rows) {
+		int[] ranks = increasingRanks(rows, rowOfRank, rankOfRow);
+		double[] result = new double[ranks.length];
+		for (int j = 0; j < ranks.length; j++) {
+			result[j] = values[ranks[j]];
+		}
+		return result;
+	}
+
+}
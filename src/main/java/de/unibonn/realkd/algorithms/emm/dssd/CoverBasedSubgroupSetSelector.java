@@ -1,9 +1,14 @@
 package de.unibonn.realkd.algorithms.emm.dssd;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
 
 import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.patterns.LocalPatternDescriptor;
@@ -21,6 +26,16 @@ import de.unibonn.realkd.patterns.Pattern;
  * covered by previously selected subgroups. There exist alternative strategies
  * to compute this bonus.
  *
+ * <p>
+ * Selection is lazy-greedy: since the bonus of a record does not increase with
+ * its cover count, the score of a candidate with non-negative quality can only
+ * decrease when further subgroups are selected. Hence, scores computed in
+ * earlier rounds are upper bounds, and only candidates whose bound reaches the
+ * top of a priority queue are re-scored (in parallel batches). Scores are
+ * computed from bit vectors of the candidate covers by counting, for each
+ * cover count, the records of the cover with that count.
+ * </p>
+ *
  * @see de.unibonn.realkd.algorithms.emm.dssd.SequentialCoverBasedSubgroupSetSelector
  * @see de.unibonn.realkd.algorithms.emm.dssd.AdditiveCoverBasedSubgroupSetSelector
  * @see de.unibonn.realkd.algorithms.emm.dssd.MultiplicativeCoverBasedSubgroupSetSelector
@@ -28,8 +43,75 @@ import de.unibonn.realkd.patterns.Pattern;
  * @author Vladimir Dzyuba, KU Leuven
  */
 public abstract class CoverBasedSubgroupSetSelector extends SubgroupSetSelector {
+
+	private static final int RESCORING_BATCH_SIZE = Runtime.getRuntime()
+			.availableProcessors();
+
+	/*
+	 * higher score first; among equal scores the candidate of higher quality
+	 * rank
+	 */
+	private static final Comparator<Candidate> SCORE_ORDER = (c1, c2) -> {
+		final int byScore = Double.compare(c2.score, c1.score);
+		return byScore != 0 ? byScore : Integer.compare(c1.index, c2.index);
+	};
+
 	protected int[] coverCounts;
 
+	/*
+	 * bit i of coverLevels[c] is set iff coverCounts[i] == c
+	 */
+	private long[][] coverLevels;
+
+	private double[] levelBonus;
+
+	private int maxLevel;
+
+	private static final class Candidate {
+
+		private final Pattern<?> pattern;
+
+		private final int index;
+
+		private final double quality;
+
+		private final long[] cover;
+
+		private final int coverSize;
+
+		private final int fromWord;
+
+		private final int toWord;
+
+		private double score;
+
+		private int round;
+
+		private Candidate(final Pattern<?> pattern, final int index,
+				final double quality, final IndexSet support,
+				final int populationSize) {
+			this.pattern = pattern;
+			this.index = index;
+			this.quality = quality;
+			this.cover = new long[words(populationSize)];
+			int from = cover.length;
+			int to = 0;
+			for (int i : support) {
+				cover[i >>> 6] |= 1L << i;
+				from = Math.min(from, i >>> 6);
+				to = max(to, (i >>> 6) + 1);
+			}
+			this.coverSize = support.size();
+			this.fromWord = from;
+			this.toWord = to;
+		}
+
+	}
+
+	private static int words(final int size) {
+		return (size + 63) >>> 6;
+	}
+
 	@Override
 	/**
 	 * Greedily selects subgroups that maximise the (dynamic) coverage score.
@@ -42,75 +124,131 @@ public abstract class CoverBasedSubgroupSetSelector extends SubgroupSetSelector
 		final Pattern<?> topRanked = candidates.remove(0);
 		results.add(topRanked); // Always add the top-ranked pattern
 
-		coverCounts = new int[topRanked.population().size()];
+		final int populationSize = topRanked.population().size();
+		coverCounts = new int[populationSize];
+		coverLevels = new long[k + 1][words(populationSize)];
+		for (int i = 0; i < populationSize; i++) {
+			coverLevels[0][i >>> 6] |= 1L << i;
+		}
+		levelBonus = new double[k + 1];
+		levelBonus[0] = 1;
+		for (int c = 1; c <= k; c++) {
+			levelBonus[c] = bonusForAlreadyCoveredRecord(c);
+		}
+		maxLevel = 0;
 		incrementCountsWith(topRanked);
 
+		final List<Candidate> scored = IntStream.range(0, candidates.size())
+				.parallel().mapToObj(i -> {
+					final Candidate candidate = candidate(candidates.get(i), i,
+							populationSize);
+					rescore(candidate, 1);
+					return candidate;
+				}).collect(toList());
+
+		/*
+		 * scores of candidates with negative quality can increase with cover
+		 * counts; these are re-scored in every round
+		 */
+		final PriorityQueue<Candidate> queue = new PriorityQueue<>(
+				max(1, scored.size()), SCORE_ORDER);
+		final List<Candidate> negative = new ArrayList<>();
+		for (Candidate candidate : scored) {
+			if (candidate.quality < 0) {
+				negative.add(candidate);
+			} else {
+				queue.add(candidate);
+			}
+		}
+
+		int round = 1;
 		while (results.size() < k) {
-			final Pattern<?> next = selectNext(candidates);
-			candidates.remove(next);
+			final Candidate next = selectNext(queue, negative, round);
 
-			incrementCountsWith(next);
-			results.add(next);
+			incrementCountsWith(next.pattern);
+			results.add(next.pattern);
+			round++;
 		}
 
 		return results;
 	}
 
+	private Candidate candidate(final Pattern<?> pattern, final int index,
+			final int populationSize) {
+		checkArgument(pattern.descriptor() instanceof LocalPatternDescriptor,
+				"Descriptor must describe sub population of data.");
+		return new Candidate(pattern, index, quality(pattern),
+				((LocalPatternDescriptor) pattern.descriptor()).supportSet(),
+				populationSize);
+	}
+
 	private void incrementCountsWith(final Pattern<?> addedPattern) {
 		checkArgument(
 				addedPattern.descriptor() instanceof LocalPatternDescriptor,
 				"Pattern descriptor must describe sub population of data.");
 		for (int i : ((LocalPatternDescriptor) addedPattern.descriptor())
 				.supportSet()) {
-			coverCounts[i]++;
+			final int count = coverCounts[i]++;
+			coverLevels[count][i >>> 6] &= ~(1L << i);
+			coverLevels[count + 1][i >>> 6] |= 1L << i;
+			maxLevel = max(maxLevel, count + 1);
 		}
 	}
 
-	private Pattern<?> selectNext(final List<Pattern<?>> candidates) {
-		Pattern<?> next = null;
-		double maxScore = -Double.MAX_VALUE;
-		for (Pattern<?> cand : candidates) {
-			checkArgument(
-					cand.descriptor() instanceof LocalPatternDescriptor,
-					"Descriptor must describe sub population of data.");
-			final double quality = quality(cand);
-			if (quality < maxScore)
-				continue;
-
-			final IndexSet cover = ((LocalPatternDescriptor) cand
-					.descriptor()).supportSet();
-			final int coverage = cover.size();
-
-			// TODO: very convoluted method of maintaining a bound
-			final double coverageBonus = coverageBonus(coverCounts, cover,
-					coverage, maxScore * coverage / quality);
-			final double score = quality * coverageBonus;
-			if (score > maxScore) {
-				next = cand;
-				maxScore = score;
+	/**
+	 * Removes and returns the candidate of maximum score in the current round.
+	 */
+	private Candidate selectNext(final PriorityQueue<Candidate> queue,
+			final List<Candidate> negative, final int round) {
+		while (!queue.isEmpty() && queue.peek().round < round) {
+			final List<Candidate> stale = new ArrayList<>(
+					RESCORING_BATCH_SIZE);
+			while (stale.size() < RESCORING_BATCH_SIZE && !queue.isEmpty()
+					&& queue.peek().round < round) {
+				stale.add(queue.poll());
+			}
+			(stale.size() > 1 ? stale.parallelStream() : stale.stream())
+					.forEach(c -> rescore(c, round));
+			queue.addAll(stale);
+		}
+
+		final Candidate top = queue.poll();
+		Candidate next = top;
+		for (Candidate candidate : negative) {
+			rescore(candidate, round);
+			if (next == null || SCORE_ORDER.compare(candidate, next) < 0) {
+				next = candidate;
+			}
+		}
+		if (next != top) {
+			negative.remove(next);
+			if (top != null) {
+				queue.add(top);
 			}
 		}
 
 		return next;
 	}
 
-	private double coverageBonus(final int[] coverCounts,
-			final IndexSet candidateCover, final int candidateSize,
-			final double currentMax) {
-		double score = 0.0;
-		int residualCoverage = candidateSize;
-
-		for (int i : candidateCover) {
-			final int coverCount = coverCounts[i];
-			score += (coverCount == 0) ? 1
-					: bonusForAlreadyCoveredRecord(coverCount);
+	private void rescore(final Candidate candidate, final int round) {
+		final double score = candidate.quality * coverageBonus(candidate);
+		candidate.score = Double.isNaN(score) ? Double.NEGATIVE_INFINITY
+				: score;
+		candidate.round = round;
+	}
 
-			final double scoreUpperBound = score + --residualCoverage;
-			if (scoreUpperBound < currentMax)
-				return Double.NEGATIVE_INFINITY;
+	private double coverageBonus(final Candidate candidate) {
+		double score = 0.0;
+		for (int c = 0; c <= maxLevel; c++) {
+			final long[] level = coverLevels[c];
+			int count = 0;
+			for (int w = candidate.fromWord; w < candidate.toWord; w++) {
+				count += Long.bitCount(candidate.cover[w] & level[w]);
+			}
+			score += levelBonus[c] * count;
 		}
 
-		return (score / candidateSize);
+		return (score / candidate.coverSize);
 	}
 
 	/**
@@ -62,6 +62,7 @@ import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.patterns.Frequency;
 import de.unibonn.realkd.patterns.Pattern;
 import de.unibonn.realkd.patterns.emm.ModelDeviationMeasure;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptor;
 import de.unibonn.realkd.patterns.subgroups.Subgroup;
 import de.unibonn.realkd.util.Predicates;
 
@@ -74,7 +75,7 @@ import de.unibonn.realkd.util.Predicates;
  * 
  * @since 0.1.0
  * 
- * @version 0.1.0.1
+ * @version 0.7.2
  * 
  */
 public class DiverseSubgroupSetDiscovery extends AbstractMiningAlgorithm<Pattern<?>> {
@@ -133,7 +134,7 @@ public class DiverseSubgroupSetDiscovery extends AbstractMiningAlgorithm<Pattern
 		this.beamSearch = new BeamSearch(workspace,
 				new ParameterBoundLogicalDescriptorToEmmPatternMap(datatableParameter, targetAttributesParameter,
 						modelClassParameter, modelDistanceFunctionParameter),
-				pattern -> ((Subgroup<?>) pattern.descriptor()).extensionDescriptor());
+				pattern -> ((Subgroup<?>) pattern.descriptor()).extensionDescriptor(), LogicalDescriptor::supportSet);
 
 		Predicate<Proposition> propFilter = prop -> !((prop instanceof AttributeBasedProposition)
 				&& descriptorAttributesParameter.current().contains(((AttributeBasedProposition<?>) prop).attribute()));
@@ -97,6 +97,8 @@ public class BeamFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 
 	private final Parameter<RefinementPropagation> refPropOption;
 
+	private final Parameter<Integer> numberOfThreads;
+
 	public BeamFunctionalPatternSearch(Workspace workspace) {
 		datatableParameter = MiningParameters.dataTableParameter(workspace);
 
@@ -129,6 +131,10 @@ public class BeamFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 				"Which refinement propagation strategy to use", RefinementPropagation.class,
 				() -> asList(RefinementPropagation.values()));
 
+		numberOfThreads = Parameters.integerParameter(id("num_threads"), "Number of threads",
+				"The number of threads used for refining and evaluating the beam. Results do not depend on the number of threads.",
+				1, n -> n > 0, "Specify positive integer.");
+
 		registerParameter(datatableParameter);
 		registerParameter(targetAttributeParameter);
 		registerParameter(attributeFilter);
@@ -136,6 +142,7 @@ public class BeamFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 		registerParameter(beamWidth);
 		registerParameter(optimisticOption);
 		registerParameter(refPropOption);
+		registerParameter(numberOfThreads);
 	}
 
 	@Override
@@ -218,7 +225,7 @@ public class BeamFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 		double entropyY = marginalY.entropy();
 		beamSearch = new NewBeamSearch<FunctionalPattern, SearchNode>(n -> n.pattern, ops,
 				new SearchNode(rootPattern, marginalY, entropyY), f, optimisticOption().fOEst(), topK(), beamWidth(),
-				Optional.empty(), refPropOption.current());
+				Optional.empty(), refPropOption.current(), numberOfThreads.current());
 
 		Collection<FunctionalPattern> result = beamSearch.call();
 		return result;
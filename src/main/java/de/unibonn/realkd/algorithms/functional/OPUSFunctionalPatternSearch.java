@@ -112,6 +112,8 @@ public class OPUSFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 
 	private final Parameter<OptimisticEstimatorOption> optimisticOption;
 
+	private final Parameter<Integer> numberOfThreads;
+
 	public OPUSFunctionalPatternSearch(Workspace workspace) {
 		datatableParameter = MiningParameters.dataTableParameter(workspace);
 
@@ -151,6 +153,10 @@ public class OPUSFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 				"Which optimistic estimator to use", OptimisticEstimatorOption.class,
 				() -> asList(OptimisticEstimatorOption.values()));
 
+		numberOfThreads = Parameters.integerParameter(id("num_threads"), "Number of threads",
+				"The number of threads used for evaluating refinements. Results do not depend on the number of threads.",
+				1, n -> n > 0, "Specify positive integer.");
+
 		registerParameter(datatableParameter);
 		registerParameter(targetAttributeParameter);
 		registerParameter(attributeFilter);
@@ -160,6 +166,7 @@ public class OPUSFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 		registerParameter(operatorOrder);
 		registerParameter(languageOption);
 		registerParameter(optimisticOption);
+		registerParameter(numberOfThreads);
 	}
 
 	@Override
@@ -218,6 +225,14 @@ public class OPUSFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 		return alpha.current();
 	}
 
+	public void numberOfThreads(int numberOfThreads) {
+		this.numberOfThreads.set(numberOfThreads);
+	}
+
+	public int numberOfThreads() {
+		return numberOfThreads.current();
+	}
+
 	public void traverseOrderOption(TraverseOrder order) {
 		this.traverseOrderOption.set(order);
 	}
@@ -272,7 +287,7 @@ public class OPUSFunctionalPatternSearch extends AbstractMiningAlgorithm<Functio
 		double entropyY = marginalY.entropy();
 		opus = new OPUS<FunctionalPattern, SearchNode>(n -> n.pattern, ops,
 				new SearchNode(rootPattern, marginalY, entropyY), f, optimisticOption().fOEst(), topK(), alpha(),
-				Optional.empty(), operatorOrder(), traverseOrderOption.current(),
+				Optional.empty(), operatorOrder(), traverseOrderOption.current(), numberOfThreads.current(),
 				languageOption.current().additionalPruningCriterion());
 
 		Collection<FunctionalPattern> result = opus.call();
@@ -38,13 +38,13 @@ import de.unibonn.realkd.common.parameter.ParameterContainer;
  */
 public class ILOFNewDataParameter extends DefaultParameter<String> {
 
-	private static final String HINT = "Specify the new Point value";
+	private static final String HINT = "Specify the new Point value, e.g., 1.5,2.0;3.0,0.5";
 
 	private static final Class<String> TYPE = String.class;
 
 	private static final String DEFAULT_VALUE = "";
 
-	private static final String DESCRIPTION = "The value of new Point that is used in the Algorithm";
+	private static final String DESCRIPTION = "The values of new Points that are used in the Algorithm (points separated by ';', coordinates in order of target attributes in data table separated by ',')";
 
 	private static final String NAME = "newPoint";
 
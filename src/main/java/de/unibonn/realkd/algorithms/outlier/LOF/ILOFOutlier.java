@@ -24,15 +24,28 @@
  */
 package de.unibonn.realkd.algorithms.outlier.LOF;
 
+import static de.unibonn.realkd.common.IndexSets.copyOf;
+import static de.unibonn.realkd.common.base.Identifier.id;
+import static de.unibonn.realkd.data.table.attribute.Attributes.metricDoubleAttribute;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
 
 import de.unibonn.realkd.algorithms.AlgorithmCategory;
+import de.unibonn.realkd.common.base.Identifier;
 import de.unibonn.realkd.common.workspace.Workspace;
+import de.unibonn.realkd.data.Populations;
 import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.DataTables;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.patterns.Pattern;
+import de.unibonn.realkd.patterns.outlier.Outlier;
 
 /**
  * 
@@ -41,12 +54,23 @@ import de.unibonn.realkd.patterns.Pattern;
  * we use this class for iterative mode of LOF.
  * in iterative mode new example can be added or deleted from the datset.
  * </p>
+ * <p>
+ * New points are inserted into an {@link IncrementalLocalOutlierFactors}
+ * model of the data table such that only the neighbourhoods affected by
+ * each insertion are updated. Besides the outlier pattern of the rows of the
+ * data table, the result contains an outlier pattern of the new points, which
+ * refers to a table of the new points and their local outlier factors.
+ * </p>
  * @author amr Koura
  *
  */
 public class ILOFOutlier extends LOFOutlier {
 
+	private static final Logger LOGGER = Logger.getLogger(ILOFOutlier.class.getName());
+
 	protected ILOFNewDataParameter newPoint;
+
+	protected double[] newPointLof;
 	
 	public ILOFOutlier(Workspace workspace) {
 		
@@ -85,37 +109,128 @@ public class ILOFOutlier extends LOFOutlier {
 		return AlgorithmCategory.OUTLIER_DETECTION;
 	}
 
+	/**
+	 * Parses new points from parameter value where points are separated by ';'
+	 * and coordinates (in order of target attributes in the data table) by
+	 * ','.
+	 */
+	static List<double[]> newPoints(String value, int dimensions) {
+		List<double[]> result = new ArrayList<>();
+		for (String point : value.split(";")) {
+			if (point.trim().isEmpty()) {
+				continue;
+			}
+			String[] coordinates = point.split(",");
+			if (coordinates.length != dimensions) {
+				throw new IllegalArgumentException(
+						"new point '" + point + "' does not have " + dimensions + " coordinates");
+			}
+			double[] parsed = new double[dimensions];
+			for (int d = 0; d < dimensions; d++) {
+				parsed[d] = Double.parseDouble(coordinates[d].trim());
+			}
+			result.add(parsed);
+		}
+		return result;
+	}
+
 	/**
 	 * used to add set of Points dynamically
 	 */
 	@Override
 	protected Collection<Pattern<?>> concreteCall() {
-		// TODO Auto-generated method stub
-		
-		
 		DataTable dt = this.getDataTable();
 
-		// Determine indices for target attrs and make sure they are numeric
+		// Determine indices for target attrs in order of data table
 		List<String> names = dt.attributeNames();
 		List<Integer> idxs = new ArrayList<>();
 
 		for (Attribute<?> attribute : this.targetAttrParam.current()) {
 			int idx = names.indexOf(attribute.caption());
-//			Check.isTrue(dt.isNumeric(idx));
 			idxs.add(idx);
 		}
+		Collections.sort(idxs);
 
 		numExamples = dt.population().size();
-		int numDims = idxs.size();
-		
-		// insert the new point
-		for(Integer tmpAttributeIndex:idxs)
-		{
-			//dt.getAttribute(tmpAttributeIndex).
+
+		IncrementalLocalOutlierFactors model = IncrementalLocalOutlierFactors.incrementalLocalOutlierFactors(dt, idxs,
+				KParameter.current());
+
+		// insert the new points; only affected neighbourhoods are updated
+		List<double[]> points = newPoints(newPoint.current(), idxs.size());
+		int[] indices = new int[points.size()];
+		for (int j = 0; j < points.size(); j++) {
+			indices[j] = model.insert(points.get(j));
 		}
-		
-		
-		return null;
+
+		// factors are read only after all insertions, because later
+		// insertions can change the factors of earlier new points
+		newPointLof = new double[points.size()];
+		for (int j = 0; j < points.size(); j++) {
+			newPointLof[j] = model.localOutlierFactor(indices[j]);
+			double value = newPointLof[j];
+			double[] point = points.get(j);
+			LOGGER.fine(() -> "LOF of new point " + Arrays.toString(point) + ": " + value
+					+ (value > 1.5 ? " (outlier)" : ""));
+		}
+
+		lof = new double[numExamples];
+		for (int i = 0; i < numExamples; i++) {
+			lof[i] = model.localOutlierFactor(i);
+			if (lof[i] > 1.5) {
+				outlierIdxs.add(i);
+			}
+		}
+
+		List<Pattern<?>> results = outlierPatterns();
+		if (!points.isEmpty()) {
+			results.add(newPointOutlierPattern(dt, idxs, points));
+		}
+		return results;
+	}
+
+	/**
+	 * @return local outlier factors of the new points of the last call (in
+	 *         order of the new point parameter)
+	 */
+	public double[] getNewPointLof() {
+		return newPointLof;
+	}
+
+	/**
+	 * Creates outlier pattern of the new points that are marked as outliers.
+	 * The pattern refers to a table that contains one row per new point with
+	 * its coordinates and its local outlier factor.
+	 */
+	private Pattern<?> newPointOutlierPattern(DataTable dt, List<Integer> idxs, List<double[]> points) {
+		List<Attribute<?>> attributes = new ArrayList<>();
+		for (int d = 0; d < idxs.size(); d++) {
+			Attribute<?> attribute = dt.attribute(idxs.get(d));
+			List<Double> values = new ArrayList<>();
+			for (double[] point : points) {
+				values.add(point[d]);
+			}
+			attributes.add(metricDoubleAttribute(attribute.identifier(), attribute.caption(),
+					attribute.description(), values));
+		}
+		Set<Attribute<?>> coordinateAttributes = new HashSet<>(attributes);
+		List<Double> factors = new ArrayList<>();
+		List<Integer> outliers = new ArrayList<>();
+		for (int j = 0; j < newPointLof.length; j++) {
+			factors.add(newPointLof[j]);
+			if (newPointLof[j] > 1.5) {
+				outliers.add(j);
+			}
+		}
+		attributes.add(metricDoubleAttribute(id("lof"), "LOF", "Local outlier factor of new point", factors));
+
+		Identifier tableId = id("new_points_of_" + dt.identifier());
+		DataTable newPoints = DataTables.table(tableId, "New points of " + dt.caption(),
+				"Points added to " + dt.caption() + " with their local outlier factors",
+				Populations.population(id("population_of_" + tableId), points.size()), attributes);
+
+		return new Outlier(newPoints, copyOf(outliers), coordinateAttributes, 1.0,
+				outliers.size() * 1.0 / points.size());
 	}
 
 }
@@ -0,0 +1,339 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.outlier.LOF;
+
+import static de.unibonn.realkd.algorithms.outlier.LOF.LocalOutlierFactors.count;
+import static de.unibonn.realkd.algorithms.outlier.LOF.LocalOutlierFactors.neighbourhood;
+import static de.unibonn.realkd.algorithms.outlier.LOF.LocalOutlierFactors.reachabilityBound;
+import static de.unibonn.realkd.algorithms.outlier.LOF.LocalOutlierFactors.truncated;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+import de.unibonn.realkd.algorithms.outlier.LOF.KdTree.Neighbours;
+import de.unibonn.realkd.data.table.DataTable;
+
+/**
+ * <p>
+ * Maintains local outlier factors of a dynamic point set (incremental LOF).
+ * When a point is inserted or removed, only the neighbourhoods of points that
+ * contain the point are updated. Subsequently, local reachability densities
+ * are recomputed only for points whose neighbourhood or whose neighbours'
+ * reachability bounds changed, and local outlier factors only for those and
+ * the points that have one of them as neighbour. Affected points are found
+ * via reverse range queries on the {@link KdTree}, where the radius of a
+ * point is the distance of the first point beyond its k-neighbourhood.
+ * </p>
+ * <p>
+ * After every update, all factors are equal to those computed by
+ * {@link LocalOutlierFactors} on the current point set (with points in order
+ * of their indices). Distances are scaled with the value ranges of the
+ * initial data, which are not updated.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class IncrementalLocalOutlierFactors {
+
+	public static IncrementalLocalOutlierFactors incrementalLocalOutlierFactors(DataTable data,
+			List<Integer> attributeIndices, int k) {
+		KdTree tree = new KdTree(LocalOutlierFactors.coordinates(data, attributeIndices), attributeIndices.size(),
+				LocalOutlierFactors.ranges(data, attributeIndices));
+		return new IncrementalLocalOutlierFactors(tree, k);
+	}
+
+	private final KdTree tree;
+
+	private final int k;
+
+	private Neighbours[] neighbourhoods;
+
+	private double[] reachabilityBounds;
+
+	private double[] localReachabilityDensities;
+
+	private double[] localOutlierFactors;
+
+	IncrementalLocalOutlierFactors(KdTree tree, int k) {
+		this.tree = tree;
+		this.k = k;
+		int n = tree.numberOfPoints();
+		this.neighbourhoods = new Neighbours[n];
+		this.reachabilityBounds = new double[n];
+		this.localReachabilityDensities = new double[n];
+		this.localOutlierFactors = new double[n];
+		BitSet all = new BitSet(n);
+		all.set(0, n);
+
+		all.stream().parallel().forEach(i -> {
+			neighbourhoods[i] = neighbourhood(tree, i, k);
+			reachabilityBounds[i] = reachabilityBound(neighbourhoods[i]);
+		});
+		all.stream().forEach(i -> tree.radius(i, radius(neighbourhoods[i])));
+		all.stream().parallel().forEach(this::updateLocalReachabilityDensity);
+		all.stream().parallel().forEach(this::updateLocalOutlierFactor);
+	}
+
+	/**
+	 * Radius for reverse queries: a point p belongs to the neighbourhood (with
+	 * ties) of a point q if and only if d(q,p) is less than this radius.
+	 */
+	private double radius(Neighbours neighbours) {
+		return neighbours.size() > count(neighbours, k) ? reachabilityBound(neighbours) : Double.POSITIVE_INFINITY;
+	}
+
+	private void ensureCapacity(int i) {
+		if (i >= neighbourhoods.length) {
+			int capacity = Math.max(2 * neighbourhoods.length, i + 1);
+			neighbourhoods = Arrays.copyOf(neighbourhoods, capacity);
+			reachabilityBounds = Arrays.copyOf(reachabilityBounds, capacity);
+			localReachabilityDensities = Arrays.copyOf(localReachabilityDensities, capacity);
+			localOutlierFactors = Arrays.copyOf(localOutlierFactors, capacity);
+		}
+	}
+
+	private void updateLocalReachabilityDensity(int i) {
+		localReachabilityDensities[i] = LocalOutlierFactors.localReachabilityDensity(neighbourhoods[i], reachabilityBounds, k);
+	}
+
+	private void updateLocalOutlierFactor(int i) {
+		localOutlierFactors[i] = LocalOutlierFactors.localOutlierFactor(i, neighbourhoods[i], localReachabilityDensities, k);
+	}
+
+	/**
+	 * Adds to a set all points that have some point of another set in their
+	 * neighbourhood.
+	 */
+	private void addReverseNeighbours(BitSet points, BitSet result) {
+		points.stream().forEach(p -> {
+			for (int o : tree.reverseRange(tree.coordinates(p), true)) {
+				result.set(o);
+			}
+		});
+	}
+
+	/**
+	 * Updates reachability bounds of points with changed neighbourhoods and
+	 * then densities and factors of all affected points.
+	 */
+	private void propagate(BitSet changedNeighbourhoods) {
+		BitSet changedBounds = new BitSet();
+		changedNeighbourhoods.stream().forEach(p -> {
+			double bound = reachabilityBound(neighbourhoods[p]);
+			if (bound != reachabilityBounds[p]) {
+				reachabilityBounds[p] = bound;
+				changedBounds.set(p);
+			}
+			tree.radius(p, radius(neighbourhoods[p]));
+		});
+
+		BitSet changedDensities = (BitSet) changedNeighbourhoods.clone();
+		addReverseNeighbours(changedBounds, changedDensities);
+		changedDensities.stream().parallel().forEach(this::updateLocalReachabilityDensity);
+
+		BitSet changedFactors = (BitSet) changedDensities.clone();
+		addReverseNeighbours(changedDensities, changedFactors);
+		changedFactors.stream().parallel().forEach(this::updateLocalOutlierFactor);
+	}
+
+	/**
+	 * Inserts a point and updates all affected neighbourhoods, densities and
+	 * factors.
+	 * 
+	 * @param point
+	 *            coordinates of the new point (one value per dimension)
+	 * @return index of new point
+	 */
+	public int insert(double[] point) {
+		int[] affected = tree.reverseRange(point, true);
+		int q = tree.insert(point);
+		ensureCapacity(q);
+
+		BitSet changedNeighbourhoods = new BitSet();
+		for (int p : affected) {
+			neighbourhoods[p] = merged(neighbourhoods[p], q, tree.distance(p, q));
+			changedNeighbourhoods.set(p);
+		}
+		neighbourhoods[q] = neighbourhood(tree, q, k);
+		reachabilityBounds[q] = Double.NaN;
+		changedNeighbourhoods.set(q);
+
+		propagate(changedNeighbourhoods);
+		return q;
+	}
+
+	/**
+	 * Inserts new point into neighbourhood that it enters and truncates result
+	 * after first point beyond k-neighbourhood.
+	 */
+	private Neighbours merged(Neighbours neighbours, int q, double distance) {
+		Neighbours result = inserted(neighbours, q, distance);
+		return truncated(result, Math.min(count(result, k) + 1, result.size()));
+	}
+
+	/**
+	 * Inserts point into neighbour list at the position given by distance and
+	 * index.
+	 */
+	private static Neighbours inserted(Neighbours neighbours, int q, double distance) {
+		int size = neighbours.size();
+		int position = 0;
+		while (position < size && (neighbours.distances[position] < distance
+				|| (neighbours.distances[position] == distance && neighbours.indices[position] < q))) {
+			position++;
+		}
+		int[] indices = new int[size + 1];
+		double[] distances = new double[size + 1];
+		System.arraycopy(neighbours.indices, 0, indices, 0, position);
+		System.arraycopy(neighbours.distances, 0, distances, 0, position);
+		indices[position] = q;
+		distances[position] = distance;
+		System.arraycopy(neighbours.indices, position, indices, position + 1, size - position);
+		System.arraycopy(neighbours.distances, position, distances, position + 1, size - position);
+		return new Neighbours(indices, distances);
+	}
+
+	/**
+	 * Removes a point and updates all affected neighbourhoods, densities and
+	 * factors.
+	 * 
+	 * @param q
+	 *            index of point to be removed
+	 */
+	public void remove(int q) {
+		if (!tree.contains(q)) {
+			throw new IllegalArgumentException("no point with index " + q);
+		}
+		int[] candidates = tree.reverseRange(tree.coordinates(q), false);
+		tree.remove(q);
+		neighbourhoods[q] = null;
+		reachabilityBounds[q] = Double.NaN;
+		localReachabilityDensities[q] = Double.NaN;
+		localOutlierFactors[q] = Double.NaN;
+
+		BitSet changedNeighbourhoods = new BitSet();
+		for (int p : candidates) {
+			if (p != q && contains(neighbourhoods[p], q)) {
+				neighbourhoods[p] = neighbourhood(tree, p, k);
+				changedNeighbourhoods.set(p);
+			}
+		}
+
+		propagate(changedNeighbourhoods);
+	}
+
+	private static boolean contains(Neighbours neighbours, int q) {
+		for (int i : neighbours.indices) {
+			if (i == q) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the local outlier factor that a candidate point would have if it
+	 * was added to the point set. The point set is left unchanged: the
+	 * neighbourhoods that the candidate would enter are only computed locally,
+	 * and densities are evaluated for the candidate and its neighbours only.
+	 * 
+	 * @param point
+	 *            coordinates of the candidate point
+	 * @return local outlier factor of candidate
+	 */
+	public double score(double[] point) {
+		// index that the candidate would receive on insertion
+		int q = tree.numberOfPoints();
+		Map<Integer, Neighbours> changedNeighbourhoods = new HashMap<>();
+		for (int p : tree.reverseRange(point, true)) {
+			changedNeighbourhoods.put(p, merged(neighbourhoods[p], q, tree.distance(point, p)));
+		}
+		Neighbours own = candidateNeighbourhood(point, q);
+		changedNeighbourhoods.put(q, own);
+
+		Map<Integer, Double> changedBounds = new HashMap<>();
+		changedNeighbourhoods.forEach((p, neighbours) -> changedBounds.put(p, reachabilityBound(neighbours)));
+		IntToDoubleFunction bounds = p -> changedBounds.containsKey(p) ? changedBounds.get(p)
+				: reachabilityBounds[p];
+		IntToDoubleFunction densities = p -> LocalOutlierFactors.localReachabilityDensity(
+				changedNeighbourhoods.containsKey(p) ? changedNeighbourhoods.get(p) : neighbourhoods[p], bounds, k);
+
+		return LocalOutlierFactors.localOutlierFactor(densities.applyAsDouble(q), own, densities, k);
+	}
+
+	/**
+	 * Neighbourhood that a candidate point with index q would have after
+	 * insertion (computed as by {@link LocalOutlierFactors#neighbourhood}).
+	 */
+	private Neighbours candidateNeighbourhood(double[] point, int q) {
+		int n = tree.numberOfLivePoints() + 1;
+		int m = Math.min(k + 2, n);
+		Neighbours result = nearestWithCandidate(point, q, m);
+		while (m < n && result.distances[m - 1] == result.distances[Math.min(k, m - 1)]) {
+			m = Math.min(2 * m, n);
+			result = nearestWithCandidate(point, q, m);
+		}
+		return truncated(result, Math.min(count(result, k) + 1, result.size()));
+	}
+
+	private Neighbours nearestWithCandidate(double[] point, int q, int m) {
+		Neighbours result = inserted(tree.nearest(point, m), q, 0.0);
+		return truncated(result, Math.min(m, result.size()));
+	}
+
+	public boolean contains(int i) {
+		return tree.contains(i);
+	}
+
+	/**
+	 * @return number of points currently contained
+	 */
+	public int size() {
+		return tree.numberOfLivePoints();
+	}
+
+	public int k() {
+		return k;
+	}
+
+	public double localOutlierFactor(int i) {
+		return localOutlierFactors[i];
+	}
+
+	public double localReachabilityDensity(int i) {
+		return localReachabilityDensities[i];
+	}
+
+}
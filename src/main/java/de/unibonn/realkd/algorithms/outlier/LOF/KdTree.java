@@ -0,0 +1,584 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.outlier.LOF;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * KD-tree over points in a real vector space with scaled Manhattan distance
+ * d(x,y) = sum_i |x_i-y_i|/s_i, which is the distance used for computing local
+ * outlier factors (with s_i the value range of dimension i).
+ * </p>
+ * <p>
+ * Nearest neighbour queries are exact and report neighbours in ascending
+ * order of distance where ties are broken by ascending point index. This is
+ * the same order in which neighbours appear in the rows of the sorted
+ * distance matrix of {@link TrainingModel}. Subtrees are pruned with the
+ * distance of the query to their bounding box, which is a lower bound to the
+ * distance of all contained points that is computed with the same
+ * floating point operations as the distance itself.
+ * </p>
+ * <p>
+ * Points can be inserted and removed after construction. Inserted points
+ * receive the next unused index (indices of removed points are not reused).
+ * Moreover, every point can carry a radius such that the tree can answer
+ * reverse range queries, i.e., find all points for which some query point
+ * lies within their radius. This is used for maintaining local outlier
+ * factors incrementally.
+ * </p>
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+class KdTree {
+
+	private static final int LEAF_SIZE = 16;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static class Node {
+
+		private final double[] lower;
+
+		private final double[] upper;
+
+		private Node parent;
+
+		private int splitDimension = -1;
+
+		private double splitValue;
+
+		private Node left;
+
+		private Node right;
+
+		private int[] points;
+
+		private int size;
+
+		/**
+		 * maximal radius of points in subtree
+		 */
+		private double maxRadius = Double.POSITIVE_INFINITY;
+
+		private Node(int dimensions) {
+			this.lower = new double[dimensions];
+			this.upper = new double[dimensions];
+		}
+
+		private boolean isLeaf() {
+			return points != null;
+		}
+
+	}
+
+	/**
+	 * Result of a nearest neighbour query, i.e., point indices and their
+	 * distances to the query point in ascending order.
+	 */
+	static class Neighbours {
+
+		final int[] indices;
+
+		final double[] distances;
+
+		Neighbours(int[] indices, double[] distances) {
+			this.indices = indices;
+			this.distances = distances;
+		}
+
+		int size() {
+			return indices.length;
+		}
+
+	}
+
+	private final int dimensions;
+
+	private final double[] scales;
+
+	private double[] coordinates;
+
+	private double[] radii;
+
+	private Node[] leaves;
+
+	private int numberOfPoints;
+
+	private int numberOfLivePoints;
+
+	private Node root;
+
+	/**
+	 * @param coordinates
+	 *            point coordinates in row-major order (point i occupies
+	 *            positions i*dimensions to (i+1)*dimensions-1)
+	 * @param dimensions
+	 *            number of dimensions
+	 * @param scales
+	 *            divisors of the absolute differences per dimension
+	 */
+	KdTree(double[] coordinates, int dimensions, double[] scales) {
+		this.dimensions = dimensions;
+		this.scales = scales;
+		this.numberOfPoints = coordinates.length / dimensions;
+		this.numberOfLivePoints = numberOfPoints;
+		int capacity = Math.max(numberOfPoints, INITIAL_CAPACITY);
+		this.coordinates = Arrays.copyOf(coordinates, capacity * dimensions);
+		this.radii = new double[capacity];
+		Arrays.fill(radii, Double.POSITIVE_INFINITY);
+		this.leaves = new Node[capacity];
+		int[] points = new int[numberOfPoints];
+		for (int i = 0; i < numberOfPoints; i++) {
+			points[i] = i;
+		}
+		this.root = build(points, 0, numberOfPoints);
+	}
+
+	/**
+	 * @return number of indices issued so far (including removed points)
+	 */
+	int numberOfPoints() {
+		return numberOfPoints;
+	}
+
+	/**
+	 * @return number of points that have not been removed
+	 */
+	int numberOfLivePoints() {
+		return numberOfLivePoints;
+	}
+
+	boolean contains(int i) {
+		return i < numberOfPoints && leaves[i] != null;
+	}
+
+	double[] coordinates(int i) {
+		return Arrays.copyOfRange(coordinates, i * dimensions, (i + 1) * dimensions);
+	}
+
+	double distance(int i, int j) {
+		return distance(coordinates, i * dimensions, j);
+	}
+
+	/**
+	 * @return distance of point j to a query point given by its coordinates
+	 */
+	double distance(double[] query, int j) {
+		return distance(query, 0, j);
+	}
+
+	private double distance(double[] query, int offset, int j) {
+		double result = 0.0;
+		int jOffset = j * dimensions;
+		for (int d = 0; d < dimensions; d++) {
+			result += Math.abs(query[offset + d] - coordinates[jOffset + d]) / scales[d];
+		}
+		return result;
+	}
+
+	private double boxDistance(double[] query, int offset, Node node) {
+		double result = 0.0;
+		for (int d = 0; d < dimensions; d++) {
+			double q = query[offset + d];
+			if (q < node.lower[d]) {
+				result += Math.abs(q - node.lower[d]) / scales[d];
+			} else if (q > node.upper[d]) {
+				result += Math.abs(q - node.upper[d]) / scales[d];
+			}
+		}
+		return result;
+	}
+
+	private Node build(int[] points, int from, int to) {
+		Node node = new Node(dimensions);
+		for (int d = 0; d < dimensions; d++) {
+			node.lower[d] = Double.POSITIVE_INFINITY;
+			node.upper[d] = Double.NEGATIVE_INFINITY;
+		}
+		for (int k = from; k < to; k++) {
+			int offset = points[k] * dimensions;
+			for (int d = 0; d < dimensions; d++) {
+				node.lower[d] = Math.min(node.lower[d], coordinates[offset + d]);
+				node.upper[d] = Math.max(node.upper[d], coordinates[offset + d]);
+			}
+		}
+
+		int widest = -1;
+		double widestExtent = 0.0;
+		for (int d = 0; d < dimensions; d++) {
+			double extent = (node.upper[d] - node.lower[d]) / scales[d];
+			if (extent > widestExtent) {
+				widestExtent = extent;
+				widest = d;
+			}
+		}
+
+		if (to - from <= LEAF_SIZE || widest == -1) {
+			node.points = new int[Math.max(to - from, LEAF_SIZE)];
+			System.arraycopy(points, from, node.points, 0, to - from);
+			node.size = to - from;
+			for (int k = 0; k < node.size; k++) {
+				leaves[node.points[k]] = node;
+			}
+			updateMaxRadius(node);
+			return node;
+		}
+
+		int middle = (from + to) >>> 1;
+		select(points, from, to - 1, middle, widest);
+		node.splitDimension = widest;
+		node.splitValue = coordinates[points[middle] * dimensions + widest];
+		node.left = build(points, from, middle);
+		node.right = build(points, middle, to);
+		node.left.parent = node;
+		node.right.parent = node;
+		updateMaxRadius(node);
+		return node;
+	}
+
+	/**
+	 * Rearranges points[from..to] such that the point at position k has rank k
+	 * - from with respect to coordinate d (Hoare's selection).
+	 */
+	private void select(int[] points, int from, int to, int k, int d) {
+		while (from < to) {
+			double pivot = coordinates[points[(from + to) >>> 1] * dimensions + d];
+			int i = from;
+			int j = to;
+			while (i <= j) {
+				while (coordinates[points[i] * dimensions + d] < pivot) {
+					i++;
+				}
+				while (coordinates[points[j] * dimensions + d] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int swap = points[i];
+					points[i] = points[j];
+					points[j] = swap;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				to = j;
+			} else if (k >= i) {
+				from = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void updateMaxRadius(Node node) {
+		if (node.isLeaf()) {
+			double max = Double.NEGATIVE_INFINITY;
+			for (int k = 0; k < node.size; k++) {
+				max = Math.max(max, radii[node.points[k]]);
+			}
+			node.maxRadius = max;
+		} else {
+			node.maxRadius = Math.max(node.left.maxRadius, node.right.maxRadius);
+		}
+	}
+
+	private void updateMaxRadiiFrom(Node node) {
+		while (node != null) {
+			double before = node.maxRadius;
+			updateMaxRadius(node);
+			if (before == node.maxRadius && !node.isLeaf()) {
+				return;
+			}
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Sets the radius of a point as used by {@link #reverseRange}.
+	 */
+	void radius(int i, double radius) {
+		radii[i] = radius;
+		updateMaxRadiiFrom(leaves[i]);
+	}
+
+	double radius(int i) {
+		return radii[i];
+	}
+
+	/**
+	 * Adds a point with infinite radius.
+	 * 
+	 * @return the index of the new point
+	 */
+	int insert(double[] point) {
+		int i = numberOfPoints++;
+		if (i == radii.length) {
+			int capacity = 2 * radii.length;
+			coordinates = Arrays.copyOf(coordinates, capacity * dimensions);
+			radii = Arrays.copyOf(radii, capacity);
+			leaves = Arrays.copyOf(leaves, capacity);
+		}
+		System.arraycopy(point, 0, coordinates, i * dimensions, dimensions);
+		radii[i] = Double.POSITIVE_INFINITY;
+		numberOfLivePoints++;
+
+		Node node = root;
+		while (true) {
+			for (int d = 0; d < dimensions; d++) {
+				node.lower[d] = Math.min(node.lower[d], point[d]);
+				node.upper[d] = Math.max(node.upper[d], point[d]);
+			}
+			if (node.isLeaf()) {
+				break;
+			}
+			node = point[node.splitDimension] < node.splitValue ? node.left : node.right;
+		}
+		if (node.size == node.points.length) {
+			node.points = Arrays.copyOf(node.points, 2 * node.points.length);
+		}
+		node.points[node.size++] = i;
+		leaves[i] = node;
+		if (node.size > 2 * LEAF_SIZE && hasExtent(node)) {
+			split(node);
+		} else {
+			updateMaxRadiiFrom(node);
+		}
+		return i;
+	}
+
+	private boolean hasExtent(Node node) {
+		for (int d = 0; d < dimensions; d++) {
+			if (node.upper[d] > node.lower[d]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void split(Node leaf) {
+		Node replacement = build(Arrays.copyOf(leaf.points, leaf.size), 0, leaf.size);
+		replacement.parent = leaf.parent;
+		if (leaf.parent == null) {
+			root = replacement;
+		} else if (leaf.parent.left == leaf) {
+			leaf.parent.left = replacement;
+		} else {
+			leaf.parent.right = replacement;
+		}
+		updateMaxRadiiFrom(replacement.parent);
+	}
+
+	/**
+	 * Removes a point. Bounding boxes are not shrunk, hence, they remain valid
+	 * (but possibly loose) bounds.
+	 */
+	void remove(int i) {
+		Node leaf = leaves[i];
+		for (int k = 0; k < leaf.size; k++) {
+			if (leaf.points[k] == i) {
+				leaf.points[k] = leaf.points[--leaf.size];
+				break;
+			}
+		}
+		leaves[i] = null;
+		numberOfLivePoints--;
+		updateMaxRadiiFrom(leaf);
+	}
+
+	/**
+	 * Bounded max-heap of candidate neighbours ordered by distance and index.
+	 */
+	private static class Candidates {
+
+		private final double[] distances;
+
+		private final int[] indices;
+
+		private int size = 0;
+
+		private Candidates(int capacity) {
+			this.distances = new double[capacity];
+			this.indices = new int[capacity];
+		}
+
+		private boolean full() {
+			return size == distances.length;
+		}
+
+		private double worstDistance() {
+			return distances[0];
+		}
+
+		private static int compare(double d1, int i1, double d2, int i2) {
+			int c = Double.compare(d1, d2);
+			return c != 0 ? c : Integer.compare(i1, i2);
+		}
+
+		private void offer(double distance, int index) {
+			if (!full()) {
+				int k = size++;
+				while (k > 0) {
+					int parent = (k - 1) >>> 1;
+					if (compare(distances[parent], indices[parent], distance, index) >= 0) {
+						break;
+					}
+					distances[k] = distances[parent];
+					indices[k] = indices[parent];
+					k = parent;
+				}
+				distances[k] = distance;
+				indices[k] = index;
+			} else if (compare(distance, index, distances[0], indices[0]) < 0) {
+				siftDown(distance, index, size);
+			}
+		}
+
+		/**
+		 * Places an element at the root and restores the heap property among
+		 * the first n elements.
+		 */
+		private void siftDown(double distance, int index, int n) {
+			int k = 0;
+			while (true) {
+				int child = 2 * k + 1;
+				if (child >= n) {
+					break;
+				}
+				if (child + 1 < n
+						&& compare(distances[child + 1], indices[child + 1], distances[child], indices[child]) > 0) {
+					child++;
+				}
+				if (compare(distances[child], indices[child], distance, index) <= 0) {
+					break;
+				}
+				distances[k] = distances[child];
+				indices[k] = indices[child];
+				k = child;
+			}
+			distances[k] = distance;
+			indices[k] = index;
+		}
+
+		/**
+		 * Empties heap into arrays sorted in ascending order (heap sort).
+		 */
+		private Neighbours sorted() {
+			int[] resultIndices = new int[size];
+			double[] resultDistances = new double[size];
+			for (int n = size; n > 0; n--) {
+				resultIndices[n - 1] = indices[0];
+				resultDistances[n - 1] = distances[0];
+				siftDown(distances[n - 1], indices[n - 1], n - 1);
+			}
+			size = 0;
+			return new Neighbours(resultIndices, resultDistances);
+		}
+
+	}
+
+	/**
+	 * @return the min(m, n) points closest to point i (including i itself)
+	 *         where n is the number of live points
+	 */
+	Neighbours nearest(int i, int m) {
+		return nearest(coordinates, i * dimensions, m);
+	}
+
+	/**
+	 * @return the min(m, n) points closest to a query point given by its
+	 *         coordinates
+	 */
+	Neighbours nearest(double[] query, int m) {
+		return nearest(query, 0, m);
+	}
+
+	private Neighbours nearest(double[] query, int offset, int m) {
+		Candidates candidates = new Candidates(Math.min(m, numberOfLivePoints));
+		if (candidates.distances.length > 0) {
+			search(root, query, offset, candidates);
+		}
+		return candidates.sorted();
+	}
+
+	private void search(Node node, double[] query, int offset, Candidates candidates) {
+		if (candidates.full() && boxDistance(query, offset, node) > candidates.worstDistance()) {
+			return;
+		}
+		if (node.isLeaf()) {
+			for (int k = 0; k < node.size; k++) {
+				int j = node.points[k];
+				candidates.offer(distance(query, offset, j), j);
+			}
+			return;
+		}
+		if (query[offset + node.splitDimension] < node.splitValue) {
+			search(node.left, query, offset, candidates);
+			search(node.right, query, offset, candidates);
+		} else {
+			search(node.right, query, offset, candidates);
+			search(node.left, query, offset, candidates);
+		}
+	}
+
+	/**
+	 * Finds all points p with d(p,q) &lt; radius(p) where q is given by its
+	 * coordinates (or d(p,q) &lt;= radius(p) if the comparison is not strict).
+	 * 
+	 * @return indices of the points found in no particular order
+	 */
+	int[] reverseRange(double[] query, boolean strict) {
+		int[][] result = { new int[16] };
+		int[] size = { 0 };
+		reverseRange(root, query, strict, result, size);
+		return Arrays.copyOf(result[0], size[0]);
+	}
+
+	private void reverseRange(Node node, double[] query, boolean strict, int[][] result, int[] size) {
+		double bound = boxDistance(query, 0, node);
+		if (strict ? bound >= node.maxRadius : bound > node.maxRadius) {
+			return;
+		}
+		if (node.isLeaf()) {
+			for (int k = 0; k < node.size; k++) {
+				int j = node.points[k];
+				double distance = distance(query, 0, j);
+				if (strict ? distance < radii[j] : distance <= radii[j]) {
+					if (size[0] == result[0].length) {
+						result[0] = Arrays.copyOf(result[0], 2 * size[0]);
+					}
+					result[0][size[0]++] = j;
+				}
+			}
+			return;
+		}
+		reverseRange(node.left, query, strict, result, size);
+		reverseRange(node.right, query, strict, result, size);
+	}
+
+}
@@ -134,8 +134,6 @@ public class LOFOutlier extends AbstractMiningAlgorithm {
 	 * @see de.unibonn.realkd.algorithms.AbstractMiningAlgorithm#concreteCall()
 	 */
 	protected int numExamples;
-	protected double[][] trainingMatrix;
-	protected int[][] sortedTrainingMatrix;
 	protected double[] lof;
 
 	public double[] getLof() {
@@ -172,6 +170,15 @@ public class LOFOutlier extends AbstractMiningAlgorithm {
 
 		}
 
+		return outlierPatterns();
+
+	}
+
+	/**
+	 * @return outlier pattern of all examples that are currently marked as
+	 *         outliers
+	 */
+	protected List<Pattern<?>> outlierPatterns() {
 		double sumDistances = 1.0;
 		Set<Attribute<?>> attrs = new HashSet<>();
 		attrs.addAll(targetAttrParam.current());
@@ -185,99 +192,21 @@ public class LOFOutlier extends AbstractMiningAlgorithm {
 		results.add(oPattern);
 
 		return results;
-
 	}
 
 	void computeLofValues(DataTable dt, List<Integer> idxs, int KValue) {
-		// begin the training
-		TrainingModel model = new TrainingModel(dt, idxs);
-		trainingMatrix = model.getMatirx();
-		sortedTrainingMatrix = model.getMatrixSortedIndicies();
-
-		// apply the model over the data to compute the the LOF for each example
-		lof = new double[numExamples];
-		// get the K values
-
-		for (int i = 0; i < numExamples; i++) {
-			// compute K-distance of this point
-			int Kdistace = getK_Distance(KValue, i, sortedTrainingMatrix[i]);
-			lof[i] = 0;
-			// we don't want to compare with the same point
-			for (int j = 1; j < Kdistace; j++) {
-				lof[i] += (LRD(KValue, sortedTrainingMatrix[i][j]) / LRD(KValue, i));
-			}
-			lof[i] = lof[i] / Kdistace;
+		// neighbourhoods, k-distances and local reachability densities are
+		// computed once per example based on a kd-tree
+		lof = LocalOutlierFactors.localOutlierFactors(dt, idxs, KValue).values();
 
+		for (int i = 0; i < lof.length; i++) {
 			// detect if outlier
 			if (lof[i] > 1.5) {
 				outlierIdxs.add(i);
-
 			}
 		}
 	}
 
-	/**
-	 * compute the reachability distance from sample in position second to sample in
-	 * position first
-	 * 
-	 * @param K
-	 * @param firstIndex
-	 * @param secondIndex
-	 * @return
-	 */
-	private double reachabilityDistance(int K, int firstIndex, int secondIndex) {
-		double result = 0.0;
-
-		// get the K distance of B
-		int K_distnaceOfSecond = getK_Distance(K, secondIndex, sortedTrainingMatrix[secondIndex]);
-
-		double KDistanceB = trainingMatrix[secondIndex][sortedTrainingMatrix[secondIndex][K_distnaceOfSecond]];
-
-		double distanceBetweenFirstAndSecond = trainingMatrix[firstIndex][secondIndex];
-		return Math.max(KDistanceB, distanceBetweenFirstAndSecond);
-
-	}
-
-	/**
-	 * compute Local reachability density for one sample
-	 * 
-	 * @param K
-	 * @param sampleIndex
-	 * @return
-	 */
-	private double LRD(int K, int sampleIndex) {
-		double result = 0.0;
-
-		int kDistance = getK_Distance(K, sampleIndex, sortedTrainingMatrix[sampleIndex]);
-		// we don't want to compute the point with it self, so we start from 1
-		for (int i = 1; i < kDistance; i++) {
-			result += reachabilityDistance(K, sampleIndex, sortedTrainingMatrix[sampleIndex][i]);
-		}
-		result = kDistance / result;
-
-		return result;
-	}
-
-	/**
-	 * compute the lenght of set that are within distance equals K from the sample
-	 * 
-	 * @param K
-	 * @param sampleIndex
-	 * @param sortedIndecies
-	 * @return
-	 */
-	private int getK_Distance(int K, int sampleIndex, int[] sortedIndecies) {
-		int result = K + 1;
-		for (int i = K; i < numExamples; i++)
-			if (trainingMatrix[sampleIndex][sortedIndecies[i]] == trainingMatrix[sampleIndex][sortedIndecies[i + 1]])
-				result++;
-			else
-				break;
-
-		return result;
-
-	}
-
 	public DataTable getDataTable() {
 		return dataTableParameter.current();
 	}
@@ -0,0 +1,257 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.outlier.LOF;
+
+import static java.util.stream.IntStream.range;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+import de.unibonn.realkd.algorithms.outlier.LOF.KdTree.Neighbours;
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+
+/**
+ * <p>
+ * Computes local outlier factors of all rows of a data table based on
+ * k-nearest-neighbour queries against a {@link KdTree} instead of a full
+ * distance matrix. Memory is linear in the number of rows (times the size of
+ * the k-neighbourhoods).
+ * </p>
+ * <p>
+ * The k-neighbourhood of each point (including ties), its k-distance and its
+ * local reachability density are computed once per point and cached. All
+ * three passes are executed in parallel over points. Definitions follow
+ * those previously evaluated on {@link TrainingModel} such that resulting
+ * factors are identical.
+ * </p>
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class LocalOutlierFactors {
+
+	/**
+	 * Extracts values of the selected attributes in row-major order; missing
+	 * values are treated as zero.
+	 */
+	static double[] coordinates(DataTable data, List<Integer> attributeIndices) {
+		int n = data.population().size();
+		int dimensions = attributeIndices.size();
+		double[] result = new double[n * dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			Attribute<?> attribute = data.attribute(attributeIndices.get(d));
+			for (int i = 0; i < n; i++) {
+				result[i * dimensions + d] = attribute.valueMissing(i) ? 0
+						: ((Number) attribute.value(i)).doubleValue();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Value range of non-missing values per selected attribute (with the
+	 * initialisation of the maximum used by {@link TrainingModel}).
+	 */
+	static double[] ranges(DataTable data, List<Integer> attributeIndices) {
+		int n = data.population().size();
+		int dimensions = attributeIndices.size();
+		double[] result = new double[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			Attribute<?> attribute = data.attribute(attributeIndices.get(d));
+			double min = Double.MAX_VALUE;
+			double max = Double.MIN_VALUE;
+			for (int i = 0; i < n; i++) {
+				if (attribute.valueMissing(i)) {
+					continue;
+				}
+				double value = ((Number) attribute.value(i)).doubleValue();
+				if (value < min) {
+					min = value;
+				}
+				if (value > max) {
+					max = value;
+				}
+			}
+			result[d] = max - min;
+		}
+		return result;
+	}
+
+	public static LocalOutlierFactors localOutlierFactors(DataTable data, List<Integer> attributeIndices, int k) {
+		KdTree tree = new KdTree(coordinates(data, attributeIndices), attributeIndices.size(),
+				ranges(data, attributeIndices));
+		return new LocalOutlierFactors(tree, k);
+	}
+
+	private final int k;
+
+	private final Neighbours[] neighbourhoods;
+
+	private final double[] reachabilityBounds;
+
+	private final double[] localReachabilityDensities;
+
+	private final double[] localOutlierFactors;
+
+	LocalOutlierFactors(KdTree tree, int k) {
+		this.k = k;
+		int n = tree.numberOfPoints();
+		this.neighbourhoods = new Neighbours[n];
+		this.reachabilityBounds = new double[n];
+		this.localReachabilityDensities = new double[n];
+		this.localOutlierFactors = new double[n];
+
+		range(0, n).parallel().forEach(i -> {
+			neighbourhoods[i] = neighbourhood(tree, i, k);
+			reachabilityBounds[i] = reachabilityBound(neighbourhoods[i]);
+		});
+		range(0, n).parallel().forEach(i -> localReachabilityDensities[i] = computeLocalReachabilityDensity(i));
+		range(0, n).parallel().forEach(i -> localOutlierFactors[i] = computeLocalOutlierFactor(i));
+	}
+
+	/**
+	 * Size of a neighbourhood with ties, i.e., number of points (including the
+	 * point itself) that are not farther away than the k-th neighbour.
+	 */
+	static int count(Neighbours neighbours, int k) {
+		int result = k + 1;
+		while (result < neighbours.size()
+				&& neighbours.distances[result] == neighbours.distances[result - 1]) {
+			result++;
+		}
+		return Math.min(result, neighbours.size());
+	}
+
+	/**
+	 * Distance of first neighbour beyond k-neighbourhood (or of last
+	 * neighbour if there is none), which serves as lower bound of all
+	 * reachability distances to the point.
+	 */
+	static double reachabilityBound(Neighbours neighbours) {
+		return neighbours.distances[neighbours.size() - 1];
+	}
+
+	/**
+	 * Queries nearest neighbours of a point such that the k-neighbourhood with
+	 * all ties plus one more point is contained (if available).
+	 */
+	static Neighbours neighbourhood(KdTree tree, int i, int k) {
+		int n = tree.numberOfLivePoints();
+		int m = Math.min(k + 2, n);
+		Neighbours result = tree.nearest(i, m);
+		while (m < n && result.distances[m - 1] == result.distances[Math.min(k, m - 1)]) {
+			m = Math.min(2 * m, n);
+			result = tree.nearest(i, m);
+		}
+		return truncated(result, Math.min(count(result, k) + 1, result.size()));
+	}
+
+	static Neighbours truncated(Neighbours neighbours, int size) {
+		if (size == neighbours.size()) {
+			return neighbours;
+		}
+		return new Neighbours(Arrays.copyOf(neighbours.indices, size), Arrays.copyOf(neighbours.distances, size));
+	}
+
+	private double computeLocalReachabilityDensity(int i) {
+		return localReachabilityDensity(neighbourhoods[i], reachabilityBounds, k);
+	}
+
+	private double computeLocalOutlierFactor(int i) {
+		return localOutlierFactor(i, neighbourhoods[i], localReachabilityDensities, k);
+	}
+
+	/**
+	 * @param neighbours
+	 *            neighbourhood of point (first neighbour is skipped as it is
+	 *            the point itself or a duplicate of it)
+	 * @param reachabilityBounds
+	 *            reachability bounds of all points
+	 */
+	static double localReachabilityDensity(Neighbours neighbours, double[] reachabilityBounds, int k) {
+		return localReachabilityDensity(neighbours, p -> reachabilityBounds[p], k);
+	}
+
+	static double localReachabilityDensity(Neighbours neighbours, IntToDoubleFunction reachabilityBounds, int k) {
+		int count = count(neighbours, k);
+		double sum = 0.0;
+		// first neighbour is the point itself
+		for (int p = 1; p < count; p++) {
+			sum += Math.max(reachabilityBounds.applyAsDouble(neighbours.indices[p]), neighbours.distances[p]);
+		}
+		return count / sum;
+	}
+
+	/**
+	 * @param i
+	 *            the point
+	 * @param neighbours
+	 *            neighbourhood of point (first neighbour is skipped as it is
+	 *            the point itself or a duplicate of it)
+	 * @param localReachabilityDensities
+	 *            local reachability densities of all points
+	 */
+	static double localOutlierFactor(int i, Neighbours neighbours, double[] localReachabilityDensities, int k) {
+		return localOutlierFactor(localReachabilityDensities[i], neighbours, p -> localReachabilityDensities[p], k);
+	}
+
+	static double localOutlierFactor(double own, Neighbours neighbours, IntToDoubleFunction localReachabilityDensities,
+			int k) {
+		int count = count(neighbours, k);
+		double result = 0;
+		for (int p = 1; p < count; p++) {
+			result += localReachabilityDensities.applyAsDouble(neighbours.indices[p]) / own;
+		}
+		return result / count;
+	}
+
+	public int k() {
+		return k;
+	}
+
+	public int size() {
+		return localOutlierFactors.length;
+	}
+
+	public double localOutlierFactor(int i) {
+		return localOutlierFactors[i];
+	}
+
+	public double localReachabilityDensity(int i) {
+		return localReachabilityDensities[i];
+	}
+
+	/**
+	 * @return copy of local outlier factors of all points
+	 */
+	public double[] values() {
+		return localOutlierFactors.clone();
+	}
+
+}
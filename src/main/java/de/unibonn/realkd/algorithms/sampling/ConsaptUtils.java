@@ -24,12 +24,11 @@
 
 package de.unibonn.realkd.algorithms.sampling;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.propositions.PropositionIndex;
 import de.unibonn.realkd.data.propositions.PropositionalContext;
 import ua.ac.be.mime.plain.PlainTransactionDB;
 import ua.ac.be.mime.plain.weighting.PosNegTransactionDb;
@@ -42,7 +41,7 @@ import ua.ac.be.mime.plain.weighting.PosNegTransactionDb;
  * 
  * @since 0.1.0
  * 
- * @version 0.6.0
+ * @version 0.7.2
  *
  */
 public class ConsaptUtils {
@@ -54,18 +53,11 @@ public class ConsaptUtils {
 	public static PlainTransactionDB createTransactionDbFromPropositionalLogic(PropositionalContext propositionalLogic,
 			Predicate<Proposition> filter) {
 		PlainTransactionDB transactionDB = new PlainTransactionDB();
+		PropositionIndex index = propositionalLogic.propositionIndex();
+		long[] selection = selectionMask(propositionalLogic, index, filter);
 
-		for (int i = 0; i < propositionalLogic.population().size(); i++) {
-			List<String> transactionList = new ArrayList<>();
-			for (int j = 0; j < propositionalLogic.propositions().size(); j++) {
-				Proposition proposition = propositionalLogic.propositions().get(j);
-				if (filter.test(proposition) && proposition.holdsFor(i)) {
-					transactionList.add(String.valueOf(j));
-				}
-			}
-			String[] transaction = new String[transactionList.size()];
-			transactionList.toArray(transaction);
-			transactionDB.addTransaction(transaction);
+		for (int i = 0; i < index.numberOfObjects(); i++) {
+			transactionDB.addTransaction(index.truthIndices(i, selection));
 		}
 
 		return transactionDB;
@@ -74,22 +66,18 @@ public class ConsaptUtils {
 	public static PosNegTransactionDb createPosNegDb(PropositionalContext propLogic, IntPredicate isPositive,
 			Predicate<Proposition> filter) {
 		PosNegTransactionDb db = new PosNegTransactionDb();
-		for (int i = 0; i < propLogic.population().size(); i++) {
+		PropositionIndex index = propLogic.propositionIndex();
+		long[] selection = selectionMask(propLogic, index, filter);
 
-			List<String> transactionList = new ArrayList<>();
-			for (int j = 0; j < propLogic.propositions().size(); j++) {
-				Proposition proposition = propLogic.propositions().get(j);
-				if (filter.test(proposition) && proposition.holdsFor(i)) {
-					transactionList.add(String.valueOf(j));
-				}
-			}
-			if (isPositive.test(i)) {
-				db.addTransaction(transactionList.toArray(new String[] {}), true);
-			} else {
-				db.addTransaction(transactionList.toArray(new String[] {}), false);
-			}
+		for (int i = 0; i < index.numberOfObjects(); i++) {
+			db.addTransaction(index.truthIndices(i, selection), isPositive.test(i));
 		}
 		return db;
 	}
 
+	private static long[] selectionMask(PropositionalContext propLogic, PropositionIndex index,
+			Predicate<Proposition> filter) {
+		return index.selectionMask(j -> filter.test(propLogic.proposition(j)));
+	}
+
 }
@@ -24,25 +24,100 @@
  */
 package de.unibonn.realkd.common;
 
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
 /**
+ * <p>
+ * Provides all KDON types of realKD. Types are taken from the registries
+ * generated at compile time by {@link KdonTypeRegistryProcessor}. Classpath
+ * roots (directories or jars) that contain classes of realKD packages but no
+ * such registry (e.g., plugins compiled without annotation processing) are
+ * scanned for types annotated with {@link KdonTypeName}.
+ * </p>
+ * 
  * @author Mario Boley
  * 
  * @since 0.7.0
  * 
- * @version 0.7.0
+ * @version 0.7.2
  *
  */
 public class KdonCoreJavaTypeProvider implements KdonJavaTypeProvider {
 
+	private static final Logger LOGGER = Logger.getLogger(KdonCoreJavaTypeProvider.class.getName());
+
+	private static final String CORE_PACKAGE = "de.unibonn.realkd";
+
+	/**
+	 * Scans classpath for all types annotated with {@link KdonTypeName} in some
+	 * package. Can be used by plugins that are not compiled with
+	 * {@link KdonTypeRegistryProcessor}.
+	 * 
+	 * @param packagePrefix
+	 *            prefix of the packages to be scanned
+	 * @return all annotated types within packages
+	 */
+	public static Set<Class<?>> scanClasspath(String packagePrefix) {
+		Reflections reflection = new Reflections(packagePrefix);
+		return reflection.getTypesAnnotatedWith(KdonTypeName.class, true);
+	}
+
+	private static Set<Class<?>> scanRoots(String packagePrefix, List<URL> roots, ClassLoader classLoader) {
+		Reflections reflection = new Reflections(new ConfigurationBuilder().setUrls(roots)
+				.addClassLoader(classLoader).filterInputsBy(new FilterBuilder().includePackage(packagePrefix))
+				.setScanners(new TypeAnnotationsScanner(), new SubTypesScanner()));
+		return reflection.getTypesAnnotatedWith(KdonTypeName.class, true);
+	}
+
+	/**
+	 * @return classpath roots that contain the given package but no KDON type
+	 *         registry
+	 */
+	static List<URL> unregisteredRoots(String packagePrefix, ClassLoader classLoader) {
+		String path = packagePrefix.replace('.', '/');
+		Set<String> registered = KdonTypeRegistry.registryRoots(classLoader);
+		List<URL> packageLocations;
+		try {
+			packageLocations = Collections.list(classLoader.getResources(path));
+		} catch (IOException e) {
+			LOGGER.warning("Could not locate package " + packagePrefix + ": " + e);
+			return Collections.emptyList();
+		}
+		return packageLocations.stream().map(url -> KdonTypeRegistry.root(url, path)).distinct()
+				.filter(root -> !registered.contains(root)).map(root -> {
+					try {
+						return new URL(root);
+					} catch (MalformedURLException e) {
+						throw new IllegalStateException(e);
+					}
+				}).collect(Collectors.toList());
+	}
+
 	@Override
 	public Set<Class<?>> get() {
-		Reflections reflection = new Reflections("de.unibonn.realkd");
-		Set<Class<?>> annotated = reflection.getTypesAnnotatedWith(KdonTypeName.class, true);
-		return annotated;
+		ClassLoader classLoader = KdonCoreJavaTypeProvider.class.getClassLoader();
+		Set<Class<?>> result = new HashSet<>();
+		KdonTypeRegistry.registeredTypes(classLoader).ifPresent(types -> result.addAll(types.values()));
+		List<URL> unregistered = unregisteredRoots(CORE_PACKAGE, classLoader);
+		if (!unregistered.isEmpty()) {
+			LOGGER.info("No KDON type registry found in " + unregistered + "; scanning for annotated types");
+			result.addAll(scanRoots(CORE_PACKAGE, unregistered, classLoader));
+		}
+		return result;
 	}
 
 }
@@ -0,0 +1,155 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * Reads the registries of KDON type names that are generated at compile time
+ * by {@link KdonTypeRegistryProcessor}.
+ * </p>
+ * <p>
+ * All registry resources visible to a class loader are merged, i.e., plugins
+ * that are compiled with the processor contribute their types in the same
+ * way as the core library. Conflicting registrations of the same KDON name in
+ * different registries are reported and the first registration is kept.
+ * </p>
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public final class KdonTypeRegistry {
+
+	public static final String RESOURCE_NAME = "META-INF/realkd/kdon-types.properties";
+
+	private static final Logger LOGGER = Logger.getLogger(KdonTypeRegistry.class.getName());
+
+	/**
+	 * @param classLoader
+	 *            the class loader used to locate registry resources and to load
+	 *            registered classes
+	 * @return map of KDON type names to Java classes of all registries visible
+	 *         to the class loader or empty if no registry is visible
+	 */
+	public static Optional<Map<String, Class<?>>> registeredTypes(ClassLoader classLoader) {
+		Enumeration<URL> resources;
+		try {
+			resources = classLoader.getResources(RESOURCE_NAME);
+		} catch (IOException e) {
+			LOGGER.warning("Could not locate KDON type registries: " + e);
+			return Optional.empty();
+		}
+		if (!resources.hasMoreElements()) {
+			return Optional.empty();
+		}
+		Map<String, Class<?>> result = new HashMap<>();
+		for (URL resource : Collections.list(resources)) {
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (line.isEmpty() || line.startsWith("#")) {
+						continue;
+					}
+					int separator = line.indexOf('=');
+					String kdonName = line.substring(0, separator);
+					String className = line.substring(separator + 1);
+					try {
+						Class<?> type = Class.forName(className, false, classLoader);
+						Class<?> previous = result.putIfAbsent(kdonName, type);
+						if (previous != null && !previous.equals(type)) {
+							LOGGER.severe("Conflicting registrations of KDON type '" + kdonName + "': "
+									+ previous.getName() + " and " + className + " (in " + resource
+									+ "); keeping " + previous.getName());
+						}
+					} catch (ClassNotFoundException e) {
+						LOGGER.warning("Skipping registered KDON type '" + kdonName + "': class " + className
+								+ " not found");
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.warning("Could not read KDON type registry " + resource + ": " + e);
+				return Optional.empty();
+			}
+		}
+		return Optional.of(result);
+	}
+
+	/**
+	 * @param classLoader
+	 *            the class loader used to locate registry resources
+	 * @return external forms of the classpath roots (directories or jars)
+	 *         that contain a registry resource
+	 */
+	public static Set<String> registryRoots(ClassLoader classLoader) {
+		try {
+			List<URL> resources = Collections.list(classLoader.getResources(RESOURCE_NAME));
+			return resources.stream().map(url -> root(url, RESOURCE_NAME)).collect(Collectors.toSet());
+		} catch (IOException e) {
+			LOGGER.warning("Could not locate KDON type registries: " + e);
+			return Collections.emptySet();
+		}
+	}
+
+	/**
+	 * @return external form of the classpath root from which a resource with
+	 *         the given path has been located
+	 */
+	static String root(URL resource, String path) {
+		String url = resource.toExternalForm();
+		return url.endsWith(path) ? url.substring(0, url.length() - path.length()) : url;
+	}
+
+	/**
+	 * @return set of all Java classes registered in registries visible to the
+	 *         class loader of this class or empty if no registry is visible
+	 */
+	public static Optional<Set<Class<?>>> registeredClasses() {
+		return registeredTypes(KdonTypeRegistry.class.getClassLoader()).map(m -> new HashSet<>(m.values()));
+	}
+
+	private KdonTypeRegistry() {
+		;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.common;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * <p>
+ * Annotation processor that collects all types annotated with
+ * {@link KdonTypeName} during compilation and writes a registry of KDON type
+ * names to binary Java class names into the class output (see
+ * {@link KdonTypeRegistry#RESOURCE_NAME}).
+ * </p>
+ * <p>
+ * This allows {@link KdonCoreJavaTypeProvider} to resolve all KDON types at
+ * startup without scanning the classpath. Duplicate KDON type names are
+ * reported as compilation errors.
+ * </p>
+ * <p>
+ * Note that the processor refers to the annotation by name only such that it
+ * can be compiled independently of the rest of the code base (as done in the
+ * first compiler execution of the build).
+ * </p>
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+@SupportedAnnotationTypes(KdonTypeRegistryProcessor.ANNOTATION_NAME)
+public class KdonTypeRegistryProcessor extends AbstractProcessor {
+
+	static final String ANNOTATION_NAME = "de.unibonn.realkd.common.KdonTypeName";
+
+	private final Map<String, String> kdonNameToBinaryName = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!kdonNameToBinaryName.isEmpty()) {
+				writeRegistry();
+			}
+			return false;
+		}
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (!(element instanceof TypeElement)) {
+					continue;
+				}
+				TypeElement type = (TypeElement) element;
+				String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+				String kdonName = kdonName(type);
+				String previous = kdonNameToBinaryName.put(kdonName, binaryName);
+				if (previous != null && !previous.equals(binaryName)) {
+					processingEnv.getMessager().printMessage(Kind.ERROR,
+							"KDON type name '" + kdonName + "' already used by " + previous, element);
+				}
+			}
+		}
+		return false;
+	}
+
+	private String kdonName(TypeElement type) {
+		for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+					.contentEquals(ANNOTATION_NAME)) {
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror
+						.getElementValues().entrySet()) {
+					if (entry.getKey().getSimpleName().contentEquals("value")) {
+						return entry.getValue().getValue().toString();
+					}
+				}
+			}
+		}
+		throw new IllegalStateException("no KDON type name found for " + type);
+	}
+
+	private void writeRegistry() {
+		try {
+			FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					KdonTypeRegistry.RESOURCE_NAME);
+			try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+				writer.write("# generated by " + KdonTypeRegistryProcessor.class.getName() + "\n");
+				for (Map.Entry<String, String> entry : kdonNameToBinaryName.entrySet()) {
+					writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Could not write KDON type registry: " + e);
+		}
+	}
+
+}
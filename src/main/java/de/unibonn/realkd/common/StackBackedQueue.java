@@ -31,6 +31,8 @@ import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Stack;
 
+import com.google.common.collect.Lists;
+
 /**
  * 
  * <p>
@@ -64,9 +66,13 @@ public class StackBackedQueue<N> implements Queue<N> {
 		return stack.contains(o);
 	}
 
+	/**
+	 * @return iterator over the elements in the order in which they would be
+	 *         polled, i.e., starting from the top of the stack
+	 */
 	@Override
 	public Iterator<N> iterator() {
-		return stack.iterator();
+		return Lists.reverse(stack).iterator();
 	}
 
 	@Override
@@ -27,13 +27,14 @@ package de.unibonn.realkd.common.base;
 import java.util.function.Supplier;
 
 /**
- * Generic container for lazily initialized values.
+ * Generic container for lazily initialized values. Safe for concurrent first
+ * access: the initializer is invoked at most once.
  * 
  * @author Mario Boley
  * 
  * @since 0.5.0
  * 
- * @version 0.5.0
+ * @version 0.7.2
  *
  */
 public class Lazy<T> {
@@ -44,17 +45,23 @@ public class Lazy<T> {
 
 	private final Supplier<T> initializer;
 
-	private T content = null;
+	private volatile T content = null;
 
 	private Lazy(Supplier<T> initializer) {
 		this.initializer = initializer;
 	}
 
 	public T get() {
-		if (content == null) {
-			content = initializer.get();
+		T result = content;
+		if (result == null) {
+			synchronized (this) {
+				result = content;
+				if (result == null) {
+					content = result = initializer.get();
+				}
+			}
 		}
-		return content;
+		return result;
 	}
 
 }
@@ -1,13 +1,13 @@
 package de.unibonn.realkd.common.optimization;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.function.DoubleBinaryOperator;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import de.unibonn.realkd.common.base.Pair;
-import de.unibonn.realkd.util.Lists;
 
 /**
  * <p>
@@ -20,7 +20,7 @@ import de.unibonn.realkd.util.Lists;
  * 
  * @since 0.1.1
  * 
- * @version 0.3.0
+ * @version 0.7.2
  * 
  */
 public class BatchLogisticL1RegLinearLearner<T> implements RegressionModelFromPreferenceLearner<T> {
@@ -31,12 +31,16 @@ public class BatchLogisticL1RegLinearLearner<T> implements RegressionModelFromPr
 
 	private List<Pair<T, T>> trainingData;
 
-	private List<List<Double>> differences;
+	private List<double[]> differences;
 
 	private static final double GAMMA = 0.01;
 
+	private static final long SEED = 2357;
+
 	private LinearModel<T> model;
 
+	private final Random random = new Random(SEED);
+
 	public BatchLogisticL1RegLinearLearner(LinearFeatureSpace<T> optimizationSpace) {
 		this.model = new LinearModel<T>(optimizationSpace);
 		this.trainingData = new ArrayList<>();
@@ -53,12 +57,12 @@ public class BatchLogisticL1RegLinearLearner<T> implements RegressionModelFromPr
 		differences.add(getDifference(pair));
 	}
 
-	private List<Double> getDifference(Pair<T, T> pair) {
-		ArrayList<Double> newDifferenceVector = new ArrayList<>(
-				((LinearFeatureSpace<T>) this.model.getFeatureSpace()).getFeatures().size());
+	private double[] getDifference(Pair<T, T> pair) {
+		List<LinearFeature<T>> features = this.model.getFeatureSpace().getFeatures();
+		double[] newDifferenceVector = new double[features.size()];
 
-		for (LinearFeature<T> feature : this.model.getFeatureSpace().getFeatures()) {
-			newDifferenceVector.add(feature.value(pair._1()) - feature.value(pair._2()));
+		for (int j = 0; j < features.size(); j++) {
+			newDifferenceVector[j] = features.get(j).value(pair._1()) - features.get(j).value(pair._2());
 		}
 
 		return newDifferenceVector;
@@ -71,17 +75,22 @@ public class BatchLogisticL1RegLinearLearner<T> implements RegressionModelFromPr
 
 		DoubleBinaryOperator lossDerivative = (score, label) -> (-label) / (1 + Math.exp(label * score));
 		List<Double> weights = model.getWeights();
-		List<Double> labels = Lists.generatorBackedList(i -> 1.0, weights.size());
-		List<Double> aprioriWeights = model.getFeatureSpace().getFeatures().stream().map(f -> f.getDefaultCoefficient())
-				.collect(Collectors.toList());
+		double[] primitiveWeights = weights.stream().mapToDouble(Double::doubleValue).toArray();
+		double[][] data = differences.toArray(new double[differences.size()][]);
+		double[] labels = new double[data.length];
+		Arrays.fill(labels, 1.0);
+		double[] aprioriWeights = model.getFeatureSpace().getFeatures().stream()
+				.mapToDouble(f -> f.getDefaultCoefficient()).toArray();
 		double betaInverse = 4.0;
 		double gamma = GAMMA;
 		int maxIterations = weights.size() * ITERATIONS_FACTOR;
-		// IntToDoubleFunction partialDerivative = i ->
-		// computePartialDerivative(i, weights, differences);
 
-		StochasticCoordinateDescent.stochasticCoordinateDescent(lossDerivative, weights, differences, labels,
-				aprioriWeights, betaInverse, gamma, maxIterations);
+		StochasticCoordinateDescent.stochasticCoordinateDescent(lossDerivative, primitiveWeights, data, labels,
+				aprioriWeights, betaInverse, gamma, maxIterations, random, 1);
+
+		for (int j = 0; j < primitiveWeights.length; j++) {
+			weights.set(j, primitiveWeights[j]);
+		}
 	}
 
 	public String toString() {
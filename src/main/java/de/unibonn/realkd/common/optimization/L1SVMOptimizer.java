@@ -1,36 +1,74 @@
 package de.unibonn.realkd.common.optimization;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import org.apache.commons.math3.optim.PointValuePair;
-import org.apache.commons.math3.optim.linear.LinearConstraint;
-import org.apache.commons.math3.optim.linear.LinearConstraintSet;
-import org.apache.commons.math3.optim.linear.LinearObjectiveFunction;
-import org.apache.commons.math3.optim.linear.Relationship;
-import org.apache.commons.math3.optim.linear.SimplexSolver;
-import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+import java.util.Map;
 
 import de.unibonn.realkd.common.base.Pair;
 
 /**
+ * <p>
+ * Learns a support vector utility model from pairwise preferences by solving
+ * the 1-norm SVM linear program
+ * </p>
+ * 
+ * <pre>
+ * minimize sum_j alpha_j + C sum_i xi_i s.t. sum_j alpha_j K(i,j) + xi_i &gt;= 1, alpha, xi &gt;= 0
+ * </pre>
+ * <p>
+ * where K(i,j) is the inner product of the feature differences of preferences
+ * i and j. Instead of handing the dense program to a general purpose LP solver,
+ * its dual
+ * </p>
+ * 
+ * <pre>
+ * maximize sum_i u_i s.t. sum_i u_i K(i,j) &lt;= 1 for all j, 0 &lt;= u_i &lt;= C
+ * </pre>
+ * <p>
+ * is solved by constraint generation: only the constraints of a small working
+ * set of preferences (the candidate support vectors) are enforced, which
+ * leaves a program with as many rows as working set elements that is solved by
+ * a bounded-variable simplex method. Constraints violated by the solution are
+ * added until none remains. The coefficients alpha are the dual values of the
+ * working set constraints. Kernel rows are held in an LRU cache of bounded
+ * size, and updates are warm-started from the support of the previous
+ * solution.
+ * </p>
+ * 
  * @author Pavel Tokmakov
  * 
  * @since 0.1.1
  * 
- * @version 0.1.1.1
+ * @version 0.7.2
  * 
  */
-public class L1SVMOptimizer<T> implements
-		RegressionModelFromPreferenceLearner<T> {
+public class L1SVMOptimizer<T> implements RegressionModelFromPreferenceLearner<T> {
 
 	private static final double C = 0.1;
 
+	private static final int KERNEL_CACHE_ROWS = 1000;
+
+	private static final double EPSILON = 1e-10;
+
 	private List<Pair<T, T>> trainingData;
 
 	private PreferenceSupportVectorBasedRegressionModel<T> model;
 
+	private final Map<Integer, double[]> kernelRows = new LinkedHashMap<Integer, double[]>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, double[]> eldest) {
+			return size() > KERNEL_CACHE_ROWS;
+		}
+
+	};
+
+	private double[] alpha = new double[0];
+
 	public L1SVMOptimizer(Kernel<T> kernel) {
 		trainingData = new ArrayList<>();
 		model = new PreferenceSupportVectorBasedRegressionModel<T>(kernel);
@@ -45,111 +83,255 @@ public class L1SVMOptimizer<T> implements
 
 	@Override
 	public void doUpdate() {
-		SimplexSolver solver = new SimplexSolver();
-		PointValuePair solution;
+		int n = trainingData.size();
+		List<Integer> workingSet = new ArrayList<>();
+		for (int j = 0; j < alpha.length; j++) {
+			if (alpha[j] != 0.) {
+				workingSet.add(j);
+			}
+		}
 
-		try {
-			solution = solver.optimize(initObjective(), initConstraints(),
-					GoalType.MINIMIZE);
-		} catch (Exception e) {
-			e.printStackTrace();
-			return;
+		RestrictedDual dual;
+		while (true) {
+			dual = new RestrictedDual(workingSet);
+			dual.solve();
+			double[] violations = new double[n];
+			for (int i = 0; i < n; i++) {
+				if (dual.u[i] != 0.) {
+					double[] row = kernelRow(i);
+					for (int j = 0; j < n; j++) {
+						violations[j] += dual.u[i] * row[j];
+					}
+				}
+			}
+			int mostViolated = -1;
+			for (int j = 0; j < n; j++) {
+				if (violations[j] > 1 + 1e-9 && !workingSet.contains(j)
+						&& (mostViolated == -1 || violations[j] > violations[mostViolated])) {
+					mostViolated = j;
+				}
+			}
+			if (mostViolated == -1) {
+				break;
+			}
+			workingSet.add(mostViolated);
 		}
 
-		updateModel(solution);
+		alpha = new double[n];
+		double[] duals = dual.duals();
+		for (int r = 0; r < workingSet.size(); r++) {
+			alpha[workingSet.get(r)] = Math.max(0, duals[r]);
+		}
+		updateModel();
 	}
 
-	private void updateModel(PointValuePair solution) {
-		model.getCoefficients().clear();
-		model.getSupportVectors().clear();
-
-		for (int i = 0; i < trainingData.size(); i++) {
-			if (solution.getPoint()[i] != 0.) {
-				model.getCoefficients().add(solution.getPoint()[i]);
-				model.getSupportVectors().add(trainingData.get(i));
-			}
+	/**
+	 * Kernel row of a preference w.r.t. all current preferences; rows cached
+	 * before preferences were added are extended by the missing entries.
+	 */
+	private double[] kernelRow(int j) {
+		int n = trainingData.size();
+		double[] row = kernelRows.get(j);
+		if (row != null && row.length == n) {
+			return row;
+		}
+		int known = row == null ? 0 : row.length;
+		row = row == null ? new double[n] : Arrays.copyOf(row, n);
+		for (int i = known; i < n; i++) {
+			row[i] = model.pairInnerProd(trainingData.get(i), trainingData.get(j));
 		}
+		kernelRows.put(j, row);
+		return row;
 	}
 
-	private LinearConstraintSet initConstraints() {
-		Collection<LinearConstraint> constraints = new ArrayList<>();
+	/**
+	 * Dual program restricted to the constraints of a working set, in standard
+	 * form with one slack variable per constraint. Variables 0..n-1 are the
+	 * bounded dual variables u, variables n..n+s-1 are the slacks. Solved by
+	 * the primal simplex method for bounded variables with Bland's rule
+	 * (nonbasic variables rest at one of their bounds).
+	 */
+	private class RestrictedDual {
 
-		for (int i = 0; i < trainingData.size(); i++) {
-			constraints.add(initConstraint(i));
-			constraints.add(initConstraintForAlpha(i));
-			constraints.add(initConstraintForSlack(i));
-		}
+		private final int n;
 
-		return new LinearConstraintSet(constraints);
-	}
+		private final int s;
 
-	private LinearConstraint initConstraintForAlpha(int index) {
-		double[] coeffs = new double[trainingData.size() * 2];
+		private final double[][] rows;
 
-		for (int i = 0; i < trainingData.size(); i++) {
-			if (i == index) {
-				coeffs[i] = 1;
-			} else {
-				coeffs[i] = 0;
+		private final double[] u;
+
+		private final double[] slacks;
+
+		private final boolean[] atUpper;
+
+		private final int[] basis;
+
+		private final int[] rowOfBasic;
+
+		private final double[][] basisInverse;
+
+		private RestrictedDual(List<Integer> workingSet) {
+			this.n = trainingData.size();
+			this.s = workingSet.size();
+			this.rows = new double[s][];
+			for (int r = 0; r < s; r++) {
+				rows[r] = kernelRow(workingSet.get(r));
 			}
+			this.u = new double[n];
+			this.slacks = new double[s];
+			Arrays.fill(slacks, 1);
+			this.atUpper = new boolean[n];
+			this.basis = new int[s];
+			this.rowOfBasic = new int[n + s];
+			Arrays.fill(rowOfBasic, -1);
+			this.basisInverse = new double[s][s];
+			for (int r = 0; r < s; r++) {
+				basis[r] = n + r;
+				rowOfBasic[n + r] = r;
+				basisInverse[r][r] = 1;
+			}
+		}
 
-			coeffs[trainingData.size() + i] = 0;
+		private double cost(int variable) {
+			return variable < n ? 1 : 0;
 		}
 
-		return new LinearConstraint(coeffs, Relationship.GEQ, 0);
-	}
+		private double coefficient(int r, int variable) {
+			return variable < n ? rows[r][variable] : (variable - n == r ? 1 : 0);
+		}
 
-	private LinearConstraint initConstraintForSlack(int index) {
-		double[] coeffs = new double[trainingData.size() * 2];
+		private double value(int variable) {
+			return variable < n ? u[variable] : slacks[variable - n];
+		}
 
-		for (int i = 0; i < trainingData.size(); i++) {
-			if (i == index) {
-				coeffs[trainingData.size() + i] = 1;
+		private void setValue(int variable, double value) {
+			if (variable < n) {
+				u[variable] = value;
 			} else {
-				coeffs[trainingData.size() + i] = 0;
+				slacks[variable - n] = value;
 			}
+		}
 
-			coeffs[i] = 0;
+		private double upperBound(int variable) {
+			return variable < n ? C : Double.POSITIVE_INFINITY;
 		}
 
-		return new LinearConstraint(coeffs, Relationship.GEQ, 0);
-	}
+		private double[] duals() {
+			double[] y = new double[s];
+			for (int r = 0; r < s; r++) {
+				double c = cost(basis[r]);
+				if (c != 0.) {
+					for (int k = 0; k < s; k++) {
+						y[k] += c * basisInverse[r][k];
+					}
+				}
+			}
+			return y;
+		}
 
-	private LinearConstraint initConstraint(int constrIndex) {
-		double[] coeffs = new double[trainingData.size() * 2];
-		Pair<T, T> constrInstance = trainingData.get(constrIndex);
+		private void solve() {
+			while (true) {
+				double[] y = duals();
+				int entering = -1;
+				for (int j = 0; j < n + s && entering == -1; j++) {
+					if (rowOfBasic[j] != -1) {
+						continue;
+					}
+					double reducedCost = cost(j);
+					for (int k = 0; k < s; k++) {
+						reducedCost -= y[k] * coefficient(k, j);
+					}
+					boolean upper = j < n && atUpper[j];
+					if ((!upper && reducedCost > EPSILON) || (upper && reducedCost < -EPSILON)) {
+						entering = j;
+					}
+				}
+				if (entering == -1) {
+					return;
+				}
+				pivot(entering);
+			}
+		}
 
-		for (int i = 0; i < trainingData.size(); i++) {
-			Pair<T, T> coeffInstance = trainingData.get(i);
-
-			coeffs[i] = model.getFeatureSpace().innerProduct(
-					coeffInstance._1(), constrInstance._1())
-					- model.getFeatureSpace().innerProduct(
-							coeffInstance._1(), constrInstance._2())
-					- model.getFeatureSpace().innerProduct(
-							coeffInstance._2(), constrInstance._1())
-					+ model.getFeatureSpace().innerProduct(
-							coeffInstance._2(), constrInstance._2());
-
-			if (i == constrIndex) {
-				coeffs[trainingData.size() + i] = -1.;
-			} else {
-				coeffs[trainingData.size() + i] = 0.;
+		private void pivot(int entering) {
+			double direction = entering < n && atUpper[entering] ? -1 : 1;
+			double[] column = new double[s];
+			for (int r = 0; r < s; r++) {
+				for (int k = 0; k < s; k++) {
+					column[r] += basisInverse[r][k] * coefficient(k, entering);
+				}
+			}
+
+			// ratio test; basic variable of row r changes by -direction *
+			// column[r] per unit step
+			double step = upperBound(entering);
+			int leavingRow = -1;
+			for (int r = 0; r < s; r++) {
+				double rate = direction * column[r];
+				double limit;
+				if (rate > EPSILON) {
+					limit = value(basis[r]) / rate;
+				} else if (rate < -EPSILON) {
+					limit = (upperBound(basis[r]) - value(basis[r])) / -rate;
+				} else {
+					continue;
+				}
+				if (limit < step || (limit == step && leavingRow != -1 && basis[r] < basis[leavingRow])) {
+					step = limit;
+					leavingRow = r;
+				}
+			}
+
+			for (int r = 0; r < s; r++) {
+				setValue(basis[r], value(basis[r]) - direction * step * column[r]);
+			}
+			setValue(entering, value(entering) + direction * step);
+			if (leavingRow == -1) {
+				// bound flip
+				atUpper[entering] = !atUpper[entering];
+				setValue(entering, atUpper[entering] ? C : 0);
+				return;
+			}
+
+			int leaving = basis[leavingRow];
+			boolean leavesAtUpper = direction * column[leavingRow] < 0;
+			setValue(leaving, leavesAtUpper ? upperBound(leaving) : 0);
+			if (leaving < n) {
+				atUpper[leaving] = leavesAtUpper;
+			}
+			rowOfBasic[leaving] = -1;
+			basis[leavingRow] = entering;
+			rowOfBasic[entering] = leavingRow;
+			if (entering < n) {
+				atUpper[entering] = false;
+			}
+
+			double pivot = column[leavingRow];
+			for (int k = 0; k < s; k++) {
+				basisInverse[leavingRow][k] /= pivot;
+			}
+			for (int r = 0; r < s; r++) {
+				if (r != leavingRow && column[r] != 0.) {
+					for (int k = 0; k < s; k++) {
+						basisInverse[r][k] -= column[r] * basisInverse[leavingRow][k];
+					}
+				}
 			}
 		}
 
-		return new LinearConstraint(coeffs, Relationship.GEQ, 1);
 	}
 
-	private LinearObjectiveFunction initObjective() {
-		double[] coeffs = new double[trainingData.size() * 2];
+	private void updateModel() {
+		model.getCoefficients().clear();
+		model.getSupportVectors().clear();
 
 		for (int i = 0; i < trainingData.size(); i++) {
-			coeffs[i] = 1.;
-			coeffs[trainingData.size() + i] = C;
+			if (alpha[i] != 0.) {
+				model.getCoefficients().add(alpha[i]);
+				model.getSupportVectors().add(trainingData.get(i));
+			}
 		}
-
-		return new LinearObjectiveFunction(coeffs, 0);
 	}
 
 	public InnerProductSpaceBasedRegressionModel<T> getModel() {
@@ -24,7 +24,10 @@
  */
 package de.unibonn.realkd.common.optimization;
 
+import static java.util.stream.IntStream.range;
+
 import java.util.List;
+import java.util.Random;
 import java.util.function.DoubleBinaryOperator;
 import java.util.logging.Logger;
 
@@ -32,73 +35,86 @@ import java.util.logging.Logger;
  * Implementation of stochastic coordinate descent based on <i>Stochastic
  * methods for l1-regularized loss minimization</i> by Shalev-Shwartz, Shai and
  * Tewari, Ambuj.
+ * <p>
+ * Data is held column-wise with zero entries omitted, and the scores of all
+ * examples are maintained under weight updates. Hence, a coordinate step costs
+ * time linear in the number of non-zero entries of the coordinate instead of
+ * the size of the complete data. Optionally, several coordinates can be updated
+ * in parallel from the same scores (shotgun-style updates, see <i>Parallel
+ * coordinate descent for l1-regularized loss minimization</i> by Bradley et
+ * al.).
+ * </p>
  * 
  * @author Mario Boley
  * 
  * @since 0.3.0
  * 
- * @version 0.3.0
+ * @version 0.7.2
  *
  */
 public class StochasticCoordinateDescent {
 
-	// public interface LossFunction {
-	//
-	// public DoubleBinaryOperator lossDerivative();
-	//
-	// public double betaInverse();
-	//
-	// }
-
 	private static Logger LOGGER = Logger.getLogger(StochasticCoordinateDescent.class.getName());
 
-	private static double getScoreForExample(List<Double> weights, List<Double> example) {
-		double res = 0.0;
+	private static final long DEFAULT_SEED = 2357;
 
-		// for (int j = 0; j < model.getWeights().size(); j++) {
-		// res += model.getWeights().get(j) * differences.get(i).get(j);
-		// }
+	/**
+	 * Data in compressed column format: entry i of column j holds value
+	 * values[j][i] for example rows[j][i].
+	 */
+	private static class Columns {
 
-		for (int j = 0; j < weights.size(); j++) {
-			res += weights.get(j) * example.get(j);
-			if (Math.abs(example.get(j)) > 1) {
-				LOGGER.warning("absolute value of data entry larger than one---search likely to diverge");
-			}
-		}
+		private final int[][] rows;
 
-		return res;
-	}
+		private final double[][] values;
 
-	private static double computePartialDerivative(int coordinate, List<Double> weights, List<List<Double>> data,
-			List<Double> labels, DoubleBinaryOperator lossDerivative) {
-		// double y = 1.0;
-		double res = 0.0;
-
-		// for (int i = 0; i < differences.size(); i++) {
-		for (int i = 0; i < data.size(); i++) {
-			double score = getScoreForExample(weights, data.get(i));
-			Double label = labels.get(i);
-//			 System.out.println("score, label "+score+","+label);
-			res += data.get(i).get(coordinate) * lossDerivative.applyAsDouble(score, label);
-			if (Math.abs(label) > 1) {
-				LOGGER.warning("absolute label value larger than one---search likely to diverge");
-			}
+		private Columns(double[][] data, int dimension) {
+			this.rows = new int[dimension][];
+			this.values = new double[dimension][];
+			range(0, dimension).parallel().forEach(j -> {
+				int nonZeros = 0;
+				for (double[] example : data) {
+					if (example[j] != 0.0) {
+						nonZeros++;
+					}
+				}
+				rows[j] = new int[nonZeros];
+				values[j] = new double[nonZeros];
+				for (int i = 0, k = 0; i < data.length; i++) {
+					if (data[i][j] != 0.0) {
+						rows[j][k] = i;
+						values[j][k++] = data[i][j];
+					}
+				}
+			});
+		}
 
-			// res += data.get(i).get(coordinate) * (-y) / (1 + Math.exp(y *
-			// getScoreForExample(weights, data.get(i))));
-			// res += differences.get(i).get(coordinate) / (1 + Math.exp(y *
-			// getScoreForExample(i)));
+		private double partialDerivative(int coordinate, double[] scores, double[] labels,
+				DoubleBinaryOperator lossDerivative) {
+			int[] columnRows = rows[coordinate];
+			double[] columnValues = values[coordinate];
+			double res = 0.0;
+			for (int k = 0; k < columnRows.length; k++) {
+				int i = columnRows[k];
+				res += columnValues[k] * lossDerivative.applyAsDouble(scores[i], labels[i]);
+			}
+			return res / scores.length;
 		}
-//		 System.out.println("unormalized partial derivative: "+res);
-		 res = res / data.size();
-//		System.out.println("normalized partial derivative: " + res);
 
-		return res;
+		private void updateScores(int coordinate, double delta, double[] scores) {
+			int[] columnRows = rows[coordinate];
+			double[] columnValues = values[coordinate];
+			for (int k = 0; k < columnRows.length; k++) {
+				scores[columnRows[k]] += delta * columnValues[k];
+			}
+		}
 
-		// return -y * res / differences.size();
 	}
 
 	/**
+	 * Performs sequential coordinate descent with a fixed seed, storing the
+	 * result in the given list of weights.
+	 * 
 	 * @param lossDerivative
 	 * @param weights
 	 * @param labels
@@ -110,65 +126,150 @@ public class StochasticCoordinateDescent {
 	public static void stochasticCoordinateDescent(DoubleBinaryOperator lossDerivative, List<Double> weights,
 			List<List<Double>> data, List<Double> labels, List<Double> aprioriWeights, double betaInverse, double gamma,
 			int maxIterations) {
-		LOGGER.info("Starting model parameter optimization by coordiante descent with " + String.valueOf(data.size())
+		double[] primitiveWeights = weights.stream().mapToDouble(Double::doubleValue).toArray();
+		double[][] primitiveData = data.stream().map(e -> e.stream().mapToDouble(Double::doubleValue).toArray())
+				.toArray(double[][]::new);
+		double[] primitiveLabels = range(0, data.size()).mapToDouble(labels::get).toArray();
+		double[] primitiveAprioriWeights = aprioriWeights.stream().mapToDouble(Double::doubleValue).toArray();
+
+		stochasticCoordinateDescent(lossDerivative, primitiveWeights, primitiveData, primitiveLabels,
+				primitiveAprioriWeights, betaInverse, gamma, maxIterations, new Random(DEFAULT_SEED), 1);
+
+		for (int j = 0; j < primitiveWeights.length; j++) {
+			weights.set(j, primitiveWeights[j]);
+		}
+	}
+
+	/**
+	 * Performs coordinate descent on primitive data, updating the given weight
+	 * array in place.
+	 * 
+	 * @param lossDerivative
+	 *            derivative of loss with respect to score given score and label
+	 * @param weights
+	 *            initial weights (modified)
+	 * @param data
+	 *            examples as rows, entries should have absolute value at most
+	 *            one
+	 * @param labels
+	 *            one label per example
+	 * @param aprioriWeights
+	 *            weights towards which l1-regularization shrinks
+	 * @param betaInverse
+	 *            step size
+	 * @param gamma
+	 *            regularization strength
+	 * @param maxIterations
+	 *            maximum number of coordinate updates
+	 * @param random
+	 *            source of randomness for choosing coordinates
+	 * @param parallelUpdates
+	 *            number of coordinates updated in parallel per step (1 for
+	 *            plain sequential coordinate descent)
+	 */
+	public static void stochasticCoordinateDescent(DoubleBinaryOperator lossDerivative, double[] weights,
+			double[][] data, double[] labels, double[] aprioriWeights, double betaInverse, double gamma,
+			int maxIterations, Random random, int parallelUpdates) {
+		if (parallelUpdates < 1) {
+			throw new IllegalArgumentException("number of parallel updates must be positive");
+		}
+		LOGGER.info("Starting model parameter optimization by coordiante descent with " + String.valueOf(data.length)
 				+ " examples (max " + String.valueOf(maxIterations) + " iterations)...");
 
+		int dimension = weights.length;
+		for (int i = 0; i < data.length; i++) {
+			if (Math.abs(labels[i]) > 1) {
+				LOGGER.warning("absolute label value larger than one---search likely to diverge");
+				break;
+			}
+		}
+		search: for (double[] example : data) {
+			for (double value : example) {
+				if (Math.abs(value) > 1) {
+					LOGGER.warning("absolute value of data entry larger than one---search likely to diverge");
+					break search;
+				}
+			}
+		}
+
+		Columns columns = new Columns(data, dimension);
+		double[] scores = new double[data.length];
+		for (int j = 0; j < dimension; j++) {
+			if (weights[j] != 0.0) {
+				columns.updateScores(j, weights[j], scores);
+			}
+		}
+
+		int batchSize = Math.min(parallelUpdates, dimension);
+		int[] coordinates = range(0, dimension).toArray();
+		double[] gradients = new double[batchSize];
+
 		int t = -1;
-		int freeWeights = weights.size();
-		boolean[] freeToChange = new boolean[weights.size()];
-		for (int i = 0; i < weights.size(); i++) {
+		int freeWeights = dimension;
+		boolean[] freeToChange = new boolean[dimension];
+		for (int i = 0; i < dimension; i++) {
 			freeToChange[i] = true;
 		}
 
 		int skipCounter = 0;
 		while (t < maxIterations && freeWeights > 0) {
-			t++;
-			int coordinate = (int) (Math.random() * weights.size());
-			// System.out.println("updating weight: " + coordinate);
-
-			if (!freeToChange[coordinate]) {
-				// System.out.println("cannot change---skip");
-				skipCounter++;
-				continue;
+			// choose batch of distinct coordinates by partial Fisher-Yates shuffle
+			for (int k = 0; k < batchSize; k++) {
+				int l = k + random.nextInt(dimension - k);
+				int swap = coordinates[k];
+				coordinates[k] = coordinates[l];
+				coordinates[l] = swap;
 			}
+			t += batchSize;
 
-			double oldValue = weights.get(coordinate);
-			// double g = computePartialDerivative(coordinate);
-			double g = computePartialDerivative(coordinate, weights, data, labels, lossDerivative);
-
-			// System.out.println("partial derivative: " + g);
+			if (batchSize == 1) {
+				gradients[0] = freeToChange[coordinates[0]]
+						? columns.partialDerivative(coordinates[0], scores, labels, lossDerivative) : 0.0;
+			} else {
+				range(0, batchSize).parallel()
+						.forEach(k -> gradients[k] = freeToChange[coordinates[k]]
+								? columns.partialDerivative(coordinates[k], scores, labels, lossDerivative) : 0.0);
+			}
 
-			// double g = partialDerivative.applyAsDouble(coordinate);
-			double wAfterGradStep = weights.get(coordinate) - g * betaInverse;
+			boolean changed = false;
+			for (int k = 0; k < batchSize; k++) {
+				int coordinate = coordinates[k];
+				if (!freeToChange[coordinate]) {
+					skipCounter++;
+					continue;
+				}
 
-			// move weight closer to zero to account for L1 regularization
-			// set weight to prior if we cross prior while updating
+				double oldValue = weights[coordinate];
+				double wAfterGradStep = oldValue - gradients[k] * betaInverse;
 
-			double aprioriWeight = aprioriWeights.get(coordinate);
-			// double aprioriWeight =
-			// this.model.getFeatureSpace().getFeatures().get(coordinate).getDefaultCoefficient();
+				// move weight closer to zero to account for L1 regularization
+				// set weight to prior if we cross prior while updating
+				double aprioriWeight = aprioriWeights[coordinate];
+				double newValue;
+				if (wAfterGradStep > (betaInverse * gamma) + aprioriWeight) {
+					newValue = wAfterGradStep - betaInverse * gamma;
+				} else if (wAfterGradStep < (-betaInverse * gamma) + aprioriWeight) {
+					newValue = wAfterGradStep + betaInverse * gamma;
+				} else {
+					newValue = aprioriWeight;
+				}
 
-			// TODO why is update sign not relevant for case distinction?
-			if (wAfterGradStep > (betaInverse * gamma) + aprioriWeight) {
-				weights.set(coordinate, wAfterGradStep - betaInverse * gamma);
-			} else if (wAfterGradStep < (-betaInverse * gamma) + aprioriWeight) {
-				weights.set(coordinate, wAfterGradStep + betaInverse * gamma);
-			} else {
-				weights.set(coordinate, aprioriWeight);
+				if (newValue == oldValue) {
+					freeToChange[coordinate] = false;
+					freeWeights--;
+				} else {
+					weights[coordinate] = newValue;
+					columns.updateScores(coordinate, newValue - oldValue, scores);
+					changed = true;
+				}
 			}
 
-			if (weights.get(coordinate).equals(oldValue)) {
-				freeToChange[coordinate] = false;
-				freeWeights--;
-			} else {
-				for (int i = 0; i < weights.size(); i++) {
+			if (changed) {
+				for (int i = 0; i < dimension; i++) {
 					freeToChange[i] = true;
 				}
-				freeWeights = weights.size();
+				freeWeights = dimension;
 			}
-
-//			System.out.println("updated weights: " + weights);
-
 		}
 
 		LOGGER.info("Done model computation (after " + String.valueOf(t - skipCounter)
@@ -24,8 +24,7 @@
  */
 package de.unibonn.realkd.data.propositions;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.IntStream.range;
+import static de.unibonn.realkd.common.base.Lazy.lazy;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -39,9 +38,11 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
 
 import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.Lazy;
 import de.unibonn.realkd.common.workspace.HasSerialForm;
 import de.unibonn.realkd.common.workspace.IdentifiableSerialForm;
 import de.unibonn.realkd.common.workspace.SerialForm;
@@ -53,7 +54,7 @@ import de.unibonn.realkd.data.Population;
  * 
  * @since 0.2.0
  * 
- * @version 0.3.0
+ * @version 0.7.2
  *
  */
 public class DefaultPropositionalContext implements PropositionalContext, HasSerialForm<PropositionalContext> {
@@ -117,6 +118,8 @@ public class DefaultPropositionalContext implements PropositionalContext, HasSer
 
 	private final Set<Integer>[] truthSets;
 
+	private final Lazy<PropositionIndex> index;
+
 	private final String name;
 
 	private final Identifier id;
@@ -134,6 +137,7 @@ public class DefaultPropositionalContext implements PropositionalContext, HasSer
 		this.population = population;
 		this.propositions = ImmutableList.copyOf(propositions);
 		this.truthSets = ((Set<Integer>[]) new Set[population.size()]);
+		this.index = lazy(() -> PropositionIndex.propositionIndex(this));
 		this.propToIndex = new HashMap<>(propositions.size());
 		for (int i = 0; i < propositions.size(); i++) {
 			propToIndex.put(propositions.get(i), i);
@@ -178,14 +182,20 @@ public class DefaultPropositionalContext implements PropositionalContext, HasSer
 	@Override
 	public Set<Integer> truthSet(int objectId) {
 		if (truthSets[objectId] == null) {
-			List<Integer> list = range(0, propositions.size())
-					.filter(i -> propositions.get(i).holdsFor(objectId)).mapToObj(Integer::valueOf)
-					.collect(toList());
-			truthSets[objectId] = ImmutableSet.copyOf(list);
+			truthSets[objectId] = ImmutableSet.copyOf(Ints.asList(index.get().truthIndices(objectId)));
 		}
 		return truthSets[objectId];
 	}
 
+	/**
+	 * Builds index on first request and buffers it for subsequent requests.
+	 * 
+	 */
+	@Override
+	public PropositionIndex propositionIndex() {
+		return index.get();
+	}
+
 	@Override
 	public Population population() {
 		return population;
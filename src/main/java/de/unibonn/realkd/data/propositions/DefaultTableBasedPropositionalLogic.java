@@ -171,11 +171,21 @@ public class DefaultTableBasedPropositionalLogic
 		return this.propositionalLogic.supportSet(basePropositionIndex);
 	}
 
+	@Override
+	public boolean holdsFor(int basePropositionIndex, IndexSet subPopulationIndices) {
+		return this.propositionalLogic.holdsFor(basePropositionIndex, subPopulationIndices);
+	}
+
 	@Override
 	public Set<Integer> truthSet(int objectId) {
 		return this.propositionalLogic.truthSet(objectId);
 	}
 
+	@Override
+	public PropositionIndex propositionIndex() {
+		return this.propositionalLogic.propositionIndex();
+	}
+
 	@Override
 	public Population population() {
 		return dataTable.population();
@@ -0,0 +1,308 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.propositions;
+
+import static java.util.stream.IntStream.range;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.function.IntPredicate;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import de.unibonn.realkd.common.IndexSet;
+
+/**
+ * <p>
+ * Compact bit-matrix representation of the incidence relation between the
+ * propositions of a {@link PropositionalContext} and the objects of its
+ * population.
+ * </p>
+ * <p>
+ * The matrix is held in two orientations: a vertical layout (one bit row of
+ * objects per proposition) that is filled once from the buffered proposition
+ * support sets, and a horizontal layout (one bit row of propositions per
+ * object) that is derived from the former by transposing 64 by 64 bit blocks.
+ * Hence, per-object truth queries (as required for building transaction
+ * databases) and per-proposition support queries can both be answered by
+ * scanning contiguous words instead of invoking {@link Proposition#holdsFor}
+ * for every cell.
+ * </p>
+ * 
+ * @see PropositionalContext#propositionIndex()
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public final class PropositionIndex {
+
+	private static final int LOG_WORD_SIZE = 6;
+
+	private static final int WORD_SIZE = 1 << LOG_WORD_SIZE;
+
+	/**
+	 * Indices built for contexts that do not buffer their own index (see
+	 * {@link PropositionalContext#propositionIndex()}). Contexts are immutable,
+	 * hence, an index stays valid as long as its context is reachable.
+	 */
+	private static final LoadingCache<PropositionalContext, PropositionIndex> INDICES = CacheBuilder.newBuilder()
+			.weakKeys().build(CacheLoader.from(PropositionIndex::propositionIndex));
+
+	public static PropositionIndex propositionIndex(PropositionalContext context) {
+		return new PropositionIndex(context.propositions(), context.population().size());
+	}
+
+	static PropositionIndex cachedPropositionIndex(PropositionalContext context) {
+		return INDICES.getUnchecked(context);
+	}
+
+	private static int words(int bits) {
+		return (bits + WORD_SIZE - 1) >>> LOG_WORD_SIZE;
+	}
+
+	/**
+	 * Transposes a 64 by 64 bit matrix in place where bit c of word r
+	 * represents entry (r,c) (recursive block swap, see Warren, Hacker's
+	 * Delight, Sec. 7-3).
+	 */
+	static void transpose(long[] block) {
+		long mask = 0x00000000FFFFFFFFL;
+		for (int j = 32; j != 0; j >>>= 1, mask ^= (mask << j)) {
+			for (int k = 0; k < WORD_SIZE; k = ((k | j) + 1) & ~j) {
+				long t = ((block[k] >>> j) ^ block[k | j]) & mask;
+				block[k] ^= t << j;
+				block[k | j] ^= t;
+			}
+		}
+	}
+
+	private final int numberOfPropositions;
+
+	private final int numberOfObjects;
+
+	private final int objectWords;
+
+	private final int propositionWords;
+
+	/**
+	 * word w of object bits of proposition p at position p*objectWords+w
+	 */
+	private final long[] vertical;
+
+	/**
+	 * word w of proposition bits of object i at position i*propositionWords+w
+	 */
+	private final long[] horizontal;
+
+	private final int[] supportCounts;
+
+	private final int[] truthCounts;
+
+	private PropositionIndex(List<? extends Proposition> propositions, int numberOfObjects) {
+		this.numberOfPropositions = propositions.size();
+		this.numberOfObjects = numberOfObjects;
+		this.objectWords = words(numberOfObjects);
+		this.propositionWords = words(numberOfPropositions);
+		this.vertical = new long[numberOfPropositions * objectWords];
+		this.horizontal = new long[numberOfObjects * propositionWords];
+		this.supportCounts = new int[numberOfPropositions];
+		this.truthCounts = new int[numberOfObjects];
+
+		range(0, numberOfPropositions).parallel().forEach(p -> {
+			int offset = p * objectWords;
+			PrimitiveIterator.OfInt objects = propositions.get(p).supportSet().iterator();
+			while (objects.hasNext()) {
+				int i = objects.nextInt();
+				if (i >= numberOfObjects) {
+					break;
+				}
+				vertical[offset + (i >>> LOG_WORD_SIZE)] |= 1L << i;
+			}
+			int count = 0;
+			for (int w = 0; w < objectWords; w++) {
+				count += Long.bitCount(vertical[offset + w]);
+			}
+			supportCounts[p] = count;
+		});
+
+		range(0, objectWords).parallel().forEach(this::transposeObjectWord);
+	}
+
+	/**
+	 * Fills the horizontal rows of the (up to) 64 objects that are represented
+	 * by one vertical word position.
+	 */
+	private void transposeObjectWord(int objectWord) {
+		long[] block = new long[WORD_SIZE];
+		int firstObject = objectWord << LOG_WORD_SIZE;
+		int objectsInBlock = Math.min(WORD_SIZE, numberOfObjects - firstObject);
+		for (int propositionWord = 0; propositionWord < propositionWords; propositionWord++) {
+			int firstProposition = propositionWord << LOG_WORD_SIZE;
+			int propositionsInBlock = Math.min(WORD_SIZE, numberOfPropositions - firstProposition);
+			for (int r = 0; r < propositionsInBlock; r++) {
+				block[r] = vertical[(firstProposition + r) * objectWords + objectWord];
+			}
+			Arrays.fill(block, propositionsInBlock, WORD_SIZE, 0L);
+			transpose(block);
+			for (int c = 0; c < objectsInBlock; c++) {
+				horizontal[(firstObject + c) * propositionWords + propositionWord] = block[c];
+			}
+		}
+		for (int c = 0; c < objectsInBlock; c++) {
+			int offset = (firstObject + c) * propositionWords;
+			int count = 0;
+			for (int w = 0; w < propositionWords; w++) {
+				count += Long.bitCount(horizontal[offset + w]);
+			}
+			truthCounts[firstObject + c] = count;
+		}
+	}
+
+	public int numberOfPropositions() {
+		return numberOfPropositions;
+	}
+
+	public int numberOfObjects() {
+		return numberOfObjects;
+	}
+
+	public boolean holds(int proposition, int object) {
+		return (vertical[proposition * objectWords + (object >>> LOG_WORD_SIZE)] & (1L << object)) != 0;
+	}
+
+	/**
+	 * @return number of objects for which proposition holds
+	 */
+	public int supportCount(int proposition) {
+		return supportCounts[proposition];
+	}
+
+	/**
+	 * @return number of objects in a given index set for which a proposition
+	 *         holds
+	 */
+	public int supportCount(int proposition, IndexSet objects) {
+		int offset = proposition * objectWords;
+		int result = 0;
+		PrimitiveIterator.OfInt iterator = objects.iterator();
+		while (iterator.hasNext()) {
+			int i = iterator.nextInt();
+			if ((vertical[offset + (i >>> LOG_WORD_SIZE)] & (1L << i)) != 0) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return whether a proposition holds for all objects of a given index set
+	 */
+	public boolean holdsForAll(int proposition, IndexSet objects) {
+		if (objects.size() > supportCounts[proposition]) {
+			return false;
+		}
+		int offset = proposition * objectWords;
+		PrimitiveIterator.OfInt iterator = objects.iterator();
+		while (iterator.hasNext()) {
+			int i = iterator.nextInt();
+			if ((vertical[offset + (i >>> LOG_WORD_SIZE)] & (1L << i)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of propositions that hold for an object
+	 */
+	public int truthCount(int object) {
+		return truthCounts[object];
+	}
+
+	/**
+	 * @return indices of all propositions that hold for an object in ascending
+	 *         order
+	 */
+	public int[] truthIndices(int object) {
+		int[] result = new int[truthCounts[object]];
+		int offset = object * propositionWords;
+		int k = 0;
+		for (int w = 0; w < propositionWords; w++) {
+			long word = horizontal[offset + w];
+			while (word != 0) {
+				result[k++] = (w << LOG_WORD_SIZE) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param object
+	 *            the object for which truth is requested
+	 * @param selection
+	 *            mask of selected propositions as created by
+	 *            {@link #selectionMask}
+	 * @return indices of all selected propositions that hold for an object in
+	 *         ascending order
+	 */
+	public int[] truthIndices(int object, long[] selection) {
+		int offset = object * propositionWords;
+		int size = 0;
+		for (int w = 0; w < propositionWords; w++) {
+			size += Long.bitCount(horizontal[offset + w] & selection[w]);
+		}
+		int[] result = new int[size];
+		int k = 0;
+		for (int w = 0; w < propositionWords; w++) {
+			long word = horizontal[offset + w] & selection[w];
+			while (word != 0) {
+				result[k++] = (w << LOG_WORD_SIZE) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return mask of proposition indices that can be passed to
+	 *         {@link #truthIndices(int, long[])}
+	 */
+	public long[] selectionMask(IntPredicate selected) {
+		long[] result = new long[propositionWords];
+		for (int p = 0; p < numberOfPropositions; p++) {
+			if (selected.test(p)) {
+				result[p >>> LOG_WORD_SIZE] |= 1L << p;
+			}
+		}
+		return result;
+	}
+
+}
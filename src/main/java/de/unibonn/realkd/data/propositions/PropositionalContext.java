@@ -43,7 +43,7 @@ import de.unibonn.realkd.data.Population;
  * 
  * @since 0.1.2
  * 
- * @version 0.6.0
+ * @version 0.7.2
  *
  */
 public interface PropositionalContext extends Entity {
@@ -108,6 +108,23 @@ public interface PropositionalContext extends Entity {
 	 */
 	public abstract Set<Integer> truthSet(int objectId);
 
+	/**
+	 * <p>
+	 * Provides a bit-matrix index of the incidence relation between
+	 * propositions and data objects of this context.
+	 * </p>
+	 * <p>
+	 * Default implementation builds the index on first request and keeps it in
+	 * a cache with weak references to contexts.
+	 * </p>
+	 * 
+	 * @return proposition index of this context
+	 * 
+	 */
+	public default PropositionIndex propositionIndex() {
+		return PropositionIndex.cachedPropositionIndex(this);
+	}
+
 	/**
 	 * Convenience method to access a specific base proposition (identified by
 	 * index in proposition list).
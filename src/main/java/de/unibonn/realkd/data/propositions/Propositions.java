@@ -32,6 +32,7 @@ import static de.unibonn.realkd.data.constraints.Constraints.upperQuantileBoundN
 import static java.util.Objects.hash;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -51,6 +52,7 @@ import de.unibonn.realkd.common.workspace.SerialForm;
 import de.unibonn.realkd.common.workspace.Workspace;
 import de.unibonn.realkd.data.constraints.Constraint;
 import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.DataTables;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.data.table.attribute.OrdinalAttribute;
 
@@ -61,7 +63,7 @@ import de.unibonn.realkd.data.table.attribute.OrdinalAttribute;
  * 
  * @since 0.5.1
  * 
- * @version 0.5.1
+ * @version 0.7.2
  *
  */
 public class Propositions {
@@ -105,6 +107,61 @@ public class Propositions {
 		result.add(Propositions.proposition(table, ordinal, upperQuantileBound(ordinal, threshold)));
 	}
 
+	/**
+	 * Restricts a table-based propositional context to a selection of rows of its
+	 * table. Object {@code i} of the result corresponds to the {@code i}-th
+	 * smallest selected object of the input context. Each proposition of the
+	 * result has the constraint of the corresponding input proposition and refers
+	 * to the attribute of the given table with the same identifier as the input
+	 * attribute. Support sets are obtained by renumbering the input support sets.
+	 * Hence, no proposition is re-evaluated.
+	 * 
+	 * @param id
+	 *            identifier of the result context
+	 * @param context
+	 *            the context to restrict
+	 * @param table
+	 *            the row selection of the table of the context (see
+	 *            {@link DataTables#rowSelection(Identifier, String, String, DataTable, IndexSet)})
+	 * @param rows
+	 *            the selected object ids of the input context
+	 * @return propositional context about the given table
+	 */
+	public static TableBasedPropositionalContext rowSelection(Identifier id, TableBasedPropositionalContext context,
+			DataTable table, IndexSet rows) {
+		if (table.population().size() != rows.size()) {
+			throw new IllegalArgumentException("population size must match number of selected rows");
+		}
+		int[] newIndex = new int[context.population().size()];
+		Arrays.fill(newIndex, -1);
+		int next = 0;
+		for (int row : rows) {
+			if (row >= newIndex.length) {
+				throw new IllegalArgumentException("selected rows must be object ids of context");
+			}
+			newIndex[row] = next++;
+		}
+		List<AttributeBasedProposition<?>> propositions = new ArrayList<>(context.propositions().size());
+		for (int i = 0; i < context.propositions().size(); i++) {
+			AttributeBasedProposition<?> proposition = (AttributeBasedProposition<?>) context.proposition(i);
+			int[] support = context.supportSet(i).stream().map(j -> newIndex[j]).filter(j -> j >= 0).toArray();
+			propositions.add(selectedProposition(table, proposition.attribute().identifier(), proposition.constraint(),
+					IndexSets.of(support)));
+		}
+		return new DefaultTableBasedPropositionalLogic(table, propositions, id, context.caption(),
+				context.description());
+	}
+
+	private static <T> AttributeBasedProposition<T> selectedProposition(DataTable table, Identifier attributeId,
+			Constraint<T> constraint, IndexSet supportSet) {
+		// following cast is safe because attributes of row selection have the same
+		// type as the attributes with the same identifier in the original table
+		@SuppressWarnings("unchecked")
+		Attribute<? extends T> attribute = (Attribute<? extends T>) table.attribute(attributeId).orElseThrow(
+				() -> new IllegalArgumentException("table does not contain attribute '" + attributeId + "'"));
+		return new DefaultAttributeBasedProposition<T>(table, attribute, constraint, supportSet);
+	}
+
 	public static Proposition proposition(int id, IndexSet supportSet) {
 		return new SetBackedProposition(id, supportSet);
 	}
@@ -257,10 +314,16 @@ public class Propositions {
 		private IndexSet supportSet;
 
 		DefaultAttributeBasedProposition(DataTable table, Attribute<? extends T> attribute, Constraint<T> constraint) {
+			this(table, attribute, constraint, null);
+		}
+
+		DefaultAttributeBasedProposition(DataTable table, Attribute<? extends T> attribute, Constraint<T> constraint,
+				IndexSet supportSet) {
 			this.table = table;
 			this.attribute = attribute;
 			this.constraint = constraint;
 			this.name = attribute.caption() + constraint.suffixNotationName();
+			this.supportSet = supportSet;
 		}
 
 		@Override
@@ -26,6 +26,7 @@ package de.unibonn.realkd.data.sequences;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
+import static de.unibonn.realkd.common.base.Lazy.lazy;
 import static de.unibonn.realkd.data.sequences.SequenceEvents.newSequenceEvent;
 import static de.unibonn.realkd.data.sequences.SequenceTransactions.newSequenceTransaction;
 import static java.util.stream.Collectors.toList;
@@ -47,6 +48,7 @@ import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.common.IndexSets;
 import de.unibonn.realkd.common.KdonTypeName;
 import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.Lazy;
 import de.unibonn.realkd.common.workspace.HasSerialForm;
 import de.unibonn.realkd.common.workspace.IdentifiableSerialForm;
 import de.unibonn.realkd.common.workspace.SerialForm;
@@ -63,7 +65,7 @@ import de.unibonn.realkd.data.propositions.PropositionalContext;
  * 
  * @since 0.7.0
  * 
- * @version 0.7.0
+ * @version 0.7.2
  *
  */
 public class DefaultSequentialPropositionalContext implements SequentialPropositionalContext, HasSerialForm<PropositionalContext> {
@@ -177,6 +179,7 @@ public class DefaultSequentialPropositionalContext implements SequentialProposit
 	private final List<SequenceTransaction> sequences;
 	private final List<Proposition> propositions;
 	private final Map<Proposition, Integer> propToIndex;
+	private final Lazy<SequenceIndex> sequenceIndex;
 	
 	private DefaultSequentialPropositionalContext(String name, String description, List<SequenceTransaction> sequences, List<Proposition> propositions) {
 		this(Identifier.id(name), name,	description, ImmutableList.copyOf(sequences), propositions);
@@ -192,6 +195,7 @@ public class DefaultSequentialPropositionalContext implements SequentialProposit
 		for (int i = 0; i < propositions.size(); i++) {
 			propToIndex.put(propositions.get(i), i);
 		}
+		this.sequenceIndex = lazy(() -> SequenceIndex.sequenceIndex(this));
 	}
 	
 	public Identifier identifier() {
@@ -213,6 +217,15 @@ public class DefaultSequentialPropositionalContext implements SequentialProposit
 		return this.sequences;		
 	}
 
+	/**
+	 * Builds index on first request and buffers it for subsequent requests.
+	 * 
+	 */
+	@Override
+	public SequenceIndex sequenceIndex() {
+		return sequenceIndex.get();
+	}
+
 	@Override
 	public List<Proposition> propositions() {
 		return this.propositions;
@@ -26,6 +26,7 @@ package de.unibonn.realkd.data.sequences;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
+import static de.unibonn.realkd.common.base.Lazy.lazy;
 import static de.unibonn.realkd.data.sequences.SequenceEvents.newSequenceEvent;
 import static de.unibonn.realkd.data.sequences.SequenceTransactions.newSequenceTransaction;
 import static java.util.stream.Collectors.toList;
@@ -48,6 +49,7 @@ import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.common.IndexSets;
 import de.unibonn.realkd.common.KdonTypeName;
 import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.Lazy;
 import de.unibonn.realkd.common.workspace.HasSerialForm;
 import de.unibonn.realkd.common.workspace.IdentifiableSerialForm;
 import de.unibonn.realkd.common.workspace.Workspace;
@@ -68,7 +70,7 @@ import de.unibonn.realkd.data.table.attribute.Attribute;
  * 
  * @since 0.3.0
  * 
- * @version 0.7.0
+ * @version 0.7.2
  *
  */
 public class DefaultTableBasedSequentialPropositionalContext implements TableBasedSequentialPropositionalContext, HasSerialForm<PropositionalContext> {
@@ -203,6 +205,7 @@ public class DefaultTableBasedSequentialPropositionalContext implements TableBas
 	private final List<SequenceTransaction> sequences;
 	private final List<AttributeBasedProposition<?>> propositions;
 	private final Map<Proposition, Integer> propToIndex;
+	private final Lazy<SequenceIndex> sequenceIndex;
 	
 	private DefaultTableBasedSequentialPropositionalContext(DataTable dataTable, List<SequenceTransaction> sequences, List<AttributeBasedProposition<?>> propositions) {
 		this(dataTable, Identifier.id("sequences_for_statements_about_" + dataTable.identifier()), "Sequences for statements about " + dataTable.caption(),
@@ -220,6 +223,7 @@ public class DefaultTableBasedSequentialPropositionalContext implements TableBas
 		for (int i = 0; i < propositions.size(); i++) {
 			propToIndex.put(propositions.get(i), i);
 		}
+		this.sequenceIndex = lazy(() -> SequenceIndex.sequenceIndex(this));
 	}
 	
 	public Identifier identifier() {
@@ -241,6 +245,15 @@ public class DefaultTableBasedSequentialPropositionalContext implements TableBas
 		return this.sequences;		
 	}
 
+	/**
+	 * Builds index on first request and buffers it for subsequent requests.
+	 * 
+	 */
+	@Override
+	public SequenceIndex sequenceIndex() {
+		return sequenceIndex.get();
+	}
+
 	@Override
 	public List<AttributeBasedProposition<?>> propositions() {
 		return this.propositions;
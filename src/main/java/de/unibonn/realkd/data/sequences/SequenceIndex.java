@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.sequences;
+
+import static java.util.stream.IntStream.range;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import de.unibonn.realkd.data.propositions.Proposition;
+
+/**
+ * <p>
+ * Int-coded representation of the sequences of a
+ * {@link SequentialPropositionalContext} for matching sequence patterns.
+ * </p>
+ * <p>
+ * Consecutive events of a sequence with equal values form one itemset, and
+ * itemsets are numbered in order of occurrence. For every proposition that
+ * occurs in a sequence, the index holds the sorted array of itemsets in which
+ * it occurs. Ordered sets of a pattern are then matched by forward jumps in
+ * these occurrence arrays instead of rescanning and copying event lists.
+ * </p>
+ * 
+ * @see SequentialPropositionalContext#sequenceIndex()
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public final class SequenceIndex {
+
+	public static SequenceIndex sequenceIndex(SequentialPropositionalContext context) {
+		return new SequenceIndex(context);
+	}
+
+	private static final int[] NO_OCCURRENCES = new int[0];
+
+	private final SequentialPropositionalContext context;
+
+	/**
+	 * sorted codes of propositions occurring in sequence s
+	 */
+	private final int[][] codes;
+
+	/**
+	 * start of occurrences of codes[s][c] in itemsets[s] at offsets[s][c]
+	 */
+	private final int[][] offsets;
+
+	private final int[][] itemsets;
+
+	private SequenceIndex(SequentialPropositionalContext context) {
+		this.context = context;
+		List<SequenceTransaction> sequences = context.sequences();
+		this.codes = new int[sequences.size()][];
+		this.offsets = new int[sequences.size()][];
+		this.itemsets = new int[sequences.size()][];
+		range(0, sequences.size()).parallel().forEach(s -> index(s, sequences.get(s).events()));
+	}
+
+	private void index(int s, List<SequenceEvent<?>> events) {
+		long[] pairs = new long[events.size()];
+		int size = 0;
+		int itemset = -1;
+		Object value = null;
+		for (SequenceEvent<?> event : events) {
+			if (itemset == -1 || !Objects.equals(value, event.value())) {
+				itemset++;
+				value = event.value();
+			}
+			Optional<Integer> code = context.index(event.proposition());
+			if (code.isPresent()) {
+				pairs[size++] = ((long) code.get() << 32) | itemset;
+			}
+		}
+		Arrays.sort(pairs, 0, size);
+
+		int[] sequenceCodes = new int[size];
+		int[] sequenceOffsets = new int[size + 1];
+		int[] sequenceItemsets = new int[size];
+		int numberOfCodes = 0;
+		int numberOfOccurrences = 0;
+		for (int i = 0; i < size; i++) {
+			if (i > 0 && pairs[i] == pairs[i - 1]) {
+				continue;
+			}
+			int code = (int) (pairs[i] >>> 32);
+			if (numberOfCodes == 0 || sequenceCodes[numberOfCodes - 1] != code) {
+				sequenceCodes[numberOfCodes] = code;
+				sequenceOffsets[numberOfCodes++] = numberOfOccurrences;
+			}
+			sequenceItemsets[numberOfOccurrences++] = (int) pairs[i];
+		}
+		sequenceOffsets[numberOfCodes] = numberOfOccurrences;
+		codes[s] = Arrays.copyOf(sequenceCodes, numberOfCodes);
+		offsets[s] = Arrays.copyOf(sequenceOffsets, numberOfCodes + 1);
+		itemsets[s] = Arrays.copyOf(sequenceItemsets, numberOfOccurrences);
+	}
+
+	/**
+	 * Encodes ordered sets of propositions for matching. Empty ordered sets are
+	 * dropped and duplicate propositions within an ordered set are merged.
+	 * Propositions that are not part of the context are coded as -1 and never
+	 * match.
+	 * 
+	 * @param orderedSets
+	 *            the ordered sets of a sequence pattern
+	 * @return the proposition codes per non-empty ordered set
+	 */
+	public int[][] encode(List<List<Proposition>> orderedSets) {
+		return orderedSets.stream().filter(o -> !o.isEmpty())
+				.map(o -> o.stream().mapToInt(p -> context.index(p).orElse(-1)).distinct().toArray())
+				.toArray(int[][]::new);
+	}
+
+	public int numberOfSequences() {
+		return codes.length;
+	}
+
+	/**
+	 * @return sorted itemset positions in which a proposition occurs in a
+	 *         sequence
+	 */
+	public int[] occurrences(int sequence, int proposition) {
+		int c = Arrays.binarySearch(codes[sequence], proposition);
+		if (c < 0) {
+			return NO_OCCURRENCES;
+		}
+		return Arrays.copyOfRange(itemsets[sequence], offsets[sequence][c], offsets[sequence][c + 1]);
+	}
+
+	/**
+	 * Checks whether the encoded ordered sets occur in a sequence, i.e.,
+	 * whether there are strictly increasing itemsets such that all propositions
+	 * of each ordered set occur between the end of the previous ordered set and
+	 * the chosen itemset.
+	 * 
+	 * @return whether pattern occurs in sequence
+	 */
+	public boolean contains(int sequence, int[][] orderedSets) {
+		return match(sequence, orderedSets, false) != -1;
+	}
+
+	/**
+	 * Determines the minimal number of consecutive itemsets of a sequence that
+	 * contain an occurrence of the encoded ordered sets.
+	 * 
+	 * <p>
+	 * Occurrences are matched greedily from every itemset in which a
+	 * proposition of the first ordered set occurs. Since greedy matches from
+	 * later starts never end earlier, the positions in all occurrence arrays
+	 * only move forward, and all windows of a sequence are determined in a
+	 * single pass over the occurrences of the pattern's propositions.
+	 * </p>
+	 * 
+	 * @return size of minimal window or -1 if pattern does not occur in
+	 *         sequence
+	 */
+	public int minimalWindow(int sequence, int[][] orderedSets) {
+		return match(sequence, orderedSets, true);
+	}
+
+	private int match(int sequence, int[][] orderedSets, boolean minimizeWindow) {
+		if (orderedSets.length == 0) {
+			return 0;
+		}
+		int[] sequenceCodes = codes[sequence];
+		int[] sequenceOffsets = offsets[sequence];
+		int[] sequenceItemsets = itemsets[sequence];
+
+		int[][] positions = new int[orderedSets.length][];
+		int[][] ends = new int[orderedSets.length][];
+		for (int j = 0; j < orderedSets.length; j++) {
+			positions[j] = new int[orderedSets[j].length];
+			ends[j] = new int[orderedSets[j].length];
+			for (int q = 0; q < orderedSets[j].length; q++) {
+				int c = orderedSets[j][q] < 0 ? -1 : Arrays.binarySearch(sequenceCodes, orderedSets[j][q]);
+				if (c < 0) {
+					return -1;
+				}
+				positions[j][q] = sequenceOffsets[c];
+				ends[j][q] = sequenceOffsets[c + 1];
+			}
+		}
+
+		int minWindow = -1;
+		int start = 0;
+		while (true) {
+			int from = start;
+			int first = Integer.MAX_VALUE;
+			int last = -1;
+			for (int j = 0; j < orderedSets.length; j++) {
+				last = -1;
+				for (int q = 0; q < positions[j].length; q++) {
+					int p = positions[j][q];
+					while (p < ends[j][q] && sequenceItemsets[p] < from) {
+						p++;
+					}
+					positions[j][q] = p;
+					if (p == ends[j][q]) {
+						return minWindow;
+					}
+					last = Math.max(last, sequenceItemsets[p]);
+					if (j == 0) {
+						first = Math.min(first, sequenceItemsets[p]);
+					}
+				}
+				from = last + 1;
+			}
+			int window = last - first + 1;
+			if (minWindow == -1 || window < minWindow) {
+				minWindow = window;
+			}
+			if (!minimizeWindow || minWindow == orderedSets.length) {
+				return minWindow;
+			}
+			start = first + 1;
+		}
+	}
+
+}
@@ -35,11 +35,28 @@ import de.unibonn.realkd.data.propositions.PropositionalContext;
  * 
  * @since 0.3.0
  * 
- * @version 0.7.0
+ * @version 0.7.2
  *
  */
 public interface SequentialPropositionalContext extends PropositionalContext {
 
 	public List<SequenceTransaction> sequences();
+
+	/**
+	 * <p>
+	 * Provides an int-coded index of the occurrences of propositions in the
+	 * sequences of this context.
+	 * </p>
+	 * <p>
+	 * Default implementation builds a fresh index on every call; implementations
+	 * that are queried repeatedly should buffer it.
+	 * </p>
+	 * 
+	 * @return sequence index of this context
+	 * 
+	 */
+	public default SequenceIndex sequenceIndex() {
+		return SequenceIndex.sequenceIndex(this);
+	}
 	
 }
@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 import au.com.bytecode.opencsv.CSVParser;
 
@@ -60,6 +61,82 @@ public class CSV {
 		}
 	}
 
+	private static final int LINES_PER_TASK = 4096;
+
+	/**
+	 * Tokenises csv content directly into columns without materialising the
+	 * individual rows. As in {@link #csvStringToList(String, char)}, every line
+	 * is trimmed and parsed on its own. This allows lines to be parsed in
+	 * parallel. Blank lines are skipped, and fields beyond the requested number
+	 * of columns are ignored.
+	 * 
+	 * @param csvString
+	 *            the csv content
+	 * @param delimiter
+	 *            the field delimiter
+	 * @param numberOfColumns
+	 *            the number of columns to extract
+	 * @return array of columns, each containing one field per non-blank line
+	 * @throws IllegalArgumentException
+	 *             if a line cannot be parsed or has fewer than numberOfColumns
+	 *             fields
+	 */
+	public static String[][] csvStringToColumns(String csvString, char delimiter, int numberOfColumns) {
+		int[] bounds = nonBlankLineBounds(csvString == null ? "" : csvString);
+		int numberOfLines = bounds.length / 2;
+		String[][] columns = new String[numberOfColumns][numberOfLines];
+		int numberOfTasks = (numberOfLines + LINES_PER_TASK - 1) / LINES_PER_TASK;
+		IntStream.range(0, numberOfTasks).parallel().forEach(t -> {
+			CSVParser parser = new CSVParser(delimiter);
+			for (int i = t * LINES_PER_TASK; i < Math.min(numberOfLines, (t + 1) * LINES_PER_TASK); i++) {
+				String line = csvString.substring(bounds[2 * i], bounds[2 * i + 1]).trim();
+				String[] items;
+				try {
+					items = parser.parseLine(line);
+				} catch (IOException e) {
+					throw new IllegalArgumentException("could not parse line " + (i + 1) + ": " + e.getMessage());
+				}
+				if (items.length < numberOfColumns) {
+					throw new IllegalArgumentException("line " + (i + 1) + " has " + items.length
+							+ " fields but expected " + numberOfColumns);
+				}
+				for (int j = 0; j < numberOfColumns; j++) {
+					columns[j][i] = items[j];
+				}
+			}
+		});
+		return columns;
+	}
+
+	/**
+	 * @return start (inclusive) and end (exclusive) offsets of all lines that
+	 *         contain at least one non-whitespace character, stored
+	 *         consecutively
+	 */
+	private static int[] nonBlankLineBounds(String csvString) {
+		int[] bounds = new int[64];
+		int size = 0;
+		int lineStart = 0;
+		boolean blank = true;
+		for (int i = 0; i <= csvString.length(); i++) {
+			char c = i < csvString.length() ? csvString.charAt(i) : '\n';
+			if (c == '\n') {
+				if (!blank) {
+					if (size + 2 > bounds.length) {
+						bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+					}
+					bounds[size++] = lineStart;
+					bounds[size++] = i;
+				}
+				lineStart = i + 1;
+				blank = true;
+			} else if (c > ' ') {
+				blank = false;
+			}
+		}
+		return Arrays.copyOf(bounds, size);
+	}
+
 	public static List<List<String>> csvStringListToListOfLists(List<String> dataRows) {
 		List<List<String>> dataParsed = new ArrayList<>();
 		int numSamples = dataRows.size();
@@ -29,17 +29,27 @@ import static de.unibonn.realkd.common.base.Identifier.identifier;
 import static de.unibonn.realkd.data.table.attribute.Attributes.metricDoubleAttribute;
 import static de.unibonn.realkd.data.table.attribute.Attributes.orderedCategoricAttribute;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import com.google.common.collect.ImmutableList;
@@ -60,7 +70,7 @@ import de.unibonn.realkd.data.table.attributegroups.AttributeGroup;
  * 
  * @since 0.1.0
  * 
- * @version 0.5.0
+ * @version 0.7.2
  * 
  */
 public class DataTableFromCSVBuilder {
@@ -159,6 +169,22 @@ public class DataTableFromCSVBuilder {
 		return this;
 	}
 
+	/**
+	 * Date format of date attributes. Parsing is lenient (in particular w.r.t.
+	 * field widths and hours beyond 12) as previously with SimpleDateFormat,
+	 * but, in contrast to the latter, the formatter is immutable and can be
+	 * shared among threads.
+	 */
+	private static final DateTimeFormatter DATE_FORMAT = new DateTimeFormatterBuilder().parseLenient()
+			.appendPattern("yyyy-MM-dd hh:mm:ss").parseDefaulting(ChronoField.AMPM_OF_DAY, 0).toFormatter()
+			.withResolverStyle(ResolverStyle.LENIENT);
+
+	/**
+	 * Builds the table column by column. The data csv is tokenised once into
+	 * one string array per column, and these columns are then converted into
+	 * attributes in parallel. Each array is released as soon as its attribute is
+	 * created, so no row-wise copy of the data outlives the tokenisation.
+	 */
 	public DataTable build() throws DataFormatException {
 		checkNotNull(id, "Did not set id");
 		checkNotNull(attributeCSV, "Did not set attribute metadata csv.");
@@ -166,119 +192,45 @@ public class DataTableFromCSVBuilder {
 
 		List<List<String>> rawAttributeData = CSV.csvStringToList(attributeCSV, delimiter);
 
-		List<List<String>> rawData = CSV.csvStringToList(dataCSV, delimiter);
+		String[][] columns;
+		try {
+			columns = CSV.csvStringToColumns(dataCSV, delimiter, rawAttributeData.size());
+		} catch (IllegalArgumentException e) {
+			throw new DataFormatException(e.getMessage());
+		}
+		int numberOfRows = columns.length > 0 ? columns[0].length : 0;
 
 		LOGGER.fine("Creating attributes");
 
 		List<Integer> nameAttributeIndices = getNameAttributeIndices(rawAttributeData);
-		List<String> objectNames = objectNames(nameAttributeIndices, rawData);
+		List<String> objectNames = objectNames(nameAttributeIndices, columns, numberOfRows);
 		Population population = Populations.population(Identifier.id("population_of_" + id), "Population of " + name.orElse(id.toString()),
 				"This population has been created automatically by csv import.", objectNames);
 
 		List<Attribute<?>> attributes = new ArrayList<>();
 		List<Attribute<?>> attributesForGroupConstruction = new ArrayList<>();
 
-		// loop over all columns to create attributes (except the first, because
-		// there only row names are stored)
-		for (int i = 0; i < rawAttributeData.size(); i++) {
-			// Filter values for the current attribute from raw data
-			List<String> values = new ArrayList<>(rawData.size());
-			for (List<String> aRawData : rawData) {
-				values.add(aRawData.get(i));
-			}
+		List<Optional<Attribute<?>>> parsedColumns = IntStream.range(0, rawAttributeData.size()).parallel()
+				.mapToObj(i -> {
+					String[] values = columns[i];
+					columns[i] = null;
+					return attribute(rawAttributeData.get(i), values);
+				}).collect(Collectors.toList());
 
-			List<String> currentRawAttrData = rawAttributeData.get(i);
-			String attributeType = currentRawAttrData.get(ATTRIBUTE_TYPE_COLUMN).trim();
-			String attributeName = currentRawAttrData.get(ATTRIBUTE_NAME_COLUMN).trim();
-			String attributeDescription = currentRawAttrData.get(ATTRIBUTE_DESCRIPTION_COLUMN).trim();
-
-			{
-				Attribute<?> attribute = null;
-				switch (attributeType) {
-				case TYPE_CATEGORICAL:
-					List<String> categoryValues = new ArrayList<>(values.size());
-					for (String stringValue : values) {
-						if (stringValue.equals(missingSymbol)) {
-							categoryValues.add(null);
-						} else {
-							categoryValues.add(stringValue);
-						}
-					}
-					attribute = Attributes.categoricalAttribute(attributeName, attributeDescription, categoryValues);
-					break;
-
-				case TYPE_ORDINAL:
-					// Special case for ordinal attributes, should have 4th
-					// column
-					String attributeValueSpecificationString = currentRawAttrData.get(ATTRIBUTE_VALUES_SPECIFICATION);
-					String[] split = attributeValueSpecificationString.split(ATTRIBUTE_VALUES_SPECIFICATION_DELIMITER);
-					FiniteOrder comparator = new FiniteOrder(Arrays.asList(split));
-					List<String> cleanedValues = new ArrayList<>(values.size());
-					for (String stringValue : values) {
-						if (stringValue.equals(missingSymbol)) {
-							cleanedValues.add(null);
-						} else {
-							cleanedValues.add(stringValue);
-						}
-					}
-					attribute = orderedCategoricAttribute(attributeName, attributeDescription, cleanedValues,
-							comparator, String.class);
-					break;
-
-				case TYPE_INTEGER:
-					List<Integer> intValues = new ArrayList<>(values.size());
-					for (String stringValue : values) {
-						try {
-							intValues.add(Integer.parseInt(stringValue));
-						} catch (NumberFormatException nfe) {
-							intValues.add(null);
-						}
-					}
-					attribute = orderedCategoricAttribute(attributeName, attributeDescription, intValues,
-							Integer.class);
-					break;
-
-				case TYPE_METRIC:
-					List<Double> doubleValues = new ArrayList<>(values.size());
-					for (String stringValue : values) {
-						try {
-							doubleValues.add(Double.parseDouble(stringValue));
-						} catch (NumberFormatException nfe) {
-							doubleValues.add(null);
-						}
-					}
-					attribute = metricDoubleAttribute(attributeName, attributeDescription, doubleValues);
-					break;
-
-				case TYPE_DATE:
-					List<Date> dateValues = new ArrayList<>(values.size());
-					SimpleDateFormat dt = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
-					for (String stringValue : values) {
-						try {
-							dateValues.add(dt.parse(stringValue));
-						} catch (NumberFormatException | ParseException e) {
-							dateValues.add(null);
-						}
-					}
-					attribute = Attributes.dateAttribute(attributeName, attributeDescription, dateValues);
-					break;
-
-				case TYPE_NAME:
-					/*
-					 * attributes for group construction need extra attribute in
-					 * order to maintain compatibility with user-provided
-					 * attribute indices in the attribute group file.
-					 */
-					attributesForGroupConstruction.add(EMPTY_ATTRIBUTE);
-					continue;
-
-				default:
-					LOGGER.warning("skipping attribute of unknown type '" + attributeType + "'");
-					continue;
-				}
-
-				attributes.add(attribute);
-				attributesForGroupConstruction.add(attribute);
+		for (int i = 0; i < rawAttributeData.size(); i++) {
+			String attributeType = rawAttributeData.get(i).get(ATTRIBUTE_TYPE_COLUMN).trim();
+			if (attributeType.equals(TYPE_NAME)) {
+				/*
+				 * attributes for group construction need extra attribute in
+				 * order to maintain compatibility with user-provided attribute
+				 * indices in the attribute group file.
+				 */
+				attributesForGroupConstruction.add(EMPTY_ATTRIBUTE);
+			} else if (parsedColumns.get(i).isPresent()) {
+				attributes.add(parsedColumns.get(i).get());
+				attributesForGroupConstruction.add(parsedColumns.get(i).get());
+			} else {
+				LOGGER.warning("skipping attribute of unknown type '" + attributeType + "'");
 			}
 		}
 
@@ -308,25 +260,112 @@ public class DataTableFromCSVBuilder {
 		return dataTable;
 	}
 
+	/**
+	 * Converts a column of raw values into an attribute according to the
+	 * metadata of the column.
+	 * 
+	 * @return the attribute or an empty optional if the attribute type is name
+	 *         or unknown
+	 */
+	private Optional<Attribute<?>> attribute(List<String> metadata, String[] values) {
+		String attributeType = metadata.get(ATTRIBUTE_TYPE_COLUMN).trim();
+		String attributeName = metadata.get(ATTRIBUTE_NAME_COLUMN).trim();
+		String attributeDescription = metadata.get(ATTRIBUTE_DESCRIPTION_COLUMN).trim();
+
+		switch (attributeType) {
+		case TYPE_CATEGORICAL:
+			return Optional.of(Attributes.categoricalAttribute(attributeName, attributeDescription,
+					categoryValues(values)));
+
+		case TYPE_ORDINAL:
+			// Special case for ordinal attributes, should have 4th
+			// column
+			String attributeValueSpecificationString = metadata.get(ATTRIBUTE_VALUES_SPECIFICATION);
+			String[] split = attributeValueSpecificationString.split(ATTRIBUTE_VALUES_SPECIFICATION_DELIMITER);
+			FiniteOrder comparator = new FiniteOrder(Arrays.asList(split));
+			return Optional.of(orderedCategoricAttribute(attributeName, attributeDescription, categoryValues(values),
+					comparator, String.class));
+
+		case TYPE_INTEGER:
+			List<Integer> intValues = new ArrayList<>(values.length);
+			for (String stringValue : values) {
+				try {
+					intValues.add(Integer.parseInt(stringValue));
+				} catch (NumberFormatException nfe) {
+					intValues.add(null);
+				}
+			}
+			return Optional.of(orderedCategoricAttribute(attributeName, attributeDescription, intValues,
+					Integer.class));
+
+		case TYPE_METRIC:
+			List<Double> doubleValues = new ArrayList<>(values.length);
+			for (String stringValue : values) {
+				try {
+					doubleValues.add(Double.parseDouble(stringValue));
+				} catch (NumberFormatException nfe) {
+					doubleValues.add(null);
+				}
+			}
+			return Optional.of(metricDoubleAttribute(attributeName, attributeDescription, doubleValues));
+
+		case TYPE_DATE:
+			List<Date> dateValues = new ArrayList<>(values.length);
+			for (String stringValue : values) {
+				dateValues.add(date(stringValue));
+			}
+			return Optional.of(Attributes.dateAttribute(attributeName, attributeDescription, dateValues));
+
+		default:
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * @return list of values with missing symbol replaced by null and with equal
+	 *         values represented by the same string instance
+	 */
+	private List<String> categoryValues(String[] values) {
+		Map<String, String> canonical = new HashMap<>();
+		List<String> result = new ArrayList<>(values.length);
+		for (String stringValue : values) {
+			if (stringValue.equals(missingSymbol)) {
+				result.add(null);
+			} else {
+				result.add(canonical.computeIfAbsent(stringValue, v -> v));
+			}
+		}
+		return result;
+	}
+
+	private static Date date(String value) {
+		try {
+			TemporalAccessor parsed = DATE_FORMAT.parse(value, new ParsePosition(0));
+			return Date.from(LocalDateTime.from(parsed).atZone(ZoneId.systemDefault()).toInstant());
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Either creates a list of numbers corresponding to the index or composes a
 	 * list of names that are composed by the values of the name-attributes.
 	 */
-	private List<String> objectNames(List<Integer> nameAttributeIndices, List<List<String>> rawData) {
-		List<String> result = new ArrayList<>();
+	private List<String> objectNames(List<Integer> nameAttributeIndices, String[][] columns, int numberOfRows) {
+		List<String> result = new ArrayList<>(numberOfRows);
 		if (nameAttributeIndices.size() == 0) {
 			// Just add index if no name attributes present
-			for (int i = 1; i <= rawData.size(); i++) {
+			for (int i = 1; i <= numberOfRows; i++) {
 				result.add(String.valueOf(i));
 			}
 		} else {
 			// Otherwise compose name
-			for (List<String> data : rawData) {
-				StringBuffer objName = new StringBuffer();
+			for (int i = 0; i < numberOfRows; i++) {
+				StringBuilder objName = new StringBuilder();
 				Iterator<Integer> iterator = nameAttributeIndices.iterator();
 				while (iterator.hasNext()) {
 					int k = iterator.next();
-					objName.append(data.get(k));
+					objName.append(columns[k][i]);
 					if (iterator.hasNext()) {
 						objName.append(", ");
 					}
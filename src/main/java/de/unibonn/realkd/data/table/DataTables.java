@@ -39,6 +39,7 @@ import java.util.function.IntPredicate;
 
 import com.google.common.collect.ImmutableList;
 
+import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.common.base.Identifier;
 import de.unibonn.realkd.data.Population;
 import de.unibonn.realkd.data.table.attribute.Attribute;
@@ -51,7 +52,7 @@ import de.unibonn.realkd.data.table.attributegroups.AttributeGroup;
  * @author Mario Boley
  * 
  * @since 0.3.1
- * @version 0.3.1
+ * @version 0.7.2
  *
  */
 public class DataTables {
@@ -108,6 +109,45 @@ public class DataTables {
 		return new ProjectedDataTable(id, name, description, originalTable, hiddenAttributeNames);
 	}
 
+	/**
+	 * <p>
+	 * Creates a new datatable based on another table by selecting rows. The new
+	 * table is a view: its attributes read the values of the original attributes
+	 * through the row selection and are only created when accessed (with
+	 * statistics computed for the selected rows). Like for projected tables, the
+	 * serialized form of the new datatable is incremental and depends on the
+	 * old datatable.
+	 * </p>
+	 * <p>
+	 * Propositional contexts derived from the original table can be restricted
+	 * to the same rows via
+	 * {@link de.unibonn.realkd.data.propositions.Propositions#rowSelection(Identifier, de.unibonn.realkd.data.propositions.TableBasedPropositionalContext, DataTable, IndexSet)}
+	 * without re-evaluating propositions.
+	 * </p>
+	 * 
+	 * @param id
+	 *            the id of the new datatable
+	 * @param name
+	 *            the name of the new datatable
+	 * @param description
+	 *            the description of the new datatable
+	 * @param originalTable
+	 *            the table on which the new datatable will be based on
+	 * @param rows
+	 *            the object ids of the original table to be selected
+	 * 
+	 * @return A new datatable with one row for each selected row of the
+	 *         original datatable (in ascending order)
+	 */
+	public static DataTable rowSelection(Identifier id, String name, String description, DataTable originalTable,
+			IndexSet rows) {
+		checkNotNull(name);
+		checkNotNull(description);
+		checkNotNull(originalTable);
+		checkNotNull(rows);
+		return new RowSelectedDataTable(id, name, description, originalTable, rows);
+	}
+
 	public static void test() {
 		DataTable testTable = null;
 		discretization(testTable, equalFrequencyDiscretization(5));
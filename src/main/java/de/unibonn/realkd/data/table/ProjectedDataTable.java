@@ -25,14 +25,15 @@
 package de.unibonn.realkd.data.table;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -44,22 +45,22 @@ import de.unibonn.realkd.common.workspace.Entity;
 import de.unibonn.realkd.common.workspace.HasSerialForm;
 import de.unibonn.realkd.common.workspace.IdentifiableSerialForm;
 import de.unibonn.realkd.common.workspace.Workspace;
-import de.unibonn.realkd.data.Population;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.data.table.attributegroups.AttributeGroup;
 
 /**
  * Implements a projected view on an existing data table. Similar to databases
  * this shows only a selection of data tables from the underlying data table.
+ * The view shares population and attribute objects with the underlying table.
  * 
  * @author Sandy Moens
  *
  * @since 0.4.0
  *
- * @version 0.5.0
+ * @version 0.7.2
  *
  */
-class ProjectedDataTable implements DataTable, HasSerialForm<DataTable> {
+class ProjectedDataTable extends AbstractDataTable implements HasSerialForm<DataTable> {
 
 	private static class ProjectedDataTableSerialForm implements IdentifiableSerialForm<DataTable> {
 
@@ -128,33 +129,32 @@ class ProjectedDataTable implements DataTable, HasSerialForm<DataTable> {
 
 	private final DataTable originalTable;
 	private final Collection<String> hiddenAttributeNames;
-	private final DefaultDataTable wrappedTable;
+	private final List<Attribute<?>> attributes;
+	private final Map<Identifier, Attribute<?>> attributeFromId;
 
 	ProjectedDataTable(Identifier id, String name, String description, DataTable dataTable,
 			Collection<String> hiddenAttributeNames) {
-		this.originalTable = dataTable;
-		this.hiddenAttributeNames = hiddenAttributeNames;
-		Set<Integer> hiddenIndices = hiddenAttributeNames.stream().map(n -> dataTable.attributeNames().indexOf(n))
-				.collect(Collectors.toSet());
-		List<Attribute<?>> attributes = IntStream.range(0, dataTable.attributes().size()).filter(n -> !hiddenIndices.contains(n))
-				.mapToObj(n -> dataTable.attribute(n)).collect(Collectors.toList());
-		List<AttributeGroup> groups=originalTable.attributeGroups().stream().filter(g->attributes.containsAll(g.elements())).collect(toList());
-		this.wrappedTable=new DefaultDataTable(id, name, description, originalTable.population(), attributes, groups); 
+		this(id, name, description, dataTable, hiddenAttributeNames, visibleAttributes(dataTable, hiddenAttributeNames));
 	}
 
-	@Override
-	public Identifier identifier() {
-		return this.wrappedTable.identifier();
+	private ProjectedDataTable(Identifier id, String name, String description, DataTable dataTable,
+			Collection<String> hiddenAttributeNames, List<Attribute<?>> attributes) {
+		super(id, name, description, dataTable.population(), visibleGroups(dataTable, attributes));
+		this.originalTable = dataTable;
+		this.hiddenAttributeNames = hiddenAttributeNames;
+		this.attributes = attributes;
+		this.attributeFromId = attributes.stream().collect(toMap(Attribute::identifier, a -> a));
 	}
 
-	@Override
-	public String caption() {
-		return this.wrappedTable.caption();
+	private static List<Attribute<?>> visibleAttributes(DataTable dataTable, Collection<String> hiddenAttributeNames) {
+		Set<String> hidden = new HashSet<>(hiddenAttributeNames);
+		return ImmutableList.copyOf(
+				dataTable.attributes().stream().filter(a -> !hidden.contains(a.caption())).collect(toList()));
 	}
 
-	@Override
-	public String description() {
-		return this.wrappedTable.description();
+	private static List<AttributeGroup> visibleGroups(DataTable dataTable, List<Attribute<?>> attributes) {
+		Set<Attribute<?>> visible = new HashSet<>(attributes);
+		return dataTable.attributeGroups().stream().filter(g -> visible.containsAll(g.elements())).collect(toList());
 	}
 
 	@Override
@@ -163,56 +163,19 @@ class ProjectedDataTable implements DataTable, HasSerialForm<DataTable> {
 				this.hiddenAttributeNames);
 	}
 
-	@Override
-	public boolean atLeastOneAttributeValueMissingFor(int objectId) {
-		return atLeastOneAttributeValueMissingFor(objectId, attributes());
-	}
-
-	@Override
-	public boolean atLeastOneAttributeValueMissingFor(int objectId, List<? extends Attribute<?>> testAttributes) {
-		return wrappedTable.atLeastOneAttributeValueMissingFor(objectId, testAttributes);
-	}
-
 	@Override
 	public List<Attribute<?>> attributes() {
-		return this.wrappedTable.attributes();
-	}
-
-	@Override
-	public Population population() {
-		return wrappedTable.population();
+		return attributes;
 	}
 
 	@Override
 	public Attribute<?> attribute(int attributeIndex) {
-		return attributes().get(attributeIndex);
+		return attributes.get(attributeIndex);
 	}
 	
 	@Override
 	public Optional<? extends Attribute<?>> attribute(Identifier identifier) {
-		return wrappedTable.attribute(identifier);
-	}
-
-	@Override
-	public List<AttributeGroup> attributeGroups() {
-		return wrappedTable.attributeGroups();
-	}
-
-	@Override
-	public Collection<AttributeGroup> attributeGroupsOf(Attribute<?> attribute) {
-		return wrappedTable.attributeGroupsOf(attribute);
-
-	}
-
-	@Override
-	public boolean containsDependencyBetweenAnyOf(Attribute<?> attribute,
-			Collection<? extends Attribute<?>> otherAttributes) {
-		return wrappedTable.containsDependencyBetweenAnyOf(attribute, otherAttributes);
-	}
-
-	@Override
-	public boolean containsDependencyBetween(Attribute<?> attribute, Attribute<?> otherAttribute) {
-		return wrappedTable.containsDependencyBetween(attribute, otherAttribute);
+		return Optional.ofNullable(attributeFromId.get(identifier));
 	}
 
 	@Override
@@ -220,5 +183,4 @@ class ProjectedDataTable implements DataTable, HasSerialForm<DataTable> {
 		return ImmutableList.of(originalTable);
 	}
 
-
 }
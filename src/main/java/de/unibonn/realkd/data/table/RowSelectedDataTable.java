@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.table;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.Lazy;
+import de.unibonn.realkd.common.workspace.Entity;
+import de.unibonn.realkd.common.workspace.HasSerialForm;
+import de.unibonn.realkd.common.workspace.IdentifiableSerialForm;
+import de.unibonn.realkd.common.workspace.Workspace;
+import de.unibonn.realkd.data.Population;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.data.table.attribute.Attributes;
+
+/**
+ * Implements a view on a selection of rows of an existing data table. Row
+ * {@code i} of the view corresponds to the {@code i}-th smallest selected row
+ * of the underlying table. Attributes of the view have the same identifiers as
+ * the underlying attributes; they are created on first access, reading their
+ * values through the row mapping, such that unused columns cost nothing.
+ * Attribute groups are shared with the underlying table, so dependencies
+ * between attributes are the same as in the underlying table.
+ * 
+ * @since 0.7.2
+ *
+ * @version 0.7.2
+ *
+ */
+class RowSelectedDataTable extends AbstractDataTable implements HasSerialForm<DataTable> {
+
+	private static class RowSelectedDataTableSerialForm implements IdentifiableSerialForm<DataTable> {
+
+		@JsonProperty("id")
+		private final Identifier id;
+
+		@JsonProperty("name")
+		private final String name;
+
+		@JsonProperty("description")
+		private final String description;
+
+		@JsonProperty("tableId")
+		private final Identifier tableId;
+
+		@JsonProperty("rows")
+		private final List<Integer> rows;
+
+		@JsonCreator
+		public RowSelectedDataTableSerialForm(@JsonProperty("id") Identifier id, @JsonProperty("name") String name,
+				@JsonProperty("description") String description, @JsonProperty("tableId") Identifier tableId,
+				@JsonProperty("rows") List<Integer> rows) {
+			this.id = id;
+			this.name = name;
+			this.description = description;
+			this.tableId = tableId;
+			this.rows = rows;
+		}
+
+		@Override
+		public DataTable build(Workspace workspace) {
+			Optional<DataTable> dataTable = workspace.get(this.tableId, DataTable.class);
+			return new RowSelectedDataTable(this.id, this.name, this.description, dataTable.get(),
+					IndexSets.copyOf(this.rows));
+		}
+
+		@Override
+		public Identifier identifier() {
+			return id;
+		}
+
+		@Override
+		public Collection<Identifier> dependencyIds() {
+			return ImmutableSet.of(this.tableId);
+		}
+
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof RowSelectedDataTableSerialForm)) {
+				return false;
+			}
+			RowSelectedDataTableSerialForm otherSerialForm = (RowSelectedDataTableSerialForm) other;
+			return this.id.equals(otherSerialForm.id) && this.name.equals(otherSerialForm.name)
+					&& this.description.equals(otherSerialForm.description)
+					&& this.tableId.equals(otherSerialForm.tableId) && this.rows.equals(otherSerialForm.rows);
+		}
+
+		public int hashCode() {
+			return Objects.hash(this.id, this.name, this.description, this.tableId, this.rows);
+		}
+
+	}
+
+	private final DataTable originalTable;
+	private final int[] rows;
+	private final List<Lazy<Attribute<?>>> selectedAttributes;
+	private final List<Attribute<?>> attributes;
+	private final Map<Identifier, Integer> attributeIndexFromId;
+
+	RowSelectedDataTable(Identifier id, String name, String description, DataTable dataTable, IndexSet rows) {
+		this(id, name, description, dataTable, rows.stream().toArray());
+	}
+
+	private RowSelectedDataTable(Identifier id, String name, String description, DataTable dataTable, int[] rows) {
+		super(id, name, description, selectedPopulation(id, dataTable.population(), rows),
+				dataTable.attributeGroups());
+		this.originalTable = dataTable;
+		this.rows = rows;
+		this.selectedAttributes = dataTable.attributes().stream()
+				.map(a -> Lazy.<Attribute<?>> lazy(() -> Attributes.rowSelection(a, rows))).collect(ImmutableList.toImmutableList());
+		this.attributes = new AbstractList<Attribute<?>>() {
+
+			@Override
+			public Attribute<?> get(int index) {
+				return selectedAttributes.get(index).get();
+			}
+
+			@Override
+			public int size() {
+				return selectedAttributes.size();
+			}
+
+		};
+		this.attributeIndexFromId = new HashMap<>();
+		for (int i = 0; i < dataTable.attributes().size(); i++) {
+			attributeIndexFromId.put(dataTable.attribute(i).identifier(), i);
+		}
+	}
+
+	private static Population selectedPopulation(Identifier id, Population population, int[] rows) {
+		if (rows.length > 0 && (rows[0] < 0 || rows[rows.length - 1] >= population.size())) {
+			throw new IllegalArgumentException("selected rows must be object ids of population");
+		}
+		List<String> names = new AbstractList<String>() {
+
+			@Override
+			public String get(int index) {
+				return population.objectName(rows[index]);
+			}
+
+			@Override
+			public int size() {
+				return rows.length;
+			}
+
+		};
+		return Populations.population(Identifier.id("population_of_" + id), "Selection of " + population.caption(),
+				"Population of row selection " + id + ".", names);
+	}
+
+	@Override
+	public IdentifiableSerialForm<DataTable> serialForm() {
+		return new RowSelectedDataTableSerialForm(identifier(), caption(), description(), originalTable.identifier(),
+				new ArrayList<>(Ints.asList(rows)));
+	}
+
+	@Override
+	public List<Attribute<?>> attributes() {
+		return attributes;
+	}
+
+	@Override
+	public Attribute<?> attribute(int attributeIndex) {
+		return attributes.get(attributeIndex);
+	}
+
+	@Override
+	public Optional<? extends Attribute<?>> attribute(Identifier identifier) {
+		Integer index = attributeIndexFromId.get(identifier);
+		return index == null ? Optional.empty() : Optional.of(attributes.get(index));
+	}
+
+	@Override
+	public Collection<Entity> dependencies() {
+		return ImmutableList.of(originalTable);
+	}
+
+}
@@ -27,6 +27,7 @@ package de.unibonn.realkd.data.table.attribute;
 import static de.unibonn.realkd.common.base.Identifier.identifier;
 import static java.util.Comparator.naturalOrder;
 
+import java.util.AbstractList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
@@ -43,7 +44,7 @@ import de.unibonn.realkd.common.base.Identifier;
  * 
  * @since 0.3.0
  * 
- * @version 0.5.0
+ * @version 0.7.2
  *
  */
 public class Attributes {
@@ -194,6 +195,64 @@ public class Attributes {
 		return dateAttribute(identifier(name), name, description, values);
 	}
 
+	/**
+	 * Creates an attribute with the same identifier, caption, description, and
+	 * value type (and order, if applicable) as the given attribute, but with
+	 * values only for a selection of rows. The values of the given attribute are
+	 * read through a view; only the value list and statistics of the new
+	 * attribute itself are created.
+	 * 
+	 * @param attribute
+	 *            the attribute to select from
+	 * @param rows
+	 *            the row indices of the original attribute that make up the
+	 *            rows 0, 1, ... of the result attribute
+	 * @return attribute with {@code rows.length} many values
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Attribute<?> rowSelection(Attribute<?> attribute, int[] rows) {
+		Identifier id = attribute.identifier();
+		String caption = attribute.caption();
+		String description = attribute.description();
+		if (attribute instanceof MetricAttribute) {
+			return metricDoubleAttribute(id, caption, description, selection((MetricAttribute) attribute, rows));
+		}
+		if (attribute instanceof OrderedCategoricAttribute) {
+			OrderedCategoricAttribute ordered = (OrderedCategoricAttribute) attribute;
+			return orderedCategoricAttribute(id, caption, description, selection(ordered, rows),
+					ordered.valueComparator(), ordered.type());
+		}
+		if (attribute instanceof OrdinalAttribute) {
+			OrdinalAttribute ordinal = (OrdinalAttribute) attribute;
+			return new DefaultOrdinalAttribute(id, caption, description, selection(ordinal, rows),
+					ordinal.valueComparator(), ordinal.type());
+		}
+		if (attribute instanceof DefaultDateAttribute) {
+			return dateAttribute(id, caption, description, selection((DefaultDateAttribute) attribute, rows));
+		}
+		if (attribute instanceof CategoricAttribute && String.class.equals(attribute.type())) {
+			return categoricalAttribute(id, caption, description,
+					selection((Attribute<String>) attribute, rows));
+		}
+		return new DefaultAttribute(id, caption, description, selection(attribute, rows), attribute.type());
+	}
+
+	private static <T> List<T> selection(Attribute<T> attribute, int[] rows) {
+		return new AbstractList<T>() {
+
+			@Override
+			public T get(int index) {
+				return attribute.valueMissing(rows[index]) ? null : attribute.value(rows[index]);
+			}
+
+			@Override
+			public int size() {
+				return rows.length;
+			}
+
+		};
+	}
+
 	public static void main(String[] args) {
 		// Population population = Populations.population("testPop", 3);
 		CategoricAttribute<String> categoricAttribute = categoricalAttribute("Categoric attribute", "For testing",
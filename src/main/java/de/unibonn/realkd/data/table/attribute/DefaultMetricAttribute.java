@@ -24,6 +24,7 @@
 
 package de.unibonn.realkd.data.table.attribute;
 
+import static de.unibonn.realkd.common.base.Lazy.lazy;
 import static de.unibonn.realkd.common.math.types.ClosedInterval.closedInterval;
 import static java.lang.Math.abs;
 import static java.util.Comparator.naturalOrder;
@@ -39,6 +40,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.common.IndexSets;
 import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.Lazy;
 import de.unibonn.realkd.common.math.types.ClosedInterval;
 
 public final class DefaultMetricAttribute extends DefaultAttribute<Double>
@@ -50,6 +52,8 @@ public final class DefaultMetricAttribute extends DefaultAttribute<Double>
 
 	private final OrderedValueContainer<Double> orderedValueContainer;
 
+	private final Lazy<double[]> primitiveValues;
+
 	@JsonCreator
 	DefaultMetricAttribute(@JsonProperty("identifier") Identifier identifier, @JsonProperty("name") String name, @JsonProperty("description") String description,
 			@JsonProperty("values") List<Double> values) {
@@ -80,6 +84,12 @@ public final class DefaultMetricAttribute extends DefaultAttribute<Double>
 		thirdCentralMoment = (m > 0) ? _thirdCentralMoment / m : Double.NaN;
 		avgAbsMedDev = (m > 0) ? _avgAbsMeanDev / m : Double.NaN;
 		range = closedInterval(min(), max());
+		primitiveValues = lazy(MetricAttribute.super::primitiveValues);
+	}
+
+	@Override
+	public double[] primitiveValues() {
+		return primitiveValues.get();
 	}
 
 	@Override
@@ -38,7 +38,7 @@ import de.unibonn.realkd.common.math.types.ClosedInterval;
  * 
  * @since 0.1.0
  * 
- * @version 0.3.2
+ * @version 0.7.2
  * 
  */
 public interface MetricAttribute extends OrdinalAttribute<Double> {
@@ -63,4 +63,20 @@ public interface MetricAttribute extends OrdinalAttribute<Double> {
 
 	public double averageAbsoluteMedianDeviationOnRows(IndexSet rowSet);
 
+	/**
+	 * Values of all objects as primitive array (indexed by object id) with NaN
+	 * at missing positions. The default implementation creates a fresh array
+	 * on each call; implementations can buffer it. The array must not be
+	 * modified.
+	 * 
+	 * @return primitive value column of this attribute
+	 */
+	public default double[] primitiveValues() {
+		double[] result = new double[maxIndex() + 1];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = valueMissing(i) ? Double.NaN : value(i);
+		}
+		return result;
+	}
+
 }
@@ -24,20 +24,20 @@ import de.unibonn.realkd.patterns.logical.LogicalDescriptors;
  * 
  * @since 0.2.0
  * 
- * @version 0.5.0
+ * @version 0.7.2
  * 
  */
 public class ConnectedComponent {
 
 	private final List<MaxEntConstraint> constraints;
 
-	private final Map<String, Integer> cardinalityOfPartitions;
+	private final Map<Long, Integer> cardinalityOfPartitions;
 
-	private final Map<String, ValueSpace> valuesPacesOfConstraintCombinations;
+	private final Map<Long, ValueSpace> valuesPacesOfConstraintCombinations;
 
 	private final List<Attribute<?>> attributesWithInConnectedComponent;
 
-	private Map<String, Double> constCombinationToPartitionValueMap;
+	private Map<Long, Double> constCombinationToPartitionValueMap;
 
 	private double partitionFunctionValue;
 
@@ -68,25 +68,19 @@ public class ConnectedComponent {
 		List<MaxEntConstraint> augmentedConstraints = new ArrayList<>(constraints);
 		augmentedConstraints.add(newConstraint);
 
-		Map<String, ValueSpace> valueSpacesOfAugmentedConstraints = ValueSpaceUtility
+		Map<Long, ValueSpace> valueSpacesOfAugmentedConstraints = ValueSpaceUtility
 				.computeCompatibleSubValueSpacesForAttributes(augmentedConstraints, attributesWithInConnectedComponent);
-		Map<String, Integer> cardinalityOfAugmentedPartitions = ValueSpaceUtility
+		Map<Long, Integer> cardinalityOfAugmentedPartitions = ValueSpaceUtility
 				.computeCardinalityOfPartitions(valueSpacesOfAugmentedConstraints);
 
-		List<String> keys = ValueSpaceUtility.getKeysOfCombinationsThatContainConstraint(newConstraint,
+		List<Long> keys = ValueSpaceUtility.getKeysOfCombinationsThatContainConstraint(newConstraint,
 				cardinalityOfAugmentedPartitions.keySet(), augmentedConstraints);
 
 		double result = 0.;
-		for (String key : keys) {
+		for (long key : keys) {
 			int cardinality = cardinalityOfAugmentedPartitions.get(key);
 			if (cardinality != 0) {
-				List<MaxEntConstraint> constraintInCombination = ValueSpaceUtility.getConstraintByDecodingKey(key,
-						augmentedConstraints);
-				double sum = 0;
-				for (MaxEntConstraint constraint : constraintInCombination) {
-					sum += constraint.getMultiplier();
-				}
-				sum = Math.exp(sum);
+				double sum = Math.exp(ValueSpaceUtility.sumOfMultipliers(key, augmentedConstraints));
 				result += sum * cardinality;
 			}
 		}
@@ -99,16 +93,10 @@ public class ConnectedComponent {
 		constCombinationToPartitionValueMap = new HashMap<>();
 		int cardOfNotPassedValues = ValueSpaceUtility
 				.computeValueSpaceCardinalityFromAttributes(new HashSet<>(attributesWithInConnectedComponent));
-		for (String key : cardinalityOfPartitions.keySet()) {
+		for (long key : cardinalityOfPartitions.keySet()) {
 			int cardinality = cardinalityOfPartitions.get(key);
 			if (cardinality != 0) {
-				List<MaxEntConstraint> constraintsInCombination = ValueSpaceUtility.getConstraintByDecodingKey(key,
-						constraints);
-				double sum = 0.;
-				for (MaxEntConstraint constraint : constraintsInCombination) {
-					sum += constraint.getMultiplier();
-				}
-				sum = Math.exp(sum);
+				double sum = Math.exp(ValueSpaceUtility.sumOfMultipliers(key, constraints));
 				cardOfNotPassedValues -= cardinality;
 				constCombinationToPartitionValueMap.put(key, sum * cardinality);
 				partitionFunctionValue += sum * cardinality;
@@ -144,10 +132,10 @@ public class ConnectedComponent {
 	}
 
 	public double getSumOfMultipliersActivatedByConstraint(MaxEntConstraint constraint) {
-		List<String> keys = ValueSpaceUtility.getKeysOfCombinationsThatContainConstraint(constraint,
+		List<Long> keys = ValueSpaceUtility.getKeysOfCombinationsThatContainConstraint(constraint,
 				cardinalityOfPartitions.keySet(), constraints);
 		double result = 0.;
-		for (String key : keys) {
+		for (long key : keys) {
 			result += constCombinationToPartitionValueMap.get(key);
 		}
 		return result;
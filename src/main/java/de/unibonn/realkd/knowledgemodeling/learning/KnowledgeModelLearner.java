@@ -1,15 +1,14 @@
 package de.unibonn.realkd.knowledgemodeling.learning;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.RealMatrix;
-
 import de.unibonn.realkd.data.table.DataTable;
 import de.unibonn.realkd.knowledgemodeling.UserKnowledgeModel;
 import de.unibonn.realkd.knowledgemodeling.constraints.MaxEntConstraint;
@@ -25,6 +24,18 @@ public class KnowledgeModelLearner {
 
 	private List<ConnectedComponent> connectedComponents;
 
+	/*
+	 * union-find forest over attribute indices; attributes are connected if
+	 * they are referenced by a common constraint
+	 */
+	private final int[] parent;
+
+	private final int[] size;
+
+	private Map<Integer, ConnectedComponent> componentOfRoot;
+
+	private int numberOfIncorporatedConstraints;
+
 	/*
 	 * TODO: where should those go?
 	 */
@@ -36,15 +47,56 @@ public class KnowledgeModelLearner {
 
 	public KnowledgeModelLearner(DataTable dataTable) {
 		this.constraints = new ArrayList<>();
-		this.userKnowledgeModel = new UserKnowledgeModel(dataTable, connectedComponents);
 		this.connectedComponents = new ArrayList<>();
+		this.userKnowledgeModel = new UserKnowledgeModel(dataTable, connectedComponents);
+		int numberOfAttributes = dataTable.attributes().size();
+		this.parent = new int[numberOfAttributes];
+		this.size = new int[numberOfAttributes];
+		for (int i = 0; i < numberOfAttributes; i++) {
+			parent[i] = i;
+			size[i] = 1;
+		}
+		this.componentOfRoot = new HashMap<>();
+		this.numberOfIncorporatedConstraints = 0;
 	}
 
+	/**
+	 * Re-optimizes the multipliers of all connected components that have been
+	 * affected by constraints told since the last update (in parallel).
+	 * Components not touched by a new constraint keep their multipliers.
+	 */
 	public void doUpdate() {
 		if (constraints.size() != 0) {
-			updateConnectedComponents();
-			for (ConnectedComponent connectedComponent : connectedComponents) {
-				computeOptimalMultiplierForConnectedComponent(connectedComponent);
+			Set<Integer> affectedRoots = new HashSet<>();
+			for (MaxEntConstraint constraint : constraints.subList(numberOfIncorporatedConstraints,
+					constraints.size())) {
+				affectedRoots.add(componentKey(constraint));
+			}
+			numberOfIncorporatedConstraints = constraints.size();
+
+			Map<Integer, List<MaxEntConstraint>> constraintsOfRoot = new LinkedHashMap<>();
+			for (MaxEntConstraint constraint : constraints) {
+				constraintsOfRoot.computeIfAbsent(componentKey(constraint), k -> new ArrayList<>()).add(constraint);
+			}
+
+			Map<Integer, ConnectedComponent> updatedComponentOfRoot = new HashMap<>();
+			List<ConnectedComponent> affectedComponents = new ArrayList<>();
+			for (Map.Entry<Integer, List<MaxEntConstraint>> entry : constraintsOfRoot.entrySet()) {
+				ConnectedComponent component;
+				if (affectedRoots.contains(entry.getKey())) {
+					component = new ConnectedComponent(entry.getValue());
+					affectedComponents.add(component);
+				} else {
+					component = componentOfRoot.get(entry.getKey());
+				}
+				updatedComponentOfRoot.put(entry.getKey(), component);
+			}
+			affectedComponents.parallelStream().forEach(this::computeOptimalMultiplierForConnectedComponent);
+
+			this.componentOfRoot = updatedComponentOfRoot;
+			this.connectedComponents = new ArrayList<>(updatedComponentOfRoot.size());
+			for (Integer root : constraintsOfRoot.keySet()) {
+				connectedComponents.add(updatedComponentOfRoot.get(root));
 			}
 			userKnowledgeModel.update(constraints, connectedComponents);
 		}
@@ -73,81 +125,47 @@ public class KnowledgeModelLearner {
 
 	}
 
-	private void updateConnectedComponents() {
-		RealMatrix adjacencyMatrix = computeAdjacencyMatrix();
-		List<List<Integer>> connectedComponentsIndices = computeIndicesOfConnectedComponents(adjacencyMatrix);
-		this.connectedComponents = constructConnectedComponents(connectedComponentsIndices);
+	/*
+	 * component key of a constraint: union-find root of its attributes, or a
+	 * negative key unique to the constraint if it does not refer to any
+	 * attribute
+	 */
+	private int componentKey(MaxEntConstraint constraint) {
+		Iterator<Integer> attributes = constraint.getAttributeIndices().iterator();
+		return attributes.hasNext() ? find(attributes.next()) : -1 - constraints.indexOf(constraint);
 	}
 
-	private RealMatrix computeAdjacencyMatrix() {
-		RealMatrix adjacencyMatrix = new Array2DRowRealMatrix(constraints.size(), constraints.size());
-		for (int i = 0; i < constraints.size(); i++) {
-			for (int j = i + 1; j < constraints.size(); j++) {
-				if (isOverlapped(constraints.get(i), constraints.get(j))) {
-					adjacencyMatrix.setEntry(i, j, 1.);
-					adjacencyMatrix.setEntry(j, i, 1.);
-				}
-			}
+	private int find(int attribute) {
+		int current = attribute;
+		while (parent[current] != current) {
+			parent[current] = parent[parent[current]];
+			current = parent[current];
 		}
-		return adjacencyMatrix;
+		return current;
 	}
 
-	private boolean isOverlapped(MaxEntConstraint constraintI, MaxEntConstraint constraintJ) {
-		Set<Integer> intersection = new HashSet<>(constraintI.getAttributeIndices());
-		intersection.retainAll(constraintJ.getAttributeIndices());
-		return (intersection.size() != 0);
-	}
-
-	List<List<Integer>> computeIndicesOfConnectedComponents(RealMatrix adjacencyMatrix) {
-		int numberOfConnectedComponents = 0;
-		int numberOfVertices = adjacencyMatrix.getColumnDimension();
-
-		int[] mark = new int[numberOfVertices];
-
-		for (int i = 0; i < numberOfVertices; i++) {
-			if (mark[i] == 0) {
-				numberOfConnectedComponents++;
-				Queue<Integer> queue = new LinkedList<>();
-				queue.add(i);
-				mark[i] = numberOfConnectedComponents;
-				while (!queue.isEmpty()) {
-					int current = queue.remove();
-					for (int j = 0; j < numberOfVertices; j++) {
-						if (adjacencyMatrix.getEntry(current, j) == 1 && mark[j] == 0) {
-							mark[j] = numberOfConnectedComponents;
-							queue.add(j);
-						}
-					}
-				}
-			}
+	private void union(int attribute, int otherAttribute) {
+		int root = find(attribute);
+		int otherRoot = find(otherAttribute);
+		if (root == otherRoot) {
+			return;
 		}
-
-		List<List<Integer>> indicesOfConnectedComponents = new ArrayList<>();
-		for (int i = 0; i < numberOfConnectedComponents; i++) {
-			indicesOfConnectedComponents.add(new ArrayList<Integer>());
+		if (size[root] < size[otherRoot]) {
+			int swap = root;
+			root = otherRoot;
+			otherRoot = swap;
 		}
-
-		for (int i = 0; i < numberOfVertices; i++) {
-			indicesOfConnectedComponents.get(mark[i] - 1).add(i);
-		}
-
-		return indicesOfConnectedComponents;
-	}
-
-	private List<ConnectedComponent> constructConnectedComponents(List<List<Integer>> connectedComponentsIndices) {
-		List<ConnectedComponent> connectedComponents = new ArrayList<>();
-		for (List<Integer> indices : connectedComponentsIndices) {
-			Set<MaxEntConstraint> constraintSet = new HashSet<>();
-			for (Integer index : indices) {
-				constraintSet.add(constraints.get(index));
-			}
-			connectedComponents.add(new ConnectedComponent(new ArrayList<>(constraintSet)));
-		}
-		return connectedComponents;
+		parent[otherRoot] = root;
+		size[root] += size[otherRoot];
 	}
 
 	public void tellConstraint(MaxEntConstraint constraint) {
 		this.constraints.add(constraint);
+		Iterator<Integer> attributes = constraint.getAttributeIndices().iterator();
+		if (attributes.hasNext()) {
+			int first = attributes.next();
+			attributes.forEachRemaining(attribute -> union(first, attribute));
+		}
 	}
 
 	/*
@@ -1,17 +1,12 @@
 package de.unibonn.realkd.knowledgemodeling.learning;
 
-import static de.unibonn.realkd.common.IndexSets.copyOf;
-
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import com.google.common.collect.ImmutableList;
-
-import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.data.propositions.AttributeBasedProposition;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.data.table.attribute.DefaultCategoricAttribute;
@@ -20,13 +15,18 @@ import de.unibonn.realkd.knowledgemodeling.constraints.FrequencyConstraint;
 import de.unibonn.realkd.knowledgemodeling.constraints.MaxEntConstraint;
 
 /**
+ * Sub-space of the joint value space of a set of attributes that is compatible
+ * to a combination of constraints. Per attribute, the admissible values are
+ * represented as bit set: over category indices for categoric attributes and
+ * over row indices for metric attributes.
+ * 
  * @author bkang
  */
 public class ValueSpace {
 
 	private final int cardinality;
 
-	private final Map<Attribute<?>, List<String>> values;
+	private final Map<Attribute<?>, BitSet> values;
 
 	private final List<MaxEntConstraint> associatedConstraints;
 
@@ -40,21 +40,20 @@ public class ValueSpace {
 		this.associatedAttributes = associatedAttributes;
 	}
 
-	public ValueSpace(List<MaxEntConstraint> associatedConstraints, Map<Attribute<?>, List<String>> values,
+	public ValueSpace(List<MaxEntConstraint> associatedConstraints, Map<Attribute<?>, BitSet> values,
 			List<Attribute<?>> associatedAttributes) {
 		this.associatedConstraints = associatedConstraints;
 		this.values = values;
 		this.cardinality = computeCardinality(values, associatedAttributes);
-		;
 		this.associatedAttributes = associatedAttributes;
 	}
 
-	private int computeCardinality(Map<Attribute<?>, List<String>> values, List<Attribute<?>> attributes) {
+	private int computeCardinality(Map<Attribute<?>, BitSet> values, List<Attribute<?>> attributes) {
 		int result = 1;
 		Set<Attribute<?>> keySet = values.keySet();
 		for (Attribute<?> attribute : attributes) {
 			if (keySet.contains(attribute)) {
-				result *= values.get(attribute).size();
+				result *= values.get(attribute).cardinality();
 				if (result == 0) {
 					return 0;
 				}
@@ -75,8 +74,8 @@ public class ValueSpace {
 		}
 	}
 
-	private Map<Attribute<?>, List<String>> initValueSpace(MaxEntConstraint constraint) {
-		Map<Attribute<?>, List<String>> result = new HashMap<>();
+	private Map<Attribute<?>, BitSet> initValueSpace(MaxEntConstraint constraint) {
+		Map<Attribute<?>, BitSet> result = new HashMap<>();
 		Map<Attribute<?>, List<AttributeBasedProposition<?>>> attributePropositionMap = computeAttributePropositionMap(
 				((FrequencyConstraint) constraint).getAssociatedPropostions());
 		for (Attribute<?> attribute : attributePropositionMap.keySet()) {
@@ -98,52 +97,49 @@ public class ValueSpace {
 		return result;
 	}
 
-	private List<String> computeOneDimSubValueSpace(List<AttributeBasedProposition<?>> propositions,
+	private BitSet computeOneDimSubValueSpace(List<AttributeBasedProposition<?>> propositions,
 			Attribute<?> attribute) {
 		if (attribute instanceof DefaultCategoricAttribute) {
-			return filterCategoricalValuesAgainstPropositions(((DefaultCategoricAttribute) attribute).categories(),
-					propositions);
+			List<String> categories = ((DefaultCategoricAttribute) attribute).categories();
+			BitSet all = new BitSet(categories.size());
+			all.set(0, categories.size());
+			return filterCategoricalValuesAgainstPropositions(all, categories, propositions);
 		} else if (attribute instanceof MetricAttribute) {
-			return convertSupportSetToList(
-					filterMetricSupportAgainstPropositions(propositions.get(0).supportSet(), propositions));
+			return filterMetricSupportAgainstPropositions(supportBits(propositions.get(0)), propositions);
 		} else {
 			throw new IllegalArgumentException();
 		}
 	}
 
-	private List<String> filterCategoricalValuesAgainstPropositions(List<String> values,
+	private BitSet filterCategoricalValuesAgainstPropositions(BitSet values, List<String> categories,
 			List<AttributeBasedProposition<?>> propositions) {
-		boolean isPassedAllPropositions;
-		List<String> result = new ArrayList<>();
-		for (String value : values) {
-			isPassedAllPropositions = true;
+		BitSet result = new BitSet(categories.size());
+		for (int i = values.nextSetBit(0); i >= 0; i = values.nextSetBit(i + 1)) {
+			boolean isPassedAllPropositions = true;
 			for (AttributeBasedProposition proposition : propositions) {
-				if (!proposition.constraint().holds(value)) {
+				if (!proposition.constraint().holds(categories.get(i))) {
 					isPassedAllPropositions = false;
 					break;
 				}
 			}
 			if (isPassedAllPropositions) {
-				result.add(value);
+				result.set(i);
 			}
 		}
 		return result;
 	}
 
-	private List<String> convertSupportSetToList(Set<Integer> support) {
-		List<String> result = new ArrayList<>();
-		for (Integer integer : support) {
-			result.add(integer.toString());
-		}
+	private static BitSet supportBits(AttributeBasedProposition<?> proposition) {
+		BitSet result = new BitSet();
+		proposition.supportSet().stream().forEach(result::set);
 		return result;
 	}
 
-	private Set<Integer> filterMetricSupportAgainstPropositions(IndexSet support,
+	private BitSet filterMetricSupportAgainstPropositions(BitSet support,
 			List<AttributeBasedProposition<?>> propositions) {
-		Set<Integer> result = new HashSet<>(ImmutableList.copyOf(support));
-
+		BitSet result = (BitSet) support.clone();
 		for (AttributeBasedProposition<?> proposition : propositions) {
-			result.retainAll(ImmutableList.copyOf(proposition.supportSet()));
+			result.and(supportBits(proposition));
 		}
 		return result;
 	}
@@ -151,27 +147,22 @@ public class ValueSpace {
 	public ValueSpace getSubSpace(MaxEntConstraint additionalConstraint) {
 		Map<Attribute<?>, List<AttributeBasedProposition<?>>> additionalAttributePropositionMap = computeAttributePropositionMap(
 				((FrequencyConstraint) additionalConstraint).getAssociatedPropostions());
-		Map<Attribute<?>, List<String>> newValues = new HashMap<>();
+		Map<Attribute<?>, BitSet> newValues = new HashMap<>();
 		for (Attribute<?> attribute : values.keySet()) {
 			if (additionalAttributePropositionMap.keySet().contains(attribute)) {
 				List<AttributeBasedProposition<?>> additionalPropositions = additionalAttributePropositionMap
 						.get(attribute);
 				if (attribute instanceof DefaultCategoricAttribute) {
-					List<String> valuesOfOneAttribute = filterCategoricalValuesAgainstPropositions(
-							values.get(attribute), additionalPropositions);
-					newValues.put(attribute, valuesOfOneAttribute);
+					newValues.put(attribute, filterCategoricalValuesAgainstPropositions(values.get(attribute),
+							((DefaultCategoricAttribute) attribute).categories(), additionalPropositions));
 				} else if (attribute instanceof MetricAttribute) {
-					Set<Integer> support = new HashSet<>();
-					for (String s : values.get(attribute)) {
-						support.add(Integer.valueOf(s));
-					}
-					newValues.put(attribute, convertSupportSetToList(
-							filterMetricSupportAgainstPropositions(copyOf(support), additionalPropositions)));
+					newValues.put(attribute,
+							filterMetricSupportAgainstPropositions(values.get(attribute), additionalPropositions));
 				} else {
 					throw new IllegalArgumentException();
 				}
 			} else {
-				newValues.put(attribute, new ArrayList<>(values.get(attribute)));
+				newValues.put(attribute, values.get(attribute));
 			}
 		}
 		for (Attribute<?> attribute : additionalAttributePropositionMap.keySet()) {
@@ -195,7 +186,13 @@ public class ValueSpace {
 		return associatedConstraints;
 	}
 
-	public Map<Attribute<?>, List<String>> getValues() {
+	/**
+	 * @return admissible values per constrained attribute as bit set over
+	 *         category indices (categoric attributes) or row indices (metric
+	 *         attributes); bit sets are shared between sub-spaces and must not
+	 *         be modified
+	 */
+	public Map<Attribute<?>, BitSet> getValues() {
 		return values;
 	}
 
@@ -22,25 +22,35 @@ import de.unibonn.realkd.knowledgemodeling.constraints.MaxEntConstraint;
  */
 public class ValueSpaceUtility {
 
+	/**
+	 * Maximal number of constraints that can be combined, i.e., the number of
+	 * bits available in a combination key.
+	 */
+	public static final int MAX_NUMBER_OF_CONSTRAINTS = Long.SIZE - 1;
+
 	private static final ValueSpaceUtility INSTANCE = new ValueSpaceUtility();
 
 	public static ValueSpaceUtility getInstance() {
 		return INSTANCE;
 	}
 
-	public static Map<String, Integer> computeCardinalityOfPartitions(
-			Map<String, ValueSpace> constraintCombinationToValueSpaceMap) {
-		Map<String, Integer> result = new HashMap<>();
-		for (String key : constraintCombinationToValueSpaceMap.keySet()) {
+	/**
+	 * Computes for each constraint combination the number of values that are
+	 * compatible with exactly the constraints of that combination by
+	 * inclusion/exclusion over all (present) super-combinations.
+	 * 
+	 */
+	public static Map<Long, Integer> computeCardinalityOfPartitions(
+			Map<Long, ValueSpace> constraintCombinationToValueSpaceMap) {
+		Map<Long, Integer> result = new HashMap<>();
+		for (long key : constraintCombinationToValueSpaceMap.keySet()) {
 			int cardinality = 0;
-			List<String> keysOfMissingConstraintsCombination = computeKeysOfMissingConstraintsCombination(key);
-			for (String keyOfMissingConstraintsCombination : keysOfMissingConstraintsCombination) {
-				ValueSpace valueSpace = constraintCombinationToValueSpaceMap
-						.get(combineTwoKeys(key,
-								keyOfMissingConstraintsCombination));
-				cardinality += ((getNumberOfConstraints(keyOfMissingConstraintsCombination) % 2 == 1) ? -1
-						: 1)
-						* (valueSpace == null ? 0 : valueSpace.getCardinality());
+			for (Map.Entry<Long, ValueSpace> entry : constraintCombinationToValueSpaceMap.entrySet()) {
+				long superKey = entry.getKey();
+				if ((superKey & key) == key) {
+					cardinality += ((Long.bitCount(superKey & ~key) % 2 == 1) ? -1 : 1)
+							* entry.getValue().getCardinality();
+				}
 			}
 			result.put(key, cardinality);
 		}
@@ -54,15 +64,15 @@ public class ValueSpaceUtility {
 	 * </p>
 	 * <p>
 	 * Value spaces are stored within a map wherein each value space is
-	 * identified by a binary string indicating the subset of constraints that
-	 * has been used to construct the corresponding value space. For example,
-	 * the value space resulting from the first, second, and fourth constraint
-	 * out of four is indexed by the string "1101".
+	 * identified by a bit mask indicating the subset of constraints that has
+	 * been used to construct the corresponding value space. For example, the
+	 * value space resulting from the first, second, and fourth constraint out
+	 * of four is indexed by the mask 0b1011.
 	 * </p>
 	 * 
 	 * @param constraints
 	 *            the set of constraints to which the resulting value space must
-	 *            be compatible to
+	 *            be compatible to (at most {@link #MAX_NUMBER_OF_CONSTRAINTS})
 	 * @param attributes
 	 *            the attributes for which the value spaces are supposed to be
 	 *            spanned (usually the intersection of all attributes referred
@@ -70,28 +80,29 @@ public class ValueSpaceUtility {
 	 * @return the key/value space map
 	 * 
 	 */
-	public static Map<String, ValueSpace> computeCompatibleSubValueSpacesForAttributes(
+	public static Map<Long, ValueSpace> computeCompatibleSubValueSpacesForAttributes(
 			List<MaxEntConstraint> constraints, List<Attribute<?>> attributes) {
-		Map<String, ValueSpace> valueSpaceMap = new HashMap<>();
-		Queue<String> valueSpaceKeyQueue = new LinkedList<>();
-		for (MaxEntConstraint constraint : constraints) {
-			ValueSpace valueSpace = new ValueSpace(constraint, attributes);
+		if (constraints.size() > MAX_NUMBER_OF_CONSTRAINTS) {
+			throw new IllegalArgumentException(
+					"At most " + MAX_NUMBER_OF_CONSTRAINTS + " constraints can be combined; got " + constraints.size());
+		}
+		Map<Long, ValueSpace> valueSpaceMap = new HashMap<>();
+		Queue<Long> valueSpaceKeyQueue = new LinkedList<>();
+		for (int i = 0; i < constraints.size(); i++) {
+			ValueSpace valueSpace = new ValueSpace(constraints.get(i), attributes);
 			if (valueSpace.getCardinality() != 0) {
-				String key = generateKeyOfValueSpace(valueSpace, constraints);
+				long key = 1L << i;
 				valueSpaceMap.put(key, valueSpace);
 				valueSpaceKeyQueue.add(key);
 			}
 		}
 		while (valueSpaceKeyQueue.size() != 0) {
-			String key = valueSpaceKeyQueue.poll();
-			List<MaxEntConstraint> constraintsToCombine = getConstraintsToCombine(
-					key, constraints);
-			for (MaxEntConstraint constraint : constraintsToCombine) {
-				ValueSpace newValueSpace = valueSpaceMap.get(key).getSubSpace(
-						constraint);
+			long key = valueSpaceKeyQueue.poll();
+			ValueSpace valueSpace = valueSpaceMap.get(key);
+			for (int i = Long.SIZE - Long.numberOfLeadingZeros(key); i < constraints.size(); i++) {
+				ValueSpace newValueSpace = valueSpace.getSubSpace(constraints.get(i));
 				if (newValueSpace.getCardinality() != 0) {
-					String newKey = generateKeyOfValueSpace(newValueSpace,
-							constraints);
+					long newKey = key | (1L << i);
 					valueSpaceKeyQueue.add(newKey);
 					valueSpaceMap.put(newKey, newValueSpace);
 				}
@@ -100,114 +111,34 @@ public class ValueSpaceUtility {
 		return valueSpaceMap;
 	}
 
-	public static List<MaxEntConstraint> getConstraintByDecodingKey(String key,
-			List<MaxEntConstraint> constraints) {
+	public static List<MaxEntConstraint> getConstraintByDecodingKey(long key, List<MaxEntConstraint> constraints) {
 		List<MaxEntConstraint> result = new ArrayList<>();
-		for (int i = 0; i < key.length(); i++) {
-			if (key.charAt(i) == '1') {
-				result.add(constraints.get(key.length() - i - 1));
-			}
-		}
-		return result;
-	}
-
-	public static List<String> getKeysOfCombinationsThatContainConstraint(
-			MaxEntConstraint constraint, Set<String> keySet,
-			List<MaxEntConstraint> constraints) {
-		List<String> result = new ArrayList<>();
-		int indexOfConstraint = constraints.indexOf(constraint);
-		for (String key : keySet) {
-			if (key.charAt(key.length() - indexOfConstraint - 1) == '1') {
-				result.add(key);
-			}
+		for (long rest = key; rest != 0; rest &= rest - 1) {
+			result.add(constraints.get(Long.numberOfTrailingZeros(rest)));
 		}
 		return result;
 	}
 
-	private static String combineTwoKeys(String key1, String key2) {
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < key1.length(); i++) {
-			if (key1.charAt(i) == key2.charAt(i)) {
-				if (key1.charAt(i) == '1') {
-					throw new IllegalArgumentException();
-				} else {
-					sb.append('0');
-				}
-			} else {
-				sb.append('1');
-			}
-		}
-		return sb.toString();
-	}
-
-	private static int getNumberOfConstraints(String key) {
-		int result = 0;
-		for (int i = 0; i < key.length(); i++) {
-			if (key.charAt(i) == '1') {
-				result++;
-			}
-		}
-		return result;
-	}
-
-	private static List<String> computeKeysOfMissingConstraintsCombination(
-			String key) {
-		List<String> result = new ArrayList<>();
-		int numberOfConstraintCombinations = (int) Math.pow(2, key.length());
-		int intKey = Integer.parseInt(key, 2);
-		for (int i = 0; i < numberOfConstraintCombinations; i++) {
-			if ((i & intKey) == 0) {
-				result.add(getFixedLengthBinaryString(
-						Integer.toBinaryString(i), key.length()));
-			}
+	/**
+	 * @return sum of the multipliers of all constraints in the combination
+	 *         identified by key
+	 */
+	public static double sumOfMultipliers(long key, List<MaxEntConstraint> constraints) {
+		double result = 0.;
+		for (long rest = key; rest != 0; rest &= rest - 1) {
+			result += constraints.get(Long.numberOfTrailingZeros(rest)).getMultiplier();
 		}
-
 		return result;
 	}
 
-	private static String getFixedLengthBinaryString(String binary, int length) {
-		int lenDiff = length - binary.length();
-		if (lenDiff == 0) {
-			return binary;
-		} else if (lenDiff > 0) {
-			StringBuilder sb = new StringBuilder(binary);
-			for (int i = 0; i < lenDiff; i++) {
-				sb.insert(0, '0');
-			}
-			return sb.toString();
-		} else {
-			throw new IllegalArgumentException();
-		}
-	}
-
-	private static String generateKeyOfValueSpace(ValueSpace valueSpace,
-			List<MaxEntConstraint> allConstraint) {
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < allConstraint.size(); i++) {
-			if (valueSpace.getAssociatedConstraints().contains(
-					allConstraint.get(i))) {
-				sb.append('1');
-			} else {
-				sb.append('0');
-			}
-		}
-		return sb.reverse().toString();
-
-	}
-
-	private static List<MaxEntConstraint> getConstraintsToCombine(String key,
-			List<MaxEntConstraint> allConstraint) {
-		List<MaxEntConstraint> result = new ArrayList<>();
-		int pos = 0;
-		while (pos < key.length()) {
-			if (key.charAt(pos) == '1') {
-				break;
+	public static List<Long> getKeysOfCombinationsThatContainConstraint(MaxEntConstraint constraint,
+			Set<Long> keySet, List<MaxEntConstraint> constraints) {
+		List<Long> result = new ArrayList<>();
+		long constraintBit = 1L << constraints.indexOf(constraint);
+		for (long key : keySet) {
+			if ((key & constraintBit) != 0) {
+				result.add(key);
 			}
-			pos++;
-		}
-		pos = key.length() - pos;
-		for (; pos < key.length(); pos++) {
-			result.add(allConstraint.get(pos));
 		}
 		return result;
 	}
@@ -31,9 +31,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.FileHandler;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
@@ -43,6 +46,7 @@ import de.unibonn.realkd.algorithms.MiningAlgorithm;
 import de.unibonn.realkd.algorithms.StoppableMiningAlgorithm;
 import de.unibonn.realkd.common.base.Identifiable;
 import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.parameter.Parameter;
 import de.unibonn.realkd.common.workspace.Workspace;
 import de.unibonn.realkd.lang.statements.Interpreter;
 import de.unibonn.realkd.lang.statements.Statement;
@@ -54,7 +58,7 @@ import de.unibonn.realkd.patterns.NamedPatternCollection;
  * 
  * @since 0.3.0
  * 
- * @version 0.5.2
+ * @version 0.7.2
  *
  */
 public abstract class AbstractInterpreter implements Interpreter {
@@ -94,6 +98,87 @@ public abstract class AbstractInterpreter implements Interpreter {
 
 	}
 
+	private class ThreadsVar extends InterpreterVariable {
+
+		public ThreadsVar() {
+			super("threads");
+		}
+
+		@Override
+		public void set(String value) {
+			int threads;
+			try {
+				threads = Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				LOGGER.severe("Number of threads must be an integer: " + value);
+				return;
+			}
+			if (threads < 1) {
+				LOGGER.severe("Number of threads must be positive: " + value);
+				return;
+			}
+			if (threads > pool.getMaximumPoolSize()) {
+				pool.setMaximumPoolSize(threads);
+				pool.setCorePoolSize(threads);
+			} else {
+				pool.setCorePoolSize(threads);
+				pool.setMaximumPoolSize(threads);
+			}
+			threadBudget.capacity(threads);
+		}
+
+	}
+
+	/**
+	 * Counts the threads claimed by running jobs such that jobs that are
+	 * multi-threaded themselves (via their 'num_threads' parameter) do not
+	 * oversubscribe the processors together with other running jobs.
+	 */
+	private static class ThreadBudget {
+
+		private int capacity;
+
+		private int used = 0;
+
+		public ThreadBudget(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public synchronized void capacity(int capacity) {
+			this.capacity = capacity;
+			notifyAll();
+		}
+
+		public synchronized int acquire(int threads) throws InterruptedException {
+			int claimed = Math.max(1, Math.min(threads, capacity));
+			while (used > 0 && used + claimed > capacity) {
+				wait();
+			}
+			used += claimed;
+			return claimed;
+		}
+
+		public synchronized void release(int threads) {
+			used -= threads;
+			notifyAll();
+		}
+
+	}
+
+	private static final Identifier NUM_THREADS = Identifier.id("num_threads");
+
+	/**
+	 * @return the number of threads the algorithm is configured to use itself,
+	 *         or 1 if it has no 'num_threads' parameter
+	 */
+	private static int requestedThreads(MiningAlgorithm algorithm) {
+		Optional<Parameter<?>> parameter = algorithm.parameter(NUM_THREADS);
+		if (parameter.isPresent() && parameter.get().current() instanceof Integer) {
+			return (Integer) parameter.get().current();
+		}
+		return 1;
+	}
+
 	protected final Map<String, InterpreterVariable> variables = new HashMap<>();
 
 	protected final Parser parser;
@@ -102,15 +187,24 @@ public abstract class AbstractInterpreter implements Interpreter {
 	protected final ExecutorService executor;
 	protected final Workspace workspace;
 	private final InterpreterVariable logfile;
+	private final InterpreterVariable threads;
+	private final ThreadPoolExecutor pool;
+	private final ThreadBudget threadBudget;
 
 	public AbstractInterpreter(Workspace workspace, Iterator<AlgorithmProvider> algorithmProviders,
 			Iterator<FunctionProvider> functionProviders, Iterator<ConstantProvider> constantProviders) {
 		this.logfile=new LogFileVar();
 		this.variables.put(logfile.name, logfile);
+		this.threads = new ThreadsVar();
+		this.variables.put(threads.name, threads);
 		this.workspace = workspace;
 		this.parser = new Parser(workspace, algorithmProviders, functionProviders, constantProviders);
 		this.jobs = new ArrayList<>();
-		this.executor = Executors.newFixedThreadPool(4);
+		int processors = Runtime.getRuntime().availableProcessors();
+		this.pool = new ThreadPoolExecutor(processors, processors, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		this.executor = pool;
+		this.threadBudget = new ThreadBudget(processors);
 	}
 
 	public void interpret(Scanner scanner) throws Exception {
@@ -182,12 +276,46 @@ public abstract class AbstractInterpreter implements Interpreter {
 
 	@Override
 	public void runJob(MiningAlgorithm algorithm, Identifier resultId) {
+		if (workspace.contains(resultId)) {
+			throw new IllegalArgumentException("workspace already contains entity with id '" + resultId + "'");
+		}
 		jobs.add(algorithm);
-		Future<Identifiable> result = executor.submit(
-				() -> new NamedPatternCollection(resultId, "Results of " + algorithm.caption(), "", algorithm.call()));
+		int requested = requestedThreads(algorithm);
+		Future<Identifiable> result = executor.submit(() -> {
+			int claimed = threadBudget.acquire(requested);
+			long start = System.nanoTime();
+			boolean success = false;
+			try {
+				NamedPatternCollection collection = new NamedPatternCollection(resultId,
+						"Results of " + algorithm.caption(), "", algorithm.call());
+				success = true;
+				return collection;
+			} finally {
+				threadBudget.release(claimed);
+				jobFinished(algorithm, resultId, (System.nanoTime() - start) / 1000000, success);
+			}
+		});
 		workspace.addFuture(resultId, result);
 	}
 
+	/**
+	 * Called from the executing thread when a job started via
+	 * {@link #runJob(MiningAlgorithm, Identifier)} has finished.
+	 * 
+	 * @param algorithm
+	 *            the algorithm run by the job
+	 * @param resultId
+	 *            the identifier reserved for the result of the job
+	 * @param millis
+	 *            the running time of the job in milliseconds (excluding time
+	 *            spent waiting for threads)
+	 * @param success
+	 *            whether the job terminated without an exception
+	 */
+	protected void jobFinished(MiningAlgorithm algorithm, Identifier resultId, long millis, boolean success) {
+		LOGGER.info(() -> String.format("job '%s' %s after %d ms", resultId, success ? "finished" : "failed", millis));
+	}
+
 	@Override
 	public void printJobs() {
 		System.out.println("List of jobs");
@@ -24,24 +24,218 @@
  */
 package de.unibonn.realkd.lang;
 
-import java.io.BufferedReader;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import de.unibonn.realkd.algorithms.AlgorithmProvider;
+import de.unibonn.realkd.algorithms.MiningAlgorithm;
+import de.unibonn.realkd.common.base.Identifier;
 import de.unibonn.realkd.common.workspace.Workspaces;
 
 /**
+ * Interpreter for script files. Statements are scheduled according to the
+ * data dependencies between them: a statement is executed as soon as all
+ * statements that define the names it refers to are complete, such that
+ * independent algorithm runs can proceed in parallel and statements that only
+ * depend on finished runs are not held up by unrelated running jobs. A
+ * statement that (re-)defines a name additionally waits for all preceding
+ * statements defining or referring to that name. If a statement fails, all
+ * preceding statements are still carried out before the error is reported.
+ * 
  * @author mboley
+ * 
+ * @since 0.3.0
+ * 
+ * @version 0.7.2
  *
  */
 public class BatchInterpreter extends AbstractInterpreter {
 
+	private static final Pattern TOKEN = Pattern.compile("\"([^\"]*)\"|([A-Za-z_][A-Za-z0-9_]*)");
+
+	private static final Pattern DEFINITION = Pattern.compile("^\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*=");
+
+	private static final Pattern ADD_ID = Pattern.compile("\\bid\\s*=\\s*\"([^\"]*)\"");
+
+	private static final Pattern RUN_ID = Pattern.compile("^\\s*run\\s+\\S+\\s+\"([^\"]*)\"");
+
+	private static final Pattern EXPORT_FILE = Pattern.compile("^\\s*export\\b.*\"([^\"]*)\"\\s*$");
+
+	private static final Set<String> BARRIERS = ImmutableSet.of("exit", "jobs", "set");
+
+	/**
+	 * Statement keywords and connectives of the script language; these are
+	 * never names of entities
+	 */
+	private static final Set<String> RESERVED_WORDS = ImmutableSet.of("add", "exit", "export", "jobs", "run", "set",
+			"of", "with");
+
+	/**
+	 * Inputs and outputs of a single script line as determined lexically: outputs
+	 * are the names a line defines (name definitions, ids of added entities,
+	 * result ids of runs, and target files of exports), inputs are all other
+	 * names and string literals it mentions except reserved words.
+	 */
+	static class ScriptStatement {
+
+		final int lineNumber;
+
+		final String line;
+
+		final String keyword;
+
+		final Set<String> inputs = new HashSet<>();
+
+		final Set<String> outputs = new HashSet<>();
+
+		final Set<ScriptStatement> dependencies = new HashSet<>();
+
+		boolean issued = false;
+
+		boolean complete = false;
+
+		ScriptStatement(int lineNumber, String line) {
+			this.lineNumber = lineNumber;
+			this.line = line;
+			Matcher definition = DEFINITION.matcher(line);
+			Matcher keywordMatcher = TOKEN.matcher(line);
+			this.keyword = keywordMatcher.lookingAt() && keywordMatcher.group(2) != null ? keywordMatcher.group(2) : "";
+			if (definition.find()) {
+				outputs.add(definition.group(1));
+			} else if (keyword.equals("add")) {
+				Matcher id = ADD_ID.matcher(line);
+				if (id.find()) {
+					outputs.add(id.group(1));
+				}
+			} else if (keyword.equals("run")) {
+				Matcher id = RUN_ID.matcher(line);
+				if (id.find()) {
+					outputs.add(id.group(1));
+				}
+			} else if (keyword.equals("export")) {
+				Matcher file = EXPORT_FILE.matcher(line);
+				if (file.find()) {
+					outputs.add(file.group(1));
+				}
+			}
+			Matcher tokens = TOKEN.matcher(line);
+			while (tokens.find()) {
+				if (tokens.group(2) != null && RESERVED_WORDS.contains(tokens.group(2))) {
+					continue;
+				}
+				String name = tokens.group(1) != null ? tokens.group(1) : tokens.group(2);
+				if (!outputs.contains(name)) {
+					inputs.add(name);
+				}
+			}
+		}
+
+		boolean isRun() {
+			return keyword.equals("run");
+		}
+
+		boolean isBarrier() {
+			return BARRIERS.contains(keyword);
+		}
+
+		boolean ready() {
+			return dependencies.stream().allMatch(d -> d.complete);
+		}
+
+	}
+
+	/**
+	 * Determines the dependencies between the statements of a script. A
+	 * statement depends on the last preceding statement defining each of its
+	 * inputs and, for each of its outputs, on the last preceding statement
+	 * defining that output as well as on all statements referring to it since
+	 * then. Since algorithms resolve their parameters implicitly from the
+	 * workspace, runs additionally depend on all preceding 'add' statements.
+	 * All statements following a barrier depend on it.
+	 */
+	static List<ScriptStatement> analyse(List<String> lines) {
+		List<ScriptStatement> result = new ArrayList<>();
+		Map<String, ScriptStatement> lastDefinition = new HashMap<>();
+		Map<String, List<ScriptStatement>> readersSinceDefinition = new HashMap<>();
+		List<ScriptStatement> adds = new ArrayList<>();
+		ScriptStatement lastBarrier = null;
+		for (int i = 0; i < lines.size(); i++) {
+			String line = lines.get(i);
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+				continue;
+			}
+			ScriptStatement statement = new ScriptStatement(i + 1, line);
+			for (String input : statement.inputs) {
+				ScriptStatement definition = lastDefinition.get(input);
+				if (definition != null) {
+					statement.dependencies.add(definition);
+				}
+			}
+			for (String output : statement.outputs) {
+				ScriptStatement definition = lastDefinition.get(output);
+				if (definition != null) {
+					statement.dependencies.add(definition);
+				}
+				statement.dependencies.addAll(readersSinceDefinition.getOrDefault(output, ImmutableList.of()));
+			}
+			if (statement.isRun()) {
+				statement.dependencies.addAll(adds);
+			}
+			if (lastBarrier != null) {
+				statement.dependencies.add(lastBarrier);
+			}
+			if (statement.isBarrier()) {
+				lastBarrier = statement;
+			}
+			if (statement.keyword.equals("add")) {
+				adds.add(statement);
+			}
+			for (String input : statement.inputs) {
+				readersSinceDefinition.computeIfAbsent(input, k -> new ArrayList<>()).add(statement);
+			}
+			for (String output : statement.outputs) {
+				lastDefinition.put(output, statement);
+				readersSinceDefinition.remove(output);
+			}
+			result.add(statement);
+		}
+		return result;
+	}
+
+	/**
+	 * Number of unfinished jobs per statement
+	 */
+	private final Map<ScriptStatement, Integer> runningJobs = new HashMap<>();
+
+	/**
+	 * Statements that started the unfinished jobs of an algorithm
+	 */
+	private final Map<MiningAlgorithm, Deque<ScriptStatement>> jobStatements = new IdentityHashMap<>();
+
+	private final BlockingQueue<ScriptStatement> finishedJobs = new LinkedBlockingQueue<>();
+
+	private ScriptStatement current = null;
+
 	BatchInterpreter(Iterator<AlgorithmProvider> algorithmProviders, Iterator<FunctionProvider> functionProviders,
 			Iterator<ConstantProvider> constantProvider) {
 		super(Workspaces.workspace(), algorithmProviders, functionProviders, constantProvider);
@@ -59,22 +253,143 @@ public class BatchInterpreter extends AbstractInterpreter {
 	public void interpret(String filename) {
 		Path path = FileSystems.getDefault().getPath(filename);
 		try {
-			BufferedReader reader = Files.newBufferedReader(path);
-			String line = null;
-			while ((line = reader.readLine()) != null && !terminationRequested) {
-				System.out.println(">" + line);
-				Scanner input = new Scanner(line);
-				interpret(input);
+			List<ScriptStatement> statements = analyse(Files.readAllLines(path));
+			ScriptStatement failed = null;
+			Exception failure = null;
+			while (!terminationRequested) {
+				int limit = failed != null ? failed.lineNumber : Integer.MAX_VALUE;
+				ScriptStatement next = nextReady(statements, limit);
+				if (next != null) {
+					try {
+						execute(next);
+					} catch (Exception e) {
+						failed = next;
+						failure = e;
+					}
+				} else if (!runningJobs.isEmpty()) {
+					awaitJob();
+				} else {
+					break;
+				}
+			}
+			if (failure != null) {
+				throw failure;
 			}
 		} catch (Exception e) {
 			System.err.println("error: " + e.getMessage());
 			e.printStackTrace();
-		}
-		finally {
+		} finally {
 			executor.shutdown();
 		}
 	}
 
+	/**
+	 * @return first statement before line limit that has not been issued and
+	 *         whose dependencies are complete, or null if there is none;
+	 *         barriers are only ready once all preceding statements have been
+	 *         issued
+	 */
+	private static ScriptStatement nextReady(List<ScriptStatement> statements, int limit) {
+		boolean allPrecedingIssued = true;
+		for (ScriptStatement statement : statements) {
+			if (statement.lineNumber >= limit) {
+				break;
+			}
+			if (!statement.issued) {
+				if (statement.ready() && (allPrecedingIssued || !statement.isBarrier())) {
+					return statement;
+				}
+				allPrecedingIssued = false;
+			}
+		}
+		return null;
+	}
+
+	private void execute(ScriptStatement statement) throws Exception {
+		System.out.println(">" + statement.line);
+		statement.issued = true;
+		long start = System.nanoTime();
+		current = statement;
+		try {
+			interpret(new Scanner(statement.line));
+		} finally {
+			current = null;
+		}
+		boolean submitted;
+		synchronized (runningJobs) {
+			submitted = runningJobs.containsKey(statement);
+		}
+		if (!submitted) {
+			statement.complete = true;
+			System.out.println(String.format("(line %d done in %d ms)", statement.lineNumber,
+					(System.nanoTime() - start) / 1000000));
+		}
+	}
+
+	private void awaitJob() throws InterruptedException {
+		ScriptStatement statement = finishedJobs.take();
+		synchronized (runningJobs) {
+			int remaining = runningJobs.get(statement) - 1;
+			if (remaining > 0) {
+				runningJobs.put(statement, remaining);
+				return;
+			}
+			runningJobs.remove(statement);
+		}
+		statement.complete = true;
+	}
+
+	@Override
+	public void runJob(MiningAlgorithm algorithm, Identifier resultId) {
+		if (current == null) {
+			super.runJob(algorithm, resultId);
+			return;
+		}
+		synchronized (runningJobs) {
+			runningJobs.merge(current, 1, Integer::sum);
+			jobStatements.computeIfAbsent(algorithm, a -> new ArrayDeque<>()).addLast(current);
+		}
+		try {
+			super.runJob(algorithm, resultId);
+		} catch (RuntimeException e) {
+			synchronized (runningJobs) {
+				Deque<ScriptStatement> statements = jobStatements.get(algorithm);
+				statements.removeLastOccurrence(current);
+				if (statements.isEmpty()) {
+					jobStatements.remove(algorithm);
+				}
+				if (runningJobs.merge(current, -1, Integer::sum) == 0) {
+					runningJobs.remove(current);
+				}
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	protected void jobFinished(MiningAlgorithm algorithm, Identifier resultId, long millis, boolean success) {
+		System.out.println(String.format("(job '%s' %s in %d ms)", resultId, success ? "done" : "failed", millis));
+		ScriptStatement statement;
+		synchronized (runningJobs) {
+			statement = removeJobStatement(algorithm);
+		}
+		if (statement != null) {
+			finishedJobs.add(statement);
+		}
+	}
+
+	private ScriptStatement removeJobStatement(MiningAlgorithm algorithm) {
+		Deque<ScriptStatement> statements = jobStatements.get(algorithm);
+		if (statements == null) {
+			return null;
+		}
+		ScriptStatement result = statements.pollFirst();
+		if (statements.isEmpty()) {
+			jobStatements.remove(algorithm);
+		}
+		return result;
+	}
+
 	@Override
 	public Character readChar(String msg, Character defaultOption, ImmutableSet<Character> otherOptions) {
 		return defaultOption;
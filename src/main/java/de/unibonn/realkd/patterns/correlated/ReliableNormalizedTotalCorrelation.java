@@ -45,7 +45,6 @@ import de.unibonn.realkd.common.measures.Measurement;
 import de.unibonn.realkd.common.measures.Measures;
 import de.unibonn.realkd.patterns.MeasurementProcedure;
 import de.unibonn.realkd.patterns.models.table.ContingencyTable;
-import de.unibonn.realkd.patterns.models.table.ContingencyTables;
 import de.unibonn.realkd.util.InformationTheory;
 
 /**
@@ -85,13 +84,14 @@ public enum ReliableNormalizedTotalCorrelation
 		AttributeSetRelation descriptor = (AttributeSetRelation) object;
 		int numAttributes = descriptor.attributeSet().size();
 
-		List<Double> uniEntropies = IntStream.range(0, numAttributes)
-				.mapToObj(i -> descriptor.nWayContingencyTable().marginal(i).entropy()).collect(Collectors.toList());
-
-		List<Integer> domainSizes = IntStream.range(0, numAttributes)
-				.mapToObj(i -> descriptor.nWayContingencyTable().marginal(i).nonZeroCells().size())
+		ContingencyTable jointTable = descriptor.nWayContingencyTable();
+		List<ContingencyTable> marginals = IntStream.range(0, numAttributes).mapToObj(i -> jointTable.marginal(i))
 				.collect(Collectors.toList());
 
+		List<Double> uniEntropies = marginals.stream().map(m -> m.entropy()).collect(Collectors.toList());
+
+		List<Integer> domainSizes = marginals.stream().map(m -> m.domainSize()).collect(Collectors.toList());
+
 		int[] sortedIndices = IntStream.range(0, numAttributes).boxed()
 				.sorted((i, j) -> domainSizes.get(j).compareTo(domainSizes.get(i))).mapToInt(ele -> ele).toArray();
 
@@ -114,27 +114,19 @@ public enum ReliableNormalizedTotalCorrelation
 					measurement(JOINT_ENTROPY, sumOfEntropies), measurement(TOTAL_CORRELATION_NORMALIZER, NaN)));
 		}
 
-		int numSamples = descriptor.nWayContingencyTable().marginal(0).totalCount();
-		double sumMutualInfos = 0;
+		int numSamples = jointTable.totalCount();
+		double jointEntropy = jointTable.entropy();
+		// chain of mutual informations telescopes to sum of entropies minus joint
+		// entropy; no need to project the nested joint marginals
+		double sumMutualInfos = sumOfEntropies - jointEntropy;
 		double denominator = sumOfEntropies - maxEntropy;
 		double reliableNumerator = 0;
 		double prod = sortedDomainSizes.get(0);
 
-		ContingencyTable prevJointTable = descriptor.nWayContingencyTable().marginal(0);
-
-		for (int i = 1; i < descriptor.attributeSet().size(); i++) {
-
-			ContingencyTable jointContTable = descriptor.nWayContingencyTable()
-					.marginal(IntStream.rangeClosed(0, i).toArray());
-
-			ContingencyTable marginalTargetContTable = descriptor.nWayContingencyTable().marginal(i);
-			sumMutualInfos = sumMutualInfos
-					+ ContingencyTables.mutualInformation(jointContTable, prevJointTable, marginalTargetContTable);
-
+		for (int i = 1; i < numAttributes; i++) {
 			prod = prod * sortedDomainSizes.get(i);
 			reliableNumerator = reliableNumerator
 					+ Math.log((double) (numSamples + prod) / (numSamples - 1)) / Math.log(2);
-			prevJointTable = jointContTable;
 		}
 
 		return Measures.measurement(getMeasure(), ((sumMutualInfos - reliableNumerator) / denominator),
@@ -143,7 +135,7 @@ public enum ReliableNormalizedTotalCorrelation
 						measurement(SUM_OF_MUTUAL_INFORMATIONS, sumMutualInfos),
 						measurement(RELIABLE_NORMALIZED_TOTAL_CORRELATION_CORRECTION_TERM,
 								reliableNumerator / denominator),
-						measurement(TOTAL_CORRELATION_NORMALIZER, denominator)));
+						measurement(JOINT_ENTROPY, jointEntropy), measurement(TOTAL_CORRELATION_NORMALIZER, denominator)));
 	}
 
 	public Measurement perform(Object object, double sumMutualInfos, double sumOfEntropies, List<Integer> domSizes,
@@ -156,7 +148,7 @@ public enum ReliableNormalizedTotalCorrelation
 		int numAttributes = descriptor.attributeSet().size();
 
 		if (numAttributes < 2) {
-			perform(object);
+			return perform(object);
 		}
 
 		ContingencyTable jointTable = descriptor.nWayContingencyTable();
@@ -33,7 +33,6 @@ import de.unibonn.realkd.common.measures.Measurement;
 import de.unibonn.realkd.common.measures.Measures;
 import de.unibonn.realkd.patterns.MeasurementProcedure;
 import de.unibonn.realkd.patterns.models.table.ContingencyTable;
-import de.unibonn.realkd.patterns.models.table.ContingencyTables;
 import de.unibonn.realkd.util.InformationTheory;
 
 /**
@@ -85,16 +84,12 @@ public enum TotalCorrelation implements CorrelationMeasure, MeasurementProcedure
 			return Measures.measurement(getMeasure(), 0);
 		}
 
-		double numerator = 0;
-		for (int i = 1; i < descriptor.attributeSet().size(); i++) {
-
-			ContingencyTable jointContTable = descriptor.nWayContingencyTable()
-					.marginal(IntStream.rangeClosed(0, i).toArray());
-			ContingencyTable marginalConditionalContTable = descriptor.nWayContingencyTable()
-					.marginal(IntStream.range(0, i).toArray());
-			ContingencyTable marginalTargetContTable = descriptor.nWayContingencyTable().marginal(i);
-			numerator = numerator + ContingencyTables.mutualInformation(jointContTable, marginalConditionalContTable,
-					marginalTargetContTable);
+		// the chain of mutual informations I(X_0..X_{i-1};X_i) telescopes to the
+		// sum of univariate entropies minus the joint entropy
+		ContingencyTable jointContTable = descriptor.nWayContingencyTable();
+		double numerator = -jointContTable.entropy();
+		for (int i = 0; i < numAttributes; i++) {
+			numerator = numerator + jointContTable.marginal(i).entropy();
 		}
 
 		return Measures.measurement(getMeasure(), numerator);
@@ -110,7 +105,7 @@ public enum TotalCorrelation implements CorrelationMeasure, MeasurementProcedure
 		int numAttributes = descriptor.attributeSet().size();
 
 		if (numAttributes < 3) {
-			perform(object);
+			return perform(object);
 		}
 
 		ContingencyTable conditionalMarginal = descriptor.nWayContingencyTable()
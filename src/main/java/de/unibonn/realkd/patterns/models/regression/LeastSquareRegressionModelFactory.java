@@ -27,34 +27,39 @@ package de.unibonn.realkd.patterns.models.regression;
 import static java.lang.Math.abs;
 import static java.lang.Math.max;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.function.DoubleBinaryOperator;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.linear.SingularValueDecomposition;
 
 import de.unibonn.realkd.common.IndexSet;
-import de.unibonn.realkd.common.optimization.StochasticCoordinateDescent;
 import de.unibonn.realkd.data.table.DataTable;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.data.table.attribute.MetricAttribute;
 import de.unibonn.realkd.patterns.models.ModelFactory;
-import de.unibonn.realkd.util.Lists;
 
 /**
  * <p>
  * Fits a linear regression model between two metric attributes that minimizes
- * the squared error. Note that optimization is done only approximately by
- * stochastic coordinate descent. Hence, model parameters will vary between
- * different runs.
+ * the squared error. The normal equations are accumulated as sufficient
+ * statistics (X^TX and X^Ty of the normalized data) in one pass over the
+ * primitive value columns of the rows (in parallel for large row sets) and
+ * solved exactly by Cholesky decomposition. For degenerate data (e.g., constant
+ * covariate) the minimum norm solution is used.
  * </p>
  * 
  * @author Mario Boley
  * 
  * @since 0.3.0
  * 
- * @version 0.3.0
+ * @version 0.7.2
  *
  */
 public enum LeastSquareRegressionModelFactory implements ModelFactory<LinearRegressionModel> {
@@ -63,7 +68,7 @@ public enum LeastSquareRegressionModelFactory implements ModelFactory<LinearRegr
 	
 	private static final Logger LOGGER = Logger.getLogger(ModelFactory.class.getName());
 
-	private static final DoubleBinaryOperator SQUARE_LOSS_DERIVATIVE = (s, l) -> s - l;
+	private static final int MIN_ROWS_FOR_PARALLEL_ACCUMULATION = 1 << 14;
 
 	@Override
 	public Class<? extends LinearRegressionModel> modelClass() {
@@ -75,34 +80,90 @@ public enum LeastSquareRegressionModelFactory implements ModelFactory<LinearRegr
 		return this.getModel(dataTable, attributes, dataTable.population().objectIds());
 	}
 
-	private class TrainingData {
+	/**
+	 * Sums of outer products of augmented examples (1, x_1, ..., x_{p-1}) and
+	 * of their products with the label for rows without missing values.
+	 */
+	private static class SufficientStatistics {
+
+		private final double[][] gram;
 
-		public final List<List<Double>> examples;
+		private final double[] moments;
 
-		public final List<Double> labels;
+		private int count;
+
+		private SufficientStatistics(int dimension) {
+			this.gram = new double[dimension][dimension];
+			this.moments = new double[dimension];
+			this.count = 0;
+		}
 
-		public TrainingData(List<List<Double>> examples, List<Double> labels) {
-			this.examples = examples;
-			this.labels = labels;
+		private void add(double[][] columns, double[] factors, int row) {
+			int dimension = moments.length;
+			double[] example = new double[dimension];
+			example[0] = 1.0;
+			for (int i = 1; i < dimension; i++) {
+				example[i] = columns[i - 1][row] / factors[i - 1];
+			}
+			double label = columns[dimension - 1][row] / factors[dimension - 1];
+			for (int i = 0; i < dimension; i++) {
+				if (Double.isNaN(example[i])) {
+					return;
+				}
+			}
+			if (Double.isNaN(label)) {
+				return;
+			}
+			for (int i = 0; i < dimension; i++) {
+				for (int j = 0; j <= i; j++) {
+					gram[i][j] += example[i] * example[j];
+				}
+				moments[i] += example[i] * label;
+			}
+			count++;
+		}
+
+		private void combine(SufficientStatistics other) {
+			for (int i = 0; i < moments.length; i++) {
+				for (int j = 0; j <= i; j++) {
+					gram[i][j] += other.gram[i][j];
+				}
+				moments[i] += other.moments[i];
+			}
+			count += other.count;
+		}
+
+		private double[] solve() {
+			int dimension = moments.length;
+			RealMatrix matrix = new Array2DRowRealMatrix(dimension, dimension);
+			for (int i = 0; i < dimension; i++) {
+				for (int j = 0; j <= i; j++) {
+					matrix.setEntry(i, j, gram[i][j]);
+					matrix.setEntry(j, i, gram[i][j]);
+				}
+			}
+			RealVector rightHandSide = new ArrayRealVector(moments);
+			try {
+				return new CholeskyDecomposition(matrix).getSolver().solve(rightHandSide).toArray();
+			} catch (NonPositiveDefiniteMatrixException e) {
+				return new SingularValueDecomposition(matrix).getSolver().solve(rightHandSide).toArray();
+			}
 		}
 
 	}
 
-	private TrainingData trainingData(DataTable dataTable, List<? extends Attribute<?>> attributes, IndexSet rows) {
-		List<MetricAttribute> covariates = attributes.subList(0, attributes.size() - 1).stream()
-				.map(a -> (MetricAttribute) a).collect(Collectors.toList());
-		MetricAttribute regressand = (MetricAttribute) attributes.get(attributes.size() - 1);
-
-		List<List<Double>> examples = new ArrayList<>();
-		List<Double> labels = new ArrayList<>();
-		StreamSupport.stream(rows.spliterator(), false).filter(r -> !dataTable.atLeastOneAttributeValueMissingFor(r, attributes)).forEach(r -> {
-			List<Double> example = new ArrayList<>();
-			example.add(1.0);
-			covariates.forEach(a -> example.add(a.value(r) / normalizationFactor(a)));
-			examples.add(example);
-			labels.add(regressand.value(r) / normalizationFactor(regressand));
-		});
-		return new TrainingData(examples, labels);
+	private SufficientStatistics sufficientStatistics(List<? extends Attribute<?>> attributes, IndexSet rows) {
+		double[][] columns = new double[attributes.size()][];
+		double[] factors = new double[attributes.size()];
+		for (int i = 0; i < attributes.size(); i++) {
+			MetricAttribute attribute = (MetricAttribute) attributes.get(i);
+			columns[i] = attribute.primitiveValues();
+			factors[i] = normalizationFactor(attribute);
+		}
+		IntStream stream = rows.size() >= MIN_ROWS_FOR_PARALLEL_ACCUMULATION ? rows.stream().parallel()
+				: rows.stream();
+		return stream.collect(() -> new SufficientStatistics(attributes.size()),
+				(statistics, row) -> statistics.add(columns, factors, row), SufficientStatistics::combine);
 	}
 
 	public double normalizationFactor(MetricAttribute a) {
@@ -111,23 +172,13 @@ public enum LeastSquareRegressionModelFactory implements ModelFactory<LinearRegr
 
 	@Override
 	public LinearRegressionModel getModel(DataTable dataTable, List<? extends Attribute<?>> attributes, IndexSet rows) {
-		TrainingData trainingData = trainingData(dataTable, attributes, rows);
-		LOGGER.fine(() -> "created: " + trainingData.examples.size() + " examples and " + trainingData.labels.size()
-				+ " labels");
-		List<Double> weights = new ArrayList<>();
+		SufficientStatistics statistics = sufficientStatistics(attributes, rows);
+		LOGGER.fine(() -> "accumulated statistics of " + statistics.count + " examples");
 		// one weight per attribute - 1 for the regressand +1 for the augmented
 		// input space
-		for (int i = 0; i < attributes.size(); i++) {
-			weights.add(0.0);
-		}
-		if (trainingData.examples.size() > 1) {
-			final int inverseAccuracy = 100;
-			StochasticCoordinateDescent.stochasticCoordinateDescent(SQUARE_LOSS_DERIVATIVE, weights,
-					trainingData.examples, trainingData.labels, Lists.generatorBackedList(i -> 0.0, weights.size()), 1,
-					0.0, weights.size() * trainingData.examples.size() * inverseAccuracy);
-		}
-		final Double slope = weights.get(1);
-		final Double intercept = weights.get(0);
+		double[] weights = statistics.count > 1 ? statistics.solve() : new double[attributes.size()];
+		final Double slope = weights[1];
+		final Double intercept = weights[0];
 		LOGGER.fine(() -> "fitted slope/intercept: "
 				+ slope * normalizationFactor((MetricAttribute) attributes.get(1))
 						/ normalizationFactor((MetricAttribute) attributes.get(0))
@@ -0,0 +1,443 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Bonn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package de.unibonn.realkd.patterns.models.regression;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>
+ * Median of the slopes of all pairs of points with distinct x-coordinates
+ * (Theil-Sen slope estimate) without materializing the quadratically many
+ * slopes.
+ * </p>
+ * <p>
+ * For points sorted by x, the slope of a pair i&lt;j is at most t if and only
+ * if y_j - t x_j &lt;= y_i - t x_i. Hence, the number of slopes at most t is
+ * the number of inversions of the sequence y - t x, which is counted in time
+ * O(n log n) by merge sort. The order statistics of the slopes are located by
+ * narrowing an interval (lo, hi] first with the quantiles of a random sample
+ * of slopes and then by bisection, until the interval contains only O(n)
+ * slopes. These are exactly the pairs that are not inverted w.r.t. lo but
+ * inverted w.r.t. hi, which are listed in one more merge sort pass and
+ * selected from directly.
+ * </p>
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public final class MedianSlopes {
+
+	private static final long SEED = 1907;
+
+	private static final int MIN_CANDIDATES = 64;
+
+	private static final int MAX_SAMPLE_SIZE = 1 << 16;
+
+	private static final int MAX_VALUE_BISECTIONS = 64;
+
+	private MedianSlopes() {
+		;
+	}
+
+	/**
+	 * @return exact median of the slopes of all pairs with distinct x (with
+	 *         the mean of the two middle slopes for an even number of pairs) or
+	 *         0 if there is no such pair
+	 */
+	public static double medianSlope(double[] x, double[] y) {
+		return new Arrangement(x, y, 0).median();
+	}
+
+	/**
+	 * Approximate median slope that is allowed to deviate from the exact
+	 * median by (roughly) the given tolerance relative to its magnitude. This
+	 * can save most of the bisection steps for large inputs.
+	 * 
+	 * @param relativeTolerance
+	 *            non-negative tolerance; 0 gives the exact median
+	 */
+	public static double approximateMedianSlope(double[] x, double[] y, double relativeTolerance) {
+		if (relativeTolerance < 0) {
+			throw new IllegalArgumentException("relative tolerance must be non-negative: " + relativeTolerance);
+		}
+		return new Arrangement(x, y, relativeTolerance).median();
+	}
+
+	/**
+	 * Number of slopes at most some t and the order of points by (y - t x, x
+	 * group) resulting from counting them.
+	 */
+	private static class Probe {
+
+		private final double t;
+
+		private final long count;
+
+		private final int[] order;
+
+		private Probe(double t, long count, int[] order) {
+			this.t = t;
+			this.count = count;
+			this.order = order;
+		}
+
+	}
+
+	private static class Arrangement {
+
+		private final int n;
+
+		private final double[] xs;
+
+		private final double[] ys;
+
+		/*
+		 * index of group of points with equal x-coordinate
+		 */
+		private final int[] group;
+
+		private final long numberOfPairs;
+
+		private final double tolerance;
+
+		private final double[] sample;
+
+		private final int[] buffer;
+
+		private Arrangement(double[] x, double[] y, double tolerance) {
+			if (x.length != y.length) {
+				throw new IllegalArgumentException("coordinate arrays must have equal length");
+			}
+			this.n = x.length;
+			this.tolerance = tolerance;
+			this.buffer = new int[n];
+			Integer[] byX = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				byX[i] = i;
+			}
+			Arrays.sort(byX, (i, j) -> x[i] != x[j] ? Double.compare(x[i], x[j]) : Double.compare(y[i], y[j]));
+			this.xs = new double[n];
+			this.ys = new double[n];
+			this.group = new int[n];
+			long pairsWithEqualX = 0;
+			int groupSize = 0;
+			for (int i = 0; i < n; i++) {
+				xs[i] = x[byX[i]];
+				ys[i] = y[byX[i]];
+				if (i > 0 && xs[i] == xs[i - 1]) {
+					group[i] = group[i - 1];
+					pairsWithEqualX += groupSize;
+					groupSize++;
+				} else {
+					group[i] = i == 0 ? 0 : group[i - 1] + 1;
+					groupSize = 1;
+				}
+			}
+			this.numberOfPairs = (long) n * (n - 1) / 2 - pairsWithEqualX;
+			this.sample = sample(new Random(SEED), (int) Math.min(n, MAX_SAMPLE_SIZE));
+		}
+
+		private double[] sample(Random random, int size) {
+			double[] result = new double[size];
+			int k = 0;
+			for (int attempt = 0; attempt < 2 * size && k < size; attempt++) {
+				int i = random.nextInt(n);
+				int j = random.nextInt(n);
+				if (xs[i] != xs[j]) {
+					result[k++] = (ys[j] - ys[i]) / (xs[j] - xs[i]);
+				}
+			}
+			result = Arrays.copyOf(result, k);
+			Arrays.sort(result);
+			return result;
+		}
+
+		private double median() {
+			if (numberOfPairs == 0) {
+				return 0.0;
+			}
+			double[] middle = select((numberOfPairs - 1) / 2, numberOfPairs / 2);
+			return middle[0] + (middle[1] - middle[0]) / 2;
+		}
+
+		/**
+		 * @return k1-th and k2-th smallest slope (0-based) for k1 &lt;= k2 &lt;=
+		 *         k1 + 1
+		 */
+		private double[] select(long k1, long k2) {
+			double bound = slopeBound();
+			Interval interval = new Interval(probe(-bound), probe(bound), k1, k2);
+
+			if (sample.length > 0) {
+				double delta = 2 / Math.sqrt(sample.length);
+				int a = (int) Math.floor(((k1 + 0.5) / numberOfPairs - delta) * sample.length);
+				int b = (int) Math.ceil(((k2 + 0.5) / numberOfPairs + delta) * sample.length);
+				if (a >= 0 && !interval.narrow(sample[a]) || b < sample.length && !interval.narrow(sample[b])) {
+					return interval.split();
+				}
+			}
+
+			int limit = max(n, MIN_CANDIDATES);
+			int bisections = 0;
+			boolean interpolate = true;
+			while (interval.size() > limit) {
+				Probe lo = interval.lo;
+				Probe hi = interval.hi;
+				if (tolerance > 0 && hi.t - lo.t <= tolerance * max(abs(lo.t), abs(hi.t))) {
+					double t = lo.t / 2 + hi.t / 2;
+					return new double[] { t, t };
+				}
+				long size = interval.size();
+				if (interpolate) {
+					/*
+					 * aim at a window of about limit/2 slopes around the target
+					 * ranks assuming locally uniform slope density
+					 */
+					double width = hi.t - lo.t;
+					if (!interval.narrow(lo.t + width * (k1 - limit / 4 - lo.count) / size)
+							|| !interval.narrow(lo.t + width * (k2 + limit / 4 - lo.count) / size)) {
+						return interval.split();
+					}
+				} else {
+					double t = bisections++ < MAX_VALUE_BISECTIONS ? lo.t / 2 + hi.t / 2 : bitMidpoint(lo.t, hi.t);
+					if (t <= lo.t || t >= hi.t) {
+						// adjacent doubles: all remaining slopes are numerically hi
+						return new double[] { hi.t, hi.t };
+					}
+					if (!interval.narrow(t)) {
+						return interval.split();
+					}
+				}
+				interpolate = interval.size() <= size / 2;
+			}
+
+			double[] candidates = candidates(interval.lo, interval.hi);
+			if (candidates.length == 0) {
+				return new double[] { interval.hi.t, interval.hi.t };
+			}
+			Arrays.sort(candidates);
+			return new double[] { candidates[interval.rank(k1, candidates.length)],
+					candidates[interval.rank(k2, candidates.length)] };
+		}
+
+		/**
+		 * Slope interval (lo, hi] containing the slopes of ranks k1 and k2.
+		 */
+		private class Interval {
+
+			private Probe lo;
+
+			private Probe hi;
+
+			private final long k1;
+
+			private final long k2;
+
+			private Interval(Probe lo, Probe hi, long k1, long k2) {
+				this.lo = lo;
+				this.hi = hi;
+				this.k1 = k1;
+				this.k2 = k2;
+			}
+
+			private long size() {
+				return hi.count - lo.count;
+			}
+
+			/**
+			 * Narrows the interval by probing t if t lies within.
+			 * 
+			 * @return false if t separates the two ranks, in which case the
+			 *         interval is not changed
+			 */
+			private boolean narrow(double t) {
+				if (!(t > lo.t && t < hi.t)) {
+					return true;
+				}
+				Probe probe = probe(t);
+				if (probe.count > k2) {
+					hi = probe;
+				} else if (probe.count <= k1) {
+					lo = probe;
+				} else {
+					return false;
+				}
+				return true;
+			}
+
+			private double[] split() {
+				return new double[] { select(k1, k1)[0], select(k2, k2)[0] };
+			}
+
+			private int rank(long k, int numberOfCandidates) {
+				return (int) Math.min(Math.max(k - lo.count, 0), numberOfCandidates - 1);
+			}
+
+		}
+
+		/*
+		 * bound on the absolute value of all slopes (enlarged such that probing
+		 * it is numerically safe)
+		 */
+		private double slopeBound() {
+			double minGap = Double.POSITIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < n; i++) {
+				if (i > 0 && xs[i] != xs[i - 1]) {
+					minGap = Math.min(minGap, xs[i] - xs[i - 1]);
+				}
+				minY = Math.min(minY, ys[i]);
+				maxY = Math.max(maxY, ys[i]);
+			}
+			return 2 * (maxY - minY) / minGap + 1;
+		}
+
+		private static double bitMidpoint(double a, double b) {
+			long l = sortableBits(a);
+			long h = sortableBits(b);
+			return Double.longBitsToDouble(sortableBits((l >> 1) + (h >> 1) + (l & h & 1)));
+		}
+
+		/*
+		 * maps doubles to longs and back such that long order equals double
+		 * order (the mapping is an involution)
+		 */
+		private static long sortableBits(double value) {
+			long bits = Double.doubleToRawLongBits(value);
+			return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		}
+
+		private static long sortableBits(long bits) {
+			return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		}
+
+		private Probe probe(double t) {
+			double[] key = new double[n];
+			int[] order = new int[n];
+			for (int i = 0; i < n; i++) {
+				key[i] = ys[i] - t * xs[i];
+				order[i] = i;
+			}
+			long count = mergeSort(order, 0, n, key, null);
+			return new Probe(t, count, order);
+		}
+
+		/**
+		 * Slopes of all pairs that are not inverted w.r.t. lo but w.r.t. hi,
+		 * i.e., (numerically) the slopes in (lo, hi]. In the order of lo these
+		 * are the pairs i before j with i&lt;j in x-order and j before i
+		 * w.r.t. the key of hi.
+		 */
+		private double[] candidates(Probe lo, Probe hi) {
+			double[] key = new double[n];
+			for (int i = 0; i < n; i++) {
+				key[i] = ys[i] - hi.t * xs[i];
+			}
+			SlopeCollector collector = new SlopeCollector((int) (hi.count - lo.count));
+			mergeSort(lo.order.clone(), 0, n, key, collector);
+			return collector.slopes();
+		}
+
+		private class SlopeCollector {
+
+			private double[] slopes;
+
+			private int size = 0;
+
+			private SlopeCollector(int capacity) {
+				slopes = new double[Math.max(capacity, 16)];
+			}
+
+			private void accept(int i, int j) {
+				if (i < j && xs[i] != xs[j]) {
+					if (size == slopes.length) {
+						slopes = Arrays.copyOf(slopes, 2 * size);
+					}
+					slopes[size++] = (ys[j] - ys[i]) / (xs[j] - xs[i]);
+				}
+			}
+
+			private double[] slopes() {
+				return Arrays.copyOf(slopes, size);
+			}
+
+		}
+
+		/*
+		 * point j is smaller than i if its key is smaller or equal with j being
+		 * in a later x-group; points with equal x are thus never inverted
+		 */
+		private boolean less(int j, int i, double[] key) {
+			return key[j] < key[i] || (key[j] == key[i] && group[j] > group[i]);
+		}
+
+		/**
+		 * Stable merge sort of a range of points by key that counts and
+		 * optionally reports the inversions (pairs of which the later is
+		 * smaller).
+		 */
+		private long mergeSort(int[] points, int from, int to, double[] key, SlopeCollector inversions) {
+			if (to - from < 2) {
+				return 0;
+			}
+			int mid = (from + to) >>> 1;
+			long result = mergeSort(points, from, mid, key, inversions) + mergeSort(points, mid, to, key, inversions);
+			int i = from;
+			int j = mid;
+			int k = from;
+			while (i < mid && j < to) {
+				if (less(points[j], points[i], key)) {
+					result += mid - i;
+					if (inversions != null) {
+						for (int l = i; l < mid; l++) {
+							inversions.accept(points[l], points[j]);
+						}
+					}
+					buffer[k++] = points[j++];
+				} else {
+					buffer[k++] = points[i++];
+				}
+			}
+			while (i < mid) {
+				buffer[k++] = points[i++];
+			}
+			while (j < to) {
+				buffer[k++] = points[j++];
+			}
+			System.arraycopy(buffer, from, points, from, to - from);
+			return result;
+		}
+
+	}
+
+}
@@ -24,7 +24,7 @@
 
 package de.unibonn.realkd.patterns.models.regression;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.google.common.math.Quantiles;
@@ -79,46 +79,36 @@ public enum TheilSenLinearRegressionModelFactory implements ModelFactory<LinearR
 	}
 
 	private LinearRegressionModel createModel(DataTable dataTable, List<? extends Attribute<?>> attributes, IndexSet rows) {
-		List<Double> covariateValues = new ArrayList<>();
-		List<Double> regressandValues = new ArrayList<>();
+		MetricAttribute covariate = (MetricAttribute) attributes.get(0);
+		MetricAttribute regressand = (MetricAttribute) attributes.get(1);
+		double[] covariateValues = new double[rows.size()];
+		double[] regressandValues = new double[rows.size()];
+		int size = 0;
 		for (int row : rows) {
-			if (attributes.get(0).valueMissing(row) || attributes.get(1).valueMissing(row)) {
+			if (covariate.valueMissing(row) || regressand.valueMissing(row)) {
 				continue;
 			}
-			covariateValues.add(((MetricAttribute) attributes.get(0)).value(row));
-			regressandValues.add(((MetricAttribute) attributes.get(1)).value(row));
+			covariateValues[size] = covariate.value(row);
+			regressandValues[size] = regressand.value(row);
+			size++;
 		}
+		covariateValues = Arrays.copyOf(covariateValues, size);
+		regressandValues = Arrays.copyOf(regressandValues, size);
 
-		double slope = estimateSlope(covariateValues, regressandValues);
+		double slope = MedianSlopes.medianSlope(covariateValues, regressandValues);
 		double intercept = estimateIntercept(slope, covariateValues, regressandValues);
 		return new LinearRegressionModel(slope, intercept);
 	}
 
-	private Double estimateSlope(List<Double> covariateValues, List<Double> regressandValues) {
-		List<Double> slopes = new ArrayList<>();
-		for (int i = 0; i < covariateValues.size() - 1; i++) {
-			for (int j = i + 1; j < covariateValues.size(); j++) {
-				double covDiff = covariateValues.get(j) - covariateValues.get(i);
-				if (covDiff != 0d) {
-					slopes.add((regressandValues.get(j) - regressandValues.get(i)) / covDiff);
-				}
-			}
-		}
-		if (slopes.size() > 0) {
-			return Quantiles.median().compute(slopes);
-		}
-		return 0.0;
-	}
-
-	private Double estimateIntercept(double slope, List<Double> covariateValues, List<Double> regressandValues) {
-		List<Double> intercepts = new ArrayList<>();
-		for (int i = 0; i < covariateValues.size(); i++) {
-			intercepts.add(regressandValues.get(i) - slope * covariateValues.get(i));
+	private double estimateIntercept(double slope, double[] covariateValues, double[] regressandValues) {
+		if (covariateValues.length == 0) {
+			return 0.0;
 		}
-		if (intercepts.size() > 0) {
-			return Quantiles.median().compute(intercepts);
+		double[] intercepts = new double[covariateValues.length];
+		for (int i = 0; i < covariateValues.length; i++) {
+			intercepts[i] = regressandValues[i] - slope * covariateValues[i];
 		}
-		return 0.0;
+		return Quantiles.median().computeInPlace(intercepts);
 	}
 
 	@Override
@@ -42,7 +42,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -54,7 +53,6 @@ import de.unibonn.realkd.common.measures.Measurement;
 import de.unibonn.realkd.common.measures.Measures;
 import de.unibonn.realkd.patterns.models.ModelParameter;
 import de.unibonn.realkd.patterns.models.ProbabilisticModel;
-import de.unibonn.realkd.util.InformationTheory;
 
 /**
  * 
@@ -92,8 +90,7 @@ public class ContingencyTableImplementation implements ContingencyTable {
 	}
 
 	private double computeEntropy() {
-		DoubleStream probabilities = table.nonZeroCells().stream().mapToDouble(key -> probability(key));
-		return InformationTheory.entropy(probabilities);
+		return table.entropy();
 	}
 
 	@Override
@@ -228,9 +225,13 @@ public class ContingencyTableImplementation implements ContingencyTable {
 		return table.total();
 	}
 
+	int[] nonZeroCounts() {
+		return table.nonZeroCounts();
+	}
+
 	@Override
 	public int domainSize() {
-		return table.nonZeroCells().size();
+		return table.numberOfNonZeroCells();
 	}
 
 }
\ No newline at end of file
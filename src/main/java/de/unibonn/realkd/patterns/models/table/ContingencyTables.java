@@ -25,10 +25,12 @@
 package de.unibonn.realkd.patterns.models.table;
 
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
+import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.IntStream.range;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -38,9 +40,13 @@ import java.util.stream.Collectors;
 
 import org.apache.commons.math3.distribution.HypergeometricDistribution;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 
 import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
 import de.unibonn.realkd.data.table.DataTable;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 import de.unibonn.realkd.data.table.attribute.CategoricAttribute;
@@ -61,6 +67,16 @@ public class ContingencyTables {
 
 	private static final Logger LOGGER = Logger.getLogger(ContingencyTables.class.getName());
 
+	/**
+	 * Bin codes of an attribute w.r.t. its default dimension. Attributes are
+	 * immutable and are typically tabulated many times in different
+	 * combinations (e.g., during functional dependency search), hence the codes
+	 * are computed once per attribute.
+	 */
+	private static final LoadingCache<Attribute<?>, EncodedColumn> ENCODED_COLUMNS = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build(CacheLoader.from(a -> new EncodedColumn(a, dimension(a), IndexSets.full(a.maxIndex()))));
+
 	private ContingencyTables() {
 		;
 	}
@@ -75,17 +91,18 @@ public class ContingencyTables {
 
 	public static TwoDimensionalContingencyTable contingencyTable(DataTable dataTable, Attribute<?> attr1,
 			Attribute<?> attr2) {
-		Dimension dim1 = dimension(attr1);
-		Dimension dim2 = dimension(attr2);
-		CountTable countTable = countTable(dataTable, ImmutableList.of(attr1, attr2),
-				dataTable.population().objectIds(), ImmutableList.of(dim1, dim2));
-		return contingencyTable(dim1, dim2, countTable);
+		EncodedColumn column1 = ENCODED_COLUMNS.getUnchecked(attr1);
+		EncodedColumn column2 = ENCODED_COLUMNS.getUnchecked(attr2);
+		CountTable countTable = encodedCountTable(dataTable, ImmutableList.of(attr1, attr2),
+				dataTable.population().objectIds(), ImmutableList.of(column1, column2));
+		return contingencyTable(column1.dimension, column2.dimension, countTable);
 	}
 
 	public static ContingencyTable contingencyTable(DataTable dataTable, List<? extends Attribute<?>> attributes,
 			IndexSet rows) {
-		List<Dimension> dimensions = dimensions(attributes);
-		CountTable countTable = countTable(dataTable, attributes, rows, dimensions);
+		List<EncodedColumn> columns = attributes.stream().map(a -> ENCODED_COLUMNS.getUnchecked(a)).collect(toList());
+		List<Dimension> dimensions = columns.stream().map(c -> c.dimension).collect(toList());
+		CountTable countTable = encodedCountTable(dataTable, attributes, rows, columns);
 		return contingencyTable(dimensions, countTable);
 	}
 
@@ -110,7 +127,76 @@ public class ContingencyTables {
 
 	public static CountTable countTable(DataTable dataTable, List<? extends Attribute<?>> attributes, IndexSet rows,
 			List<Dimension> dimensions) {
+		List<EncodedColumn> columns = newArrayListWithCapacity(attributes.size());
+		Iterator<Dimension> dimensionIterator = dimensions.iterator();
+		for (Attribute<?> attribute : attributes) {
+			columns.add(new EncodedColumn(attribute, dimensionIterator.next(), rows));
+		}
+		return encodedCountTable(dataTable, attributes, rows, columns);
+	}
+
+	/**
+	 * Bin codes of the values of an attribute (-1 for missing values or rows not
+	 * encoded) together with the number of bins in use.
+	 */
+	private static class EncodedColumn {
+
+		private final Dimension dimension;
+
+		private final int[] codes;
+
+		private final int radix;
+
+		private EncodedColumn(Attribute<?> attribute, Dimension dimension, IndexSet rows) {
+			this.dimension = dimension;
+			this.codes = new int[attribute.maxIndex() + 1];
+			Arrays.fill(codes, -1);
+			int max = 0;
+			for (int row : rows) {
+				if (!attribute.valueMissing(row)) {
+					codes[row] = dimension.bin(attribute.value(row));
+					max = Math.max(max, codes[row]);
+				}
+			}
+			this.radix = max + 1;
+		}
+
+	}
+
+	private static CountTable encodedCountTable(DataTable dataTable, List<? extends Attribute<?>> attributes,
+			IndexSet rows, List<EncodedColumn> columns) {
 		LOGGER.finer("constructing count table on " + rows.size() + " rows for attributes: " + attributes);
+		int[] radices = columns.stream().mapToInt(c -> c.radix).toArray();
+		CountTable table;
+		try {
+			table = CountTable.countTable(radices, rows.size());
+		} catch (ArithmeticException e) {
+			return cellCountTable(dataTable, attributes, rows,
+					columns.stream().map(c -> c.dimension).collect(toList()));
+		}
+		int[][] codes = columns.stream().map(c -> c.codes).toArray(n -> new int[n][]);
+		long[] strides = new long[radices.length];
+		for (int i = 0; i < radices.length; i++) {
+			strides[i] = table.stride(i);
+		}
+		rows: for (int row : rows) {
+			// rows with missing values are skipped as in cellCountTable (see TODO
+			// there)
+			long code = 0;
+			for (int i = 0; i < codes.length; i++) {
+				int bin = row < codes[i].length ? codes[i][row] : -1;
+				if (bin < 0) {
+					continue rows;
+				}
+				code += bin * strides[i];
+			}
+			table.incrementCount(code, 1);
+		}
+		return table;
+	}
+
+	private static CountTable cellCountTable(DataTable dataTable, List<? extends Attribute<?>> attributes,
+			IndexSet rows, List<Dimension> dimensions) {
 		CountTable table = new CountTable();
 		for (int row : rows) {
 			/*
@@ -191,41 +277,26 @@ public class ContingencyTables {
 			ContingencyTable secondCTable) {
 		double sum = 0;
 		int totalCount = firstCTable.totalCount();
-
-		for (Cell firstDimCell : firstCTable.nonZeroCells()) {
-			int numPointsCellFirstTable = firstCTable.count(firstDimCell);
-
-			for (Cell secondDimCell : secondCTable.nonZeroCells()) {
-				int numPointsCellSecondTable = secondCTable.count(secondDimCell);
-
-				int min = Math.max(1, numPointsCellFirstTable + numPointsCellSecondTable - totalCount);
-				int max = Math.min(numPointsCellFirstTable, numPointsCellSecondTable);
-
-				// use the hypergeometric distrbiution for first probability
-				double iterProb = new HypergeometricDistribution(totalCount, numPointsCellFirstTable,
-						numPointsCellSecondTable).probability(min);
-
-				double cellContribution = multiplyNumbers(
-						cellMICalculation(min, totalCount, numPointsCellFirstTable, numPointsCellSecondTable),
-						iterProb);
-
-				// use recurrence relation of hypergeometric for next
-				// probabilities
-				for (int i = min + 1; i <= max; i++) {
-					double temp1 = multiplyNumbers(iterProb,
-							(numPointsCellFirstTable - (i - 1)) * (numPointsCellSecondTable - (i - 1)));
-					double temp2 = ((i) * (totalCount - numPointsCellFirstTable - numPointsCellSecondTable + i));
-					iterProb = temp1 / temp2;
-					cellContribution += multiplyNumbers(
-							cellMICalculation(i, totalCount, numPointsCellFirstTable, numPointsCellSecondTable),
-							iterProb);
-				}
-				sum += cellContribution;
+		int[] firstCounts = nonZeroCounts(firstCTable);
+		int[] secondCounts = nonZeroCounts(secondCTable);
+		for (int numPointsCellFirstTable : firstCounts) {
+			for (int numPointsCellSecondTable : secondCounts) {
+				sum += cellContribution(totalCount, numPointsCellFirstTable, numPointsCellSecondTable);
 			}
 		}
 		return sum;
 	}
 
+	/**
+	 * @return the counts of all non-zero cells of a table in unspecified order
+	 */
+	private static int[] nonZeroCounts(ContingencyTable table) {
+		if (table instanceof ContingencyTableImplementation) {
+			return ((ContingencyTableImplementation) table).nonZeroCounts();
+		}
+		return table.nonZeroCells().stream().mapToInt(c -> table.count(c)).toArray();
+	}
+
 //	public static double parallelExpectedMutualInformationUnderPermutationModel(ContingencyTable firstCTable,
 //			ContingencyTable secondCTable) {
 //		double sum = 0;
@@ -246,11 +317,11 @@ public class ContingencyTables {
 	public static double parallelExpectedMutualInformationUnderPermutationModel(ContingencyTable firstCTable,
 			ContingencyTable secondCTable) {
 		int totalCount = firstCTable.totalCount();
+		int[] firstCounts = nonZeroCounts(firstCTable);
+		int[] secondCounts = nonZeroCounts(secondCTable);
 		DoubleAdder adder = new DoubleAdder();
-		firstCTable.nonZeroCells().parallelStream()
-				.forEach(a -> secondCTable.nonZeroCells().parallelStream()
-						.mapToDouble(b -> cellContribution(totalCount, firstCTable.count(a), secondCTable.count(b)))
-						.forEach(adder::add));
+		stream(firstCounts).parallel().forEach(a -> stream(secondCounts).parallel()
+				.mapToDouble(b -> cellContribution(totalCount, a, b)).forEach(adder::add));
 		return adder.sum();
 	}
 
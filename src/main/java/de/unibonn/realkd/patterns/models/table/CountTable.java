@@ -29,35 +29,188 @@ import static de.unibonn.realkd.util.Arrays.containedIn;
 
 import java.util.Arrays;
 import java.util.IntSummaryStatistics;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.google.common.collect.ImmutableSet;
+
+import de.unibonn.realkd.util.InformationTheory;
+
+/**
+ * Counts of cells of a contingency table.
+ * 
+ * Tables created with known numbers of bins per dimension (see
+ * {@link #countTable(int[], int)}) identify cells by mixed-radix codes and
+ * store their counts in a dense array or, if the product space is large, in an
+ * open-addressing hash map. Projections and entropies are computed directly on
+ * these codes; cell objects are only materialised on request.
+ * 
+ * @author Mario Boley
+ * 
+ * @since 0.0.1
+ * 
+ * @version 0.7.2
+ *
+ */
 public class CountTable {
 
+	/**
+	 * Product spaces up to this size are always stored densely; larger ones only
+	 * if they are not much larger than the expected number of non-zero cells.
+	 */
+	private static final int MIN_DENSE_SIZE = 256;
+
+	/**
+	 * Creates an empty count table with coded cells.
+	 * 
+	 * @param radices
+	 *            number of bins per dimension
+	 * @param expectedNumberOfCells
+	 *            upper bound on the number of non-zero cells used to choose
+	 *            between dense and sparse storage
+	 * @return empty table
+	 * @throws ArithmeticException
+	 *             if the product space of the radices does not fit into a long
+	 */
+	static CountTable countTable(int[] radices, int expectedNumberOfCells) {
+		int[] bounds = new int[radices.length];
+		long[] strides = new long[radices.length];
+		long size = 1;
+		for (int i = 0; i < radices.length; i++) {
+			bounds[i] = Math.max(radices[i], 1);
+			strides[i] = size;
+			size = Math.multiplyExact(size, bounds[i]);
+		}
+		if (size <= Math.max(MIN_DENSE_SIZE, 2L * expectedNumberOfCells)) {
+			return new CountTable(bounds, strides, new int[(int) size], null);
+		}
+		return new CountTable(bounds, strides, null, new SparseCounts(expectedNumberOfCells));
+	}
+
 	private int totalCount;
-	public Map<Cell, AtomicInteger> table;
+
+	private final Map<Cell, AtomicInteger> table;
+
+	private final int[] radices;
+
+	private final long[] strides;
+
+	private final int[] dense;
+
+	private final SparseCounts sparse;
+
+	private volatile Set<Cell> cells;
 
 	public CountTable() {
-		table = newHashMap();
-		totalCount = 0;
+		this.table = newHashMap();
+		this.radices = null;
+		this.strides = null;
+		this.dense = null;
+		this.sparse = null;
+		this.totalCount = 0;
 	}
 
-	private CountTable(Map<Cell, AtomicInteger> table) {
-		this.table = table;
-		this.totalCount = table.values().stream().mapToInt(c -> c.intValue()).sum();
+	private CountTable(int[] radices, long[] strides, int[] dense, SparseCounts sparse) {
+		this.table = null;
+		this.radices = radices;
+		this.strides = strides;
+		this.dense = dense;
+		this.sparse = sparse;
+		this.totalCount = 0;
+	}
+
+	private boolean coded() {
+		return table == null;
 	}
 
 	public Set<Cell> nonZeroCells() {
-		return table.keySet();
+		if (!coded()) {
+			return table.keySet();
+		}
+		Set<Cell> result = cells;
+		if (result == null) {
+			ImmutableSet.Builder<Cell> builder = ImmutableSet.builder();
+			for (int s = 0; s < slots(); s++) {
+				if (countAt(s) != 0) {
+					builder.add(cell(codeAt(s)));
+				}
+			}
+			result = builder.build();
+			cells = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Map from non-zero cells to their counts. Tables with coded cells are
+	 * materialised into a new map, changes of which are not reflected by this
+	 * table.
+	 * 
+	 * @return map from cells to counts
+	 */
+	public Map<Cell, AtomicInteger> table() {
+		if (!coded()) {
+			return table;
+		}
+		Map<Cell, AtomicInteger> result = newHashMap();
+		for (int s = 0; s < slots(); s++) {
+			int count = countAt(s);
+			if (count != 0) {
+				result.put(cell(codeAt(s)), new AtomicInteger(count));
+			}
+		}
+		return result;
+	}
+
+	public int numberOfNonZeroCells() {
+		if (!coded()) {
+			return table.size();
+		}
+		if (sparse != null) {
+			return sparse.size();
+		}
+		int result = 0;
+		for (int c : dense) {
+			if (c != 0) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the counts of all non-zero cells in unspecified order
+	 */
+	int[] nonZeroCounts() {
+		if (!coded()) {
+			return table.values().stream().mapToInt(c -> c.get()).toArray();
+		}
+		int[] result = new int[numberOfNonZeroCells()];
+		for (int s = 0, j = 0; s < slots(); s++) {
+			int count = countAt(s);
+			if (count != 0) {
+				result[j++] = count;
+			}
+		}
+		return result;
 	}
 
 	public void incrementCount(Cell cell, int amount) {
+		if (coded()) {
+			long code = code(cell);
+			if (code < 0) {
+				throw new IllegalArgumentException("cell " + cell + " outside of table with radices "
+						+ Arrays.toString(radices));
+			}
+			incrementCount(code, amount);
+			return;
+		}
 		AtomicInteger value = table.get(cell);
 		if (value == null) {
 			value = new AtomicInteger(amount);
@@ -72,7 +225,25 @@ public class CountTable {
 		incrementCount(cell, 1);
 	}
 
+	/**
+	 * Increments the count of a coded cell; only valid for tables created with
+	 * {@link #countTable(int[], int)}.
+	 */
+	void incrementCount(long code, int amount) {
+		if (dense != null) {
+			dense[(int) code] += amount;
+		} else {
+			sparse.add(code, amount);
+		}
+		totalCount = totalCount + amount;
+		cells = null;
+	}
+
 	public int count(Cell key) {
+		if (coded()) {
+			long code = code(key);
+			return code < 0 ? 0 : count(code);
+		}
 		AtomicInteger value = table.get(key);
 		if (value == null) {
 			return 0;
@@ -81,16 +252,89 @@ public class CountTable {
 		return value.get();
 	}
 
+	private int count(long code) {
+		return dense != null ? dense[(int) code] : sparse.get(code);
+	}
+
 	public int total() {
 		return totalCount;
 	}
 
+	/**
+	 * Computes the entropy (in bits) of the distribution given by the relative
+	 * frequencies of all cells.
+	 */
+	public double entropy() {
+		if (!coded()) {
+			return InformationTheory
+					.entropy(table.values().stream().mapToDouble(c -> c.get() / (double) totalCount));
+		}
+		double result = 0.0;
+		for (int s = 0; s < slots(); s++) {
+			int count = countAt(s);
+			if (count > 0) {
+				double p = count / (double) totalCount;
+				result += -p * Math.log(p) / Math.log(2);
+			}
+		}
+		return result;
+	}
+
 	/*
-	 * public CountTable projection(int... dims) { CountTable projectTable = new
-	 * CountTable(); for (Cell cell : nonZeroCells()) {
-	 * projectTable.incrementCount(cell.projection(dims), table.get(cell).get()); }
-	 * return projectTable; }
+	 * Iteration over storage slots of coded tables; slots with zero count are
+	 * empty.
+	 */
+
+	private int slots() {
+		return dense != null ? dense.length : sparse.capacity();
+	}
+
+	private int countAt(int slot) {
+		return dense != null ? dense[slot] : sparse.value(slot);
+	}
+
+	private long codeAt(int slot) {
+		return dense != null ? slot : sparse.key(slot);
+	}
+
+	/**
+	 * @return the factor by which bins of a dimension contribute to cell codes
 	 */
+	long stride(int dim) {
+		return strides[dim];
+	}
+
+	private int digit(long code, int dim) {
+		return (int) ((code / strides[dim]) % radices[dim]);
+	}
+
+	private Cell cell(long code) {
+		Integer[] key = new Integer[radices.length];
+		for (int i = 0; i < radices.length; i++) {
+			key[i] = digit(code, i);
+		}
+		return new Cell(Arrays.asList(key));
+	}
+
+	/**
+	 * @return mixed-radix code of cell or -1 if cell is not within the bounds of
+	 *         this table
+	 */
+	private long code(Cell cell) {
+		List<Integer> key = cell.key();
+		if (key.size() != radices.length) {
+			return -1;
+		}
+		long result = 0;
+		for (int i = 0; i < radices.length; i++) {
+			int bin = key.get(i);
+			if (bin < 0 || bin >= radices[i]) {
+				return -1;
+			}
+			result += bin * strides[i];
+		}
+		return result;
+	}
 
 	/**
 	 * 
@@ -100,7 +344,7 @@ public class CountTable {
 	public CountTable map(Function<Cell, Cell> cellMap) {
 		CountTable result = new CountTable();
 		for (Cell cell : nonZeroCells()) {
-			result.incrementCount(cellMap.apply(cell), table.get(cell).get());
+			result.incrementCount(cellMap.apply(cell), count(cell));
 		}
 		return result;
 	}
@@ -112,9 +356,13 @@ public class CountTable {
 	 * 
 	 */
 	public CountTable filter(Predicate<Cell> condition) {
-		Map<Cell, AtomicInteger> filteredTable = table.entrySet().stream().filter(e -> condition.test(e.getKey()))
-				.collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
-		return new CountTable(filteredTable);
+		CountTable result = coded() ? countTable(radices, numberOfNonZeroCells()) : new CountTable();
+		for (Cell cell : nonZeroCells()) {
+			if (condition.test(cell)) {
+				result.incrementCount(cell, count(cell));
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -131,8 +379,28 @@ public class CountTable {
 	 * 
 	 */
 	public CountTable projection(int... dims) {
-		Function<Cell, Cell> func = cell -> cell.projection(dims);
-		return this.map(func);
+		if (!coded()) {
+			Function<Cell, Cell> func = cell -> cell.projection(dims);
+			return this.map(func);
+		}
+		int[] projectedRadices = new int[dims.length];
+		for (int j = 0; j < dims.length; j++) {
+			projectedRadices[j] = radices[dims[j]];
+		}
+		CountTable result = countTable(projectedRadices, numberOfNonZeroCells());
+		for (int s = 0; s < slots(); s++) {
+			int count = countAt(s);
+			if (count == 0) {
+				continue;
+			}
+			long code = codeAt(s);
+			long projectedCode = 0;
+			for (int j = 0; j < dims.length; j++) {
+				projectedCode += digit(code, dims[j]) * result.strides[j];
+			}
+			result.incrementCount(projectedCode, count);
+		}
+		return result;
 	}
 
 	/**
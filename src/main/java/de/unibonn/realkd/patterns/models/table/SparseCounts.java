@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 University of Bonn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.unibonn.realkd.patterns.models.table;
+
+import static java.util.Arrays.fill;
+
+/**
+ * Open-addressing hash map from non-negative long cell codes to int counts.
+ * Used by {@link CountTable} when the product space of all dimensions is too
+ * large for a dense count array.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+final class SparseCounts {
+
+	private static final long EMPTY = -1;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+
+	private int[] values;
+
+	private int size;
+
+	SparseCounts(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, 2 * expectedSize) - 1) << 1;
+		this.keys = new long[capacity];
+		this.values = new int[capacity];
+		fill(keys, EMPTY);
+		this.size = 0;
+	}
+
+	private static int slot(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	void add(long key, int amount) {
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				values[i] += amount;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = amount;
+		size++;
+		if (2 * size > keys.length) {
+			grow();
+		}
+	}
+
+	int get(long key) {
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				return values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return 0;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[2 * oldKeys.length];
+		values = new int[2 * oldValues.length];
+		fill(keys, EMPTY);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] == EMPTY) {
+				continue;
+			}
+			int i = slot(oldKeys[j], mask);
+			while (keys[i] != EMPTY) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = oldKeys[j];
+			values[i] = oldValues[j];
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return number of slots; slots can be iterated with {@link #key(int)} and
+	 *         {@link #value(int)}
+	 */
+	int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * @return key stored in slot or -1 if slot is empty
+	 */
+	long key(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * @return count stored in slot or 0 if slot is empty
+	 */
+	int value(int slot) {
+		return values[slot];
+	}
+
+}
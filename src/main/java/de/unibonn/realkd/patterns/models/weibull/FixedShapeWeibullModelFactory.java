@@ -26,9 +26,8 @@ package de.unibonn.realkd.patterns.models.weibull;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
 import java.util.logging.Logger;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -45,7 +44,7 @@ import de.unibonn.realkd.patterns.models.ModelFactory;
  * 
  * @since 0.1.2
  * 
- * @version 0.4.0
+ * @version 0.7.2
  *
  */
 public class FixedShapeWeibullModelFactory implements ModelFactory<WeibullDistribution> {
@@ -76,43 +75,34 @@ public class FixedShapeWeibullModelFactory implements ModelFactory<WeibullDistri
 		return getModel(dataTable, attributes, dataTable.population().objectIds());
 	}
 
-	private static class Accumulator {
-
-		private double total = 0.0;
-		private int count = 0;
-
-		public double average() {
-			return count > 0 ? total / count : 0;
-		}
-
-		public void accept(double i) {
-			total += i;
-			count++;
-		}
-
-		public void combine(Accumulator other) {
-			total += other.total;
-			count += other.count;
-		}
-
-	}
-
+	/**
+	 * Fits the scale as maximum likelihood estimate for the fixed shape k, i.e.,
+	 * as the k-th root of the average k-th power of the non-missing values in
+	 * the given rows, accumulated directly over the primitive values of the
+	 * attribute.
+	 */
 	@Override
 	public WeibullDistribution getModel(DataTable dataTable, List<? extends Attribute<?>> attributes, IndexSet rows) {
 		double k = shape;
-		MetricAttribute metricAttribute = (MetricAttribute) attributes.get(0);
-		Stream<Integer> nonMissingValues = StreamSupport.stream(rows.spliterator(), false)
-				.filter(i -> !metricAttribute.valueMissing(i));
-
-		double averageOfPowers = nonMissingValues.mapToDouble(v -> Math.pow(v, k))
-				.collect(Accumulator::new, Accumulator::accept, Accumulator::combine).average();
+		double[] values = ((MetricAttribute) attributes.get(0)).primitiveValues();
+		double sumOfPowers = 0.0;
+		int count = 0;
+		PrimitiveIterator.OfInt iterator = rows.iterator();
+		while (iterator.hasNext()) {
+			double value = values[iterator.nextInt()];
+			if (!Double.isNaN(value)) {
+				sumOfPowers += (k == 1.0) ? value : Math.pow(value, k);
+				count++;
+			}
+		}
+		double averageOfPowers = count > 0 ? sumOfPowers / count : 0;
 		double scale = Math.pow(averageOfPowers, 1.0 / k);
 
 		if (scale <= 0.0) {
 			LOGGER.severe("Non-positive scale (" + scale + ") for model fitted to rows " + rows);
 		}
 
-		return new WeibullDistribution(dataTable, k, scale);
+		return new WeibullDistribution(k, scale);
 	}
 
 	@Override
@@ -45,7 +45,7 @@ import de.unibonn.realkd.patterns.models.UnivariateContinuousProbabilisticModel;
  * 
  * @since 0.1.2
  * 
- * @version 0.5.0
+ * @version 0.7.2
  *
  */
 public class WeibullDistribution implements UnivariateContinuousProbabilisticModel {
@@ -138,7 +138,15 @@ public class WeibullDistribution implements UnivariateContinuousProbabilisticMod
 
 	}
 
+	/**
+	 * @deprecated table is not used; use {@link #WeibullDistribution(double, double)}
+	 */
+	@Deprecated
 	public WeibullDistribution(DataTable dataTable, double shape, double scale) {
+		this(shape, scale);
+	}
+
+	public WeibullDistribution(double shape, double scale) {
 		checkArgument(shape > 0, "shape paramater was not positive (" + shape + ")");
 		checkArgument(scale > 0, "scale paramater was not positive (" + scale + ")");
 		this.shape = shape;
@@ -160,15 +168,19 @@ public class WeibullDistribution implements UnivariateContinuousProbabilisticMod
 		if (q instanceof WeibullDistribution) {
 			return hellingerDistance((WeibullDistribution) q);
 		}
-		LOGGER.warning("Can only compute distance to another Weibull distributions with identical shape; result NaN.");
+		LOGGER.warning("Can only compute distance to another Weibull distribution; result NaN.");
 		return Double.NaN;
 	}
 
+	/**
+	 * Computes Hellinger distance in closed form if both distributions have
+	 * identical shape and otherwise by numerically integrating the Bhattacharyya
+	 * coefficient over log-transformed support.
+	 */
 	public double hellingerDistance(WeibullDistribution q) {
 		WeibullDistribution p = this;
 		if (p.shape() != q.shape()) {
-			LOGGER.warning("Can only compute distance for Weibull distributions with identical shape; result NaN.");
-			return Double.NaN;
+			return sqrt(Math.max(0.0, 1.0 - bhattacharyyaCoefficient(p, q)));
 		}
 		double k = p.shape();
 		double hellingerDistance = sqrt(
@@ -177,6 +189,45 @@ public class WeibullDistribution implements UnivariateContinuousProbabilisticMod
 		return hellingerDistance;
 	}
 
+	private static final int INTEGRATION_POINTS = 2048;
+
+	/**
+	 * Trapezoidal rule for integral of sqrt(p(x)q(x)) after substituting
+	 * x=exp(t). The integrand is smooth in t and, for each of the two factors,
+	 * decays exponentially to the left and double-exponentially to the right of
+	 * its log scale at a rate proportional to its shape. Hence, the integrand is
+	 * negligible outside the intersection of the two ranges derived from the
+	 * individual parameters, the width of which is bounded in terms of the
+	 * larger shape. Thus, a fixed grid over that intersection resolves also the
+	 * narrower factor.
+	 */
+	private static double bhattacharyyaCoefficient(WeibullDistribution p, WeibullDistribution q) {
+		double logScaleP = Math.log(p.scale);
+		double logScaleQ = Math.log(q.scale);
+		double lower = Math.max(logScaleP - 50.0 / p.shape, logScaleQ - 50.0 / q.shape);
+		double upper = Math.min(logScaleP + 6.0 / p.shape, logScaleQ + 6.0 / q.shape);
+		if (lower >= upper) {
+			return 0.0;
+		}
+		double step = (upper - lower) / INTEGRATION_POINTS;
+		double sum = 0.0;
+		for (int i = 0; i <= INTEGRATION_POINTS; i++) {
+			double t = lower + i * step;
+			double value = exp(0.5 * (logDensityOfLog(t, p.shape, logScaleP) + logDensityOfLog(t, q.shape, logScaleQ)));
+			sum += (i == 0 || i == INTEGRATION_POINTS) ? 0.5 * value : value;
+		}
+		return Math.min(1.0, sum * step);
+	}
+
+	/**
+	 * Log density of log(X) at t for X Weibull-distributed with given shape and
+	 * log scale.
+	 */
+	private static double logDensityOfLog(double t, double shape, double logScale) {
+		double z = shape * (t - logScale);
+		return Math.log(shape) + z - exp(z);
+	}
+
 	public Function<Double, Double> densityFunction() {
 		return densityFunction;
 	}
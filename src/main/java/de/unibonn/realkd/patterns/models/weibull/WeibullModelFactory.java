@@ -0,0 +1,223 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-15 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.patterns.models.weibull;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.log;
+
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.data.table.attribute.MetricAttribute;
+import de.unibonn.realkd.patterns.models.ModelFactory;
+
+/**
+ * Fits Weibull distributions with both shape and scale determined by maximum
+ * likelihood. The shape is found by Newton iterations on the profile
+ * likelihood equation, which only require the power sums of the positive
+ * values (and their log-weighted variants) in the selected rows. Log-values
+ * are computed once per attribute and iterations for a subset of rows are
+ * started from the shape fitted to all rows, which typically leaves only a
+ * few passes over the rows.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public enum WeibullModelFactory implements ModelFactory<WeibullDistribution> {
+
+	INSTANCE;
+
+	public static final String STRING_NAME = "Weibull distribution with fitted shape";
+
+	private static final int MAX_ITERATIONS = 100;
+
+	private static final double RELATIVE_TOLERANCE = 1e-10;
+
+	/**
+	 * Natural logarithms of attribute values; NaN for missing and non-positive
+	 * values.
+	 */
+	private static final LoadingCache<MetricAttribute, double[]> LOG_VALUES = CacheBuilder.newBuilder().weakKeys()
+			.build(CacheLoader.from(WeibullModelFactory::logValues));
+
+	private static final LoadingCache<MetricAttribute, WeibullDistribution> FULL_FITS = CacheBuilder.newBuilder()
+			.weakKeys().build(CacheLoader.from(a -> fit(LOG_VALUES.getUnchecked(a), IndexSets.full(a.maxIndex()),
+					Double.NaN)));
+
+	private WeibullModelFactory() {
+		;
+	}
+
+	@Override
+	public Class<? extends WeibullDistribution> modelClass() {
+		return WeibullDistribution.class;
+	}
+
+	@Override
+	public WeibullDistribution getModel(DataTable dataTable, List<? extends Attribute<?>> attributes) {
+		return FULL_FITS.getUnchecked((MetricAttribute) attributes.get(0));
+	}
+
+	@Override
+	public WeibullDistribution getModel(DataTable dataTable, List<? extends Attribute<?>> attributes, IndexSet rows) {
+		MetricAttribute attribute = (MetricAttribute) attributes.get(0);
+		return fit(attribute, rows, FULL_FITS.getUnchecked(attribute).shape());
+	}
+
+	/**
+	 * Fits Weibull distribution to the positive values of an attribute in a set
+	 * of rows, starting shape iterations from a given initial shape (e.g., the
+	 * shape of a parent model).
+	 * 
+	 * @param attribute
+	 *            the attribute to be modeled
+	 * @param rows
+	 *            the rows to which the distribution is fitted
+	 * @param initialShape
+	 *            positive starting point for shape iterations
+	 * @return maximum likelihood Weibull distribution; if rows contain less
+	 *         than two distinct positive values, the maximum likelihood
+	 *         distribution with the initial shape
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if rows contain no positive value
+	 */
+	public static WeibullDistribution fit(MetricAttribute attribute, IndexSet rows, double initialShape) {
+		if (!(initialShape > 0)) {
+			throw new IllegalArgumentException("initial shape must be positive (" + initialShape + ")");
+		}
+		return fit(LOG_VALUES.getUnchecked(attribute), rows, initialShape);
+	}
+
+	private static double[] logValues(MetricAttribute attribute) {
+		double[] values = attribute.primitiveValues();
+		double[] result = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i] > 0 ? log(values[i]) : Double.NaN;
+		}
+		return result;
+	}
+
+	/**
+	 * Solves the profile likelihood equation g(k)=S1/S0-1/k-mean(log x)=0 where
+	 * S0, S1 (and S2 for the derivative) are the sums of x^k, x^k log x, and x^k
+	 * log^2 x. Powers are taken relative to the maximum value to avoid overflow.
+	 * If no initial shape is given (NaN), iterations start from the moment
+	 * estimate pi/(sqrt(6)*sd(log x)).
+	 */
+	private static WeibullDistribution fit(double[] logValues, IndexSet rows, double initialShape) {
+		int n = 0;
+		double sumOfLogs = 0.0;
+		double maxLog = Double.NEGATIVE_INFINITY;
+		PrimitiveIterator.OfInt iterator = rows.iterator();
+		while (iterator.hasNext()) {
+			double y = logValues[iterator.nextInt()];
+			if (!Double.isNaN(y)) {
+				n++;
+				sumOfLogs += y;
+				maxLog = Math.max(maxLog, y);
+			}
+		}
+		double meanLog = sumOfLogs / n;
+		double sumOfSquaredDeviations = 0.0;
+		iterator = rows.iterator();
+		while (iterator.hasNext()) {
+			double y = logValues[iterator.nextInt()];
+			if (!Double.isNaN(y)) {
+				sumOfSquaredDeviations += (y - meanLog) * (y - meanLog);
+			}
+		}
+		if (n == 0) {
+			throw new IllegalArgumentException("no positive values in rows");
+		}
+		boolean shapeIdentifiable = n >= 2 && sumOfSquaredDeviations > 0;
+		if (!shapeIdentifiable && !(initialShape > 0)) {
+			throw new IllegalArgumentException("at least two distinct positive values required for fitting shape");
+		}
+
+		double k = initialShape > 0 ? initialShape : Math.PI / Math.sqrt(6 * sumOfSquaredDeviations / (n - 1));
+		for (int i = 0; shapeIdentifiable && i < MAX_ITERATIONS; i++) {
+			double s0 = 0.0, s1 = 0.0, s2 = 0.0;
+			iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				double y = logValues[iterator.nextInt()];
+				if (!Double.isNaN(y)) {
+					double d = y - maxLog;
+					double power = exp(k * d);
+					s0 += power;
+					s1 += power * d;
+					s2 += power * d * d;
+				}
+			}
+			double m1 = s1 / s0;
+			double g = m1 + maxLog - 1.0 / k - meanLog;
+			double derivative = s2 / s0 - m1 * m1 + 1.0 / (k * k);
+			// g is increasing in k; damping keeps iterates positive and finite
+			double next = Math.max(0.5 * k, Math.min(2 * k, k - g / derivative));
+			boolean converged = Math.abs(next - k) <= RELATIVE_TOLERANCE * k;
+			k = next;
+			if (converged) {
+				break;
+			}
+		}
+
+		double s0 = 0.0;
+		iterator = rows.iterator();
+		while (iterator.hasNext()) {
+			double y = logValues[iterator.nextInt()];
+			if (!Double.isNaN(y)) {
+				s0 += exp(k * (y - maxLog));
+			}
+		}
+		double scale = exp(maxLog + log(s0 / n) / k);
+		return new WeibullDistribution(k, scale);
+	}
+
+	@Override
+	public boolean isApplicable(List<? extends Attribute<?>> attributes) {
+		return (attributes.size() == 1 && attributes.get(0) instanceof MetricAttribute);
+	}
+
+	@Override
+	public String toString() {
+		return STRING_NAME;
+	}
+
+	@Override
+	public String symbol() {
+		return "Weibull";
+	}
+
+}
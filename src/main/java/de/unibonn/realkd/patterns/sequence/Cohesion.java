@@ -24,24 +24,12 @@
  */
 package de.unibonn.realkd.patterns.sequence;
 
-import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Sets.newHashSet;
 import static de.unibonn.realkd.common.base.Identifier.id;
 
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import de.unibonn.realkd.common.IndexSet;
-import de.unibonn.realkd.common.IndexSets;
 import de.unibonn.realkd.common.base.Identifier;
 import de.unibonn.realkd.common.measures.Measure;
 import de.unibonn.realkd.common.measures.Measurement;
 import de.unibonn.realkd.common.measures.Measures;
-import de.unibonn.realkd.data.propositions.Proposition;
-import de.unibonn.realkd.data.sequences.SequenceEvent;
-import de.unibonn.realkd.data.sequences.SequenceTransaction;
-import de.unibonn.realkd.data.sequences.SequentialPropositionalContext;
 import de.unibonn.realkd.patterns.MeasurementProcedure;
 import de.unibonn.realkd.patterns.PatternDescriptor;
 
@@ -52,7 +40,7 @@ import de.unibonn.realkd.patterns.PatternDescriptor;
  * 
  * @since 0.3.0
  * 
- * @version 0.7.0
+ * @version 0.7.2
  *
  */
 public enum Cohesion implements Measure, MeasurementProcedure<Measure,PatternDescriptor> {
@@ -88,93 +76,10 @@ public enum Cohesion implements Measure, MeasurementProcedure<Measure,PatternDes
 		return this;
 	}
 
-	private int getWindow(SequenceTransaction sequence, List<SequenceEvent<?>> events, List<List<Proposition>> orderedSets, int startIx) {
-		int window = -1;
-		int ix = startIx;
-		Set<Proposition> propositionsToFind = newHashSet();
-		
-		Object timestamp = null;
-		
-		for(List<Proposition> orderedSet: orderedSets) {
-			propositionsToFind = newHashSet(orderedSet);
-			while(!propositionsToFind.isEmpty() && ix < events.size()) {
-				boolean changed = propositionsToFind.remove(events.get(ix).proposition());
-				if(window == -1 && changed) {
-					window = 1;
-					timestamp = events.get(ix).value();
-					
-				} else if (window != -1) {
-					if(timestamp != events.get(ix).value()) { 
-						window++;
-					}
-					timestamp = events.get(ix).value();
-				}
-				ix++;
-			}
-			
-			Comparable<?> value = events.get(ix - 1).value();
-			
-			while(ix < events.size()) {
-				if(value != events.get(ix).value()) {
-					break;
-				}
-				ix++;
-			}
-		}			
-		if(propositionsToFind.isEmpty() && ix <= events.size()) {
-			return window;
-		}
-		return -1;
-	}
-	
-	private List<List<Proposition>> getOrderedSetsNoEmpty(SequenceDescriptor descriptor) {
-		return descriptor.orderedSets().stream().filter(o -> !o.isEmpty()).collect(Collectors.toList());
-	}
-	
 	@Override
 	public Measurement perform(PatternDescriptor descriptor) {
 
-		SequenceDescriptor sequenceDescriptor = (SequenceDescriptor) descriptor;
-
-		SequentialPropositionalContext context = sequenceDescriptor.sequentialPropositionalLogic();
-
-		double totWindow = 0;
-		double support = 0;
-		List<List<Proposition>> orderedSetsNoEmpty = getOrderedSetsNoEmpty(sequenceDescriptor);
-		
-		IndexSet indexSet = IndexSets.full(context.population().size() - 1);
-		
-		for(List<Proposition> orderedSet: sequenceDescriptor.orderedSets()) {
-			for(Proposition proposition: orderedSet) {
-				indexSet = IndexSets.intersection(indexSet, proposition.supportSet());
-			}
-		}
-		
-		for(int ix: indexSet) {
-			SequenceTransaction sequence = context.sequences().get(ix);
-			long minWindow = -1;
-			for(int i = 0; i <  sequence.events().size(); i++) {
-				int window = getWindow(sequence, newArrayList(sequence.events()), orderedSetsNoEmpty, i);
-				if(window != -1) {
-					if(minWindow == -1) {
-						minWindow = window;
-					} else{
-						minWindow = Math.min(minWindow, window);
-					}
-				}
-				if(minWindow == orderedSetsNoEmpty.size()) {
-					//Can not get smaller!
-					break;
-				}
-			}
-			if(minWindow != -1) {
-				support++;
-				totWindow += minWindow;
-			}
-		}
-
-		double avgWindow = totWindow / support;
-		double cohesion = 1. * orderedSetsNoEmpty.size() / avgWindow;
+		double cohesion = SequenceOccurrences.occurrences((SequenceDescriptor) descriptor).cohesion();
 
 		return Measures.measurement(this, cohesion);
 	}
@@ -46,7 +46,7 @@ import de.unibonn.realkd.patterns.PatternDescriptor;
  * 
  * @since 0.3.0
  * 
- * @version 0.7.1
+ * @version 0.7.2
  *
  */
 public enum Interestingness implements Measure, MeasurementProcedure<Measure,PatternDescriptor> {
@@ -85,9 +85,12 @@ public enum Interestingness implements Measure, MeasurementProcedure<Measure,Pat
 	@Override
 	public Measurement perform(PatternDescriptor descriptor) {
 
-		Measurement support = SequenceSupport.SEQUENCE_SUPPORT.perform(descriptor);
-		
-		Measurement cohesion = Cohesion.COHESION.perform(descriptor);
+		// support and cohesion from one pass over the sequences
+		SequenceOccurrences occurrences = SequenceOccurrences.occurrences((SequenceDescriptor) descriptor);
+
+		Measurement support = Measures.measurement(SequenceSupport.SEQUENCE_SUPPORT, occurrences.support());
+
+		Measurement cohesion = Measures.measurement(Cohesion.COHESION, occurrences.cohesion());
 		
 		double interestingness = (support.value() / ((SequenceDescriptor)descriptor).sequentialPropositionalLogic().sequences().size()) * cohesion.value();
 		
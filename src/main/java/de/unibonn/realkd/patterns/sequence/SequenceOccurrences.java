@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.patterns.sequence;
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.sequences.SequenceIndex;
+import de.unibonn.realkd.data.sequences.SequentialPropositionalContext;
+
+/**
+ * Occurrences of a sequence pattern in the sequences of its context as
+ * determined by one parallel pass over the {@link SequenceIndex} of the
+ * context. Shared by the support and cohesion measurement procedures.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+final class SequenceOccurrences {
+
+	/**
+	 * Determines number of supporting sequences and sum of minimal windows.
+	 */
+	static SequenceOccurrences occurrences(SequenceDescriptor descriptor) {
+		SequenceIndex index = descriptor.sequentialPropositionalLogic().sequenceIndex();
+		int[][] orderedSets = index.encode(descriptor.orderedSets());
+		long[] windows = Arrays.stream(candidates(descriptor)).parallel()
+				.mapToLong(s -> index.minimalWindow(s, orderedSets)).filter(w -> w != -1).toArray();
+		return new SequenceOccurrences(orderedSets.length, windows.length, Arrays.stream(windows).sum());
+	}
+
+	/**
+	 * Determines only number of supporting sequences (without searching for
+	 * minimal windows).
+	 */
+	static int support(SequenceDescriptor descriptor) {
+		SequenceIndex index = descriptor.sequentialPropositionalLogic().sequenceIndex();
+		int[][] orderedSets = index.encode(descriptor.orderedSets());
+		return (int) Arrays.stream(candidates(descriptor)).parallel().filter(s -> index.contains(s, orderedSets))
+				.count();
+	}
+
+	/**
+	 * Sequences that contain all propositions of the pattern.
+	 */
+	private static int[] candidates(SequenceDescriptor descriptor) {
+		SequentialPropositionalContext context = descriptor.sequentialPropositionalLogic();
+		IndexSet indexSet = IndexSets.full(context.population().size() - 1);
+		for (List<Proposition> orderedSet : descriptor.orderedSets()) {
+			for (Proposition proposition : orderedSet) {
+				indexSet = IndexSets.intersection(indexSet, proposition.supportSet());
+			}
+		}
+		return indexSet.stream().toArray();
+	}
+
+	private final int numberOfOrderedSets;
+
+	private final int support;
+
+	private final long totalWindow;
+
+	private SequenceOccurrences(int numberOfOrderedSets, int support, long totalWindow) {
+		this.numberOfOrderedSets = numberOfOrderedSets;
+		this.support = support;
+		this.totalWindow = totalWindow;
+	}
+
+	public int support() {
+		return support;
+	}
+
+	/**
+	 * @return number of non-empty ordered sets divided by average minimal
+	 *         window of supporting sequences
+	 */
+	public double cohesion() {
+		double avgWindow = (double) totalWindow / support;
+		return numberOfOrderedSets / avgWindow;
+	}
+
+}
@@ -24,22 +24,12 @@
  */
 package de.unibonn.realkd.patterns.sequence;
 
-import static com.google.common.collect.Lists.newLinkedList;
 import static de.unibonn.realkd.common.base.Identifier.id;
-import static java.util.stream.Collectors.toList;
 
-import java.util.List;
-
-import de.unibonn.realkd.common.IndexSet;
-import de.unibonn.realkd.common.IndexSets;
 import de.unibonn.realkd.common.base.Identifier;
 import de.unibonn.realkd.common.measures.Measure;
 import de.unibonn.realkd.common.measures.Measurement;
 import de.unibonn.realkd.common.measures.Measures;
-import de.unibonn.realkd.data.propositions.Proposition;
-import de.unibonn.realkd.data.sequences.SequenceEvent;
-import de.unibonn.realkd.data.sequences.SequenceTransaction;
-import de.unibonn.realkd.data.sequences.SequentialPropositionalContext;
 import de.unibonn.realkd.patterns.MeasurementProcedure;
 import de.unibonn.realkd.patterns.PatternDescriptor;
 
@@ -51,7 +41,7 @@ import de.unibonn.realkd.patterns.PatternDescriptor;
  * 
  * @since 0.1.2
  * 
- * @version 0.7.0
+ * @version 0.7.2
  *
  */
 public enum SequenceSupport implements Measure, MeasurementProcedure<Measure,PatternDescriptor> {
@@ -90,62 +80,7 @@ public enum SequenceSupport implements Measure, MeasurementProcedure<Measure,Pat
 	@Override
 	public Measurement perform(PatternDescriptor descriptor) {
 
-		SequenceDescriptor sequenceDescriptor = (SequenceDescriptor) descriptor;
-
-		SequentialPropositionalContext context = sequenceDescriptor.sequentialPropositionalLogic();
-		
-		double support = 0;
-		
-		int descriptorSizeNoEmpties = sequenceDescriptor.orderedSets().stream().filter(o -> !o.isEmpty()).collect(toList()).size();
-		
-		IndexSet indexSet = IndexSets.full(context.population().size() - 1);
-		
-		for(List<Proposition> orderedSet: sequenceDescriptor.orderedSets()) {
-			for(Proposition proposition: orderedSet) {
-				indexSet = IndexSets.intersection(indexSet, proposition.supportSet());
-			}
-		}
-		
-		for(int i: indexSet) {
-			SequenceTransaction sequence = context.sequences().get(i);
-			
-			List<SequenceEvent<?>> events = sequence.events();
-			
-			if(events.size() < descriptorSizeNoEmpties) {
-				continue;
-			}
-			
-			int ix = 0;
-			int ixx = 0;
-			List<Proposition> propositionsToFind = newLinkedList();
-			for(List<Proposition> orderedSet: sequenceDescriptor.orderedSets()) {
-				propositionsToFind.addAll(orderedSet);
-
-				while(!propositionsToFind.isEmpty() && ix < events.size()) {
-					propositionsToFind.remove(events.get(ix).proposition());
-					ix++;
-				}
-				
-				if(ix > 0 && ix != events.size()) {
-					Comparable<?> value = events.get(ix - 1).value();
-					
-					while(ix < events.size()) {
-						if(value != events.get(ix).value()) {
-							break;
-						}
-						ix++;
-					}
-				}
-				
-				ixx++;
-				if(ix == events.size()) {
-					break;
-				}
-			}
-			if(propositionsToFind.isEmpty()  && ixx >= descriptorSizeNoEmpties) {
-				support++;
-			}
-		}
+		double support = SequenceOccurrences.support((SequenceDescriptor) descriptor);
 
 		return Measures.measurement(this, support);
 	}
@@ -1,6 +1,7 @@
 package de.unibonn.realkd.visualization;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.unmodifiableList;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -9,8 +10,13 @@ import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -57,6 +63,10 @@ import org.jfree.ui.RectangleEdge;
 import org.jfree.ui.TextAnchor;
 import org.jfree.util.SortOrder;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
 import de.unibonn.realkd.common.IndexSet;
 import de.unibonn.realkd.data.table.attribute.Attribute;
 
@@ -243,6 +253,13 @@ public class JFChartPainter {
 		return chart;
 	}
 
+	/**
+	 * Creates a scatter plot with one series per point cloud. The first cloud
+	 * determines the drawn mean lines. Clouds with more than
+	 * {@link #maxPointsPerSeries()} points are downsampled for drawing (see
+	 * {@link #downsample(List, int)}), whereas the mean lines are computed from
+	 * all points.
+	 */
 	public JFreeChart createPointCloud(String title, List<List<Point>> pointClouds, String xAxisTitle,
 			String yAxisTitle) {
 		XYSeriesCollection cloud = new XYSeriesCollection();
@@ -252,8 +269,8 @@ public class JFChartPainter {
 		for (List<Point> pointCloud : pointClouds) {
 			i++;
 			String seriesName = "cloud" + i;
-			XYSeries pointCloudAsSeries = new XYSeries(seriesName);
-			for (Point point : pointCloud) {
+			XYSeries pointCloudAsSeries = new XYSeries(seriesName, false);
+			for (Point point : downsample(pointCloud, maxPointsPerSeries)) {
 				pointCloudAsSeries.add(point.x, point.y);
 			}
 			cloud.addSeries(pointCloudAsSeries);
@@ -724,6 +741,119 @@ public class JFChartPainter {
 		return pointCloud;
 	}
 
+	/**
+	 * Point clouds of reference populations (e.g., the global population of a
+	 * subgroup) are the same for all patterns over that population. Hence, they
+	 * are created only once per row set (by identity) and pair of attributes.
+	 */
+	private static final Cache<IndexSet, Map<List<Attribute<Double>>, List<Point>>> REFERENCE_POINTS = CacheBuilder
+			.newBuilder().weakKeys().build();
+
+	/**
+	 * Provides the same points as {@link #createPoints(IndexSet, Attribute, Attribute)}
+	 * but shares the created (unmodifiable) list among all callers passing the
+	 * same row set instance and attributes.
+	 */
+	public static List<Point> referencePoints(IndexSet rows, Attribute<Double> attribute1,
+			Attribute<Double> attribute2) {
+		try {
+			return REFERENCE_POINTS.get(rows, ConcurrentHashMap::new).computeIfAbsent(
+					ImmutableList.of(attribute1, attribute2),
+					k -> unmodifiableList(createPoints(rows, attribute1, attribute2)));
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static volatile int maxPointsPerSeries = 5000;
+
+	/**
+	 * @return the number of points above which point clouds are downsampled for
+	 *         drawing
+	 */
+	public static int maxPointsPerSeries() {
+		return maxPointsPerSeries;
+	}
+
+	/**
+	 * Sets the number of points above which point clouds are downsampled for
+	 * drawing, which bounds the rendering time of scatter plots of large data
+	 * tables.
+	 * 
+	 * @param maxPoints
+	 *            positive number of points
+	 */
+	public static void maxPointsPerSeries(int maxPoints) {
+		if (maxPoints < 1) {
+			throw new IllegalArgumentException("maximum number of points must be positive");
+		}
+		maxPointsPerSeries = maxPoints;
+	}
+
+	private static final int DOWNSAMPLING_GRID_SIZE = 32;
+
+	/**
+	 * Thins out a point cloud while preserving its density. Points are binned
+	 * into a regular grid over their bounding box and from every non-empty cell
+	 * an evenly spaced selection is kept that is proportional to the number of
+	 * points in the cell, but contains at least one point (such that sparse
+	 * regions and outliers remain visible). The result has at most
+	 * {@code maxPoints} plus the number of grid cells many points.
+	 * 
+	 * @param points
+	 *            the point cloud
+	 * @param maxPoints
+	 *            the desired number of points
+	 * @return the input list if it has at most maxPoints many points, otherwise
+	 *         a new list containing a subset of the points
+	 */
+	public static List<Point> downsample(List<Point> points, int maxPoints) {
+		int n = points.size();
+		if (n <= maxPoints) {
+			return points;
+		}
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY, minY = Double.POSITIVE_INFINITY,
+				maxY = Double.NEGATIVE_INFINITY;
+		for (Point point : points) {
+			minX = Math.min(minX, point.x);
+			maxX = Math.max(maxX, point.x);
+			minY = Math.min(minY, point.y);
+			maxY = Math.max(maxY, point.y);
+		}
+		double cellWidth = maxX > minX ? (maxX - minX) / DOWNSAMPLING_GRID_SIZE : 1;
+		double cellHeight = maxY > minY ? (maxY - minY) / DOWNSAMPLING_GRID_SIZE : 1;
+		int[] cells = new int[n];
+		int[] offsets = new int[DOWNSAMPLING_GRID_SIZE * DOWNSAMPLING_GRID_SIZE + 1];
+		for (int i = 0; i < n; i++) {
+			Point point = points.get(i);
+			int column = Math.min(DOWNSAMPLING_GRID_SIZE - 1, Math.max(0, (int) ((point.x - minX) / cellWidth)));
+			int row = Math.min(DOWNSAMPLING_GRID_SIZE - 1, Math.max(0, (int) ((point.y - minY) / cellHeight)));
+			cells[i] = row * DOWNSAMPLING_GRID_SIZE + column;
+			offsets[cells[i] + 1]++;
+		}
+		for (int c = 0; c < DOWNSAMPLING_GRID_SIZE * DOWNSAMPLING_GRID_SIZE; c++) {
+			offsets[c + 1] += offsets[c];
+		}
+		int[] byCell = new int[n];
+		int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+		for (int i = 0; i < n; i++) {
+			byCell[next[cells[i]]++] = i;
+		}
+		double rate = maxPoints / (double) n;
+		List<Point> result = new ArrayList<>(maxPoints + DOWNSAMPLING_GRID_SIZE * DOWNSAMPLING_GRID_SIZE);
+		for (int c = 0; c < DOWNSAMPLING_GRID_SIZE * DOWNSAMPLING_GRID_SIZE; c++) {
+			int count = offsets[c + 1] - offsets[c];
+			if (count == 0) {
+				continue;
+			}
+			int keep = Math.max(1, (int) Math.round(count * rate));
+			for (int j = 0; j < keep; j++) {
+				result.add(points.get(byCell[offsets[c] + (int) ((long) j * count / keep)]));
+			}
+		}
+		return result;
+	}
+
 	@SuppressWarnings("serial")
 	public class DataArrayLengthException extends Exception {
 
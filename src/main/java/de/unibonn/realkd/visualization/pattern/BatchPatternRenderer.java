@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.visualization.pattern;
+
+import static java.util.stream.Collectors.toList;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import de.unibonn.realkd.patterns.Pattern;
+import de.unibonn.realkd.visualization.JFChartPainter;
+import de.unibonn.realkd.visualization.Visualization;
+
+/**
+ * Renders all applicable visualizations of a collection of patterns to PNG
+ * files without requiring a display. Individual plots are rendered
+ * concurrently. Scatter plots draw at most
+ * {@link JFChartPainter#maxPointsPerSeries()} points per series (plus a number
+ * of outliers bounded by the downsampling grid), and the point clouds of the
+ * reference population are shared among all patterns over the same population.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public final class BatchPatternRenderer {
+
+	static {
+		if (System.getProperty("java.awt.headless") == null) {
+			System.setProperty("java.awt.headless", "true");
+		}
+	}
+
+	private static final Logger LOGGER = Logger.getLogger(BatchPatternRenderer.class.getName());
+
+	private final Path directory;
+
+	private final int width;
+
+	private final int height;
+
+	private final int numberOfThreads;
+
+	private final List<Visualization<Pattern<?>>> visualizations;
+
+	/**
+	 * @param directory
+	 *            the directory to which image files are written (created if it
+	 *            does not exist)
+	 * @param width
+	 *            the width of the images in pixels (detailed visualizations are
+	 *            drawn for widths above 1000)
+	 * @param height
+	 *            the height of the images in pixels
+	 * @param numberOfThreads
+	 *            the number of plots that are rendered concurrently
+	 */
+	public BatchPatternRenderer(Path directory, int width, int height, int numberOfThreads) {
+		this(directory, width, height, numberOfThreads, PatternVisualizations.PATTERN_VISUALIZATIONS);
+	}
+
+	public BatchPatternRenderer(Path directory, int width, int height, int numberOfThreads,
+			List<Visualization<Pattern<?>>> visualizations) {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("image dimensions must be positive");
+		}
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be positive");
+		}
+		this.directory = directory;
+		this.width = width;
+		this.height = height;
+		this.numberOfThreads = numberOfThreads;
+		this.visualizations = visualizations;
+	}
+
+	private static class Task {
+
+		private final int patternIndex;
+
+		private final Pattern<?> pattern;
+
+		private final Visualization<Pattern<?>> visualization;
+
+		private Task(int patternIndex, Pattern<?> pattern, Visualization<Pattern<?>> visualization) {
+			this.patternIndex = patternIndex;
+			this.pattern = pattern;
+			this.visualization = visualization;
+		}
+
+	}
+
+	/**
+	 * Renders every applicable visualization of every pattern to a file named
+	 * after the index of the pattern in the given list and the visualization.
+	 * Plots that fail to render are logged and skipped.
+	 * 
+	 * @param patterns
+	 *            the patterns to render
+	 * @return the paths of the written files
+	 * @throws IOException
+	 *             if the output directory cannot be created or an image cannot
+	 *             be written
+	 */
+	public List<Path> render(List<? extends Pattern<?>> patterns) throws IOException {
+		Files.createDirectories(directory);
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < patterns.size(); i++) {
+			for (Visualization<Pattern<?>> visualization : visualizations) {
+				if (visualization.isApplicable(patterns.get(i))) {
+					tasks.add(new Task(i, patterns.get(i), visualization));
+				}
+			}
+		}
+		ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			List<Optional<Path>> written = pool
+					.submit(() -> tasks.parallelStream().map(this::render).collect(toList())).get();
+			return written.stream().filter(Optional::isPresent).map(Optional::get).collect(toList());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private Optional<Path> render(Task task) {
+		String name = String.format("%04d_%s.png", task.patternIndex, task.visualization.getClass().getSimpleName());
+		BufferedImage image;
+		try {
+			image = task.visualization.getBufferedImage(task.pattern, width, height);
+		} catch (RuntimeException e) {
+			LOGGER.warning(() -> "could not render " + name + ": " + e);
+			return Optional.empty();
+		}
+		Path path = directory.resolve(name);
+		try {
+			ImageIO.write(image, "png", path.toFile());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return Optional.of(path);
+	}
+
+}
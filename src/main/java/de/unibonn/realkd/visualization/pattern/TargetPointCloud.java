@@ -47,7 +47,7 @@ public class TargetPointCloud implements PatternVisualization {
 		JFChartPainter painter = JFChartPainter.PREVIEW;
 
 		List<List<JFChartPainter.Point>> pointLists = newArrayList();
-		pointLists.add(JFChartPainter.createPoints(exceptionalModelPattern
+		pointLists.add(JFChartPainter.referencePoints(exceptionalModelPattern
 				.population().objectIds(),
 				(MetricAttribute) exceptionalModelPattern.descriptor()
 						.targetAttributes().get(0),
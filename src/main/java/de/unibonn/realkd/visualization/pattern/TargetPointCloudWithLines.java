@@ -32,22 +32,33 @@ public class TargetPointCloudWithLines extends TargetPointCloud {
 		List<JFChartPainter.Point> localPoints = JFChartPainter.createPoints(subgroup.supportSet(),
 				(MetricAttribute) subgroup.targetAttributes().get(0),
 				(MetricAttribute) subgroup.targetAttributes().get(1));
-		List<JFChartPainter.Point> globalPoints = JFChartPainter.createPoints(
+		List<JFChartPainter.Point> globalPoints = JFChartPainter.referencePoints(
 				subgroup.getTargetTable().population().objectIds(),
 				(MetricAttribute) subgroup.targetAttributes().get(0),
 				(MetricAttribute) subgroup.targetAttributes().get(1));
 
-		XYSeries localPointSeries = new XYSeries("localPoints");
+		XYSeries localPointSeries = new XYSeries("localPoints", false);
 		XYSeries localLineSeries = new XYSeries("localLine");
 
-		XYSeries globalPointSeries = new XYSeries("globalPoints");
+		XYSeries globalPointSeries = new XYSeries("globalPoints", false);
 		XYSeries globalLineSeries = new XYSeries("globalLine");
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
 		for (JFChartPainter.Point point : globalPoints) {
+			minX = Math.min(minX, point.x);
+			maxX = Math.max(maxX, point.x);
+		}
+		// models are linear, hence lines are determined by their end points
+		if (!globalPoints.isEmpty()) {
+			for (double x : new double[] { minX, maxX }) {
+				globalLineSeries.add(x, ((LinearRegressionModel) subgroup.referenceModel()).predict(x));
+				localLineSeries.add(x, ((LinearRegressionModel) subgroup.localModel()).predict(x));
+			}
+		}
+		int maxPoints = JFChartPainter.maxPointsPerSeries();
+		for (JFChartPainter.Point point : JFChartPainter.downsample(globalPoints, maxPoints)) {
 			globalPointSeries.add(point.x, point.y);
-			globalLineSeries.add(point.x, ((LinearRegressionModel) subgroup.referenceModel()).predict(point.x));
-			localLineSeries.add(point.x, ((LinearRegressionModel) subgroup.localModel()).predict(point.x));
 		}
-		for (JFChartPainter.Point point : localPoints) {
+		for (JFChartPainter.Point point : JFChartPainter.downsample(localPoints, maxPoints)) {
 			localPointSeries.add(point.x, point.y);
 		}
 
@@ -4,7 +4,10 @@ import edu.uab.cftp.sampling.LabeledNextStateProposer;
 import ua.ac.be.mime.mining.TidList;
 import ua.ac.be.mime.plain.PlainItem;
 import ua.ac.be.mime.plain.PlainItemSet;
+import ua.ac.be.mime.plain.weighting.IntCodedPosNegDb;
 import ua.ac.be.mime.plain.weighting.PosNegDbInterface;
+import ua.ac.be.mime.plain.weighting.PosNegDbInterface.Label;
+import ua.ac.be.mime.plain.weighting.PosNegTransactionDb;
 import ua.ac.be.mime.plain.weighting.Utils;
 
 public class DistributionFamilyDiscriminativity extends
@@ -43,6 +46,9 @@ public class DistributionFamilyDiscriminativity extends
 
 	protected PosNegDbInterface posNegDB2;
 
+	private PosNegDbInterface intCodedSource;
+	private IntCodedPosNegDb intCoded;
+
 	public DistributionFamilyDiscriminativity(PosNegDbInterface posNegDB,
 			LabeledNextStateProposer nextStateProposer, int numberOfExtraFreq,
 			int numberOfExtraPosFreq) {
@@ -64,15 +70,48 @@ public class DistributionFamilyDiscriminativity extends
 		return (size * (Math.pow(2, size - 1))) - size;
 	}
 
+	/**
+	 * Draws from the int-coded snapshot of the dataset: the transactions of
+	 * the base object are intersected as sorted id arrays and only the
+	 * accepted draw is materialized as item set.
+	 */
 	@Override
 	public PlainItemSet drawSubSet(OrderedBaseObject baseObject) {
-		TidList[] transactions = getBitSetRepresentations(baseObject
-				.getIndices());
-		TidList difference = TidList.difference(transactions[0],
-				transactions[1]);
+		IntCodedPosNegDb db = intCoded();
+		int[] indices = baseObject.getIndices();
+		int last = indices.length - 1;
+		int[] positives = db.transactions(Label.POSITIVE);
+
+		int[] posIntersection = db
+				.transaction(positives[indices[numberOfExtraFreq]]);
+		for (int i = numberOfExtraFreq + 1; i < last; i++) {
+			posIntersection = IntCodedPosNegDb.intersect(posIntersection,
+					db.transaction(positives[indices[i]]));
+		}
+		for (int i = 0; i < numberOfExtraFreq; i++) {
+			posIntersection = IntCodedPosNegDb.intersect(posIntersection,
+					db.transaction(indices[i]));
+		}
+		int[] intersection = indices[last] != -1 ? IntCodedPosNegDb.intersect(
+				posIntersection,
+				db.transaction(db.transactions(Label.NEGATIVE)[indices[last]]))
+				: new int[0];
+		int[] difference = IntCodedPosNegDb.difference(posIntersection,
+				intersection);
+
+		return db.itemSet(Utils.drawDiscriminativeSubSetNoSingletons(
+				intersection, difference));
+	}
 
-		return Utils.drawDiscriminativeSubSetNoSingletons(
-				this.posNegDB.getItemDB(), transactions[1], difference);
+	private IntCodedPosNegDb intCoded() {
+		if (posNegDB instanceof PosNegTransactionDb) {
+			return ((PosNegTransactionDb) posNegDB).intCoded();
+		}
+		if (intCodedSource != posNegDB) {
+			intCoded = IntCodedPosNegDb.intCoded(posNegDB);
+			intCodedSource = posNegDB;
+		}
+		return intCoded;
 	}
 
 	@Override
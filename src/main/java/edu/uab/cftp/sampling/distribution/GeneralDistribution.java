@@ -10,14 +10,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
+import edu.uab.cftp.sampling.CouplingFromThePast;
 import edu.uab.cftp.sampling.GeneralWeightBasedLabeledNextStateProposer;
 import edu.uab.cftp.sampling.ImpossibleToSampleException;
 import edu.uab.cftp.sampling.distribution.tool.Bias;
-import edu.uab.cftp.sampling.distribution.tool.SequentialSubsetSampler;
 import edu.uab.cftp.sampling.distribution.tool.StarOperation;
 import edu.uab.cftp.sampling.distribution.tool.SubsetSampler;
+import edu.uab.cftp.sampling.distribution.tool.WeightTableSubsetSampler;
 import edu.uab.consapt.sampling.DataPortion;
 import edu.uab.consapt.sampling.DistributionFactor;
 import ua.ac.be.mime.mining.TidList;
@@ -56,15 +58,21 @@ public class GeneralDistribution extends LabeledStateSpaceSamplingDistribution {
 		itemBiases = new HashMap<Integer, Double>();
 	}
 
+	/**
+	 * Computes the alias table of base object weights. Base objects are not
+	 * materialized: the index of a base object in the table is decoded into
+	 * the indices of its transactions (with the first data portion as the most
+	 * significant digit) when it is drawn.
+	 */
 	public void initializeForDirectSampling() {
-		this.baseObjects = new OrderedBaseObject[(int) numberOfBaseObjects()];
-		initialize();
-		computeCumulatedWeights();
+		computeBaseObjectTable();
 	}
 
 	public void initializeForCFTP() throws ImpossibleToSampleException {
 		this.biasComputer = bias(starOperation, this.defaultBias, this.itemBiases);
-		this.subsetSampler = new SequentialSubsetSampler(this.biasComputer);
+		this.subsetSampler = new WeightTableSubsetSampler(starOperation,
+				this.defaultBias, this.itemBiases,
+				CouplingFromThePast.nextRandomSeed());
 
 		GeneralWeightBasedLabeledNextStateProposer nsp = new GeneralWeightBasedLabeledNextStateProposer();
 
@@ -105,6 +113,44 @@ public class GeneralDistribution extends LabeledStateSpaceSamplingDistribution {
 		init(0, 0, new ArrayList<Integer>(cardinality()));
 	}
 
+	private OrderedBaseObject baseObject(int indexInList) {
+		int[] indices = new int[cardinality()];
+		int rest = indexInList;
+		for (int ix = indices.length - 1; ix >= 0; ix--) {
+			int size = this.qFunctions.get(ix).getDataPortion().size();
+			indices[ix] = rest % size;
+			rest /= size;
+		}
+		return new LabeledOrderedBaseObject(indices);
+	}
+
+	@Override
+	protected double[] computeBaseObjectWeights() {
+		double[] weights = new double[(int) numberOfBaseObjects()];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = baseObjectWeight(baseObject(i));
+		}
+		return weights;
+	}
+
+	@Override
+	protected OrderedBaseObject drawBaseObject() {
+		return baseObject(this.baseObjectTable.sample(random));
+	}
+
+	/**
+	 * Materializes base objects on first access; direct sampling does not
+	 * need them.
+	 */
+	@Override
+	public OrderedBaseObject[] getBaseObjects() {
+		if (this.baseObjects == null) {
+			this.baseObjects = new OrderedBaseObject[(int) numberOfBaseObjects()];
+			initialize();
+		}
+		return this.baseObjects;
+	}
+
 	public void addQFunction(DataPortion dataPortion,
 			SupportMeasure supportMeasure) {
 		this.qFunctions
@@ -130,7 +176,9 @@ public class GeneralDistribution extends LabeledStateSpaceSamplingDistribution {
 	public void setStarOperation(StarOperation starOperation) {
 		this.starOperation = starOperation;
 		this.biasComputer = bias(starOperation, this.defaultBias);
-		this.subsetSampler = new SequentialSubsetSampler(this.biasComputer);
+		this.subsetSampler = new WeightTableSubsetSampler(starOperation,
+				this.defaultBias, ImmutableMap.<Integer, Double> of(),
+				CouplingFromThePast.nextRandomSeed());
 	}
 
 	public StarOperation getStarOperation() {
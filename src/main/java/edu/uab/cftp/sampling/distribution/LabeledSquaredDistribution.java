@@ -20,7 +20,7 @@ public abstract class LabeledSquaredDistribution extends
 		initialize();
 
 		if (initilializeCumulatedWeights) {
-			computeCumulatedWeights();
+			computeBaseObjectTable();
 		}
 	}
 
@@ -4,12 +4,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 
+import edu.uab.cftp.sampling.distribution.tool.AliasTable;
 import ua.ac.be.mime.mining.ResultDataStructure;
 import ua.ac.be.mime.plain.PlainItemSet;
 import ua.ac.be.mime.plain.PlainTransaction;
 import ua.ac.be.mime.plain.TransactionDBInterface;
 import ua.ac.be.mime.tool.DebugPrinter;
-import ua.ac.be.mime.tool.Utils;
 
 /**
  * Abstract class representing the two step sampling distribution framework. The
@@ -28,7 +28,7 @@ public abstract class TwoStepSamplingDistribution {
 
 	protected TransactionDBInterface db;
 	protected OrderedBaseObject[] baseObjects = null;
-	protected double[] cumulatedWeights = null;
+	protected AliasTable baseObjectTable = null;
 	protected double normalizationFactor = -1;
 	protected List<PlainTransaction> transactions;
 
@@ -79,8 +79,8 @@ public abstract class TwoStepSamplingDistribution {
 	 * @return the list of item sets that have been drawn
 	 */
 	public List<PlainItemSet> drawSamples(int numberOfSamples) {
-		if (this.cumulatedWeights == null) {
-			computeCumulatedWeights();
+		if (this.baseObjectTable == null) {
+			computeBaseObjectTable();
 		}
 
 		List<PlainItemSet> itemSets = new LinkedList<PlainItemSet>();
@@ -100,8 +100,8 @@ public abstract class TwoStepSamplingDistribution {
 	}
 
 	public void drawSamplesNoReturn(int numberOfSamples) {
-		if (this.cumulatedWeights == null) {
-			computeCumulatedWeights();
+		if (this.baseObjectTable == null) {
+			computeBaseObjectTable();
 		}
 
 		int i = 0;
@@ -129,32 +129,34 @@ public abstract class TwoStepSamplingDistribution {
 	}
 
 	/**
-	 * Computes the cumulated weights of the base objects
+	 * Computes the weights of the base objects, in the order of the array of
+	 * base objects
+	 * 
+	 * @return the array of base object weights
 	 */
-	protected void computeCumulatedWeights() {
+	protected double[] computeBaseObjectWeights() {
 		double[] weights = new double[this.baseObjects.length];
 		int index = 0;
-
-		this.normalizationFactor = 0;
 		for (OrderedBaseObject baseObject : this.baseObjects) {
-			this.normalizationFactor += (weights[index++] = baseObjectWeight(baseObject));
+			weights[index++] = baseObjectWeight(baseObject);
 		}
+		return weights;
+	}
+
+	/**
+	 * Computes the weights of the base objects and the alias table from which
+	 * base objects are drawn. Base object weights do not change after this
+	 * point, hence, each draw takes constant time.
+	 */
+	protected void computeBaseObjectTable() {
+		double[] weights = computeBaseObjectWeights();
+		this.baseObjectTable = new AliasTable(weights);
+		this.normalizationFactor = this.baseObjectTable.totalWeight();
 
 		DebugPrinter.println(this, "Number of base objects:  "
-				+ this.baseObjects.length);
+				+ weights.length);
 		DebugPrinter.println(this, "Normalizationfactor: "
 				+ this.normalizationFactor);
-
-		for (int i = 0; i < weights.length; i++) {
-			weights[i] /= this.normalizationFactor;
-		}
-		this.cumulatedWeights = new double[this.baseObjects.length];
-
-		double weight = 0.0;
-		index = 0;
-		for (double w : weights) {
-			this.cumulatedWeights[index++] = (weight += w);
-		}
 	}
 
 	/**
@@ -167,16 +169,13 @@ public abstract class TwoStepSamplingDistribution {
 	}
 
 	/**
-	 * Draws a new base object from the distribution using a cumulated method.
-	 * All weights are cumulated to one and a random number if drawn between 0
-	 * and 1. The first base object with cumulated weight greater than the
-	 * random number is returned
+	 * Draws a new base object from the distribution using the alias table of
+	 * base object weights
 	 * 
 	 * @return a new sample base object drawn exactly from the distribution
 	 */
 	protected OrderedBaseObject drawBaseObject() {
-		return this.baseObjects[Utils.logIndexSearch(
-				this.cumulatedWeights, random.nextDouble())];
+		return this.baseObjects[this.baseObjectTable.sample(random)];
 	}
 
 	/**
@@ -185,7 +184,7 @@ public abstract class TwoStepSamplingDistribution {
 	public void printBaseObjectWeights() {
 		int i = 0;
 		double d, highest = 0;
-		for (OrderedBaseObject baseObject : this.baseObjects) {
+		for (OrderedBaseObject baseObject : getBaseObjects()) {
 			DebugPrinter.println(this, i++ + ": " + baseObject + " "
 					+ (d = baseObjectWeight(baseObject)));
 			if (d > highest) {
@@ -197,8 +196,11 @@ public abstract class TwoStepSamplingDistribution {
 
 	public void printNormalizedWeights() {
 		DebugPrinter.println("NormalizedWeights");
-		for (double d : this.cumulatedWeights) {
-			DebugPrinter.println(d + "");
+		double cumulatedWeight = 0.0;
+		for (OrderedBaseObject baseObject : getBaseObjects()) {
+			cumulatedWeight += baseObjectWeight(baseObject)
+					/ getNormalizationFactor();
+			DebugPrinter.println(cumulatedWeight + "");
 		}
 	}
 
@@ -64,7 +64,7 @@ public class FrequencyDiscriminativityDistribution extends
 
 		if (initializeCumulatedWeights) {
 			initialize();
-			computeCumulatedWeights();
+			computeBaseObjectTable();
 		}
 	}
 
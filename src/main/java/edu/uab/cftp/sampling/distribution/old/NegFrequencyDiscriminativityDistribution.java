@@ -64,7 +64,7 @@ public class NegFrequencyDiscriminativityDistribution extends
 
 		if (initializeCumulatedWeights) {
 			initialize();
-			computeCumulatedWeights();
+			computeBaseObjectTable();
 		}
 	}
 
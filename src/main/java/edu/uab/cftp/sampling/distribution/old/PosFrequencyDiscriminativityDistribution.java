@@ -60,7 +60,7 @@ public class PosFrequencyDiscriminativityDistribution extends
 
 		if (initializeCumulatedWeights) {
 			initialize();
-			computeCumulatedWeights();
+			computeBaseObjectTable();
 		}
 	}
 
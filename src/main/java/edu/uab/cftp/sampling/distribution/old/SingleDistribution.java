@@ -16,7 +16,7 @@ public abstract class SingleDistribution extends StateSpaceSamplingDistribution
 
 		if (initilializeCumulatedWeights) {
 			initialize();
-			computeCumulatedWeights();
+			computeBaseObjectTable();
 		}
 	}
 
@@ -22,7 +22,7 @@ public abstract class SinglePosSingleNegDistribution extends
 
 		if (initilializeCumulatedWeights) {
 			initialize();
-			computeCumulatedWeights();
+			computeBaseObjectTable();
 		}
 	}
 
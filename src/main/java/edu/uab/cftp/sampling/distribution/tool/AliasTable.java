@@ -0,0 +1,179 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package edu.uab.cftp.sampling.distribution.tool;
+
+import static java.util.stream.IntStream.range;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Alias table (in the variant of Walker and Vose) for drawing indices
+ * 0,...,n-1 with probability proportional to a fixed array of non-negative
+ * weights in constant time per draw. Weights are scaled to mean one; each slot
+ * i then holds the part of item i that is kept and an alias that receives the
+ * remaining part of the slot.
+ * <p>
+ * Scaling and classification into light and heavy items run in parallel for
+ * large weight arrays. Slots are then filled by a single sweep that advances
+ * one pointer over light and one over heavy items, which avoids the work lists
+ * of the textbook construction. A draw consumes exactly one random double: its
+ * integer part selects the slot and its fractional part decides between item
+ * and alias.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public final class AliasTable {
+
+	private static final int MIN_SIZE_FOR_PARALLEL_CONSTRUCTION = 1 << 14;
+
+	private final double[] thresholds;
+
+	private final int[] aliases;
+
+	private final double totalWeight;
+
+	/**
+	 * @param weights
+	 *            non-negative finite weights, at least one of which positive;
+	 *            the array is not modified
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if weights are empty, negative, not finite, or all zero
+	 */
+	public AliasTable(double[] weights) {
+		int n = weights.length;
+		if (n == 0) {
+			throw new IllegalArgumentException("weights must not be empty");
+		}
+		boolean parallel = n >= MIN_SIZE_FOR_PARALLEL_CONSTRUCTION;
+		if (stream(n, parallel).anyMatch(i -> !(weights[i] >= 0) || Double.isInfinite(weights[i]))) {
+			throw new IllegalArgumentException("weights must be non-negative and finite");
+		}
+		double total = parallel ? Arrays.stream(weights).parallel().sum() : Arrays.stream(weights).sum();
+		if (!(total > 0) || Double.isInfinite(total)) {
+			throw new IllegalArgumentException("total weight must be positive and finite (was " + total + ")");
+		}
+		this.totalWeight = total;
+		this.thresholds = new double[n];
+		this.aliases = new int[n];
+
+		boolean[] light = new boolean[n];
+		double scale = n / total;
+		stream(n, parallel).forEach(i -> {
+			thresholds[i] = weights[i] * scale;
+			aliases[i] = i;
+			light[i] = thresholds[i] < 1.0;
+		});
+
+		sweep(thresholds, aliases, light);
+	}
+
+	private static IntStream stream(int n, boolean parallel) {
+		return parallel ? range(0, n).parallel() : range(0, n);
+	}
+
+	/**
+	 * Pairs light items (scaled weight below one) with heavy items in index
+	 * order. A heavy item donates to light items until its residual drops to
+	 * at most one, after which it is itself filled up by the next heavy item.
+	 * Slots left over at the end (the last heavy item and items left over due
+	 * to rounding) keep their own item with certainty. Classification is
+	 * taken from the original scaled weights, since thresholds of heavy items
+	 * are overwritten with their residual during the sweep.
+	 */
+	private static void sweep(double[] thresholds, int[] aliases, boolean[] isLight) {
+		int n = thresholds.length;
+		int light = next(isLight, true, 0);
+		int heavy = next(isLight, false, 0);
+		if (heavy == n) {
+			// all weights scale to below one only through rounding
+			Arrays.fill(thresholds, 1.0);
+			return;
+		}
+		double residual = thresholds[heavy];
+		while (true) {
+			if (residual > 1.0) {
+				if (light == n) {
+					break;
+				}
+				aliases[light] = heavy;
+				residual -= 1.0 - thresholds[light];
+				light = next(isLight, true, light + 1);
+			} else {
+				int next = next(isLight, false, heavy + 1);
+				if (next == n) {
+					break;
+				}
+				thresholds[heavy] = residual;
+				aliases[heavy] = next;
+				residual = thresholds[next] - (1.0 - residual);
+				heavy = next;
+			}
+		}
+		for (; heavy < n; heavy = next(isLight, false, heavy + 1)) {
+			thresholds[heavy] = 1.0;
+			aliases[heavy] = heavy;
+		}
+		for (; light < n; light = next(isLight, true, light + 1)) {
+			thresholds[light] = 1.0;
+			aliases[light] = light;
+		}
+	}
+
+	private static int next(boolean[] isLight, boolean light, int from) {
+		int i = from;
+		while (i < isLight.length && isLight[i] != light) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * @return index i drawn with probability weights[i]/totalWeight()
+	 */
+	public int sample(Random random) {
+		int n = thresholds.length;
+		double u = random.nextDouble() * n;
+		int slot = (int) u;
+		if (slot == n) {
+			slot = n - 1;
+		}
+		return u - slot < thresholds[slot] ? slot : aliases[slot];
+	}
+
+	public int size() {
+		return thresholds.length;
+	}
+
+	public double totalWeight() {
+		return totalWeight;
+	}
+
+}
@@ -0,0 +1,365 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package edu.uab.cftp.sampling.distribution.tool;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import ua.ac.be.mime.mining.TidList;
+
+/**
+ * Sequential subset sampler that draws from the same distribution as
+ * {@link SequentialSubsetSampler} with biases from {@link Biases}, i.e., from
+ * the subsets X of the positive intersection with at least two elements that
+ * are not contained in any of the negative parts, with probability
+ * proportional to the product (resp. the sum) of the item biases in X.
+ * <p>
+ * Instead of evaluating bias objects on bitsets for every item, item biases
+ * are tabulated (together with their logarithmic weights) on construction and
+ * each draw first computes, for every combination of negative parts, suffix
+ * tables over the items of the positive intersection. The inclusion
+ * probability of each item is then obtained in time proportional to the
+ * number of combinations of negative parts that are not yet escaped. In the
+ * multiplicative case, items after all constraints are met are included
+ * independently, which is done by geometric skipping when inclusion
+ * probabilities are low. The random generator is seeded once and reused for
+ * all draws.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class WeightTableSubsetSampler implements SubsetSampler {
+
+	private static final double GEOMETRIC_SKIP_THRESHOLD = 0.25;
+
+	private static final int MAX_NEGATIVE_PARTS = 16;
+
+	private final boolean multiplicative;
+
+	private final double defaultBias;
+
+	private final double defaultLogWeight;
+
+	private final double defaultAcceptanceProbability;
+
+	private final double[] biases;
+
+	private final double[] logWeights;
+
+	private final double[] acceptanceProbabilities;
+
+	private final Random random;
+
+	// per draw buffers
+	private int[] items = new int[0];
+	private int[] memberships = new int[0];
+	private double[] itemBiases = new double[0];
+	private double[] itemProbabilities = new double[0];
+	private double[] maxProbabilities = new double[0];
+	// suffix tables indexed by mask*(n+1)+position
+	private double[] logProducts = new double[0];
+	private double[] atLeastOne = new double[0];
+	private double[] atLeastTwo = new double[0];
+	private int[] counts = new int[0];
+	private double[] biasSums = new double[0];
+
+	/**
+	 * @param starOperation
+	 *            whether subset weights are products or sums of item biases
+	 * @param defaultBias
+	 *            the bias of items without explicit bias
+	 * @param itemBiases
+	 *            non-negative biases of items by id
+	 * @param seed
+	 *            seed of the random generator used for all draws
+	 */
+	public WeightTableSubsetSampler(StarOperation starOperation,
+			double defaultBias, Map<Integer, Double> itemBiases, long seed) {
+		this.multiplicative = starOperation == StarOperation.MULTIPLICATIVE;
+		this.defaultBias = defaultBias;
+		this.defaultLogWeight = Math.log1p(defaultBias);
+		this.defaultAcceptanceProbability = defaultBias / (1 + defaultBias);
+		int bound = 0;
+		for (Integer id : itemBiases.keySet()) {
+			bound = Math.max(bound, id + 1);
+		}
+		this.biases = new double[bound];
+		Arrays.fill(biases, defaultBias);
+		for (Entry<Integer, Double> entry : itemBiases.entrySet()) {
+			if (entry.getKey() >= 0) {
+				biases[entry.getKey()] = entry.getValue();
+			}
+		}
+		this.logWeights = new double[bound];
+		this.acceptanceProbabilities = new double[bound];
+		for (int i = 0; i < bound; i++) {
+			logWeights[i] = Math.log1p(biases[i]);
+			acceptanceProbabilities[i] = biases[i] / (1 + biases[i]);
+		}
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Draws subset without modifying the given bitsets.
+	 * 
+	 * @return the ids of the drawn items in ascending order; empty if no
+	 *         subset has positive weight
+	 */
+	@Override
+	public int[] drawSubset(TidList posIntersection,
+			TidList[] negativeTransactions) {
+		int n = posIntersection.cardinality();
+		TidList[] negatives = nonNull(negativeTransactions);
+		if (negatives.length > MAX_NEGATIVE_PARTS) {
+			throw new IllegalArgumentException("at most " + MAX_NEGATIVE_PARTS
+					+ " negative parts supported (" + negatives.length + ")");
+		}
+		int numberOfMasks = 1 << negatives.length;
+		ensureCapacity(n, numberOfMasks);
+
+		int position = 0;
+		for (int id = posIntersection.nextSetBit(0); id >= 0; id = posIntersection
+				.nextSetBit(id + 1)) {
+			items[position] = id;
+			int membership = 0;
+			for (int j = 0; j < negatives.length; j++) {
+				if (negatives[j].get(id)) {
+					membership |= 1 << j;
+				}
+			}
+			memberships[position] = membership;
+			boolean tabulated = id < biases.length;
+			itemBiases[position] = tabulated ? biases[id] : defaultBias;
+			itemProbabilities[position] = tabulated ? acceptanceProbabilities[id]
+					: defaultAcceptanceProbability;
+			position++;
+		}
+		computeSuffixTables(n, numberOfMasks);
+
+		int unescaped = numberOfMasks - 1;
+		int missing = 2;
+		double biasSum = 0;
+		if (!(completionWeight(0, n, missing, unescaped, biasSum) > 0)) {
+			return new int[0];
+		}
+
+		int[] result = new int[n];
+		int size = 0;
+		int i = 0;
+		for (; i < n && (missing > 0 || unescaped != 0 || !multiplicative); i++) {
+			int nextUnescaped = unescaped & memberships[i];
+			int nextMissing = Math.max(0, missing - 1);
+			double include;
+			double exclude;
+			if (multiplicative) {
+				include = itemBiases[i]
+						* completionWeight(i + 1, n, nextMissing,
+								nextUnescaped, 0);
+				exclude = completionWeight(i + 1, n, missing, unescaped, 0);
+			} else {
+				include = completionWeight(i + 1, n, nextMissing,
+						nextUnescaped, biasSum + itemBiases[i]);
+				exclude = completionWeight(i + 1, n, missing, unescaped,
+						biasSum);
+			}
+			if (include > 0
+					&& (exclude <= 0 || random.nextDouble() * (include + exclude) < include)) {
+				result[size++] = items[i];
+				unescaped = nextUnescaped;
+				missing = nextMissing;
+				biasSum += itemBiases[i];
+			}
+		}
+		if (i < n) {
+			size = drawIndependently(i, n, result, size);
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	private static TidList[] nonNull(TidList[] tidLists) {
+		int count = 0;
+		for (TidList tidList : tidLists) {
+			if (tidList != null) {
+				count++;
+			}
+		}
+		TidList[] result = new TidList[count];
+		count = 0;
+		for (TidList tidList : tidLists) {
+			if (tidList != null) {
+				result[count++] = tidList;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Includes items from position start on independently with their
+	 * acceptance probabilities, skipping geometrically over items when the
+	 * maximal remaining acceptance probability is low.
+	 */
+	private int drawIndependently(int start, int n, int[] result, int size) {
+		double maxProbability = maxProbabilities[start];
+		if (maxProbability <= 0) {
+			return size;
+		}
+		if (maxProbability > GEOMETRIC_SKIP_THRESHOLD) {
+			for (int i = start; i < n; i++) {
+				if (random.nextDouble() < itemProbabilities[i]) {
+					result[size++] = items[i];
+				}
+			}
+			return size;
+		}
+		double logComplement = Math.log1p(-maxProbability);
+		int i = start;
+		while (true) {
+			double skip = Math.floor(Math.log(1 - random.nextDouble())
+					/ logComplement);
+			if (skip >= n - i) {
+				return size;
+			}
+			i += (int) skip;
+			if (random.nextDouble() * maxProbability < itemProbabilities[i]) {
+				result[size++] = items[i];
+			}
+			i++;
+		}
+	}
+
+	/**
+	 * Fills for every combination (mask) of negative parts the suffix tables
+	 * over the items contained in all parts of the combination.
+	 * Multiplicative: logarithm of product of (1+bias) and probabilities that
+	 * independent inclusion with acceptance probabilities selects at least one
+	 * (resp. two) items. Additive: number of items and sum of biases.
+	 */
+	private void computeSuffixTables(int n, int numberOfMasks) {
+		int width = n + 1;
+		maxProbabilities[n] = 0;
+		for (int mask = 0; mask < numberOfMasks; mask++) {
+			int offset = mask * width;
+			logProducts[offset + n] = 0;
+			atLeastOne[offset + n] = 0;
+			atLeastTwo[offset + n] = 0;
+			counts[offset + n] = 0;
+			biasSums[offset + n] = 0;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double p = itemProbabilities[i];
+			double bias = itemBiases[i];
+			double logWeight = items[i] < logWeights.length ? logWeights[items[i]]
+					: defaultLogWeight;
+			maxProbabilities[i] = Math.max(maxProbabilities[i + 1], p);
+			int membership = memberships[i];
+			for (int mask = 0; mask < numberOfMasks; mask++) {
+				int index = mask * width + i;
+				if ((membership & mask) == mask) {
+					logProducts[index] = logProducts[index + 1] + logWeight;
+					atLeastTwo[index] = atLeastTwo[index + 1] * (1 - p) + p
+							* atLeastOne[index + 1];
+					atLeastOne[index] = atLeastOne[index + 1] * (1 - p) + p;
+					counts[index] = counts[index + 1] + 1;
+					biasSums[index] = biasSums[index + 1] + bias;
+				} else {
+					logProducts[index] = logProducts[index + 1];
+					atLeastTwo[index] = atLeastTwo[index + 1];
+					atLeastOne[index] = atLeastOne[index + 1];
+					counts[index] = counts[index + 1];
+					biasSums[index] = biasSums[index + 1];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Weight of the completions of the current selection with items from
+	 * position on that add at least missing items and escape all unescaped
+	 * negative parts, computed by inclusion-exclusion over the unescaped
+	 * parts. Multiplicative: relative to the product of (1+bias) over the
+	 * remaining items and to the product of biases of the selection.
+	 * Additive: relative to 2 to the number of remaining items, where biasSum
+	 * is the sum of biases of the selection.
+	 */
+	private double completionWeight(int position, int n, int missing,
+			int unescaped, double biasSum) {
+		int width = n + 1;
+		double weight = 0;
+		// enumerate all sub-masks of unescaped, including the empty mask
+		int mask = unescaped;
+		while (true) {
+			int index = mask * width + position;
+			double term;
+			if (multiplicative) {
+				double inside = missing == 0 ? 1
+						: (missing == 1 ? atLeastOne[index] : atLeastTwo[index]);
+				term = Math.exp(logProducts[index] - logProducts[position])
+						* inside;
+			} else {
+				int count = counts[index];
+				double sum = biasSums[index];
+				double relativeEmpty = Math.scalb(1.0, -counts[position]);
+				term = Math.scalb(biasSum + sum / 2, count - counts[position]);
+				if (missing >= 1) {
+					term -= biasSum * relativeEmpty;
+				}
+				if (missing >= 2) {
+					term -= (biasSum * count + sum) * relativeEmpty;
+				}
+			}
+			weight += (Integer.bitCount(mask) % 2 == 0) ? term : -term;
+			if (mask == 0) {
+				break;
+			}
+			mask = (mask - 1) & unescaped;
+		}
+		return weight;
+	}
+
+	private void ensureCapacity(int n, int numberOfMasks) {
+		if (items.length < n + 1) {
+			int capacity = Math.max(n + 1, 2 * items.length);
+			items = new int[capacity];
+			memberships = new int[capacity];
+			itemBiases = new double[capacity];
+			itemProbabilities = new double[capacity];
+			maxProbabilities = new double[capacity];
+		}
+		int tableSize = numberOfMasks * (n + 1);
+		if (logProducts.length < tableSize) {
+			int capacity = Math.max(tableSize, 2 * logProducts.length);
+			logProducts = new double[capacity];
+			atLeastOne = new double[capacity];
+			atLeastTwo = new double[capacity];
+			counts = new int[capacity];
+			biasSums = new double[capacity];
+		}
+	}
+
+}
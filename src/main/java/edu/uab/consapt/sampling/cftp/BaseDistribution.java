@@ -1,12 +1,12 @@
 package edu.uab.consapt.sampling.cftp;
 
 import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
-import static ua.ac.be.mime.tool.Utils.logIndexSearch;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
+import edu.uab.cftp.sampling.distribution.tool.AliasTable;
 import edu.uab.consapt.sampling.AbstractDistribution;
 
 public class BaseDistribution<T> extends AbstractDistribution<T> {
@@ -15,7 +15,7 @@ public class BaseDistribution<T> extends AbstractDistribution<T> {
 	protected Map<T, Integer> index;
 
 	protected double[] potentials;
-	protected double[] cPotentials;
+	protected AliasTable aliasTable;
 
 	private T last;
 	private int lastIx;
@@ -31,9 +31,8 @@ public class BaseDistribution<T> extends AbstractDistribution<T> {
 		this(objects);
 
 		this.potentials = potentials;
-		this.cPotentials = new double[potentials.length];
 
-		initializeCumulatedPotentials();
+		initializeAliasTable();
 	}
 
 	private void initializeIndex() {
@@ -43,25 +42,17 @@ public class BaseDistribution<T> extends AbstractDistribution<T> {
 		}
 	}
 
-	protected void initializeCumulatedPotentials() {
-		double total = 0;
-		for (int ix = 0; ix < potentials.length; ix++) {
-			cPotentials[ix] = (total += potentials[ix]);
-		}
-	}
-
-	private double getValueToSearch(Random random) {
-		try {
-			return random.nextDouble() * cPotentials[cPotentials.length - 1];
-		} catch (ArrayIndexOutOfBoundsException e) {
-			System.out.println(e);
-		}
-		return random.nextDouble() * cPotentials[cPotentials.length - 1];
+	/**
+	 * Potentials are fixed after construction; hence, objects are drawn from
+	 * an alias table in constant time.
+	 */
+	protected void initializeAliasTable() {
+		this.aliasTable = new AliasTable(potentials);
 	}
 
 	@Override
 	public T getNext(Random random) {
-		lastIx = logIndexSearch(cPotentials, getValueToSearch(random));
+		lastIx = aliasTable.sample(random);
 		last = objects.get(lastIx);
 		return last;
 	}
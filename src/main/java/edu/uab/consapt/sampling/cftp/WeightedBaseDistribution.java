@@ -3,6 +3,8 @@ package edu.uab.consapt.sampling.cftp;
 import java.util.List;
 import java.util.Map;
 
+import edu.uab.cftp.sampling.distribution.tool.AliasTable;
+
 public class WeightedBaseDistribution<T> extends BaseDistribution<T> {
 
 	private final Map<T, Double> weights;
@@ -12,19 +14,19 @@ public class WeightedBaseDistribution<T> extends BaseDistribution<T> {
 		super(objects);
 		this.weights = transactionWeights;
 		this.potentials = potentials;
-		this.cPotentials = new double[potentials.length];
 
-		initializeCumulatedPotentials();
+		initializeAliasTable();
 	}
 
 	@Override
-	protected void initializeCumulatedPotentials() {
-		double total = 0;
+	protected void initializeAliasTable() {
+		double[] weightedPotentials = new double[potentials.length];
 		int i = 0;
 		for (T t : objects) {
-			cPotentials[i] = (total += (potentials[i] * getWeight(t)));
+			weightedPotentials[i] = potentials[i] * getWeight(t);
 			i++;
 		}
+		this.aliasTable = new AliasTable(weightedPotentials);
 	}
 
 	private double getWeight(T t) {
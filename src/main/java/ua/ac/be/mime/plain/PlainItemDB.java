@@ -3,6 +3,7 @@ package ua.ac.be.mime.plain;
 import static com.google.common.collect.Maps.newHashMap;
 import static java.lang.Integer.parseInt;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -11,20 +12,46 @@ public class PlainItemDB implements Iterable<PlainItem> {
 	protected Map<Integer, PlainItem> items;
 	protected Map<String, Integer> nameToIDMapping;
 
+	// direct lookup for non-negative ids that are not much larger than the
+	// number of items; avoids boxing in sampling loops
+	private PlainItem[] itemsById;
+
 	public PlainItemDB() {
 		this.items = newHashMap();
 		this.nameToIDMapping = newHashMap();
+		this.itemsById = new PlainItem[16];
 	}
 
 	public PlainItem get(int itemId) {
+		if (itemId >= 0 && itemId < itemsById.length && itemsById[itemId] != null) {
+			return itemsById[itemId];
+		}
 		PlainItem item = this.items.get(itemId);
 		if (item == null) {
 			item = newItem(itemId);
 			this.items.put(itemId, item);
 		}
+		if (itemId >= 0 && itemId < Math.max(1024, 4 * items.size())) {
+			if (itemId >= itemsById.length) {
+				itemsById = Arrays.copyOf(itemsById, Math.max(itemId + 1, 2 * itemsById.length));
+			}
+			itemsById[itemId] = item;
+		}
 		return item;
 	}
 
+	/**
+	 * @return one plus the largest id of an item in this database; zero if
+	 *         empty
+	 */
+	public int idBound() {
+		int bound = 0;
+		for (Integer id : items.keySet()) {
+			bound = Math.max(bound, id + 1);
+		}
+		return bound;
+	}
+
 	public PlainItem get(String itemId) {
 		try {
 			return get(parseInt(itemId));
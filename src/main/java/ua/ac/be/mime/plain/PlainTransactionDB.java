@@ -88,10 +88,40 @@ public class PlainTransactionDB implements TransactionDBInterface {
 		return tx;
 	}
 
+	/**
+	 * Adds a transaction given by item ids, which avoids the name lookups of
+	 * {@link #addTransaction(String[])}. Items that are created on the way are
+	 * named by their id, which is consistent with {@link PlainItemDB#get(String)}
+	 * for numeric names.
+	 * 
+	 * @param itemIds
+	 *            the ids of the items in the transaction
+	 * @return the new transaction
+	 */
+	public PlainTransaction addTransaction(int[] itemIds) {
+		PlainTransaction tx = newTransaction();
+
+		for (int itemId : itemIds) {
+			tx.add(getItemById(itemId));
+		}
+		transactions.add(tx);
+
+		return tx;
+	}
+
 	private PlainItem getItemByName(String name) {
 		return this.itemsDB.getByName(name);
 	}
 
+	protected PlainItem getItemById(int itemId) {
+		PlainItem item = this.itemsDB.get(itemId);
+		if (item.getName() == null) {
+			item.setName(String.valueOf(itemId));
+		}
+		item.setTID(transactions.size());
+		return item;
+	}
+
 	public PlainItem getItem(int itemId) {
 		return this.itemsDB.get(itemId);
 	}
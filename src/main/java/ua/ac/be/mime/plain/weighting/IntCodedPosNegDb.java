@@ -0,0 +1,241 @@
+package ua.ac.be.mime.plain.weighting;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import ua.ac.be.mime.plain.PlainItem;
+import ua.ac.be.mime.plain.PlainItemDB;
+import ua.ac.be.mime.plain.PlainItemSet;
+import ua.ac.be.mime.plain.PlainTransaction;
+import ua.ac.be.mime.plain.weighting.PosNegDbInterface.Label;
+
+/**
+ * Compact primitive snapshot of a pos/neg labeled dataset for sampling loops.
+ * Items are referred to by their int ids, transactions are sorted arrays of
+ * item ids, labels are bitmaps over transaction ids, and item and transaction
+ * weights are precomputed in arrays indexed by id. Arrays returned by this
+ * class are shared and must not be modified.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ */
+public final class IntCodedPosNegDb {
+
+	/**
+	 * Creates int-coded snapshot of a pos/neg labeled dataset. Item weights
+	 * are taken from {@link WeightedItem}s (1 for other items) and transaction
+	 * weights from {@link WeightedPosNegDbInterface} (1 for other datasets).
+	 * 
+	 * @param db
+	 *            the dataset to encode
+	 * @return int-coded snapshot of the dataset
+	 */
+	public static IntCodedPosNegDb intCoded(PosNegDbInterface db) {
+		return new IntCodedPosNegDb(db);
+	}
+
+	private final int[][] transactions;
+	private final BitSet positives;
+	private final BitSet negatives;
+	private final int[] positiveTids;
+	private final int[] negativeTids;
+	private final PlainItem[] items;
+	private final double[] itemWeights;
+	private final double[] multAcceptanceProbabilities;
+	private final double[] transactionWeights;
+
+	private IntCodedPosNegDb(PosNegDbInterface db) {
+		PlainItemDB itemDB = db.getItemDB();
+		this.items = new PlainItem[itemDB.idBound()];
+		this.itemWeights = new double[items.length];
+		this.multAcceptanceProbabilities = new double[items.length];
+		for (PlainItem item : itemDB) {
+			int id = item.getId();
+			double weight = (item instanceof WeightedItem) ? ((WeightedItem) item)
+					.getWeight() : 1.0;
+			items[id] = item;
+			itemWeights[id] = weight;
+			multAcceptanceProbabilities[id] = weight / (1.0 + weight);
+		}
+
+		List<PlainTransaction> plainTransactions = db.getTransactions();
+		this.transactions = new int[plainTransactions.size()][];
+		this.transactionWeights = new double[transactions.length];
+		for (int tid = 0; tid < transactions.length; tid++) {
+			BitSet itemBits = plainTransactions.get(tid).getItemsAsBitSet();
+			transactions[tid] = itemBits.stream().toArray();
+			transactionWeights[tid] = (db instanceof WeightedPosNegDbInterface) ? ((WeightedPosNegDbInterface) db)
+					.getTransactionWeight(tid) : 1.0;
+		}
+
+		this.positives = (BitSet) db.getLabelSupportSet(Label.POSITIVE).clone();
+		this.negatives = (BitSet) db.getLabelSupportSet(Label.NEGATIVE).clone();
+		this.positiveTids = positives.stream().toArray();
+		this.negativeTids = negatives.stream().toArray();
+	}
+
+	public int numberOfTransactions() {
+		return transactions.length;
+	}
+
+	/**
+	 * @return one plus the largest item id
+	 */
+	public int idBound() {
+		return items.length;
+	}
+
+	/**
+	 * @param tid
+	 *            the id of the transaction
+	 * @return the sorted ids of the items in the transaction
+	 */
+	public int[] transaction(int tid) {
+		return transactions[tid];
+	}
+
+	public boolean isPositive(int tid) {
+		return positives.get(tid);
+	}
+
+	public BitSet labelSupportSet(Label label) {
+		return label == Label.POSITIVE ? positives : negatives;
+	}
+
+	/**
+	 * @param label
+	 *            the label of the data part
+	 * @return the sorted ids of the transactions with the label
+	 */
+	public int[] transactions(Label label) {
+		return label == Label.POSITIVE ? positiveTids : negativeTids;
+	}
+
+	public PlainItem item(int itemId) {
+		return items[itemId];
+	}
+
+	/**
+	 * @return item weights indexed by item id
+	 */
+	public double[] itemWeights() {
+		return itemWeights;
+	}
+
+	/**
+	 * @return probabilities weight/(1+weight) indexed by item id with which
+	 *         items are accepted in multiplicatively weighted subset draws
+	 */
+	public double[] multAcceptanceProbabilities() {
+		return multAcceptanceProbabilities;
+	}
+
+	public double transactionWeight(int tid) {
+		return transactionWeights[tid];
+	}
+
+	/**
+	 * Materializes an item set from item ids.
+	 * 
+	 * @param itemIds
+	 *            the ids of the items
+	 * @return the item set containing the items of this dataset with the given
+	 *         ids
+	 */
+	public PlainItemSet itemSet(int[] itemIds) {
+		PlainItemSet itemSet = new PlainItemSet();
+		for (int itemId : itemIds) {
+			itemSet.add(items[itemId]);
+		}
+		return itemSet;
+	}
+
+	/**
+	 * Counts the transactions with a given label that contain all given items
+	 * by merging sorted id arrays.
+	 * 
+	 * @param itemIds
+	 *            sorted ids of the items
+	 * @param label
+	 *            the label of the data part
+	 * @return the number of transactions with the label that contain all items
+	 */
+	public int supportCount(int[] itemIds, Label label) {
+		int count = 0;
+		for (int tid : transactions(label)) {
+			if (containsAll(transactions[tid], itemIds)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean containsAll(int[] transaction, int[] itemIds) {
+		int j = 0;
+		for (int i = 0; i < itemIds.length; i++) {
+			while (j < transaction.length && transaction[j] < itemIds[i]) {
+				j++;
+			}
+			if (j == transaction.length || transaction[j] != itemIds[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param a
+	 *            sorted ids
+	 * @param b
+	 *            sorted ids
+	 * @return the sorted ids contained in both a and b
+	 */
+	public static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int size = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[size++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * @param a
+	 *            sorted ids
+	 * @param b
+	 *            sorted ids
+	 * @return the sorted ids contained in a but not in b
+	 */
+	public static int[] difference(int[] a, int[] b) {
+		int[] result = new int[a.length];
+		int size = 0;
+		int j = 0;
+		for (int i = 0; i < a.length; i++) {
+			while (j < b.length && b[j] < a[i]) {
+				j++;
+			}
+			if (j == b.length || b[j] != a[i]) {
+				result[size++] = a[i];
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	@Override
+	public String toString() {
+		return "IntCodedPosNegDb: #transactions=" + transactions.length
+				+ " #pos=" + positiveTids.length + " #neg="
+				+ negativeTids.length + " #items=" + items.length;
+	}
+
+}
@@ -39,6 +39,7 @@ public class PosNegTransactionDb extends PlainTransactionDB implements
 
 	private List<PlainTransaction> posTransactions;
 	private List<PlainTransaction> negTransactions;
+	private IntCodedPosNegDb intCoded;
 
 	protected PosNegTransactionDb(PlainItemDB itemDB) {
 		super(itemDB);
@@ -182,14 +183,7 @@ public class PosNegTransactionDb extends PlainTransactionDB implements
 			item.setTID(transactions.size());
 			tx.add(item);
 		}
-		if (isPos) {
-			this.posSupportSet.set(transactions.size());
-		} else {
-			this.negSupportSet.set(transactions.size());
-		}
-		transactions.add(tx);
-
-		return tx;
+		return addLabeled(tx, isPos);
 	}
 
 	public PlainTransaction addTransaction(Collection<String> itemNames,
@@ -201,16 +195,53 @@ public class PosNegTransactionDb extends PlainTransactionDB implements
 			item.setTID(transactions.size());
 			tx.add(item);
 		}
+		return addLabeled(tx, isPos);
+	}
+
+	/**
+	 * Adds a labeled transaction given by item ids without name lookups (see
+	 * {@link PlainTransactionDB#addTransaction(int[])}).
+	 * 
+	 * @param itemIds
+	 *            the ids of the items in the transaction
+	 * @param isPos
+	 *            whether the transaction is labeled positive
+	 * @return the new transaction
+	 */
+	public PlainTransaction addTransaction(int[] itemIds, boolean isPos) {
+		PlainTransaction tx = newTransaction();
+
+		for (int itemId : itemIds) {
+			tx.add(getItemById(itemId));
+		}
+		return addLabeled(tx, isPos);
+	}
+
+	private PlainTransaction addLabeled(PlainTransaction tx, boolean isPos) {
 		if (isPos) {
 			this.posSupportSet.set(transactions.size());
 		} else {
 			this.negSupportSet.set(transactions.size());
 		}
 		transactions.add(tx);
+		this.posTransactions = null;
+		this.negTransactions = null;
+		this.intCoded = null;
 
 		return tx;
 	}
 
+	/**
+	 * @return int-coded snapshot of this dataset, which is cached until the
+	 *         next transaction is added
+	 */
+	public IntCodedPosNegDb intCoded() {
+		if (this.intCoded == null) {
+			this.intCoded = IntCodedPosNegDb.intCoded(this);
+		}
+		return this.intCoded;
+	}
+
 	private PlainItem getItemByName(String name) {
 		return this.itemsDB.getByName(name);
 	}
@@ -232,7 +263,7 @@ public class PosNegTransactionDb extends PlainTransactionDB implements
 	public List<PlainTransaction> getTransactionsNeg() {
 		if (this.negTransactions == null) {
 			this.negTransactions = new ArrayList<PlainTransaction>(
-					this.posSupportSet.cardinality());
+					this.negSupportSet.cardinality());
 			int ix = -1;
 			while ((ix = this.negSupportSet.nextSetBit(ix + 1)) != -1) {
 				this.negTransactions.add(this.transactions.get(ix));
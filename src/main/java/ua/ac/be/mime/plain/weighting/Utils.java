@@ -1,6 +1,8 @@
 package ua.ac.be.mime.plain.weighting;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -42,15 +44,39 @@ public class Utils {
 
 	public static PlainItemSet drawUniformSubSet(PlainItemDB itemDB,
 			TidList transaction) {
-		PlainItemSet itemSet = new PlainItemSet();
+		int[] buffer = new int[transaction.cardinality()];
+		return toPlainItemSet(itemDB, buffer,
+				drawUniformSubSet(transaction, buffer, 0));
+	}
 
+	/**
+	 * Draws a uniform subset of the set bits of a bitset into a buffer.
+	 * 
+	 * @param transaction
+	 *            the bits to draw from
+	 * @param buffer
+	 *            the buffer receiving the drawn ids
+	 * @param offset
+	 *            the position in the buffer where the first drawn id is stored
+	 * @return the position in the buffer after the last drawn id
+	 */
+	private static int drawUniformSubSet(BitSet transaction, int[] buffer,
+			int offset) {
 		int index = -1;
 		while ((index = transaction.nextSetBit(index + 1)) != -1) {
 			if (TwoStepSamplingDistribution.random.nextBoolean()) {
-				itemSet.add(itemDB.get(index));
+				buffer[offset++] = index;
 			}
 		}
+		return offset;
+	}
 
+	private static PlainItemSet toPlainItemSet(PlainItemDB itemDB,
+			int[] itemIds, int size) {
+		PlainItemSet itemSet = new PlainItemSet();
+		for (int i = 0; i < size; i++) {
+			itemSet.add(itemDB.get(itemIds[i]));
+		}
 		return itemSet;
 	}
 
@@ -84,37 +110,82 @@ public class Utils {
 			return itemSet;
 		}
 
+		int[] buffer = new int[transaction.cardinality()];
+		int size;
 		do {
-			itemSet = drawUniformSubSet(itemDB, transaction);
-		} while (itemSet.size() <= 1);
+			size = drawUniformSubSet(transaction, buffer, 0);
+		} while (size <= 1);
 
-		return itemSet;
+		return toPlainItemSet(itemDB, buffer, size);
 	}
 
 	public static PlainItemSet drawUniformSubSetNoEmpty(PlainItemDB itemDB,
 			TidList transaction) {
-		PlainItemSet itemSet;
-
+		int[] buffer = new int[transaction.cardinality()];
+		int size;
 		do {
-			itemSet = drawUniformSubSet(itemDB, transaction);
-		} while (itemSet.size() == 0);
+			size = drawUniformSubSet(transaction, buffer, 0);
+		} while (size == 0);
 
-		return itemSet;
+		return toPlainItemSet(itemDB, buffer, size);
 	}
 
+	/**
+	 * Draws the union of a non-empty uniform subset of difference and a uniform
+	 * subset of intersection (assumed to be disjoint) with at least two
+	 * elements. Rejected draws only touch a primitive buffer.
+	 */
 	public static PlainItemSet drawDiscriminativeSubSetNoSingletons(
 			PlainItemDB itemDB, TidList intersection, TidList difference) {
-		PlainItemSet itemSet;
+		int[] buffer = new int[difference.cardinality()
+				+ intersection.cardinality()];
+		int size;
 
 		do {
-			PlainItemSet drawUniformSubSetNoEmpty = Utils
-					.drawUniformSubSetNoEmpty(itemDB, difference);
-			PlainItemSet drawUniformSubSet = Utils.drawUniformSubSet(itemDB,
-					intersection);
+			int differenceSize;
+			do {
+				differenceSize = drawUniformSubSet(difference, buffer, 0);
+			} while (differenceSize == 0);
+			size = drawUniformSubSet(intersection, buffer, differenceSize);
+		} while (size <= 1);
+		return toPlainItemSet(itemDB, buffer, size);
+	}
 
-			itemSet = drawUniformSubSetNoEmpty.union(drawUniformSubSet);
-		} while (itemSet.size() <= 1);
-		return itemSet;
+	/**
+	 * Draws the union of a non-empty uniform subset of difference and a uniform
+	 * subset of intersection with at least two elements over int-coded items
+	 * (see {@link IntCodedPosNegDb}).
+	 * 
+	 * @param intersection
+	 *            sorted ids of the items that may be drawn in addition
+	 * @param difference
+	 *            sorted ids of the items of which at least one is drawn;
+	 *            disjoint from intersection
+	 * @return the ids of the drawn items
+	 */
+	public static int[] drawDiscriminativeSubSetNoSingletons(
+			int[] intersection, int[] difference) {
+		int[] buffer = new int[difference.length + intersection.length];
+		int size;
+
+		do {
+			int differenceSize;
+			do {
+				differenceSize = drawUniformSubSet(difference, buffer, 0);
+			} while (differenceSize == 0);
+			size = drawUniformSubSet(intersection, buffer, differenceSize);
+		} while (size <= 1);
+		return Arrays.copyOf(buffer, size);
+	}
+
+	private static int drawUniformSubSet(int[] itemIds, int[] buffer,
+			int offset) {
+		for (int itemId : itemIds) {
+			if (TwoStepSamplingDistribution.random.nextBoolean()) {
+				buffer[offset++] = itemId;
+			}
+		}
+		return offset;
 	}
 
 	public static PlainItemSet drawMultWeightedSubSet(
@@ -172,19 +243,23 @@ public class Utils {
 
 	public static PlainItemSet drawMultWeightedSubSet(PlainItemDB itemDB,
 			TidList tids, double[] weights) {
-		PlainItemSet itemSet = new PlainItemSet();
-		double alfa;
+		int[] buffer = new int[tids.cardinality()];
+		return toPlainItemSet(itemDB, buffer,
+				drawMultWeightedSubSet(tids, weights, buffer));
+	}
 
+	private static int drawMultWeightedSubSet(TidList tids, double[] weights,
+			int[] buffer) {
+		int size = 0;
 		int i = 0, index = -1;
 		while ((index = tids.nextSetBit(index + 1)) != -1) {
-			alfa = weights[i] / (1.0 + weights[i]);
+			double alfa = weights[i] / (1.0 + weights[i]);
 			if (TwoStepSamplingDistribution.random.nextDouble() < alfa) {
-				itemSet.add(itemDB.get(index));
+				buffer[size++] = index;
 			}
 			i++;
 		}
-
-		return itemSet;
+		return size;
 	}
 
 	public static PlainItemSet drawMultWeightedSubSetNoSingletons(
@@ -199,11 +274,66 @@ public class Utils {
 			return itemSet;
 		}
 
+		int[] buffer = new int[tids.cardinality()];
+		int size;
 		do {
-			itemSet = drawMultWeightedSubSet(itemDB, tids, weights);
-		} while (itemSet.size() <= 1);
+			size = drawMultWeightedSubSet(tids, weights, buffer);
+		} while (size <= 1);
 
-		return itemSet;
+		return toPlainItemSet(itemDB, buffer, size);
+	}
+
+	/**
+	 * Draws a subset of int-coded items where each item is accepted
+	 * independently with a precomputed probability (see
+	 * {@link IntCodedPosNegDb#multAcceptanceProbabilities()}).
+	 * 
+	 * @param itemIds
+	 *            the ids of the items to draw from
+	 * @param acceptanceProbabilities
+	 *            acceptance probabilities indexed by item id
+	 * @return the ids of the accepted items in the order of itemIds
+	 */
+	public static int[] drawMultWeightedSubSet(int[] itemIds,
+			double[] acceptanceProbabilities) {
+		int[] buffer = new int[itemIds.length];
+		return Arrays.copyOf(buffer,
+				drawMultWeightedSubSet(itemIds, acceptanceProbabilities, buffer));
+	}
+
+	/**
+	 * Draws a subset of int-coded items with at least two elements where each
+	 * item is accepted independently with a precomputed probability.
+	 * 
+	 * @param itemIds
+	 *            the ids of the items to draw from (at least two)
+	 * @param acceptanceProbabilities
+	 *            acceptance probabilities indexed by item id
+	 * @return the ids of the accepted items in the order of itemIds
+	 */
+	public static int[] drawMultWeightedSubSetNoSingletons(int[] itemIds,
+			double[] acceptanceProbabilities) {
+		if (itemIds.length == 2) {
+			return itemIds.clone();
+		}
+		int[] buffer = new int[itemIds.length];
+		int size;
+		do {
+			size = drawMultWeightedSubSet(itemIds, acceptanceProbabilities,
+					buffer);
+		} while (size <= 1);
+		return Arrays.copyOf(buffer, size);
+	}
+
+	private static int drawMultWeightedSubSet(int[] itemIds,
+			double[] acceptanceProbabilities, int[] buffer) {
+		int size = 0;
+		for (int itemId : itemIds) {
+			if (TwoStepSamplingDistribution.random.nextDouble() < acceptanceProbabilities[itemId]) {
+				buffer[size++] = itemId;
+			}
+		}
+		return size;
 	}
 
 	/**
@@ -295,6 +425,44 @@ public class Utils {
 		return weight - singleTonsSum - 1;
 	}
 
+	/**
+	 * Computes the multiplicative item set weight for int-coded items
+	 * 
+	 * @param itemIds
+	 *            the ids of the items
+	 * @param weights
+	 *            the weights indexed by item id
+	 * @return the multiplicative weight of the items
+	 */
+	public static double getMultSubSetWeight(int[] itemIds, double[] weights) {
+		double weight = 1;
+		for (int itemId : itemIds) {
+			weight *= (1.0 + weights[itemId]);
+		}
+		return weight;
+	}
+
+	/**
+	 * Computes the multiplicative item set weight for int-coded items without
+	 * counting singletons and the empty set
+	 * 
+	 * @param itemIds
+	 *            the ids of the items
+	 * @param weights
+	 *            the weights indexed by item id
+	 * @return the multiplicative weight of the items
+	 */
+	public static double getMultSubSetWeightNoSingletons(int[] itemIds,
+			double[] weights) {
+		double weight = 1, w;
+		double singleTonsSum = 0;
+		for (int itemId : itemIds) {
+			weight *= (1.0 + (w = weights[itemId]));
+			singleTonsSum += w;
+		}
+		return weight - singleTonsSum - 1;
+	}
+
 	public static double getMultSubSetWeight(double[] weights) {
 		double weight = 1;
 		for (double w : weights) {
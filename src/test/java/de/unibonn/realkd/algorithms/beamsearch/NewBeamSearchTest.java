@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.beamsearch;
+
+import static de.unibonn.realkd.common.IndexSets.copyOf;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.algorithms.beamsearch.NewBeamSearch.RefinementPropagation;
+import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.ValidationException;
+import de.unibonn.realkd.data.Population;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.propositions.DefaultPropositionalContext;
+import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.propositions.PropositionalContext;
+import de.unibonn.realkd.data.propositions.Propositions;
+import de.unibonn.realkd.data.propositions.RandomDefaultPropositionalLogicSupplier;
+import de.unibonn.realkd.patterns.association.Association;
+import de.unibonn.realkd.patterns.association.Associations;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptor;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptors;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class NewBeamSearchTest {
+
+	private Population population = Populations.population(Identifier.id("Test_population"), 200);
+
+	private PropositionalContext propLogic = RandomDefaultPropositionalLogicSupplier
+			.randomDefaultPropositionalLogicSupplier("Statement on test population", 16, population).get();
+
+	private ToDoubleFunction<LogicalDescriptor> f = d -> d.supportSet().size() * d.size();
+
+	private ToDoubleFunction<LogicalDescriptor> oest = d -> d.supportSet().size()
+			* (d.size() + propLogic.propositions().size());
+
+	private NewBeamSearch<Association, LogicalDescriptor> search(int numberOfThreads,
+			RefinementPropagation refProp) {
+		Set<Function<? super LogicalDescriptor, ? extends LogicalDescriptor>> ops = new LinkedHashSet<>();
+		for (Proposition p : propLogic.propositions()) {
+			ops.add(d -> d.specialization(p));
+		}
+		return new NewBeamSearch<>(Associations::association, ops,
+				LogicalDescriptors.create(population, ImmutableList.of()), f, ImmutableList.of(oest), 10, 8,
+				Optional.empty(), refProp, numberOfThreads);
+	}
+
+	private List<LogicalDescriptor> descriptors(Collection<Association> results) {
+		return results.stream().map(a -> a.descriptor()).collect(toList());
+	}
+
+	@Test
+	public void parallelSearchFindsSameResultsAsSequentialSearch() throws ValidationException {
+		for (RefinementPropagation refProp : RefinementPropagation.values()) {
+			NewBeamSearch<Association, LogicalDescriptor> sequential = search(1, refProp);
+			NewBeamSearch<Association, LogicalDescriptor> parallel = search(4, refProp);
+			assertEquals(descriptors(sequential.call()), descriptors(parallel.call()));
+			assertEquals(sequential.nodesCreated(), parallel.nodesCreated());
+			assertEquals(sequential.maxAttainedDepth(), parallel.maxAttainedDepth());
+			assertTrue(parallel.maxAttainedDepth() > 1);
+		}
+	}
+
+	@Test
+	public void refinementsWithEqualFingerprintAreEvaluatedOnce() throws ValidationException {
+		Population smallPopulation = Populations.population(Identifier.id("small_population"), 10);
+		// first two propositions are different but have equal support
+		List<Proposition> propositions = ImmutableList.of(
+				Propositions.proposition(0, copyOf(ImmutableList.of(0, 1, 2, 3, 4, 5))),
+				Propositions.proposition(1, copyOf(ImmutableList.of(0, 1, 2, 3, 4, 5))),
+				Propositions.proposition(2, copyOf(ImmutableList.of(0, 1, 2, 3))));
+		PropositionalContext context = new DefaultPropositionalContext("Context with equal supports",
+				"Two propositions with equal support", smallPopulation, propositions);
+		LogicalDescriptor first = LogicalDescriptors.create(smallPopulation, ImmutableList.of(propositions.get(0)));
+		LogicalDescriptor second = LogicalDescriptors.create(smallPopulation, ImmutableList.of(propositions.get(1)));
+		assertFalse(first.equals(second));
+		assertEquals(first.supportSet(), second.supportSet());
+
+		for (int threads : new int[] { 1, 4 }) {
+			AtomicInteger plainEvaluations = new AtomicInteger(0);
+			List<LogicalDescriptor> plain = descriptors(
+					search(context, plainEvaluations, threads, d -> d).call());
+			assertTrue(plain.contains(first));
+			assertTrue(plain.contains(second));
+
+			AtomicInteger evaluations = new AtomicInteger(0);
+			List<LogicalDescriptor> deduplicated = descriptors(
+					search(context, evaluations, threads, LogicalDescriptor::supportSet).call());
+			assertTrue(deduplicated.contains(first));
+			assertFalse(deduplicated.contains(second));
+			assertTrue(evaluations.get() < plainEvaluations.get());
+		}
+	}
+
+	private NewBeamSearch<Association, LogicalDescriptor> search(PropositionalContext context,
+			AtomicInteger evaluations, int numberOfThreads, Function<? super LogicalDescriptor, ?> fingerprint) {
+		Set<Function<? super LogicalDescriptor, ? extends LogicalDescriptor>> ops = new LinkedHashSet<>();
+		for (Proposition p : context.propositions()) {
+			ops.add(d -> d.specialization(p));
+		}
+		ToDoubleFunction<LogicalDescriptor> counted = d -> {
+			evaluations.incrementAndGet();
+			return d.supportSet().size() * d.size();
+		};
+		return new NewBeamSearch<>(Associations::association, ops,
+				LogicalDescriptors.create(context.population(), ImmutableList.of()), counted,
+				ImmutableList.of(d -> Double.MAX_VALUE), 10, 3, Optional.empty(), RefinementPropagation.ALL,
+				numberOfThreads, fingerprint);
+	}
+
+}
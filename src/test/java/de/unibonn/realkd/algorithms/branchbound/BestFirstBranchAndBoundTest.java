@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.branchbound;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.algorithms.branchbound.BranchAndBoundSearch.LcmSearchNode;
+import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.ValidationException;
+import de.unibonn.realkd.data.Population;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.propositions.PropositionalContext;
+import de.unibonn.realkd.data.propositions.RandomDefaultPropositionalLogicSupplier;
+import de.unibonn.realkd.patterns.association.Association;
+import de.unibonn.realkd.patterns.association.Associations;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class BestFirstBranchAndBoundTest {
+
+	private Population population = Populations.population(Identifier.id("Test_population"), 200);
+
+	private PropositionalContext propLogic = RandomDefaultPropositionalLogicSupplier
+			.randomDefaultPropositionalLogicSupplier("Statement on test population", 16, population).get();
+
+	private Function<LcmSearchNode<Association>, Collection<LcmSearchNode<Association>>> succ = BranchAndBoundSearch
+			.allDescriptorsExpander(propLogic, x -> true, Associations::association);
+
+	private ToDoubleFunction<LcmSearchNode<Association>> f = n -> n.descriptor.supportSet().size()
+			* n.descriptor.size();
+
+	private ToDoubleFunction<LcmSearchNode<Association>> oest = n -> n.descriptor.supportSet().size()
+			* (n.descriptor.size() + propLogic.propositions().size() - n.minAugmentationIndex);
+
+	/*
+	 * coarse support bins produce many patterns of equal value
+	 */
+	private ToDoubleFunction<LcmSearchNode<Association>> fWithTies = n -> Math
+			.floor(n.descriptor.supportSet().size() / 25) * n.descriptor.size();
+
+	private ToDoubleFunction<LcmSearchNode<Association>> oestWithTies = n -> Math
+			.floor(n.descriptor.supportSet().size() / 25)
+			* (n.descriptor.size() + propLogic.propositions().size() - n.minAugmentationIndex);
+
+	private BestFirstBranchAndBound<Association, LcmSearchNode<Association>> search(int numberOfThreads,
+			Optional<Integer> depthLimit) {
+		return new BestFirstBranchAndBound<>(n -> n.content, succ,
+				BranchAndBoundSearch.allDescriptorRootNode(propLogic, Associations::association), f, oest, 10, 1.0,
+				depthLimit, numberOfThreads);
+	}
+
+	private List<String> descriptors(Collection<Association> results) {
+		return results.stream().map(a -> a.descriptor().toString()).collect(toList());
+	}
+
+	private List<Double> values(Collection<Association> results) {
+		return results.stream().map(a -> (double) a.descriptor().supportSet().size() * a.descriptor().size())
+				.collect(toList());
+	}
+
+	@Test
+	public void parallelSearchFindsSameValuesAsSequentialSearch() throws ValidationException {
+		BestFirstBranchAndBound<Association, LcmSearchNode<Association>> sequential = search(1, Optional.empty());
+		BestFirstBranchAndBound<Association, LcmSearchNode<Association>> parallel = search(4, Optional.empty());
+		assertEquals(values(sequential.call()), values(parallel.call()));
+		assertTrue(parallel.nodesCreated() > 1);
+		assertTrue(parallel.maxAttainedBoundarySize() >= 1);
+		assertEquals(0, parallel.boundarySize());
+	}
+
+	@Test
+	public void parallelSearchIsDeterministicUnderTies() throws ValidationException {
+		Function<Integer, BestFirstBranchAndBound<Association, LcmSearchNode<Association>>> search = threads -> new BestFirstBranchAndBound<>(
+				n -> n.content, succ, BranchAndBoundSearch.allDescriptorRootNode(propLogic, Associations::association),
+				fWithTies, oestWithTies, 15, 1.0, Optional.empty(), threads);
+		Function<Association, Double> valueWithTies = a -> Math.floor(a.descriptor().supportSet().size() / 25)
+				* a.descriptor().size();
+		List<Association> sequential = ImmutableList.copyOf(search.apply(1).call());
+		List<Double> values = sequential.stream().map(valueWithTies).collect(toList());
+		assertTrue(values.stream().distinct().count() < values.size());
+		List<Association> parallel = ImmutableList.copyOf(search.apply(2).call());
+		assertEquals(values, parallel.stream().map(valueWithTies).collect(toList()));
+		for (int threads : new int[] { 2, 3, 4 }) {
+			for (int run = 0; run < 5; run++) {
+				assertEquals(descriptors(parallel), descriptors(search.apply(threads).call()));
+			}
+		}
+	}
+
+	@Test
+	public void parallelSearchRespectsDepthLimit() throws ValidationException {
+		BestFirstBranchAndBound<Association, LcmSearchNode<Association>> sequential = search(1, Optional.of(2));
+		BestFirstBranchAndBound<Association, LcmSearchNode<Association>> parallel = search(3, Optional.of(2));
+		assertEquals(values(sequential.call()), values(parallel.call()));
+		assertEquals(2, parallel.maxAttainedDepth());
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.branchbound;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.algorithms.branchbound.OPUS.OperatorOrder;
+import de.unibonn.realkd.algorithms.branchbound.OPUS.TraverseOrder;
+import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.ValidationException;
+import de.unibonn.realkd.data.Population;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.propositions.PropositionalContext;
+import de.unibonn.realkd.data.propositions.RandomDefaultPropositionalLogicSupplier;
+import de.unibonn.realkd.patterns.association.Association;
+import de.unibonn.realkd.patterns.association.Associations;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptor;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptors;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class OPUSTest {
+
+	private Population population = Populations.population(Identifier.id("Test_population"), 200);
+
+	private PropositionalContext propLogic = RandomDefaultPropositionalLogicSupplier
+			.randomDefaultPropositionalLogicSupplier("Statement on test population", 14, population).get();
+
+	private ToDoubleFunction<LogicalDescriptor> f = d -> d.supportSet().size() * Math.sqrt(d.size());
+
+	private ToDoubleFunction<LogicalDescriptor> oest = d -> d.supportSet().size()
+			* Math.sqrt(propLogic.propositions().size());
+
+	private ToDoubleFunction<LogicalDescriptor> tighterOest = d -> d.supportSet().size()
+			* Math.sqrt(d.size() + propLogic.propositions().size() / 2);
+
+	private OPUS<Association, LogicalDescriptor> search(int numberOfThreads, TraverseOrder traverseOrder) {
+		Set<Function<? super LogicalDescriptor, ? extends LogicalDescriptor>> ops = new LinkedHashSet<>();
+		for (Proposition p : propLogic.propositions()) {
+			ops.add(d -> d.specialization(p));
+		}
+		return new OPUS<>(Associations::association, ops, LogicalDescriptors.create(population, ImmutableList.of()),
+				f, ImmutableList.of(oest, tighterOest), 10, 0.9, Optional.empty(), OperatorOrder.OPUS_PAPER,
+				traverseOrder, numberOfThreads, d -> d.supportSet().size() < 5);
+	}
+
+	private List<LogicalDescriptor> descriptors(Collection<Association> results) {
+		return results.stream().map(a -> a.descriptor()).collect(toList());
+	}
+
+	@Test
+	public void parallelSearchFindsSameResultsAsSequentialSearch() throws ValidationException {
+		for (TraverseOrder traverseOrder : TraverseOrder.values()) {
+			OPUS<Association, LogicalDescriptor> sequential = search(1, traverseOrder);
+			OPUS<Association, LogicalDescriptor> parallel = search(4, traverseOrder);
+			assertEquals(descriptors(sequential.call()), descriptors(parallel.call()));
+			assertEquals(sequential.nodesCreated(), parallel.nodesCreated());
+			assertEquals(sequential.nodesDiscarded(), parallel.nodesDiscarded());
+			assertEquals(sequential.nodesDiscardedPruningRules(), parallel.nodesDiscardedPruningRules());
+			assertTrue(parallel.nodesCreated() > 1);
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ package de.unibonn.realkd.algorithms.correlated;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import org.junit.Test;
@@ -71,6 +72,20 @@ public class CorrelatedDiscoveryTest {
 				resultsPatternsToArray[0].value(resultsPatternsToArray[0].correlationMeasure()), DOUBLE_PRECISION);
 	}
 
+	@Test
+	public void testParallelBNBFindsSameResults() throws ValidationException {
+		Workspace workspace = Workspaces.workspace();
+		workspace.add(dataTable);
+		BNBCorrelatedPatternSearch sequential = new BNBCorrelatedPatternSearch(workspace);
+		sequential.topK(5);
+		BNBCorrelatedPatternSearch parallel = new BNBCorrelatedPatternSearch(workspace);
+		parallel.topK(5);
+		parallel.numberOfThreads(4);
+		assertEquals(new ArrayList<>(sequential.call()), new ArrayList<>(parallel.call()));
+		assertEquals(sequential.nodesCreated(), parallel.nodesCreated());
+		assertEquals(sequential.nodesDiscarded(), parallel.nodesDiscarded());
+	}
+
 	@Test
 	public void testDiscoveryCardinalityBestSolution() throws ValidationException {
 		Workspace workspace = Workspaces.workspace();
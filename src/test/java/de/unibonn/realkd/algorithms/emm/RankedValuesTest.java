@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.emm;
+
+import static de.unibonn.realkd.data.table.attribute.Attributes.categoricalAttribute;
+import static de.unibonn.realkd.data.table.attribute.Attributes.metricDoubleAttribute;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.data.table.attribute.CategoricAttribute;
+import de.unibonn.realkd.data.table.attribute.MetricAttribute;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class RankedValuesTest {
+
+	private static final int SIZE = 1000;
+
+	private final Random random = new Random(17);
+
+	private final MetricAttribute target;
+
+	private final CategoricAttribute<String> control;
+
+	public RankedValuesTest() {
+		List<Double> values = new ArrayList<>();
+		List<String> categories = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++) {
+			values.add(random.nextInt(10) == 0 ? null : (double) random.nextInt(50));
+			categories.add(random.nextInt(10) == 0 ? null : random.nextBoolean() ? "a" : "b");
+		}
+		target = metricDoubleAttribute("target", "", values);
+		control = categoricalAttribute("control", "", categories);
+	}
+
+	private IndexSet randomRows(int size) {
+		List<Integer> rows = new ArrayList<>();
+		while (rows.size() < size) {
+			rows.add(random.nextInt(SIZE));
+		}
+		return IndexSets.copyOf(rows);
+	}
+
+	private double[] valuesIncreasingByScan(IndexSet rows) {
+		return target.sortedNonMissingRowIndices().stream().filter(i -> rows.contains(i))
+				.mapToDouble(i -> target.value(i)).toArray();
+	}
+
+	@Test
+	public void valuesOfSmallAndLargeRowSetsAgreeWithScan() {
+		RankedValues rankedValues = RankedValues.rankedValues(target);
+		for (int size : new int[] { 0, 1, 5, 30, 200, 900 }) {
+			IndexSet rows = randomRows(size);
+			assertArrayEquals(valuesIncreasingByScan(rows), rankedValues.valuesIncreasing(rows), 0.0);
+		}
+	}
+
+	@Test
+	public void selectionDataOfIndexSetAgreesWithPredicateSelection() {
+		PopulationData population = BalancedCoveragePositiveMeanShiftOptimisticEstimator.makePopulationData(target,
+				control);
+		for (int size : new int[] { 0, 10, 100, 800 }) {
+			IndexSet rows = randomRows(size);
+			SelectionData expected = new SelectionData(population, rows::contains, rows.size());
+			SelectionData actual = new SelectionData(population, rows);
+			assertEquals(expected.numSel, actual.numSel);
+			assertArrayEquals(expected.target, actual.target, 0.0);
+			assertArrayEquals(expected.control, actual.control);
+			assertArrayEquals(expected.cntCat, actual.cntCat);
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.emm.dssd;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.algorithms.common.PatternOptimizationFunction;
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.data.Population;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.propositions.PropositionalContext;
+import de.unibonn.realkd.data.propositions.RandomDefaultPropositionalLogicSupplier;
+import de.unibonn.realkd.patterns.LocalPatternDescriptor;
+import de.unibonn.realkd.patterns.Pattern;
+import de.unibonn.realkd.patterns.association.Associations;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptor;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptors;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class CoverBasedSubgroupSetSelectorTest {
+
+	private static final int K = 8;
+
+	private Population population = Populations.population(Identifier.id("Test_population"), 300);
+
+	private PropositionalContext propLogic = RandomDefaultPropositionalLogicSupplier
+			.randomDefaultPropositionalLogicSupplier("Statement on test population", 16, population).get();
+
+	private List<Pattern<?>> candidates() {
+		List<Pattern<?>> result = new ArrayList<>();
+		List<? extends Proposition> propositions = propLogic.propositions();
+		for (int i = 0; i < propositions.size(); i++) {
+			result.add(Associations.association(
+					LogicalDescriptors.create(population, ImmutableList.of(propositions.get(i)))));
+			for (int j = i + 1; j < propositions.size(); j++) {
+				result.add(Associations.association(LogicalDescriptors.create(population,
+						ImmutableList.of(propositions.get(i), propositions.get(j)))));
+			}
+		}
+		return result;
+	}
+
+	private static IndexSet cover(Pattern<?> pattern) {
+		return ((LocalPatternDescriptor) pattern.descriptor()).supportSet();
+	}
+
+	private static double score(CoverBasedSubgroupSetSelector selector, Pattern<?> pattern, int[] coverCounts) {
+		double bonus = 0;
+		for (int i : cover(pattern)) {
+			bonus += coverCounts[i] == 0 ? 1 : selector.bonusForAlreadyCoveredRecord(coverCounts[i]);
+		}
+		return selector.quality(pattern) * bonus / cover(pattern).size();
+	}
+
+	/**
+	 * Checks that every selected pattern (after the first) has maximum score
+	 * among the remaining candidates w.r.t. to the previously selected ones.
+	 */
+	private void assertGreedy(CoverBasedSubgroupSetSelector selector, PatternOptimizationFunction quality) {
+		selector.setQualityMeasure(quality);
+		selector.setK(K);
+		List<Pattern<?>> candidates = candidates();
+		Collection<Pattern<?>> selected = selector.process(candidates);
+		assertEquals(K, selected.size());
+
+		candidates.sort(selector.qualityComparator);
+		int[] coverCounts = new int[population.size()];
+		for (Pattern<?> pattern : selected) {
+			if (pattern != candidates.get(0)) {
+				double max = Double.NEGATIVE_INFINITY;
+				for (Pattern<?> candidate : candidates) {
+					max = Math.max(max, score(selector, candidate, coverCounts));
+				}
+				assertEquals(max, score(selector, pattern, coverCounts), 1e-9);
+			}
+			assertEquals(true, candidates.remove(pattern));
+			for (int i : cover(pattern)) {
+				coverCounts[i]++;
+			}
+		}
+	}
+
+	private final PatternOptimizationFunction frequencyTimesLength = p -> (double) cover(p).size()
+			* ((LogicalDescriptor) p.descriptor()).size();
+
+	private final PatternOptimizationFunction shiftedFrequency = p -> cover(p).size() - 40.0;
+
+	@Test
+	public void additiveSelectionIsGreedy() {
+		assertGreedy(new AdditiveCoverBasedSubgroupSetSelector(), frequencyTimesLength);
+		assertGreedy(new AdditiveCoverBasedSubgroupSetSelector(), shiftedFrequency);
+	}
+
+	@Test
+	public void multiplicativeSelectionIsGreedy() {
+		assertGreedy(new MultiplicativeCoverBasedSubgroupSetSelector(0.7, "test"), frequencyTimesLength);
+		assertGreedy(new MultiplicativeCoverBasedSubgroupSetSelector(0.7, "test"), shiftedFrequency);
+	}
+
+	@Test
+	public void sequentialSelectionIsGreedy() {
+		assertGreedy(new SequentialCoverBasedSubgroupSetSelector(), frequencyTimesLength);
+		assertGreedy(new SequentialCoverBasedSubgroupSetSelector(), shiftedFrequency);
+	}
+
+}
@@ -75,6 +75,29 @@ public class FunctionalDiscoveryTest {
 				DOUBLE_PRECISION);
 	}
 
+	@Test
+	public void testParallelOPUSFindsSameResults() throws ValidationException {
+		XarfImport builder = XarfImport.xarfImport(CSV_FILE);
+		DataTable dataTable = builder.get();
+		Workspace workspace = Workspaces.workspace();
+		workspace.add(dataTable);
+		OPUSFunctionalPatternSearch sequential = new OPUSFunctionalPatternSearch(workspace);
+		sequential.target(dataTable.attributes().get(dataTable.attributes().size() - 1));
+		sequential.topK(5);
+		OPUSFunctionalPatternSearch parallel = new OPUSFunctionalPatternSearch(workspace);
+		parallel.target(dataTable.attributes().get(dataTable.attributes().size() - 1));
+		parallel.topK(5);
+		parallel.numberOfThreads(4);
+		// operator order (and hence tie-breaking) differs between runs; compare values only
+		FunctionalPattern[] sequentialResults = sequential.call().toArray(new FunctionalPattern[0]);
+		FunctionalPattern[] parallelResults = parallel.call().toArray(new FunctionalPattern[0]);
+		assertEquals(sequentialResults.length, parallelResults.length);
+		for (int i = 0; i < sequentialResults.length; i++) {
+			assertEquals(sequentialResults[i].value(sequentialResults[i].functionalityMeasure()),
+					parallelResults[i].value(parallelResults[i].functionalityMeasure()), 1e-9);
+		}
+	}
+
 	@Test
 	public void testDiscoveryCardinalityBestSolution() throws ValidationException {
 		XarfImport builder = XarfImport.xarfImport(CSV_FILE);
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-15 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.outlier.LOF;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.unibonn.realkd.common.base.ValidationException;
+import de.unibonn.realkd.common.workspace.Workspace;
+import de.unibonn.realkd.common.workspace.Workspaces;
+import de.unibonn.realkd.data.table.DataFormatException;
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.DataTableFromCSVFileBuilder;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.patterns.Pattern;
+import de.unibonn.realkd.patterns.outlier.Outlier;
+
+/**
+ * Checks that the factors of new points reported by {@link ILOFOutlier} are
+ * the ones of a full recomputation on the data table extended by all new
+ * points.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class ILOFOutlierTest {
+
+	private static final String ATTRIBUTES_FILENAME = "src/main/resources/data/cities/attributes.txt";
+	private static final String DATA_FILENAME = "src/main/resources/data/cities/data.txt";
+	private static final String ATTRIBUTE_GROUPS_FILENAME = "src/main/resources/data/cities/groups.txt";
+
+	private static final int K = 4;
+
+	@Test
+	public void newPointFactorsAreComputedAfterAllInsertions() throws DataFormatException, ValidationException {
+		DataTable table = new DataTableFromCSVFileBuilder().setDelimiter(';').setMissingSymbol("?")
+				.setAttributeMetadataCSVFilename(ATTRIBUTES_FILENAME).setDataCSVFilename(DATA_FILENAME)
+				.setAttributeGroupCSVFilename(ATTRIBUTE_GROUPS_FILENAME).build();
+		Workspace workspace = Workspaces.workspace();
+		workspace.add(table);
+
+		ILOFOutlier algorithm = new ILOFOutlier(workspace);
+		algorithm.findParameterByName("Subspace attributes").setByString("[Latitude,Longitude]");
+		algorithm.findParameterByName("KValue").setByString(String.valueOf(K));
+		// the second point is close to the first one and changes its
+		// neighbourhood after the first point has been inserted
+		algorithm.findParameterByName("newPoint").setByString("31.0,30.5;30.8,30.9;51.0,8.0");
+		List<Pattern<?>> results = new ArrayList<>(algorithm.call());
+
+		assertEquals(2, results.size());
+		DataTable newPoints = ((Outlier) results.get(1)).getDatatable();
+		assertEquals(3, newPoints.population().size());
+		assertEquals(3, newPoints.attributes().size());
+
+		// coordinate attributes of the new point table are in order of the
+		// coordinates of the new points
+		List<Integer> idxs = new ArrayList<>();
+		for (int d = 0; d < 2; d++) {
+			idxs.add(table.attributes().indexOf(table.attribute(newPoints.attribute(d).identifier()).get()));
+		}
+		int n = table.population().size();
+		double[] coordinates = new double[(n + 3) * 2];
+		System.arraycopy(LocalOutlierFactors.coordinates(table, idxs), 0, coordinates, 0, n * 2);
+		for (int j = 0; j < 3; j++) {
+			for (int d = 0; d < 2; d++) {
+				coordinates[(n + j) * 2 + d] = (Double) newPoints.attribute(d).value(j);
+			}
+		}
+		LocalOutlierFactors expected = new LocalOutlierFactors(
+				new KdTree(coordinates, 2, LocalOutlierFactors.ranges(table, idxs)), K);
+
+		Attribute<?> factors = newPoints.attribute(2);
+		for (int j = 0; j < 3; j++) {
+			assertEquals(expected.localOutlierFactor(n + j), algorithm.getNewPointLof()[j], 1e-12);
+			assertEquals(expected.localOutlierFactor(n + j), (Double) factors.value(j), 1e-12);
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.outlier.LOF;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that incrementally maintained local outlier factors agree with a
+ * full recomputation after every insertion and removal.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class IncrementalLocalOutlierFactorsTest {
+
+	private static final int DIMENSIONS = 2;
+
+	private static final double[] SCALES = { 5.0, 5.0 };
+
+	private static final int K = 4;
+
+	private static double[] randomPoint(Random random) {
+		double[] result = new double[DIMENSIONS];
+		for (int d = 0; d < DIMENSIONS; d++) {
+			// coarse grid to produce distance ties and duplicates
+			result[d] = random.nextInt(10) * 0.5;
+		}
+		return result;
+	}
+
+	private static void assertAgreesWithRecomputation(IncrementalLocalOutlierFactors incremental,
+			List<double[]> points) {
+		List<Integer> live = new ArrayList<>();
+		for (int i = 0; i < points.size(); i++) {
+			if (incremental.contains(i)) {
+				live.add(i);
+			}
+		}
+		double[] coordinates = new double[live.size() * DIMENSIONS];
+		for (int j = 0; j < live.size(); j++) {
+			System.arraycopy(points.get(live.get(j)), 0, coordinates, j * DIMENSIONS, DIMENSIONS);
+		}
+		LocalOutlierFactors expected = new LocalOutlierFactors(new KdTree(coordinates, DIMENSIONS, SCALES), K);
+		for (int j = 0; j < live.size(); j++) {
+			assertEquals(expected.localOutlierFactor(j), incremental.localOutlierFactor(live.get(j)), 0.0);
+		}
+	}
+
+	@Test
+	public void insertionsAndRemovals() {
+		Random random = new Random(7);
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			points.add(randomPoint(random));
+		}
+		double[] coordinates = new double[points.size() * DIMENSIONS];
+		for (int i = 0; i < points.size(); i++) {
+			System.arraycopy(points.get(i), 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+		}
+		IncrementalLocalOutlierFactors incremental = new IncrementalLocalOutlierFactors(
+				new KdTree(coordinates, DIMENSIONS, SCALES), K);
+		assertAgreesWithRecomputation(incremental, points);
+
+		for (int step = 0; step < 60; step++) {
+			if (step % 3 == 2) {
+				int i;
+				do {
+					i = random.nextInt(points.size());
+				} while (!incremental.contains(i));
+				incremental.remove(i);
+				assertFalse(incremental.contains(i));
+			} else {
+				double[] point = step % 10 == 0 ? new double[] { 20.0, 20.0 } : randomPoint(random);
+				points.add(point);
+				assertEquals(points.size() - 1, incremental.insert(point));
+			}
+			assertAgreesWithRecomputation(incremental, points);
+		}
+	}
+
+	@Test
+	public void scoreLeavesFactorsUnchanged() {
+		Random random = new Random(11);
+		List<double[]> points = new ArrayList<>();
+		double[] coordinates = new double[50 * DIMENSIONS];
+		for (int i = 0; i < 50; i++) {
+			points.add(randomPoint(random));
+			System.arraycopy(points.get(i), 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+		}
+		IncrementalLocalOutlierFactors incremental = new IncrementalLocalOutlierFactors(
+				new KdTree(coordinates, DIMENSIONS, SCALES), K);
+		double[] before = new double[50];
+		for (int i = 0; i < 50; i++) {
+			before[i] = incremental.localOutlierFactor(i);
+		}
+		double score = incremental.score(new double[] { 30.0, 30.0 });
+		assertEquals(true, score > 1.5);
+		for (int i = 0; i < 50; i++) {
+			assertEquals(before[i], incremental.localOutlierFactor(i), 0.0);
+		}
+		assertEquals(50, incremental.size());
+	}
+
+	@Test
+	public void scoreAgreesWithInsertionWithoutConsumingIndices() {
+		Random random = new Random(13);
+		double[] coordinates = new double[60 * DIMENSIONS];
+		for (int i = 0; i < 60; i++) {
+			System.arraycopy(randomPoint(random), 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+		}
+		IncrementalLocalOutlierFactors scored = new IncrementalLocalOutlierFactors(
+				new KdTree(coordinates, DIMENSIONS, SCALES), K);
+		IncrementalLocalOutlierFactors inserted = new IncrementalLocalOutlierFactors(
+				new KdTree(coordinates, DIMENSIONS, SCALES), K);
+		for (int step = 0; step < 40; step++) {
+			double[] point = step % 8 == 0 ? new double[] { 20.0, 20.0 } : randomPoint(random);
+			int q = inserted.insert(point);
+			assertEquals(inserted.localOutlierFactor(q), scored.score(point), 0.0);
+			inserted.remove(q);
+		}
+		assertEquals(60, scored.insert(randomPoint(random)));
+	}
+
+}
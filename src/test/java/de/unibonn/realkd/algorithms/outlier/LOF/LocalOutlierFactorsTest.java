@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.algorithms.outlier.LOF;
+
+import static de.unibonn.realkd.common.base.Identifier.id;
+import static de.unibonn.realkd.data.Populations.population;
+import static de.unibonn.realkd.data.table.DataTables.table;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.algorithms.outlier.LOF.KdTree.Neighbours;
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.data.table.attribute.Attributes;
+
+/**
+ * Checks kd-tree based local outlier factors against the definitions
+ * evaluated on the full sorted distance matrix of {@link TrainingModel}.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class LocalOutlierFactorsTest {
+
+	private static final int N = 400;
+
+	private static final int K = 5;
+
+	private static DataTable randomTable(long seed) {
+		Random random = new Random(seed);
+		List<Attribute<?>> attributes = new ArrayList<>();
+		for (int d = 0; d < 3; d++) {
+			List<Double> values = new ArrayList<>();
+			for (int i = 0; i < N; i++) {
+				// coarse grid to produce many distance ties
+				values.add(random.nextInt(12) * 0.5 + (d == 0 && i % 50 == 0 ? 40 : 0));
+			}
+			attributes.add(Attributes.metricDoubleAttribute("dim" + d, "", values));
+		}
+		return table(id("random"), "random", "", population(id("random"), N), attributes);
+	}
+
+	private static final List<Integer> INDICES = ImmutableList.of(0, 1, 2);
+
+	/**
+	 * Reference implementation on full distance matrix.
+	 */
+	private static class MatrixLof {
+
+		private final double[][] matrix;
+
+		private final int[][] sorted;
+
+		private MatrixLof(DataTable table) {
+			TrainingModel model = new TrainingModel(table, INDICES);
+			matrix = model.getMatirx();
+			sorted = model.getMatrixSortedIndicies();
+		}
+
+		private int count(int i) {
+			int result = K + 1;
+			for (int p = K; p < N; p++)
+				if (matrix[i][sorted[i][p]] == matrix[i][sorted[i][p + 1]])
+					result++;
+				else
+					break;
+			return result;
+		}
+
+		private double reach(int first, int second) {
+			double kDistance = matrix[second][sorted[second][count(second)]];
+			return Math.max(kDistance, matrix[first][second]);
+		}
+
+		private double lrd(int i) {
+			double result = 0.0;
+			int count = count(i);
+			for (int p = 1; p < count; p++) {
+				result += reach(i, sorted[i][p]);
+			}
+			return count / result;
+		}
+
+		private double lof(int i) {
+			int count = count(i);
+			double result = 0;
+			for (int p = 1; p < count; p++) {
+				result += lrd(sorted[i][p]) / lrd(i);
+			}
+			return result / count;
+		}
+
+	}
+
+	@Test
+	public void nearestNeighboursAgreeWithSortedMatrix() {
+		DataTable table = randomTable(1);
+		MatrixLof reference = new MatrixLof(table);
+		KdTree tree = new KdTree(LocalOutlierFactors.coordinates(table, INDICES), 3,
+				LocalOutlierFactors.ranges(table, INDICES));
+		for (int i = 0; i < N; i += 7) {
+			Neighbours neighbours = tree.nearest(i, 30);
+			for (int p = 0; p < 30; p++) {
+				assertEquals(reference.sorted[i][p], neighbours.indices[p]);
+				assertEquals(reference.matrix[i][reference.sorted[i][p]], neighbours.distances[p], 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void localOutlierFactorsAgreeWithMatrixDefinition() {
+		DataTable table = randomTable(2);
+		MatrixLof reference = new MatrixLof(table);
+		double[] expected = new double[N];
+		for (int i = 0; i < N; i++) {
+			expected[i] = reference.lof(i);
+		}
+		LocalOutlierFactors factors = LocalOutlierFactors.localOutlierFactors(table, INDICES, K);
+		assertArrayEquals(expected, factors.values(), 0.0);
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class KdonTypeRegistryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path rootWithRegistry(String... lines) throws IOException {
+		Path root = folder.newFolder().toPath();
+		Path registry = root.resolve(KdonTypeRegistry.RESOURCE_NAME);
+		Files.createDirectories(registry.getParent());
+		Files.write(registry, Arrays.asList(lines), StandardCharsets.UTF_8);
+		return root;
+	}
+
+	@Test
+	public void registryAgreesWithClasspathScan() {
+		Optional<Map<String, Class<?>>> registered = KdonTypeRegistry
+				.registeredTypes(KdonTypeRegistry.class.getClassLoader());
+		assertTrue(registered.isPresent());
+		assertEquals(KdonCoreJavaTypeProvider.scanClasspath("de.unibonn.realkd"),
+				new HashSet<>(registered.get().values()));
+	}
+
+	@Test
+	public void registeredNamesMatchAnnotations() {
+		Map<String, Class<?>> registered = KdonTypeRegistry.registeredTypes(KdonTypeRegistry.class.getClassLoader())
+				.get();
+		registered.forEach((name, type) -> assertEquals(name, type.getAnnotation(KdonTypeName.class).value()));
+	}
+
+	@Test
+	public void conflictingNamesKeepFirstRegistration() throws IOException {
+		Path first = rootWithRegistry("some_type=java.lang.String");
+		Path second = rootWithRegistry("some_type=java.lang.Integer", "other_type=java.lang.Long");
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { first.toUri().toURL(), second.toUri().toURL() }, null)) {
+			Map<String, Class<?>> registered = KdonTypeRegistry.registeredTypes(classLoader).get();
+			assertEquals(String.class, registered.get("some_type"));
+			assertEquals(Long.class, registered.get("other_type"));
+		}
+	}
+
+	@Test
+	public void rootsWithoutRegistryAreScanned() throws IOException {
+		Path registered = rootWithRegistry("some_type=java.lang.String");
+		Files.createDirectories(registered.resolve("de/unibonn/realkd"));
+		Path plugin = folder.newFolder().toPath();
+		Files.createDirectories(plugin.resolve("de/unibonn/realkd"));
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { registered.toUri().toURL(), plugin.toUri().toURL() }, null)) {
+			List<URL> unregistered = KdonCoreJavaTypeProvider.unregisteredRoots("de.unibonn.realkd", classLoader);
+			assertEquals(1, unregistered.size());
+			assertEquals(plugin.toUri().toURL().toExternalForm(), unregistered.get(0).toExternalForm());
+		}
+	}
+
+	@Test
+	public void providerIncludesRegisteredTypes() {
+		ClassLoader classLoader = KdonTypeRegistry.class.getClassLoader();
+		Map<String, Class<?>> registered = KdonTypeRegistry.registeredTypes(classLoader).get();
+		assertTrue(new KdonCoreJavaTypeProvider().get().containsAll(registered.values()));
+		Set<String> registryRoots = KdonTypeRegistry.registryRoots(classLoader);
+		assertFalse(KdonCoreJavaTypeProvider.unregisteredRoots("de.unibonn.realkd", classLoader).stream()
+				.anyMatch(url -> registryRoots.contains(url.toExternalForm())));
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.common.optimization;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.optim.linear.LinearConstraint;
+import org.apache.commons.math3.optim.linear.LinearConstraintSet;
+import org.apache.commons.math3.optim.linear.LinearObjectiveFunction;
+import org.apache.commons.math3.optim.linear.NonNegativeConstraint;
+import org.apache.commons.math3.optim.linear.Relationship;
+import org.apache.commons.math3.optim.linear.SimplexSolver;
+import org.apache.commons.math3.optim.nonlinear.scalar.GoalType;
+import org.junit.Test;
+
+import de.unibonn.realkd.common.base.Pair;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class L1SVMOptimizerTest {
+
+	private static final double C = 0.1;
+
+	private static final Kernel<double[]> KERNEL = new Kernel<double[]>() {
+
+		@Override
+		public double value(double[] v1, double[] v2) {
+			double result = 0;
+			for (int i = 0; i < v1.length; i++) {
+				result += v1[i] * v2[i];
+			}
+			return (1 + result) * (1 + result);
+		}
+
+		@Override
+		public double[] getZeroElement() {
+			return new double[] { 0, 0, 0 };
+		}
+
+	};
+
+	private static double[][] kernelMatrix(PreferenceSupportVectorBasedRegressionModel<double[]> model,
+			List<Pair<double[], double[]>> preferences) {
+		int n = preferences.size();
+		double[][] result = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				result[i][j] = model.pairInnerProd(preferences.get(i), preferences.get(j));
+			}
+		}
+		return result;
+	}
+
+	private static double objective(double[][] kernel, double[] alpha) {
+		double result = 0;
+		for (int i = 0; i < alpha.length; i++) {
+			double margin = 0;
+			for (int j = 0; j < alpha.length; j++) {
+				margin += alpha[j] * kernel[i][j];
+			}
+			result += alpha[i] + C * Math.max(0, 1 - margin);
+		}
+		return result;
+	}
+
+	/**
+	 * Optimum of the linear program with variables alpha and slacks.
+	 */
+	private static double simplexOptimum(double[][] kernel) {
+		int n = kernel.length;
+		double[] objective = new double[2 * n];
+		Collection<LinearConstraint> constraints = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			objective[i] = 1;
+			objective[n + i] = C;
+			double[] coefficients = new double[2 * n];
+			System.arraycopy(kernel[i], 0, coefficients, 0, n);
+			coefficients[n + i] = 1;
+			constraints.add(new LinearConstraint(coefficients, Relationship.GEQ, 1));
+		}
+		return new SimplexSolver().optimize(new LinearObjectiveFunction(objective, 0),
+				new LinearConstraintSet(constraints), GoalType.MINIMIZE, new NonNegativeConstraint(true)).getValue();
+	}
+
+	@Test
+	public void testOptimalityAfterIncrementalUpdates() {
+		Random random = new Random(3);
+		L1SVMOptimizer<double[]> optimizer = new L1SVMOptimizer<>(KERNEL);
+		PreferenceSupportVectorBasedRegressionModel<double[]> model = (PreferenceSupportVectorBasedRegressionModel<double[]>) optimizer
+				.getModel();
+		List<Pair<double[], double[]>> preferences = new ArrayList<>();
+		for (int t = 0; t < 40; t++) {
+			double[] superior = { random.nextDouble(), random.nextDouble(), random.nextDouble() };
+			double[] inferior = { random.nextDouble(), random.nextDouble(), random.nextDouble() };
+			if (superior[0] + superior[1] < inferior[0] + inferior[1]) {
+				double[] swap = superior;
+				superior = inferior;
+				inferior = swap;
+			}
+			optimizer.tellPreference(superior, inferior);
+			preferences.add(Pair.pair(superior, inferior));
+			optimizer.doUpdate();
+
+			if (t % 10 == 9) {
+				double[][] kernel = kernelMatrix(model, preferences);
+				double[] alpha = new double[preferences.size()];
+				for (int k = 0; k < model.getSupportVectors().size(); k++) {
+					alpha[preferences.indexOf(model.getSupportVectors().get(k))] = model.getCoefficients().get(k);
+				}
+				assertEquals(simplexOptimum(kernel), objective(kernel, alpha), 1e-6);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.common.optimization;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.DoubleBinaryOperator;
+
+import org.junit.Test;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class StochasticCoordinateDescentTest {
+
+	private static final DoubleBinaryOperator LOGISTIC_LOSS_DERIVATIVE = (score, label) -> (-label)
+			/ (1 + Math.exp(label * score));
+
+	private static final DoubleBinaryOperator SQUARE_LOSS_DERIVATIVE = (score, label) -> score - label;
+
+	private static double[][] randomData(Random random, int n, int d, double density) {
+		double[][] data = new double[n][d];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < d; j++) {
+				data[i][j] = random.nextDouble() < density ? 2 * random.nextDouble() - 1 : 0.0;
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Coordinate descent that recomputes all scores for every partial
+	 * derivative, choosing coordinates like the tested implementation.
+	 */
+	private static void naiveCoordinateDescent(DoubleBinaryOperator lossDerivative, double[] weights,
+			double[][] data, double[] labels, double[] aprioriWeights, double betaInverse, double gamma,
+			int maxIterations, Random random) {
+		int d = weights.length;
+		int[] coordinates = new int[d];
+		for (int j = 0; j < d; j++) {
+			coordinates[j] = j;
+		}
+		boolean[] freeToChange = new boolean[d];
+		Arrays.fill(freeToChange, true);
+		int freeWeights = d;
+		int t = -1;
+		while (t < maxIterations && freeWeights > 0) {
+			t++;
+			int l = random.nextInt(d);
+			int coordinate = coordinates[l];
+			coordinates[l] = coordinates[0];
+			coordinates[0] = coordinate;
+			if (!freeToChange[coordinate]) {
+				continue;
+			}
+			double g = 0;
+			for (int i = 0; i < data.length; i++) {
+				double score = 0;
+				for (int j = 0; j < d; j++) {
+					score += weights[j] * data[i][j];
+				}
+				g += data[i][coordinate] * lossDerivative.applyAsDouble(score, labels[i]);
+			}
+			g = g / data.length;
+			double oldValue = weights[coordinate];
+			double w = oldValue - g * betaInverse;
+			if (w > betaInverse * gamma + aprioriWeights[coordinate]) {
+				weights[coordinate] = w - betaInverse * gamma;
+			} else if (w < -betaInverse * gamma + aprioriWeights[coordinate]) {
+				weights[coordinate] = w + betaInverse * gamma;
+			} else {
+				weights[coordinate] = aprioriWeights[coordinate];
+			}
+			if (weights[coordinate] == oldValue) {
+				freeToChange[coordinate] = false;
+				freeWeights--;
+			} else {
+				Arrays.fill(freeToChange, true);
+				freeWeights = d;
+			}
+		}
+	}
+
+	@Test
+	public void testAgreementWithNaiveImplementation() {
+		Random random = new Random(7);
+		int n = 60;
+		int d = 12;
+		double[][] data = randomData(random, n, d, 0.3);
+		double[] labels = new double[n];
+		for (int i = 0; i < n; i++) {
+			labels[i] = random.nextBoolean() ? 1.0 : -1.0;
+		}
+		double[] aprioriWeights = new double[d];
+		aprioriWeights[0] = 0.5;
+
+		double[] expected = new double[d];
+		naiveCoordinateDescent(LOGISTIC_LOSS_DERIVATIVE, expected, data, labels, aprioriWeights, 4.0, 0.01, 1000 * d,
+				new Random(11));
+		double[] actual = new double[d];
+		StochasticCoordinateDescent.stochasticCoordinateDescent(LOGISTIC_LOSS_DERIVATIVE, actual, data, labels,
+				aprioriWeights, 4.0, 0.01, 1000 * d, new Random(11), 1);
+
+		assertArrayEquals(expected, actual, 1e-9);
+	}
+
+	@Test
+	public void testParallelUpdatesRecoverLinearFunction() {
+		Random random = new Random(13);
+		int n = 200;
+		int d = 8;
+		double[][] data = randomData(random, n, d, 0.5);
+		double[] trueWeights = new double[d];
+		for (int j = 0; j < d; j++) {
+			trueWeights[j] = (2 * random.nextDouble() - 1) / d;
+		}
+		double[] labels = new double[n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < d; j++) {
+				labels[i] += trueWeights[j] * data[i][j];
+			}
+		}
+
+		double[] weights = new double[d];
+		StochasticCoordinateDescent.stochasticCoordinateDescent(SQUARE_LOSS_DERIVATIVE, weights, data, labels,
+				new double[d], 1.0, 0.0, 20000 * d, new Random(17), 2);
+
+		assertArrayEquals(trueWeights, weights, 1e-4);
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.propositions;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.primitives.Ints;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.common.testing.TestConstants;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class PropositionIndexTest {
+
+	private static final PropositionalContext CONTEXT = TestConstants.getGermanyPropositionalLogic();
+
+	@Test
+	public void testBlockTranspose() {
+		Random random = new Random(123);
+		long[] block = new long[64];
+		for (int r = 0; r < 64; r++) {
+			block[r] = random.nextLong();
+		}
+		long[] transposed = block.clone();
+		PropositionIndex.transpose(transposed);
+		for (int r = 0; r < 64; r++) {
+			for (int c = 0; c < 64; c++) {
+				assertEquals((block[r] >>> c) & 1L, (transposed[c] >>> r) & 1L);
+			}
+		}
+	}
+
+	@Test
+	public void testAgreementWithPropositions() {
+		PropositionIndex index = CONTEXT.propositionIndex();
+		assertEquals(CONTEXT.propositions().size(), index.numberOfPropositions());
+		assertEquals(CONTEXT.population().size(), index.numberOfObjects());
+		for (int p = 0; p < index.numberOfPropositions(); p++) {
+			assertEquals(CONTEXT.proposition(p).supportCount(), index.supportCount(p));
+			for (int i = 0; i < index.numberOfObjects(); i++) {
+				assertEquals(CONTEXT.proposition(p).holdsFor(i), index.holds(p, i));
+			}
+		}
+	}
+
+	@Test
+	public void testTruthSets() {
+		PropositionIndex index = CONTEXT.propositionIndex();
+		for (int i = 0; i < index.numberOfObjects(); i++) {
+			int object = i;
+			int[] expected = Ints.toArray(CONTEXT.propositions().stream().filter(p -> p.holdsFor(object))
+					.map(p -> CONTEXT.index(p).get()).collect(Collectors.toList()));
+			assertArrayEquals(expected, index.truthIndices(i));
+			assertEquals(expected.length, index.truthCount(i));
+			Set<Integer> truthSet = CONTEXT.truthSet(i);
+			assertArrayEquals(expected, Ints.toArray(truthSet));
+		}
+	}
+
+	@Test
+	public void testSelectedTruthIndices() {
+		PropositionIndex index = CONTEXT.propositionIndex();
+		long[] evenPropositions = index.selectionMask(p -> p % 2 == 0);
+		for (int i = 0; i < index.numberOfObjects(); i++) {
+			int[] expected = Ints.asList(index.truthIndices(i)).stream().filter(p -> p % 2 == 0)
+					.mapToInt(p -> p).toArray();
+			assertArrayEquals(expected, index.truthIndices(i, evenPropositions));
+		}
+	}
+
+	@Test
+	public void testSupportQueries() {
+		PropositionIndex index = CONTEXT.propositionIndex();
+		IndexSet firstSupport = CONTEXT.supportSet(0);
+		assertTrue(index.holdsForAll(0, firstSupport));
+		for (int p = 0; p < index.numberOfPropositions(); p++) {
+			IndexSet intersection = IndexSets.intersection(firstSupport, CONTEXT.supportSet(p));
+			assertEquals(intersection.size(), index.supportCount(p, firstSupport));
+			assertEquals(CONTEXT.supportSet(p).containsAll(firstSupport), index.holdsForAll(p, firstSupport));
+		}
+	}
+
+}
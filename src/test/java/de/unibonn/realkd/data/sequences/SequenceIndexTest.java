@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.sequences;
+
+import static java.util.stream.IntStream.range;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.unibonn.realkd.data.propositions.Proposition;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class SequenceIndexTest {
+
+	private static final SequentialPropositionalContext CONTEXT = (SequentialPropositionalContext) TestConstants
+			.getSequenceWorkspaceWithOrdinalDistance().propositionalContexts().get(0);
+
+	private static int[] itemsets(List<SequenceEvent<?>> events) {
+		int[] result = new int[events.size()];
+		for (int e = 1; e < events.size(); e++) {
+			boolean sameValue = Objects.equals(events.get(e - 1).value(), events.get(e).value());
+			result[e] = sameValue ? result[e - 1] : result[e - 1] + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * checks whether ordered sets can be matched within itemsets from first to
+	 * last (inclusive) by matching every ordered set as early as possible
+	 */
+	private static boolean occursWithin(List<SequenceEvent<?>> events, int[] itemsets, int[][] orderedSets,
+			int first, int last) {
+		int from = first;
+		for (int[] orderedSet : orderedSets) {
+			int end = -1;
+			for (int proposition : orderedSet) {
+				int occurrence = -1;
+				for (int e = 0; e < events.size() && occurrence == -1; e++) {
+					if (itemsets[e] >= from && CONTEXT.index(events.get(e).proposition()).get() == proposition) {
+						occurrence = itemsets[e];
+					}
+				}
+				if (occurrence == -1) {
+					return false;
+				}
+				end = Math.max(end, occurrence);
+			}
+			if (end > last) {
+				return false;
+			}
+			from = end + 1;
+		}
+		return true;
+	}
+
+	@Test
+	public void testOccurrences() {
+		SequenceIndex index = CONTEXT.sequenceIndex();
+		assertEquals(CONTEXT.sequences().size(), index.numberOfSequences());
+		for (int s = 0; s < index.numberOfSequences(); s++) {
+			List<SequenceEvent<?>> events = CONTEXT.sequences().get(s).events();
+			int[] itemsets = itemsets(events);
+			for (int p = 0; p < CONTEXT.propositions().size(); p++) {
+				int proposition = p;
+				int[] expected = range(0, events.size()).filter(
+						e -> CONTEXT.index(events.get(e).proposition()).get() == proposition).map(e -> itemsets[e])
+						.distinct().toArray();
+				assertArrayEquals(expected, index.occurrences(s, p));
+			}
+		}
+	}
+
+	@Test
+	public void testMinimalWindowsAgreeWithExhaustiveSearch() {
+		SequenceIndex index = CONTEXT.sequenceIndex();
+		Random random = new Random(42);
+		int numberOfPropositions = CONTEXT.propositions().size();
+		for (int trial = 0; trial < 200; trial++) {
+			List<List<Proposition>> pattern = new ArrayList<>();
+			for (int j = 0, length = 1 + random.nextInt(3); j < length; j++) {
+				List<Proposition> orderedSet = new ArrayList<>();
+				for (int q = 0, size = random.nextInt(3); q < size; q++) {
+					orderedSet.add(CONTEXT.proposition(random.nextInt(numberOfPropositions)));
+				}
+				pattern.add(orderedSet);
+			}
+			int[][] orderedSets = index.encode(pattern);
+			for (int s = 0; s < index.numberOfSequences(); s++) {
+				List<SequenceEvent<?>> events = CONTEXT.sequences().get(s).events();
+				int[] itemsets = itemsets(events);
+				int numberOfItemsets = events.isEmpty() ? 0 : itemsets[events.size() - 1] + 1;
+				int expected = -1;
+				for (int first = 0; first < numberOfItemsets; first++) {
+					for (int last = first; last < numberOfItemsets; last++) {
+						if (occursWithin(events, itemsets, orderedSets, first, last)
+								&& (expected == -1 || last - first + 1 < expected)) {
+							expected = last - first + 1;
+						}
+					}
+				}
+				if (orderedSets.length == 0) {
+					expected = 0;
+				}
+				assertEquals(expected, index.minimalWindow(s, orderedSets));
+				assertEquals(expected != -1, index.contains(s, orderedSets));
+			}
+		}
+	}
+
+}
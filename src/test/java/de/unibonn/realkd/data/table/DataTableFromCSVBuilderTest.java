@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.junit.Test;
+
+import de.unibonn.realkd.data.table.attribute.Attribute;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class DataTableFromCSVBuilderTest {
+
+	private static final String ATTRIBUTES = "id;name;row id\n" + "color;categoric;a color\n"
+			+ "size;numeric;a size\n" + "count;integer;a count\n" + "time;date;a time\n";
+
+	private static final String DATA = "r1;red;1.5;3;2016-03-04 10:20:30\n" + "r2;blue;?;x;2016-3-4 1:02:03\n"
+			+ "\n" + "r3;red;-2;7;2016-03-04 13:15:00\n" + "r4;?;0;?;2016-03-04 12:00:00\n";
+
+	private DataTable table() throws DataFormatException {
+		return new DataTableFromCSVBuilder().attributeMetadataCSV(ATTRIBUTES).dataCSV(DATA).build();
+	}
+
+	@Test
+	public void columnsAreParsedAccordingToTypes() throws DataFormatException {
+		DataTable table = table();
+		assertEquals(4, table.population().size());
+		assertEquals("r3", table.population().objectName(2));
+		assertEquals(4, table.attributes().size());
+
+		Attribute<?> color = table.attributes().get(0);
+		assertEquals("red", color.value(0));
+		assertTrue(color.valueMissing(3));
+		assertSame(color.value(0), color.value(2));
+
+		Attribute<?> size = table.attributes().get(1);
+		assertEquals(1.5, size.value(0));
+		assertTrue(size.valueMissing(1));
+		assertEquals(-2.0, size.value(2));
+
+		Attribute<?> count = table.attributes().get(2);
+		assertEquals(3, count.value(0));
+		assertTrue(count.valueMissing(1));
+		assertTrue(count.valueMissing(3));
+	}
+
+	@Test
+	public void datesAreParsedAsBySimpleDateFormat() throws Exception {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
+		Attribute<?> time = table().attributes().get(3);
+		String[] values = { "2016-03-04 10:20:30", "2016-3-4 1:02:03", "2016-03-04 13:15:00",
+				"2016-03-04 12:00:00" };
+		for (int i = 0; i < values.length; i++) {
+			Date expected = format.parse(values[i]);
+			assertEquals(expected, time.value(i));
+		}
+	}
+
+	@Test(expected = DataFormatException.class)
+	public void shortRowIsRejected() throws DataFormatException {
+		new DataTableFromCSVBuilder().attributeMetadataCSV(ATTRIBUTES).dataCSV("r1;red;1.5\n").build();
+	}
+
+}
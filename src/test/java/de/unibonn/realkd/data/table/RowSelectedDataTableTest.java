@@ -0,0 +1,179 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.data.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import de.unibonn.realkd.algorithms.emm.ExceptionalModelBeamSearch;
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.common.base.Identifier;
+import de.unibonn.realkd.common.base.ValidationException;
+import de.unibonn.realkd.common.testing.JsonSerializationTesting;
+import de.unibonn.realkd.common.testing.TestConstants;
+import de.unibonn.realkd.common.workspace.HasSerialForm;
+import de.unibonn.realkd.common.workspace.SerialForm;
+import de.unibonn.realkd.common.workspace.Workspace;
+import de.unibonn.realkd.common.workspace.Workspaces;
+import de.unibonn.realkd.data.propositions.AttributeBasedProposition;
+import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.propositions.PropositionalContext;
+import de.unibonn.realkd.data.propositions.Propositions;
+import de.unibonn.realkd.data.propositions.TableBasedPropositionalContext;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.data.table.attribute.MetricAttribute;
+import de.unibonn.realkd.patterns.Pattern;
+import de.unibonn.realkd.patterns.emm.ExceptionalModelPattern;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptor;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class RowSelectedDataTableTest {
+
+	private static final DataTable ORIGINAL_DATATABLE = TestConstants.getGermanyDataTable();
+
+	private static final int[] ROWS = IntStream.range(0, ORIGINAL_DATATABLE.population().size())
+			.filter(i -> i % 3 == 1).toArray();
+
+	private static final IndexSet ROW_SET = IndexSets.of(ROWS);
+
+	private static final DataTable SELECTED_TABLE = DataTables.rowSelection(Identifier.id("selected"), "", "",
+			ORIGINAL_DATATABLE, ROW_SET);
+
+	@Test
+	public void populationContainsSelectedObjects() {
+		assertEquals(ROWS.length, SELECTED_TABLE.population().size());
+		for (int i = 0; i < ROWS.length; i++) {
+			assertEquals(ORIGINAL_DATATABLE.population().objectName(ROWS[i]),
+					SELECTED_TABLE.population().objectName(i));
+		}
+	}
+
+	@Test
+	public void attributesHoldSelectedValues() {
+		assertEquals(ORIGINAL_DATATABLE.numberOfAttributes(), SELECTED_TABLE.numberOfAttributes());
+		for (int j = 0; j < ORIGINAL_DATATABLE.numberOfAttributes(); j++) {
+			Attribute<?> original = ORIGINAL_DATATABLE.attribute(j);
+			Attribute<?> selected = SELECTED_TABLE.attribute(original.identifier()).get();
+			assertEquals(original.getClass(), selected.getClass());
+			for (int i = 0; i < ROWS.length; i++) {
+				assertEquals(original.getValueOption(ROWS[i]), selected.getValueOption(i));
+			}
+		}
+	}
+
+	@Test
+	public void statisticsReferToSelectedRows() {
+		MetricAttribute original = (MetricAttribute) ORIGINAL_DATATABLE.attributes().stream()
+				.filter(a -> a instanceof MetricAttribute).findFirst().get();
+		MetricAttribute selected = (MetricAttribute) SELECTED_TABLE.attribute(original.identifier()).get();
+		assertEquals(original.meanOnRows(ROW_SET), selected.mean(), 1e-9);
+	}
+
+	@Test
+	public void dependenciesAsInOriginalTable() {
+		for (Attribute<?> a : ORIGINAL_DATATABLE.attributes()) {
+			for (Attribute<?> b : ORIGINAL_DATATABLE.attributes()) {
+				assertEquals(ORIGINAL_DATATABLE.containsDependencyBetween(a, b), SELECTED_TABLE.containsDependencyBetween(
+						SELECTED_TABLE.attribute(a.identifier()).get(), SELECTED_TABLE.attribute(b.identifier()).get()));
+			}
+		}
+	}
+
+	private static final TableBasedPropositionalContext SELECTED_PROPOSITIONS = Propositions.rowSelection(
+			Identifier.id("selected_props"),
+			(TableBasedPropositionalContext) TestConstants.getGermanyPropositionalLogic(), SELECTED_TABLE, ROW_SET);
+
+	@Test
+	public void propositionalContextRestriction() {
+		PropositionalContext original = TestConstants.getGermanyPropositionalLogic();
+		assertSame(SELECTED_TABLE, SELECTED_PROPOSITIONS.getDatatable());
+		assertEquals(original.propositions().size(), SELECTED_PROPOSITIONS.propositions().size());
+		for (int p = 0; p < original.propositions().size(); p++) {
+			AttributeBasedProposition<?> originalProposition = (AttributeBasedProposition<?>) original.proposition(p);
+			AttributeBasedProposition<?> selectedProposition = (AttributeBasedProposition<?>) SELECTED_PROPOSITIONS
+					.proposition(p);
+			assertSame(SELECTED_TABLE.attribute(originalProposition.attribute().identifier()).get(),
+					selectedProposition.attribute());
+			assertEquals(originalProposition.constraint(), selectedProposition.constraint());
+			for (int i = 0; i < ROWS.length; i++) {
+				assertEquals(original.proposition(p).holdsFor(ROWS[i]), SELECTED_PROPOSITIONS.supportSet(p).contains(i));
+				assertEquals(original.proposition(p).holdsFor(ROWS[i]), selectedProposition.holdsFor(i));
+			}
+		}
+	}
+
+	@Test
+	public void descriptorsMinedOnRowSelectionAreSerializable() throws ValidationException, IOException {
+		Workspace workspace = Workspaces.workspace();
+		workspace.add(SELECTED_TABLE);
+		workspace.add(SELECTED_PROPOSITIONS);
+		ExceptionalModelBeamSearch beamSearch = new ExceptionalModelBeamSearch(workspace);
+		beamSearch.getDataTableParameter().set(SELECTED_TABLE);
+		beamSearch.findParameterByName("Number of results").setByString("3");
+		beamSearch.getTargetAttributesParameter().setByString("[Type, No school degree]");
+		beamSearch.getModelClassParameter().setByString("Contingency table");
+		Collection<Pattern<?>> results = beamSearch.call();
+		assertFalse(results.isEmpty());
+		for (Pattern<?> pattern : results) {
+			LogicalDescriptor descriptor = ((ExceptionalModelPattern) pattern).descriptor().extensionDescriptor();
+			for (Proposition proposition : descriptor) {
+				Attribute<?> attribute = ((AttributeBasedProposition<?>) proposition).attribute();
+				assertSame(SELECTED_TABLE.attribute(attribute.identifier()).get(), attribute);
+				assertFalse(
+						attribute.caption().equals("Type") || attribute.caption().equals("No school degree"));
+			}
+			SerialForm<LogicalDescriptor> serialForm = descriptor.serialForm();
+			JsonSerializationTesting.testJsonSerialization(serialForm, SerialForm.class);
+			assertEquals(descriptor, serialForm.build(workspace));
+		}
+	}
+
+	@Test
+	public void testSerialForm() throws IOException {
+		assertTrue(SELECTED_TABLE instanceof HasSerialForm);
+		SerialForm<?> serialForm = ((HasSerialForm<?>) SELECTED_TABLE).serialForm();
+		JsonSerializationTesting.testJsonSerialization(serialForm, SerialForm.class);
+		Workspace workspace = Workspaces.workspace();
+		workspace.add(ORIGINAL_DATATABLE);
+		DataTable reconstructed = (DataTable) serialForm.build(workspace);
+		assertEquals(SELECTED_TABLE.attributes(), reconstructed.attributes());
+		assertEquals(SELECTED_TABLE.population().size(), reconstructed.population().size());
+	}
+
+}
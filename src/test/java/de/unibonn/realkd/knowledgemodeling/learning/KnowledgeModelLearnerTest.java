@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.knowledgemodeling.learning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.common.testing.TestConstants;
+import de.unibonn.realkd.data.propositions.AttributeBasedProposition;
+import de.unibonn.realkd.data.propositions.Proposition;
+import de.unibonn.realkd.data.propositions.PropositionalContext;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.knowledgemodeling.constraints.FrequencyConstraint;
+import de.unibonn.realkd.patterns.Frequency;
+import de.unibonn.realkd.patterns.association.Association;
+import de.unibonn.realkd.patterns.association.Associations;
+import de.unibonn.realkd.patterns.logical.LogicalDescriptors;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class KnowledgeModelLearnerTest {
+
+	private final PropositionalContext propositions = TestConstants.getGermanyPropositionalLogic();
+
+	private Association association(Proposition... elements) {
+		return Associations.association(
+				LogicalDescriptors.create(propositions.population(), ImmutableList.copyOf(elements)),
+				ImmutableList.of());
+	}
+
+	private List<Proposition> propositionsOfDistinctAttributes(int number) {
+		List<Proposition> result = new ArrayList<>();
+		List<Attribute<?>> attributes = new ArrayList<>();
+		for (Proposition proposition : propositions.propositions()) {
+			Attribute<?> attribute = ((AttributeBasedProposition<?>) proposition).attribute();
+			if (!attributes.contains(attribute) && proposition.supportCount() > 0) {
+				attributes.add(attribute);
+				result.add(proposition);
+				if (result.size() == number) {
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void onlyComponentsTouchedByNewConstraintsAreRebuilt() {
+		KnowledgeModelLearner learner = new KnowledgeModelLearner(TestConstants.getGermanyDataTable());
+		List<Proposition> elements = propositionsOfDistinctAttributes(3);
+		for (Proposition element : elements) {
+			learner.tellConstraint(new FrequencyConstraint(association(element)));
+		}
+		learner.doUpdate();
+		assertEquals(3, learner.getConnectedComponents().size());
+		ConnectedComponent untouched = learner.getConnectedComponents().get(2);
+
+		learner.tellConstraint(new FrequencyConstraint(association(elements.get(0), elements.get(1))));
+		learner.doUpdate();
+		assertEquals(2, learner.getConnectedComponents().size());
+		assertEquals(3, learner.getConnectedComponents().get(0).getConstraints().size());
+		assertSame(untouched, learner.getConnectedComponents().get(1));
+	}
+
+	@Test
+	public void expectedFrequenciesMatchToldFrequencies() {
+		KnowledgeModelLearner learner = new KnowledgeModelLearner(TestConstants.getGermanyDataTable());
+		List<Proposition> elements = propositionsOfDistinctAttributes(2);
+		List<Association> told = ImmutableList.of(association(elements.get(0)), association(elements.get(1)),
+				association(elements.get(0), elements.get(1)));
+		told.forEach(pattern -> learner.tellConstraint(new FrequencyConstraint(pattern)));
+		learner.doUpdate();
+		for (Association pattern : told) {
+			assertEquals(pattern.value(Frequency.FREQUENCY),
+					learner.getUserKnowledgeModel().getExpectedMeasurement(pattern), 1e-3);
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.lang;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.unibonn.realkd.lang.BatchInterpreter.ScriptStatement;
+
+/**
+ * Checks the dependencies that the batch interpreter derives between the
+ * statements of a script.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class BatchInterpreterTest {
+
+	private static Set<Integer> dependencies(List<ScriptStatement> statements, int lineNumber) {
+		ScriptStatement statement = statements.stream().filter(s -> s.lineNumber == lineNumber).findFirst().get();
+		return statement.dependencies.stream().map(s -> s.lineNumber).collect(toSet());
+	}
+
+	@Test
+	public void statementDependsOnDefinitionsOfItsInputs() {
+		List<ScriptStatement> statements = BatchInterpreter.analyse(ImmutableList.of("dataFile=\"data.txt\"",
+				"attributesFile=\"attributes.txt\"", "unused=\"other.txt\"",
+				"add csvimport of dataFile with attributes=attributesFile id=\"table\""));
+		assertEquals(ImmutableSet.of(), dependencies(statements, 1));
+		assertEquals(ImmutableSet.of(1, 2), dependencies(statements, 4));
+		assertEquals(ImmutableSet.of("table"), statements.get(3).outputs);
+		assertEquals(ImmutableSet.of("csvimport", "dataFile", "attributes", "attributesFile", "id"),
+				statements.get(3).inputs);
+	}
+
+	@Test
+	public void commentsAndBlankLinesAreSkipped() {
+		List<ScriptStatement> statements = BatchInterpreter
+				.analyse(ImmutableList.of("-- comment mentioning x", "", "x=\"a\"", "y=x"));
+		assertEquals(2, statements.size());
+		assertEquals(ImmutableSet.of(3), dependencies(statements, 4));
+	}
+
+	@Test
+	public void redefinitionWaitsForPrecedingReaders() {
+		List<ScriptStatement> statements = BatchInterpreter.analyse(ImmutableList.of("x=\"a.txt\"",
+				"add csvimport of x id=\"first\"", "add csvimport of x id=\"second\"", "x=\"b.txt\"",
+				"add csvimport of x id=\"third\""));
+		assertEquals(ImmutableSet.of(1, 2, 3), dependencies(statements, 4));
+		assertEquals(ImmutableSet.of(4), dependencies(statements, 5));
+	}
+
+	@Test
+	public void runsDependOnAllPrecedingAdds() {
+		List<ScriptStatement> statements = BatchInterpreter.analyse(ImmutableList.of("add csvimport of \"a.txt\" id=\"a\"",
+				"add csvimport of \"b.txt\" id=\"b\"", "run ASSOCIATION_BEAMSEARCH \"r1\"", "export r1 \"r1.txt\"",
+				"add csvimport of \"c.txt\" id=\"c\""));
+		assertEquals(ImmutableSet.of(1, 2), dependencies(statements, 3));
+		assertEquals(ImmutableSet.of("r1"), statements.get(2).outputs);
+		assertEquals(ImmutableSet.of(3), dependencies(statements, 4));
+		assertEquals(ImmutableSet.of(), dependencies(statements, 5));
+	}
+
+	@Test
+	public void statementsFollowingBarrierDependOnIt() {
+		List<ScriptStatement> statements = BatchInterpreter
+				.analyse(ImmutableList.of("x=\"a\"", "set threads = 2", "y=\"b\"", "jobs", "z=y"));
+		assertTrue(statements.get(1).isBarrier());
+		assertEquals(ImmutableSet.of(2), dependencies(statements, 3));
+		assertEquals(ImmutableSet.of(2), dependencies(statements, 4));
+		assertEquals(ImmutableSet.of(3, 4), dependencies(statements, 5));
+	}
+
+	@Test
+	public void exportsToSameFileAreOrdered() {
+		List<ScriptStatement> statements = BatchInterpreter.analyse(ImmutableList.of("export r1 \"out.txt\"",
+				"export r2 \"other.txt\"", "export r3 \"out.txt\""));
+		assertEquals(ImmutableSet.of("out.txt"), statements.get(0).outputs);
+		assertEquals(ImmutableSet.of("r1"), statements.get(0).inputs);
+		assertEquals(ImmutableSet.of(), dependencies(statements, 2));
+		assertEquals(ImmutableSet.of(1), dependencies(statements, 3));
+	}
+
+}
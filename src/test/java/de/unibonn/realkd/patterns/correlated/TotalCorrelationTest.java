@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2018 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.patterns.correlated;
+
+import static de.unibonn.realkd.common.base.Identifier.id;
+import static de.unibonn.realkd.data.Populations.population;
+import static de.unibonn.realkd.data.table.DataTables.table;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.data.table.attribute.Attributes;
+import de.unibonn.realkd.patterns.models.table.ContingencyTable;
+import de.unibonn.realkd.patterns.models.table.ContingencyTables;
+
+/**
+ * Checks that total correlation computed from univariate and joint entropies
+ * agrees with the chain sum of mutual informations I(X_0..X_{i-1};X_i), also
+ * for data with missing values.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class TotalCorrelationTest {
+
+	private static final double DELTA = 1e-10;
+
+	private static final int NUMBER_OF_ROWS = 60;
+
+	private static DataTable randomTable(long seed) {
+		Random random = new Random(seed);
+		List<Attribute<?>> attributes = new ArrayList<>();
+		for (int j = 0; j < 4; j++) {
+			String[] values = new String[NUMBER_OF_ROWS];
+			for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+				// about one in ten values missing
+				values[i] = random.nextInt(10) == 0 ? null : String.valueOf((char) ('a' + random.nextInt(j + 2)));
+			}
+			attributes.add(Attributes.categoricalAttribute("X" + j, "", Arrays.asList(values)));
+		}
+		return table(id("table"), "table", "", population(id("population"), NUMBER_OF_ROWS), attributes);
+	}
+
+	private static double chainSum(AttributeSetRelation relation) {
+		ContingencyTable table = relation.nWayContingencyTable();
+		double result = 0;
+		for (int i = 1; i < relation.attributeSet().size(); i++) {
+			result += ContingencyTables.mutualInformation(table.marginal(IntStream.rangeClosed(0, i).toArray()),
+					table.marginal(IntStream.range(0, i).toArray()), table.marginal(i));
+		}
+		return result;
+	}
+
+	private static List<AttributeSetRelation> relations(DataTable table) {
+		List<? extends Attribute<?>> attributes = table.attributes();
+		List<AttributeSetRelation> result = new ArrayList<>();
+		result.add(CorrelationPatterns.attributeSetRelation(table,
+				ImmutableSet.of(attributes.get(0), attributes.get(1))));
+		result.add(CorrelationPatterns.attributeSetRelation(table,
+				ImmutableSet.of(attributes.get(3), attributes.get(1), attributes.get(2))));
+		result.add(CorrelationPatterns.attributeSetRelation(table, ImmutableSet.copyOf(attributes)));
+		return result;
+	}
+
+	@Test
+	public void totalCorrelationAgreesWithChainSum() {
+		for (long seed = 0; seed < 5; seed++) {
+			DataTable table = randomTable(seed);
+			assertTrue(table.attributes().stream().anyMatch(a -> a.numberOfNonMissingValues() < NUMBER_OF_ROWS));
+			for (AttributeSetRelation relation : relations(table)) {
+				assertEquals(chainSum(relation),
+						TotalCorrelation.TOTAL_CORRELATION.perform(relation).value(), DELTA);
+			}
+		}
+	}
+
+	@Test
+	public void reliableNormalizedTotalCorrelationAgreesWithChainSum() {
+		for (long seed = 0; seed < 5; seed++) {
+			for (AttributeSetRelation relation : relations(randomTable(seed))) {
+				CorrelationPattern pattern = CorrelationPatterns.correlationPattern(relation);
+				double chainSum = chainSum(relation);
+				assertEquals(chainSum, pattern.value(SumOfMutualInformations.SUM_OF_MUTUAL_INFORMATIONS), DELTA);
+				assertEquals(chainSum / pattern.value(TotalCorrelationNormalizer.TOTAL_CORRELATION_NORMALIZER),
+						pattern.value(NormalizedTotalCorrelation.NORMALIZED_TOTAL_CORRELATION), DELTA);
+			}
+		}
+	}
+
+}
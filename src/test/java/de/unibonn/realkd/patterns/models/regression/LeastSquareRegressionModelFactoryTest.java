@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.patterns.models.regression;
+
+import static de.unibonn.realkd.common.base.Identifier.id;
+import static de.unibonn.realkd.data.table.attribute.Attributes.metricDoubleAttribute;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.regression.SimpleRegression;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.DataTables;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class LeastSquareRegressionModelFactoryTest {
+
+	private static void assertExactFit(int size, double missingProbability, long seed) {
+		Random random = new Random(seed);
+		List<Double> xs = new ArrayList<>();
+		List<Double> ys = new ArrayList<>();
+		List<Integer> rows = new ArrayList<>();
+		SimpleRegression reference = new SimpleRegression();
+		for (int i = 0; i < size; i++) {
+			double x = 1000 + 10 * random.nextGaussian();
+			double y = -3 * x + 5 + random.nextGaussian();
+			xs.add(random.nextDouble() < missingProbability ? null : x);
+			ys.add(random.nextDouble() < missingProbability ? null : y);
+			if (random.nextBoolean()) {
+				rows.add(i);
+				if (xs.get(i) != null && ys.get(i) != null) {
+					reference.addData(x, y);
+				}
+			}
+		}
+		List<Attribute<?>> attributes = ImmutableList.of(metricDoubleAttribute(id("x"), "x", "", xs),
+				metricDoubleAttribute(id("y"), "y", "", ys));
+		DataTable table = DataTables.table(id("table"), "table", "", Populations.population(id("rows"), size),
+				attributes);
+		IndexSet rowSet = IndexSets.copyOf(rows);
+
+		LinearRegressionModel model = LeastSquareRegressionModelFactory.INSTANCE.getModel(table, attributes, rowSet);
+
+		assertEquals(reference.getSlope(), model.slope(), 1e-8);
+		assertEquals(reference.getIntercept(), model.intercept(), 1e-5);
+	}
+
+	@Test
+	public void smallSubgroupIsFitExactly() {
+		assertExactFit(50, 0.1, 0);
+	}
+
+	@Test
+	public void largeSubgroupIsFitExactly() {
+		assertExactFit(100000, 0.05, 1);
+	}
+
+	@Test
+	public void constantCovariateGivesFiniteModel() {
+		List<Attribute<?>> attributes = ImmutableList.of(
+				metricDoubleAttribute(id("x"), "x", "", ImmutableList.of(2.0, 2.0, 2.0)),
+				metricDoubleAttribute(id("y"), "y", "", ImmutableList.of(1.0, 2.0, 3.0)));
+		DataTable table = DataTables.table(id("table"), "table", "", Populations.population(id("rows"), 3),
+				attributes);
+
+		LinearRegressionModel model = LeastSquareRegressionModelFactory.INSTANCE.getModel(table, attributes);
+
+		assertEquals(2.0, model.slope() * 2.0 + model.intercept(), 1e-9);
+	}
+
+}
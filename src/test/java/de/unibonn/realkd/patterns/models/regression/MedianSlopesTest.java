@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.patterns.models.regression;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.math.Quantiles;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class MedianSlopesTest {
+
+	private static double naiveMedianSlope(double[] x, double[] y) {
+		List<Double> slopes = new ArrayList<>();
+		for (int i = 0; i < x.length - 1; i++) {
+			for (int j = i + 1; j < x.length; j++) {
+				if (x[j] != x[i]) {
+					slopes.add((y[j] - y[i]) / (x[j] - x[i]));
+				}
+			}
+		}
+		return slopes.isEmpty() ? 0.0 : Quantiles.median().compute(slopes);
+	}
+
+	private static void assertAgreesWithNaive(double[] x, double[] y) {
+		assertEquals(naiveMedianSlope(x, y), MedianSlopes.medianSlope(x, y), 1e-12);
+	}
+
+	@Test
+	public void continuousDataAgreesWithNaiveMedian() {
+		Random random = new Random(0);
+		for (int n : new int[] { 2, 3, 10, 101, 500, 1000 }) {
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextGaussian();
+				y[i] = 2 * x[i] - 1 + random.nextGaussian() + (random.nextDouble() < 0.1 ? 50 : 0);
+			}
+			assertAgreesWithNaive(x, y);
+		}
+	}
+
+	@Test
+	public void discreteDataWithTiesAgreesWithNaiveMedian() {
+		Random random = new Random(1);
+		for (int n : new int[] { 5, 50, 400, 1200 }) {
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextInt(7);
+				y[i] = random.nextInt(5) - x[i];
+			}
+			assertAgreesWithNaive(x, y);
+		}
+	}
+
+	@Test
+	public void collinearAndDegenerateData() {
+		double[] x = new double[300];
+		double[] y = new double[300];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = i % 17;
+			y[i] = 3 * x[i] + 1;
+		}
+		assertEquals(3.0, MedianSlopes.medianSlope(x, y), 1e-12);
+		assertEquals(0.0, MedianSlopes.medianSlope(new double[] { 1, 1, 1 }, new double[] { 0, 1, 2 }), 0.0);
+		assertEquals(0.0, MedianSlopes.medianSlope(new double[0], new double[0]), 0.0);
+	}
+
+	@Test
+	public void approximateMedianIsWithinTolerance() {
+		Random random = new Random(2);
+		double[] x = new double[2000];
+		double[] y = new double[2000];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = random.nextDouble();
+			y[i] = 5 * x[i] + random.nextGaussian();
+		}
+		double exact = MedianSlopes.medianSlope(x, y);
+		assertEquals(exact, MedianSlopes.approximateMedianSlope(x, y, 1e-3), 1e-2);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.unibonn.realkd.patterns.models.table;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Checks that count tables with coded cells agree with plain cell-keyed count
+ * tables.
+ * 
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class CountTableTest {
+
+	private static final double DELTA = 1e-10;
+
+	private static CountTable[] randomTables(int[] radices, int expectedNumberOfCells, int numberOfRows) {
+		CountTable plain = new CountTable();
+		CountTable coded = CountTable.countTable(radices, expectedNumberOfCells);
+		Random random = new Random(radices.length);
+		for (int i = 0; i < numberOfRows; i++) {
+			Integer[] key = new Integer[radices.length];
+			for (int j = 0; j < radices.length; j++) {
+				key[j] = random.nextInt(radices[j]);
+			}
+			plain.incrementCount(new Cell(ImmutableList.copyOf(key)));
+			coded.incrementCount(new Cell(ImmutableList.copyOf(key)));
+		}
+		return new CountTable[] { plain, coded };
+	}
+
+	private static void assertAgree(CountTable expected, CountTable actual) {
+		assertEquals(expected.total(), actual.total());
+		assertEquals(expected.nonZeroCells(), actual.nonZeroCells());
+		assertEquals(expected.numberOfNonZeroCells(), actual.numberOfNonZeroCells());
+		assertEquals(expected.table().keySet(), actual.table().keySet());
+		for (Cell cell : expected.nonZeroCells()) {
+			assertEquals(expected.count(cell), actual.count(cell));
+			assertEquals(expected.table().get(cell).get(), actual.table().get(cell).get());
+		}
+		assertEquals(expected.entropy(), actual.entropy(), DELTA);
+	}
+
+	@Test
+	public void denseTableAgreesWithCellTable() {
+		CountTable[] tables = randomTables(new int[] { 2, 3, 4 }, 100, 100);
+		assertAgree(tables[0], tables[1]);
+		assertAgree(tables[0].projection(0, 2), tables[1].projection(0, 2));
+		assertAgree(tables[0].projection(1), tables[1].projection(1));
+		assertAgree(tables[0].conditional(1, 0, 2), tables[1].conditional(1, 0, 2));
+	}
+
+	@Test
+	public void sparseTableAgreesWithCellTable() {
+		CountTable[] tables = randomTables(new int[] { 50, 40, 30, 20 }, 10, 500);
+		assertAgree(tables[0], tables[1]);
+		assertAgree(tables[0].projection(0, 3), tables[1].projection(0, 3));
+		assertAgree(tables[0].projection(2, 1), tables[1].projection(2, 1));
+		assertEquals(0, tables[1].count(new Cell(ImmutableList.of(50, 0, 0, 0))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cellOutsideOfCodedTableIsRejected() {
+		CountTable.countTable(new int[] { 2, 2 }, 4).incrementCount(new Cell(ImmutableList.of(0, 2)));
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-16 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package de.unibonn.realkd.patterns.models.weibull;
+
+import static de.unibonn.realkd.common.base.Identifier.id;
+import static de.unibonn.realkd.data.table.attribute.Attributes.metricDoubleAttribute;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.unibonn.realkd.common.IndexSet;
+import de.unibonn.realkd.common.IndexSets;
+import de.unibonn.realkd.data.Populations;
+import de.unibonn.realkd.data.table.DataTable;
+import de.unibonn.realkd.data.table.DataTables;
+import de.unibonn.realkd.data.table.attribute.Attribute;
+import de.unibonn.realkd.data.table.attribute.MetricAttribute;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ *
+ */
+public class WeibullModelFactoryTest {
+
+	private static DataTable table(List<Attribute<?>> attributes, int size) {
+		return DataTables.table(id("table"), "table", "", Populations.population(id("rows"), size), attributes);
+	}
+
+	private static List<Attribute<?>> weibullSample(int size, double shape, double scale, long seed) {
+		Random random = new Random(seed);
+		List<Double> values = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			values.add(random.nextDouble() < 0.05 ? null
+					: scale * Math.pow(-Math.log(1 - random.nextDouble()), 1 / shape));
+		}
+		return ImmutableList.of(metricDoubleAttribute(id("x"), "x", "", values));
+	}
+
+	@Test
+	public void fixedShapeScaleIsComputedFromValuesInRows() {
+		List<Attribute<?>> attributes = ImmutableList
+				.of(metricDoubleAttribute(id("x"), "x", "", ImmutableList.of(1.0, 2.0, 3.0, 4.0)));
+
+		WeibullDistribution model = new FixedShapeWeibullModelFactory(2.0).getModel(table(attributes, 4), attributes,
+				IndexSets.of(1, 3));
+
+		assertEquals(2.0, model.shape(), 0.0);
+		assertEquals(Math.sqrt(10.0), model.scale(), 1e-12);
+	}
+
+	@Test
+	public void maximumLikelihoodFitRecoversParameters() {
+		List<Attribute<?>> attributes = weibullSample(50000, 1.7, 3.0, 0);
+
+		WeibullDistribution model = WeibullModelFactory.INSTANCE.getModel(table(attributes, 50000), attributes);
+
+		assertEquals(1.7, model.shape(), 0.05);
+		assertEquals(3.0, model.scale(), 0.05);
+	}
+
+	@Test
+	public void subsetFitDoesNotDependOnInitialShape() {
+		List<Attribute<?>> attributes = weibullSample(1000, 0.8, 10.0, 1);
+		MetricAttribute attribute = (MetricAttribute) attributes.get(0);
+		List<Integer> rowList = new ArrayList<>();
+		new Random(2).ints(300, 0, 1000).forEach(rowList::add);
+		IndexSet rows = IndexSets.copyOf(rowList);
+
+		WeibullDistribution fromSmall = WeibullModelFactory.fit(attribute, rows, 0.1);
+		WeibullDistribution fromLarge = WeibullModelFactory.fit(attribute, rows, 20.0);
+
+		assertEquals(fromSmall.shape(), fromLarge.shape(), 1e-8);
+		assertEquals(fromSmall.scale(), fromLarge.scale(), 1e-8);
+	}
+
+	@Test
+	public void hellingerDistanceIsContinuousInShape() {
+		WeibullDistribution p = new WeibullDistribution(1.5, 2.0);
+		WeibullDistribution q = new WeibullDistribution(1.5, 3.0);
+		WeibullDistribution qPerturbed = new WeibullDistribution(1.5 + 1e-9, 3.0);
+
+		assertEquals(p.hellingerDistance(q), p.hellingerDistance(qPerturbed), 1e-6);
+		assertEquals(0.0, p.hellingerDistance(new WeibullDistribution(1.5 + 1e-12, 2.0)), 1e-5);
+	}
+
+	/**
+	 * Reference value by trapezoidal rule with a fine grid over a wide range of
+	 * log-transformed support.
+	 */
+	private static double bhattacharyyaCoefficient(WeibullDistribution p, WeibullDistribution q) {
+		double lower = -600;
+		double upper = 10;
+		int points = 2000000;
+		double step = (upper - lower) / points;
+		double sum = 0.0;
+		for (int i = 0; i <= points; i++) {
+			double x = Math.exp(lower + i * step);
+			double value = x * Math.sqrt(p.densityFunction().apply(x) * q.densityFunction().apply(x));
+			sum += (i == 0 || i == points) ? 0.5 * value : value;
+		}
+		return sum * step;
+	}
+
+	@Test
+	public void hellingerDistanceForVeryDifferentShapes() {
+		WeibullDistribution p = new WeibullDistribution(0.1, 1.0);
+		WeibullDistribution q = new WeibullDistribution(50.0, 2.0);
+
+		double expected = Math.sqrt(1 - bhattacharyyaCoefficient(p, q));
+		assertEquals(expected, p.hellingerDistance(q), 1e-6);
+		assertEquals(expected, q.hellingerDistance(p), 1e-6);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package edu.uab.cftp.sampling.distribution.tool;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ * 
+ */
+public class AliasTableTest {
+
+	private static final int NUMBER_OF_DRAWS = 200000;
+
+	private static void assertFrequencies(double[] weights, long seed) {
+		AliasTable table = new AliasTable(weights);
+		double total = 0;
+		for (double w : weights) {
+			total += w;
+		}
+		assertEquals(total, table.totalWeight(), 1e-9);
+		int[] counts = new int[weights.length];
+		Random random = new Random(seed);
+		for (int i = 0; i < NUMBER_OF_DRAWS; i++) {
+			counts[table.sample(random)]++;
+		}
+		for (int i = 0; i < weights.length; i++) {
+			double p = weights[i] / total;
+			double tolerance = 5 * Math.sqrt(p * (1 - p) / NUMBER_OF_DRAWS) + 1e-9;
+			assertEquals("frequency of " + i, p, counts[i] / (double) NUMBER_OF_DRAWS, tolerance);
+		}
+	}
+
+	@Test
+	public void skewedWeightsAreDrawnProportionally() {
+		assertFrequencies(new double[] { 0.5, 10, 0, 3, 0.01, 1, 1, 7.5 }, 1);
+	}
+
+	@Test
+	public void uniformWeightsAreDrawnUniformly() {
+		assertFrequencies(new double[] { 2, 2, 2, 2, 2 }, 2);
+	}
+
+	@Test
+	public void singlePositiveWeightIsAlwaysDrawn() {
+		AliasTable table = new AliasTable(new double[] { 0, 0, 4, 0 });
+		Random random = new Random(3);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(2, table.sample(random));
+		}
+	}
+
+	@Test
+	public void largeTablesAreDrawnProportionally() {
+		Random random = new Random(4);
+		double[] weights = new double[1 << 15];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = i % 64 == 0 ? 100 * random.nextDouble() : random.nextDouble() / 100;
+		}
+		AliasTable table = new AliasTable(weights);
+		double heavyWeight = 0;
+		for (int i = 0; i < weights.length; i += 64) {
+			heavyWeight += weights[i];
+		}
+		int heavyDraws = 0;
+		for (int i = 0; i < NUMBER_OF_DRAWS; i++) {
+			if (table.sample(random) % 64 == 0) {
+				heavyDraws++;
+			}
+		}
+		double p = heavyWeight / table.totalWeight();
+		assertEquals(p, heavyDraws / (double) NUMBER_OF_DRAWS, 5 * Math.sqrt(p * (1 - p) / NUMBER_OF_DRAWS));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeWeightsAreRejected() {
+		new AliasTable(new double[] { 1, -1 });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroTotalWeightIsRejected() {
+		new AliasTable(new double[] { 0, 0 });
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package edu.uab.cftp.sampling.distribution.tool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import ua.ac.be.mime.mining.TidList;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ * 
+ */
+public class WeightTableSubsetSamplerTest {
+
+	private static final int NUMBER_OF_ITEMS = 6;
+
+	private static final int NUMBER_OF_DRAWS = 100000;
+
+	private static final Map<Integer, Double> ITEM_BIASES = ImmutableMap.of(0, 0.3, 2, 2.0, 4, 0.05, 5, 1.5);
+
+	private static TidList tidList(int... ids) {
+		TidList tidList = new TidList();
+		for (int id : ids) {
+			tidList.set(id);
+		}
+		return tidList;
+	}
+
+	private static double[] exactDistribution(StarOperation starOperation, TidList[] negatives) {
+		double[] result = new double[1 << NUMBER_OF_ITEMS];
+		double total = 0;
+		for (int subset = 0; subset < result.length; subset++) {
+			if (Integer.bitCount(subset) < 2 || containedInSome(subset, negatives)) {
+				continue;
+			}
+			double weight = starOperation == StarOperation.MULTIPLICATIVE ? 1 : 0;
+			for (int id = 0; id < NUMBER_OF_ITEMS; id++) {
+				if ((subset >> id & 1) == 1) {
+					double bias = ITEM_BIASES.getOrDefault(id, 1.0);
+					weight = starOperation == StarOperation.MULTIPLICATIVE ? weight * bias : weight + bias;
+				}
+			}
+			result[subset] = weight;
+			total += weight;
+		}
+		for (int subset = 0; subset < result.length; subset++) {
+			result[subset] /= total;
+		}
+		return result;
+	}
+
+	private static boolean containedInSome(int subset, TidList[] negatives) {
+		for (TidList negative : negatives) {
+			boolean contained = true;
+			for (int id = 0; id < NUMBER_OF_ITEMS; id++) {
+				if ((subset >> id & 1) == 1 && !negative.get(id)) {
+					contained = false;
+				}
+			}
+			if (contained) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void assertDrawsFollowExactDistribution(StarOperation starOperation, TidList... negatives) {
+		WeightTableSubsetSampler sampler = new WeightTableSubsetSampler(starOperation, 1, ITEM_BIASES, 0);
+		TidList positives = tidList(0, 1, 2, 3, 4, 5);
+		double[] frequencies = new double[1 << NUMBER_OF_ITEMS];
+		for (int i = 0; i < NUMBER_OF_DRAWS; i++) {
+			int subset = 0;
+			for (int id : sampler.drawSubset(positives, negatives)) {
+				subset |= 1 << id;
+			}
+			frequencies[subset] += 1.0 / NUMBER_OF_DRAWS;
+		}
+		assertArrayEquals(exactDistribution(starOperation, negatives), frequencies, 0.006);
+	}
+
+	@Test
+	public void multiplicativeWithoutNegatives() {
+		assertDrawsFollowExactDistribution(StarOperation.MULTIPLICATIVE);
+	}
+
+	@Test
+	public void multiplicativeWithNegatives() {
+		assertDrawsFollowExactDistribution(StarOperation.MULTIPLICATIVE, tidList(0, 1, 2, 9), tidList(1, 3, 4, 5));
+	}
+
+	@Test
+	public void additiveWithNegatives() {
+		assertDrawsFollowExactDistribution(StarOperation.ADDITIVE, tidList(0, 1, 2), tidList(1, 3, 4),
+				tidList(2, 3, 5));
+	}
+
+	@Test
+	public void lowProbabilitiesAreSkipped() {
+		WeightTableSubsetSampler sampler = new WeightTableSubsetSampler(StarOperation.MULTIPLICATIVE, 0.01,
+				ImmutableMap.of(), 0);
+		TidList positives = new TidList();
+		positives.set(0, 1000);
+		double meanSize = 0;
+		for (int i = 0; i < 10000; i++) {
+			meanSize += sampler.drawSubset(positives, new TidList[0]).length / 10000.0;
+		}
+		// 1000 Bernoulli(1/101) conditioned on at least two successes
+		assertEquals(1000 / 101.0, meanSize, 0.1);
+	}
+
+	@Test
+	public void impossibleDrawGivesEmptySet() {
+		WeightTableSubsetSampler sampler = new WeightTableSubsetSampler(StarOperation.MULTIPLICATIVE, 1,
+				ImmutableMap.of(), 0);
+
+		assertEquals(0, sampler.drawSubset(tidList(1, 2), new TidList[] { tidList(1, 2, 3) }).length);
+	}
+
+}
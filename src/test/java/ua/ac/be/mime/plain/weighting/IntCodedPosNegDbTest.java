@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package ua.ac.be.mime.plain.weighting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.uab.cftp.sampling.distribution.TwoStepSamplingDistribution;
+import ua.ac.be.mime.mining.TidList;
+import ua.ac.be.mime.plain.PlainItemSet;
+import ua.ac.be.mime.plain.weighting.PosNegDbInterface.Label;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ * 
+ */
+public class IntCodedPosNegDbTest {
+
+	private static PosNegTransactionDb db() {
+		PosNegTransactionDb db = new PosNegTransactionDb();
+		db.addTransaction(new int[] { 0, 2 }, true);
+		db.addTransaction(new int[] { 1, 2, 5 }, false);
+		db.addTransaction(new int[] { 2, 5 }, true);
+		return db;
+	}
+
+	@Test
+	public void transactionsAndLabelsAreEncoded() {
+		IntCodedPosNegDb intCoded = db().intCoded();
+
+		assertEquals(3, intCoded.numberOfTransactions());
+		assertEquals(6, intCoded.idBound());
+		assertArrayEquals(new int[] { 1, 2, 5 }, intCoded.transaction(1));
+		assertArrayEquals(new int[] { 0, 2 }, intCoded.transactions(Label.POSITIVE));
+		assertArrayEquals(new int[] { 1 }, intCoded.transactions(Label.NEGATIVE));
+		assertEquals("5", intCoded.item(5).getName());
+		assertEquals(2, intCoded.itemSet(new int[] { 2, 5 }).size());
+		assertEquals(2, intCoded.itemSet(new int[] { 2, 5 }).getTIDs().cardinality());
+	}
+
+	@Test
+	public void supportCountsMatchItemSets() {
+		PosNegTransactionDb db = db();
+		IntCodedPosNegDb intCoded = db.intCoded();
+		int[] itemIds = { 2, 5 };
+
+		assertEquals(1, intCoded.supportCount(itemIds, Label.POSITIVE));
+		assertEquals(1, intCoded.supportCount(itemIds, Label.NEGATIVE));
+		assertEquals(2, db.getPosItemSet(intCoded.itemSet(new int[] { 2 })).getTIDs().cardinality());
+	}
+
+	@Test
+	public void snapshotIsRebuiltAfterAddingTransaction() {
+		PosNegTransactionDb db = db();
+		assertEquals(2, db.getTransactionsPos().size());
+		db.intCoded();
+
+		db.addTransaction(new int[] { 0, 1 }, true);
+
+		assertEquals(4, db.intCoded().numberOfTransactions());
+		assertEquals(3, db.getTransactionsPos().size());
+		assertArrayEquals(new int[] { 0, 2, 3 }, db.intCoded().transactions(Label.POSITIVE));
+	}
+
+	@Test
+	public void weightedDrawsUseItemIdIndexedArrays() {
+		IntCodedPosNegDb intCoded = db().intCoded();
+		int[] itemIds = intCoded.transaction(1);
+		double[] weights = intCoded.itemWeights();
+
+		assertEquals(Utils.getMultSubSetWeightNoSingletons(new double[] { 1, 1, 1 }),
+				Utils.getMultSubSetWeightNoSingletons(itemIds, weights), 0.0);
+		assertEquals(8.0, Utils.getMultSubSetWeight(itemIds, weights), 0.0);
+		for (int i = 0; i < 100; i++) {
+			int[] drawn = Utils.drawMultWeightedSubSetNoSingletons(itemIds, intCoded.multAcceptanceProbabilities());
+			assertTrue(drawn.length >= 2);
+			for (int itemId : drawn) {
+				assertTrue(Arrays.binarySearch(itemIds, itemId) >= 0);
+			}
+		}
+	}
+
+	@Test
+	public void sortedIdArraysAreIntersectedAndSubtracted() {
+		int[] a = { 0, 2, 5, 7 };
+		int[] b = { 1, 2, 7, 9 };
+
+		assertArrayEquals(new int[] { 2, 7 }, IntCodedPosNegDb.intersect(a, b));
+		assertArrayEquals(new int[] { 0, 5 }, IntCodedPosNegDb.difference(a, b));
+		assertArrayEquals(new int[0], IntCodedPosNegDb.intersect(a, new int[0]));
+		assertArrayEquals(a, IntCodedPosNegDb.difference(a, new int[0]));
+	}
+
+	@Test
+	public void discriminativeDrawMatchesTidListDraw() {
+		PosNegTransactionDb db = db();
+		IntCodedPosNegDb intCoded = db.intCoded();
+		int[] intersection = { 2 };
+		int[] difference = { 0, 5 };
+		TidList intersectionTids = new TidList();
+		intersectionTids.set(2);
+		TidList differenceTids = new TidList();
+		differenceTids.set(0);
+		differenceTids.set(5);
+
+		Random random = TwoStepSamplingDistribution.random;
+		try {
+			for (long seed = 0; seed < 20; seed++) {
+				TwoStepSamplingDistribution.random = new Random(seed);
+				PlainItemSet expected = Utils.drawDiscriminativeSubSetNoSingletons(db.getItemDB(),
+						intersectionTids, differenceTids);
+				TwoStepSamplingDistribution.random = new Random(seed);
+				int[] drawn = Utils.drawDiscriminativeSubSetNoSingletons(intersection, difference);
+
+				assertEquals(expected, intCoded.itemSet(drawn));
+			}
+		} finally {
+			TwoStepSamplingDistribution.random = random;
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 The Contributors of the realKD Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package ua.ac.be.mime.plain.weighting;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import ua.ac.be.mime.plain.PlainItemSet;
+import ua.ac.be.mime.plain.weighting.PosNegDbInterface.Label;
+
+/**
+ * @since 0.7.2
+ * 
+ * @version 0.7.2
+ * 
+ */
+public class PosNegTransactionDbTest {
+
+	private static PosNegTransactionDb db() {
+		PosNegTransactionDb db = new PosNegTransactionDb();
+		db.addTransaction(new int[] { 0, 2 }, true);
+		db.addTransaction(new int[] { 1, 2, 5 }, false);
+		db.addTransaction(new int[] { 2, 5 }, true);
+		return db;
+	}
+
+	@Test
+	public void transactionsAreAddedByItemIds() {
+		PosNegTransactionDb db = db();
+
+		assertEquals(3, db.getTransactions().size());
+		assertEquals(3, db.getTransactions().get(1).size());
+		assertEquals("5", db.getItemDB().get(5).getName());
+		assertEquals(2, db.getLabelSupportSet(Label.POSITIVE).cardinality());
+		assertEquals(1, db.getLabelSupportSet(Label.NEGATIVE).cardinality());
+	}
+
+	@Test
+	public void supportCountsPerLabel() {
+		PosNegTransactionDb db = db();
+		PlainItemSet itemSet = new PlainItemSet();
+		itemSet.add(db.getItemDB().get(2));
+		itemSet.add(db.getItemDB().get(5));
+
+		assertEquals(1, db.getPosItemSet(itemSet).getTIDs().cardinality());
+		assertEquals(1, db.getNegItemSet(itemSet).getTIDs().cardinality());
+	}
+
+	@Test
+	public void labeledTransactionListsAreUpdatedAfterAddingTransaction() {
+		PosNegTransactionDb db = db();
+		assertEquals(2, db.getTransactionsPos().size());
+		assertEquals(1, db.getTransactionsNeg().size());
+
+		db.addTransaction(new int[] { 0, 1 }, true);
+
+		assertEquals(4, db.getTransactions().size());
+		assertEquals(3, db.getTransactionsPos().size());
+		assertEquals(1, db.getTransactionsNeg().size());
+	}
+
+}